@@ -4,19 +4,25 @@ import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.Banner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.io.PrintStream;
 
 @SpringBootApplication
+@PropertySource("classpath:minibiz.properties") // Padrões versionados; o application.properties local tem precedência
+@EnableScheduling
 public class MinibizApplication {
     public static void main(String[] args) {
-        // Carregar variáveis de ambiente do arquivo .env
-        Dotenv dotenv = Dotenv.load();
-        System.setProperty("MAIL_HOST", dotenv.get("MAIL_HOST"));
-        System.setProperty("MAIL_PORT", dotenv.get("MAIL_PORT"));
-        System.setProperty("MAIL_USERNAME", dotenv.get("MAIL_USERNAME"));
-        System.setProperty("MAIL_PASSWORD", dotenv.get("MAIL_PASSWORD"));
+        // Carregar variáveis de ambiente do arquivo .env; sem o arquivo (ex.: perfil loadtest) valem os padrões do MailConfig
+        Dotenv dotenv = Dotenv.configure().ignoreIfMissing().load();
+        for (String variavel : new String[]{"MAIL_HOST", "MAIL_PORT", "MAIL_USERNAME", "MAIL_PASSWORD"}) {
+            String valor = dotenv.get(variavel);
+            if (valor != null) {
+                System.setProperty(variavel, valor);
+            }
+        }
 
         // Configurar e iniciar a aplicação Spring Boot
         SpringApplication app = new SpringApplication(MinibizApplication.class);
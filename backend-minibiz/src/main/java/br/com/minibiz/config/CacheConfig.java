@@ -0,0 +1,40 @@
+package br.com.minibiz.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URISyntaxException;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * CacheManager JCache (Ehcache) usado pelo cache de segundo nível do Hibernate.
+     * É criado aqui, e não pelo Hibernate, para que o mesmo gerenciador seja instrumentado
+     * pelas métricas abaixo.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() throws URISyntaxException {
+        return Caching.getCachingProvider(EhcacheCachingProvider.class.getName())
+                .getCacheManager(getClass().getResource("/ehcache.xml").toURI(), getClass().getClassLoader());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // Expõe hits, misses, puts e evictions de cada região em /actuator/metrics (cache.gets, cache.evictions...)
+    @Bean
+    public MeterBinder hibernateCacheMetrics(CacheManager hibernateCacheManager) {
+        return registry -> hibernateCacheManager.getCacheNames()
+                .forEach(nome -> JCacheMetrics.monitor(registry, hibernateCacheManager.getCache(nome)));
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.minibiz.config;
+
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.UserRepository;
+import br.com.minibiz.service.datagen.GeradorDadosSinteticos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.SplittableRandom;
+
+/**
+ * Popula o banco em memória do perfil loadtest: o usuário do gerador de carga, clientes e produtos com
+ * estoque de sobra para que os checkouts não esbarrem em "estoque insuficiente". Roda antes do
+ * ApplicationReadyEvent, então os índices de busca e a lista de reposição já sobem com estes dados, e antes
+ * do perfil datagen quando os dois estão ativos.
+ */
+@Component
+@Profile("loadtest")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DadosTesteCarga implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DadosTesteCarga.class);
+    private static final long SEMENTE = 42L;
+
+    private final GeradorDadosSinteticos gerador;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final int clientes;
+    private final int produtos;
+    private final int estoqueInicial;
+    private final String email;
+    private final String senha;
+
+    public DadosTesteCarga(GeradorDadosSinteticos gerador, UserRepository userRepository, PasswordEncoder passwordEncoder,
+                           @Value("${minibiz.loadtest.clientes:2000}") int clientes,
+                           @Value("${minibiz.loadtest.produtos:5000}") int produtos,
+                           @Value("${minibiz.loadtest.estoque-inicial:1000000}") int estoqueInicial,
+                           @Value("${minibiz.loadtest.usuario.email}") String email,
+                           @Value("${minibiz.loadtest.usuario.senha}") String senha) {
+        this.gerador = gerador;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.clientes = clientes;
+        this.produtos = produtos;
+        this.estoqueInicial = estoqueInicial;
+        this.email = email;
+        this.senha = senha;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.findByEmail(email).isEmpty()) {
+            User user = new User();
+            user.setName("Teste de Carga");
+            user.setEmail(email);
+            user.setPassword(passwordEncoder.encode(senha));
+            user.setRole("ADMIN");
+            userRepository.save(user);
+        }
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        gerador.inserirClientes(clientes, random);
+        gerador.inserirProdutos(produtos, estoqueInicial, random);
+        log.info("Perfil loadtest: {} clientes e {} produtos gerados; login com {}", clientes, produtos, email);
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.minibiz.config;
+
+import br.com.minibiz.service.datagen.GeradorDadosSinteticos;
+import br.com.minibiz.service.datagen.GeradorDadosSinteticos.Parametros;
+import br.com.minibiz.service.datagen.GeradorDadosSinteticos.Resumo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Perfil datagen: grava o volume configurado em application-datagen.properties no banco da aplicação e
+ * encerra. Combinado com o perfil loadtest ({@code minibiz.datagen.encerrar=false}), roda depois dos
+ * dados de DadosTesteCarga e deixa a aplicação no ar com o volume gerado.
+ */
+@Component
+@Profile("datagen")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class GeracaoDadosSinteticos implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GeracaoDadosSinteticos.class);
+
+    private final GeradorDadosSinteticos gerador;
+    private final ConfigurableApplicationContext contexto;
+    private final Parametros parametros;
+    private final boolean encerrar;
+
+    public GeracaoDadosSinteticos(GeradorDadosSinteticos gerador, ConfigurableApplicationContext contexto,
+                                  @Value("${minibiz.datagen.semente:42}") long semente,
+                                  @Value("${minibiz.datagen.clientes:10000}") int clientes,
+                                  @Value("${minibiz.datagen.produtos:20000}") int produtos,
+                                  @Value("${minibiz.datagen.estoque-inicial:1000}") int estoqueInicial,
+                                  @Value("${minibiz.datagen.vendas:100000}") long vendas,
+                                  @Value("${minibiz.datagen.dias:730}") int dias,
+                                  @Value("${minibiz.datagen.fim:}") String fim,
+                                  @Value("${minibiz.datagen.expoente-produtos:1.0}") double expoenteProdutos,
+                                  @Value("${minibiz.datagen.expoente-clientes:0.6}") double expoenteClientes,
+                                  @Value("${minibiz.datagen.lote:2000}") int lote,
+                                  @Value("${minibiz.datagen.encerrar:true}") boolean encerrar) {
+        this.gerador = gerador;
+        this.contexto = contexto;
+        // Fim fixo para reproduzir os mesmos dados em outro dia; vazio usa a data de hoje
+        LocalDate ultimoDia = fim.isBlank() ? LocalDate.now() : LocalDate.parse(fim);
+        this.parametros = new Parametros(semente, clientes, produtos, estoqueInicial, vendas,
+                ultimoDia.minusDays(dias - 1L), ultimoDia, expoenteProdutos, expoenteClientes, lote);
+        this.encerrar = encerrar;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Gerando dados sintéticos: {}", parametros);
+        Resumo resumo = gerador.gerar(parametros);
+        long segundos = Math.max(1, resumo.duracao().toSeconds());
+        log.info("Dados sintéticos gerados em {}s: {} clientes, {} produtos, {} vendas e {} itens ({} linhas/s)",
+                segundos, resumo.clientes(), resumo.produtos(), resumo.vendas(), resumo.itens(),
+                (resumo.clientes() + resumo.produtos() + resumo.vendas() + resumo.itens()) / segundos);
+        if (encerrar) {
+            System.exit(SpringApplication.exit(contexto, () -> 0));
+        }
+    }
+}
@@ -1,8 +1,8 @@
 package br.com.minibiz.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
 import java.util.Properties;
@@ -10,19 +10,27 @@ import java.util.Properties;
 @Configuration
 public class MailConfig {
 
+    // Servidor e credenciais vêm do .env (MAIL_*), carregado em MinibizApplication
     @Bean
-    public JavaMailSender javaMailSender() {
+    public JavaMailSenderImpl javaMailSender(@Value("${MAIL_HOST:smtp.gmail.com}") String host,
+                                         @Value("${MAIL_PORT:587}") int port,
+                                         @Value("${MAIL_USERNAME:minibizsolution@gmail.com}") String username,
+                                         @Value("${MAIL_PASSWORD:}") String password) {
         JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
-        mailSender.setHost("smtp.gmail.com");
-        mailSender.setPort(587);
-        mailSender.setUsername("minibizsolution@gmail.com");
-        mailSender.setPassword("241194Lu*");
+        mailSender.setHost(host);
+        mailSender.setPort(port);
+        mailSender.setUsername(username);
+        mailSender.setPassword(password);
 
         Properties props = mailSender.getJavaMailProperties();
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
         props.put("mail.debug", "true");
+        // Um servidor lento não pode prender o dispatcher da outbox indefinidamente
+        props.put("mail.smtp.connectiontimeout", "10000");
+        props.put("mail.smtp.timeout", "10000");
+        props.put("mail.smtp.writetimeout", "10000");
 
         return mailSender;
     }
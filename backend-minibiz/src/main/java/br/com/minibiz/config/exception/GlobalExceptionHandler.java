@@ -1,20 +1,43 @@
 package br.com.minibiz.config.exception;
 
 import br.com.minibiz.model.ApiResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import java.sql.SQLException;
+
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+	private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+	// SQLSTATE de chave única violada (PostgreSQL, H2); o MySQL usa 23000 com o código 1062
+	private static final String SQLSTATE_CHAVE_UNICA = "23505";
+	private static final int MYSQL_CHAVE_DUPLICADA = 1062;
+
 	@ExceptionHandler(RuntimeException.class)
 	public ResponseEntity<ApiResponse> handleRuntimeException(RuntimeException e) {
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse(e.getMessage(), false));
 	}
 
+	// Regras de negócio violadas pelo pedido (ex.: concluir venda cancelada, estoque insuficiente)
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<ApiResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse(ex.getMessage(), false));
+	}
+
+	@ExceptionHandler(BadRequestException.class)
+	public ResponseEntity<ApiResponse> handleBadRequestException(BadRequestException ex) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse(ex.getMessage(), false));
+	}
+
 	@ExceptionHandler(ClientNotFoundException.class)
 	public ResponseEntity<?> handleClientNotFoundException(ClientNotFoundException ex, WebRequest request) {
 		return new ResponseEntity<>(ex.getMessage(), HttpStatus.NOT_FOUND);
@@ -25,6 +48,43 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 
+	@ExceptionHandler(ConflictException.class)
+	public ResponseEntity<ApiResponse> handleConflictException(ConflictException ex) {
+		return ResponseEntity.status(HttpStatus.CONFLICT).body(new ApiResponse(ex.getMessage(), false));
+	}
+
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public ResponseEntity<ApiResponse> handleServiceUnavailableException(ServiceUnavailableException ex) {
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.body(new ApiResponse(ex.getMessage(), false));
+	}
+
+	// O texto do banco (tabela, constraint, valores) fica só no log; o cliente recebe uma mensagem fixa
+	@ExceptionHandler(DataIntegrityViolationException.class)
+	public ResponseEntity<ApiResponse> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+		if (chaveDuplicada(ex)) {
+			log.info("Registro duplicado: {}", ex.getMostSpecificCause().getMessage());
+			return ResponseEntity.status(HttpStatus.CONFLICT)
+					.body(new ApiResponse("Já existe um registro com esses dados.", false));
+		}
+		log.warn("Violação de integridade no banco de dados", ex);
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+				.body(new ApiResponse("Os dados violam uma restrição do banco de dados.", false));
+	}
+
+	private static boolean chaveDuplicada(DataIntegrityViolationException ex) {
+		if (ex instanceof DuplicateKeyException) {
+			return true;
+		}
+		for (Throwable causa = ex.getCause(); causa != null; causa = causa.getCause()) {
+			if (causa instanceof SQLException sql && (SQLSTATE_CHAVE_UNICA.equals(sql.getSQLState())
+					|| "23000".equals(sql.getSQLState()) && sql.getErrorCode() == MYSQL_CHAVE_DUPLICADA)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@ExceptionHandler(Exception.class)
 	public ResponseEntity<?> handleGlobalException(Exception ex, WebRequest request) {
 		return new ResponseEntity<>(ex.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
@@ -6,4 +6,8 @@ public class ProductNotFoundException extends RuntimeException {
     public ProductNotFoundException(Long id) {
         super("Produto com ID " + id + " não encontrado.");
     }
+
+    public ProductNotFoundException(String codigoProduto) {
+        super("Produto com código " + codigoProduto + " não encontrado.");
+    }
 }
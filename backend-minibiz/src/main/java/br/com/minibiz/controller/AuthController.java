@@ -1,15 +1,22 @@
 package br.com.minibiz.controller;
 
+import br.com.minibiz.config.exception.ServiceUnavailableException;
 import br.com.minibiz.model.user.User;
 import br.com.minibiz.dto.ForgotPasswordRequestDTO;
 import br.com.minibiz.dto.LoginRequestDTO;
+import br.com.minibiz.dto.RefreshRequestDTO;
 import br.com.minibiz.dto.RegisterRequestDTO;
 import br.com.minibiz.dto.ResponseDTO;
+import br.com.minibiz.infra.security.RefreshTokenService;
+import br.com.minibiz.infra.security.RevogacaoTokenService;
 import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.infra.security.UsuarioAutenticado;
 import br.com.minibiz.repository.UserRepository;
 import br.com.minibiz.service.EmailService;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,26 +30,54 @@ public class AuthController {
 	private final PasswordEncoder passwordEncoder;
 	private final TokenService tokenService;
 	private final EmailService emailService;
+	private final RevogacaoTokenService revogacaoTokenService;
+	private final RefreshTokenService refreshTokenService;
 
 	
 	public AuthController(UserRepository repository, PasswordEncoder passwordEncoder, TokenService tokenService,
-			EmailService emailService) {
+			EmailService emailService, RevogacaoTokenService revogacaoTokenService,
+			RefreshTokenService refreshTokenService) {
 		this.repository = repository;
 		this.passwordEncoder = passwordEncoder;
 		this.tokenService = tokenService;
 		this.emailService = emailService;
+		this.revogacaoTokenService = revogacaoTokenService;
+		this.refreshTokenService = refreshTokenService;
 	}
 
 	@PostMapping("/login")
 	public ResponseEntity<ResponseDTO> login(@RequestBody LoginRequestDTO body) {
 		User user = repository.findByEmail(body.email()).orElseThrow(() -> new RuntimeException("User not found"));
 		if (passwordEncoder.matches(body.password(), user.getPassword())) {
+			atualizarHashSeNecessario(user, body.password());
 			String token = tokenService.generateToken(user);
-			return ResponseEntity.ok(new ResponseDTO(user.getName(), token));
+			return ResponseEntity.ok(new ResponseDTO(user.getName(), token, refreshTokenService.emitir(user)));
 		}
 		return ResponseEntity.badRequest().build();
 	}
 
+	// Novo token de acesso a partir do token de renovação: uma busca indexada, sem BCrypt
+	@PostMapping("/refresh")
+	public ResponseEntity<ResponseDTO> refresh(@RequestBody RefreshRequestDTO body) {
+		return refreshTokenService.renovar(body.refreshToken())
+				.map(renovacao -> ResponseEntity.ok(new ResponseDTO(renovacao.usuario().getName(),
+						tokenService.generateToken(renovacao.usuario()), renovacao.refreshToken())))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+	}
+
+	// Hash gravado com outro custo de BCrypt: regera com o custo atual, aproveitando a senha recebida no login
+	private void atualizarHashSeNecessario(User user, String senha) {
+		if (!passwordEncoder.upgradeEncoding(user.getPassword())) {
+			return;
+		}
+		try {
+			user.setPassword(passwordEncoder.encode(senha));
+			repository.save(user);
+		} catch (ServiceUnavailableException e) {
+			// Pool de hash saturado: o login segue e o hash é atualizado num próximo login
+		}
+	}
+
 	@PostMapping("/register")
 	public ResponseEntity<ResponseDTO> register(@RequestBody RegisterRequestDTO body) {
 		Optional<User> user = repository.findByEmail(body.email());
@@ -53,7 +88,7 @@ public class AuthController {
 			newUser.setName(body.name());
 			repository.save(newUser);
 			String token = tokenService.generateToken(newUser);
-			return ResponseEntity.ok(new ResponseDTO(newUser.getName(), token));
+			return ResponseEntity.ok(new ResponseDTO(newUser.getName(), token, refreshTokenService.emitir(newUser)));
 		}
 		return ResponseEntity.badRequest().build();
 	}
@@ -72,16 +107,34 @@ public class AuthController {
 
 	@PostMapping("/reset-password")
 	public ResponseEntity<String> resetPassword(@RequestParam String token, @RequestBody String newPassword) {
-		String email = tokenService.validateToken(token);
-		if (email == null) {
+		// Um link já usado (ou um token encerrado por logout) está revogado e não troca a senha de novo
+		UsuarioAutenticado usuario = tokenService.autenticar(token);
+		if (usuario == null || revogacaoTokenService.revogado(usuario)) {
 			return ResponseEntity.badRequest().body("Invalid token");
 		}
-		User user = repository.findByEmail(email).orElseThrow(() -> new RuntimeException("User not found"));
+		User user = repository.findByEmail(usuario.email()).orElseThrow(() -> new RuntimeException("User not found"));
 		user.setPassword(passwordEncoder.encode(newPassword));
 		repository.save(user);
+		revogacaoTokenService.revogarTodos(user.getId()); // Tokens anteriores à troca deixam de valer
+		if (usuario.tokenId() != null) {
+			// O do link também pelo jti: revogarTodos não alcança um token emitido no mesmo segundo da troca
+			revogacaoTokenService.revogar(usuario);
+		}
+		refreshTokenService.revogarTodos(user.getId());
 		return ResponseEntity.ok("Password updated successfully");
 	}
 
+	// Revoga o token usado nesta requisição e, se enviado, o token de renovação da mesma sessão
+	@PostMapping("/logout")
+	public ResponseEntity<Void> logout(@AuthenticationPrincipal UsuarioAutenticado usuario,
+			@RequestBody(required = false) RefreshRequestDTO body) {
+		revogacaoTokenService.revogar(usuario);
+		if (body != null) {
+			refreshTokenService.revogar(body.refreshToken());
+		}
+		return ResponseEntity.noContent().build();
+	}
+
 	@GetMapping("/test-cors")
 	public String testCors() {
 		return "CORS is working in Auth Controller!";
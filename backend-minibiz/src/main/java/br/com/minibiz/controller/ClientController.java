@@ -1,8 +1,17 @@
 package br.com.minibiz.controller;
 
+import br.com.minibiz.config.exception.ClientNotFoundException;
+import br.com.minibiz.dto.ClientImportResultDTO;
+import br.com.minibiz.dto.Cliente360DTO;
+import br.com.minibiz.dto.ClientSearchResultDTO;
 import br.com.minibiz.model.client.Client;
+import br.com.minibiz.service.ClientImportService;
 import br.com.minibiz.service.ClientService;
+import br.com.minibiz.service.VendaService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +23,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 
 @RestController
@@ -21,17 +31,36 @@ import org.springframework.web.bind.annotation.RestController;
 public class ClientController {
 	@Autowired
 	private ClientService clientService;
+
+	@Autowired
+	private VendaService vendaService;
+
+	@Autowired
+	private ClientImportService clientImportService;
 	
 	@GetMapping
-	public ResponseEntity<Page<Client>> listarTodosClientes(Pageable pageable) {
-		Page<Client> clients = clientService.findAll(pageable);
-		return ResponseEntity.ok(clients);
+	public ResponseEntity<Page<Client>> listarTodosClientes(Pageable pageable, WebRequest request) {
+		return RespostaCondicional.porVersao(request, clientService.etagDaPagina(pageable),
+				() -> clientService.findAll(pageable));
 	}
 	
+	@GetMapping("/search")
+	public ResponseEntity<List<ClientSearchResultDTO>> buscarClientes(@RequestParam("q") String q,
+			@RequestParam(defaultValue = "10") int limite) {
+		return ResponseEntity.ok(clientService.search(q, limite));
+	}
+
 	@GetMapping("/{id}")
-	public ResponseEntity<Client> listarCliente(@PathVariable Long id) {
-		Client client = clientService.findById(id);
-		return ResponseEntity.ok(client);
+	public ResponseEntity<Client> listarCliente(@PathVariable Long id, WebRequest request) {
+		return RespostaCondicional.porEntidade(request, id, clientService.findUltimaAlteracao(id),
+				() -> clientService.findById(id));
+	}
+
+	// Cliente, últimas vendas com itens e totais do histórico numa única requisição
+	@GetMapping("/{id}/360")
+	public ResponseEntity<Cliente360DTO> visaoCompletaCliente(@PathVariable Long id,
+			@RequestParam(defaultValue = "10") int vendas) {
+		return ResponseEntity.ok(vendaService.cliente360(id, vendas));
 	}
 
 	@PostMapping
@@ -40,6 +69,13 @@ public class ClientController {
 		return ResponseEntity.ok(novoCliente);
 	}
 
+	// CSV com cabeçalho (nome, email, telefone, endereco); repetidos por e-mail ou telefone não são inseridos
+	@PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+	public ResponseEntity<ClientImportResultDTO> importarClientes(InputStream csv,
+			@RequestParam(required = false) Integer batchSize) throws IOException {
+		return ResponseEntity.ok(clientImportService.importar(csv, batchSize));
+	}
+
 	@PutMapping("/{id}")
 	public ResponseEntity<Client> editarCliente(@PathVariable Long id, @RequestBody Client clienteAtualizado) {
 		Client cliente = clientService.update(id, clienteAtualizado);
@@ -51,7 +87,7 @@ public class ClientController {
 	    try {
 	        clientService.delete(id); // Supondo que delete lance uma exceção se algo der errado
 	        return ResponseEntity.ok("Cliente deletado com sucesso!");
-	    } catch (NoSuchElementException e) {
+	    } catch (NoSuchElementException | ClientNotFoundException e) {
 	        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Cliente não encontrado.");
 	    } catch (Exception e) {
 	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao deletar cliente: " + e.getMessage());
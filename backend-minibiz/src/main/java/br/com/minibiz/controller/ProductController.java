@@ -1,16 +1,36 @@
 package br.com.minibiz.controller;
 
+import br.com.minibiz.config.exception.ProductNotFoundException;
+import br.com.minibiz.dto.BulkUpdateResultDTO;
+import br.com.minibiz.dto.EstoqueBaixoDTO;
+import br.com.minibiz.dto.EstoqueNaDataDTO;
+import br.com.minibiz.dto.ProductBulkPriceRequest;
+import br.com.minibiz.dto.ProductBulkStockRequest;
+import br.com.minibiz.dto.ProductImportResultDTO;
+import br.com.minibiz.dto.ProductPatchDTO;
+import br.com.minibiz.dto.ProductSearchResultDTO;
 import br.com.minibiz.model.product.Product;
+import br.com.minibiz.service.ProductImportService;
 import br.com.minibiz.service.ProductService;
+import br.com.minibiz.service.estoque.EstoqueBaixoService;
+import br.com.minibiz.service.estoque.MovimentoEstoqueService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus; 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 
 @RestController
@@ -20,37 +40,101 @@ public class ProductController {
 
     @Autowired
     private ProductService productService;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private EstoqueBaixoService estoqueBaixoService;
+
+    @Autowired
+    private MovimentoEstoqueService movimentoEstoqueService;
     
     @GetMapping
-    public ResponseEntity<Page<Product>> listarTodosProdutos(Pageable pageable) {
-        Page<Product> produtos = productService.findAll(pageable);
-        return ResponseEntity.ok(produtos);
+    public ResponseEntity<Page<Product>> listarTodosProdutos(Pageable pageable, WebRequest request) {
+        return RespostaCondicional.porVersao(request, productService.etagDaPagina(pageable),
+                () -> productService.findAll(pageable));
     }
     
-    @GetMapping("/{id}")
-    public ResponseEntity<Product> listarProduto(@PathVariable Long id) {
-        Product product = productService.findById(id);
+    @GetMapping("/search")
+    public ResponseEntity<List<ProductSearchResultDTO>> buscarProdutos(@RequestParam("q") String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(productService.search(q, limite));
+    }
+
+    @GetMapping("/by-code/{code}")
+    public ResponseEntity<Product> listarProdutoPorCodigo(@PathVariable String code) {
+        Product product = productService.findByCodigoProduto(code);
         return ResponseEntity.ok(product);
     }
+
+    // Produtos abaixo do estoque mínimo, os mais urgentes primeiro
+    @GetMapping("/estoque-baixo")
+    public ResponseEntity<List<EstoqueBaixoDTO>> listarEstoqueBaixo(@RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(estoqueBaixoService.listar(Math.max(limite, 1)));
+    }
+
+    // Eventos "estoque-baixo" e "estoque-normalizado" quando um produto cruza o estoque mínimo
+    @GetMapping(value = "/estoque-baixo/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter acompanharEstoqueBaixo() {
+        return estoqueBaixoService.inscrever();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Product> listarProduto(@PathVariable Long id, WebRequest request) {
+        return RespostaCondicional.porEntidade(request, id, productService.findUltimaAlteracao(id),
+                () -> productService.findById(id));
+    }
     
+    // Estoque do produto na data informada (ou o atual, comparado com o cadastro), reconstruído pelo diário
+    @GetMapping("/{id}/estoque")
+    public ResponseEntity<EstoqueNaDataDTO> consultarEstoqueNaData(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime em) {
+        return ResponseEntity.ok(movimentoEstoqueService.estoqueEm(id, em));
+    }
+
     @PostMapping
     public ResponseEntity<Product> criarProduto(@RequestBody Product product) {
         Product novoProduto = productService.create(product);
         return ResponseEntity.status(HttpStatus.CREATED).body(novoProduto);
     }
 
+    // Corpo em CSV (text/csv) com cabeçalho; o arquivo é lido em fluxo, sem carregá-lo inteiro em memória
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain", "application/octet-stream"})
+    public ResponseEntity<ProductImportResultDTO> importarProdutos(InputStream csv,
+            @RequestParam(required = false) Integer batchSize) throws IOException {
+        return ResponseEntity.ok(productImportService.importar(csv, batchSize));
+    }
+
+    @PostMapping("/bulk/preco")
+    public ResponseEntity<BulkUpdateResultDTO> reajustarPrecos(@RequestBody ProductBulkPriceRequest request) {
+        return ResponseEntity.ok(new BulkUpdateResultDTO(productService.reajustarPrecos(request)));
+    }
+
+    @PostMapping("/bulk/estoque")
+    public ResponseEntity<BulkUpdateResultDTO> ajustarEstoque(@RequestBody ProductBulkStockRequest request) {
+        return ResponseEntity.ok(new BulkUpdateResultDTO(productService.ajustarEstoque(request)));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Product> editarProduto(@PathVariable Long id, @RequestBody Product produtoAtualizado) {
         Product produto = productService.update(id, produtoAtualizado);
         return ResponseEntity.ok(produto);
     }
 
+    // Atualiza só os campos enviados; exige a versão lida e responde 409 se o produto mudou desde então
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> atualizarProdutoParcialmente(@PathVariable Long id, @RequestBody ProductPatchDTO patch) {
+        productService.patch(id, patch);
+        return ResponseEntity.noContent().build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deletarProduto(@PathVariable Long id) {
         try {
             productService.delete(id); 
             return ResponseEntity.ok("Produto deletado com sucesso!");
-        } catch (NoSuchElementException e) {
+        } catch (NoSuchElementException | ProductNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Produto não encontrado.");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Erro ao deletar cliente: " + e.getMessage());
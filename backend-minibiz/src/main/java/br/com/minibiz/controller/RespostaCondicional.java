@@ -0,0 +1,50 @@
+package br.com.minibiz.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional (If-None-Match / If-Modified-Since) para os endpoints de leitura.
+ * O validador é calculado antes de carregar a entidade; se o cliente já tem a versão atual,
+ * a resposta é 304 sem corpo e sem serialização.
+ */
+final class RespostaCondicional {
+
+    // O navegador guarda a resposta, mas revalida a cada uso
+    private static final CacheControl REVALIDAR_SEMPRE = CacheControl.noCache();
+
+    private RespostaCondicional() {
+    }
+
+    static <T> ResponseEntity<T> porEntidade(WebRequest request, Long id, Optional<LocalDateTime> ultimaAlteracao,
+            Supplier<T> corpo) {
+        if (ultimaAlteracao.isEmpty()) {
+            return ResponseEntity.ok(corpo.get());
+        }
+        LocalDateTime alteracao = ultimaAlteracao.get();
+        String etag = "\"" + id + "-" + alteracao.toEpochSecond(ZoneOffset.UTC) + "." + alteracao.getNano() + "\"";
+        long lastModified = alteracao.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (request.checkNotModified(etag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR_SEMPRE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDAR_SEMPRE).body(corpo.get());
+    }
+
+    static <T> ResponseEntity<T> porVersao(WebRequest request, String etag, Supplier<T> corpo) {
+        if (etag == null) {
+            return ResponseEntity.ok(corpo.get());
+        }
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR_SEMPRE).build();
+        }
+        return ResponseEntity.ok().cacheControl(REVALIDAR_SEMPRE).body(corpo.get());
+    }
+}
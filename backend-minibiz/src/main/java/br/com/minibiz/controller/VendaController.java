@@ -45,6 +45,12 @@ public class VendaController {
 		return ResponseEntity.ok(vendaCancelada);
 	}
 
+	@PutMapping("/concluir/{id}")
+	public ResponseEntity<Venda> concluirVenda(@PathVariable Long id) {
+		Venda vendaConcluida = vendaService.concluir(id);
+		return ResponseEntity.ok(vendaConcluida);
+	}
+
 	@PutMapping("/editar/{id}")
 	public ResponseEntity<Venda> editarVenda(@PathVariable Long id, @RequestBody VendaRequest vendaRequest) {
 		Venda vendaEditada = vendaService.update(id, vendaRequest);
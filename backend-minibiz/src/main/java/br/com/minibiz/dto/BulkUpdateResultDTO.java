@@ -0,0 +1,5 @@
+package br.com.minibiz.dto;
+
+// Quantidade de registros alterados por uma operação em lote
+public record BulkUpdateResultDTO(int afetados) {
+}
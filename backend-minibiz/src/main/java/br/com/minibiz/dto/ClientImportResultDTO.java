@@ -0,0 +1,77 @@
+package br.com.minibiz.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClientImportResultDTO {
+    // Evita que um arquivo inteiro repetido ou inválido gere uma resposta do tamanho do arquivo
+    private static final int MAXIMO_LINHAS_LISTADAS = 1000;
+
+    private int inseridos;
+    private int duplicados;
+    private int rejeitados;
+    private int naoGravados;
+    private final List<LinhaIgnorada> linhasDuplicadas = new ArrayList<>();
+    private final List<LinhaIgnorada> linhasRejeitadas = new ArrayList<>();
+    private final List<LoteNaoGravado> lotesNaoGravados = new ArrayList<>();
+
+    public record LinhaIgnorada(long linha, String motivo) {
+    }
+
+    // Lote que voltou atrás no banco: nenhum cliente novo entre primeiraLinha e ultimaLinha foi gravado
+    public record LoteNaoGravado(long primeiraLinha, long ultimaLinha, int linhas, String motivo) {
+    }
+
+    public void somarInseridos(int quantidade) {
+        this.inseridos += quantidade;
+    }
+
+    public void duplicar(long linha, String motivo) {
+        this.duplicados++;
+        if (linhasDuplicadas.size() < MAXIMO_LINHAS_LISTADAS) {
+            linhasDuplicadas.add(new LinhaIgnorada(linha, motivo));
+        }
+    }
+
+    public void rejeitar(long linha, String motivo) {
+        this.rejeitados++;
+        if (linhasRejeitadas.size() < MAXIMO_LINHAS_LISTADAS) {
+            linhasRejeitadas.add(new LinhaIgnorada(linha, motivo));
+        }
+    }
+
+    public void naoGravar(long primeiraLinha, long ultimaLinha, int linhas, String motivo) {
+        this.naoGravados += linhas;
+        lotesNaoGravados.add(new LoteNaoGravado(primeiraLinha, ultimaLinha, linhas, motivo));
+    }
+
+    // Getters
+
+    public int getInseridos() {
+        return inseridos;
+    }
+
+    public int getDuplicados() {
+        return duplicados;
+    }
+
+    public int getRejeitados() {
+        return rejeitados;
+    }
+
+    public List<LinhaIgnorada> getLinhasDuplicadas() {
+        return linhasDuplicadas;
+    }
+
+    public List<LinhaIgnorada> getLinhasRejeitadas() {
+        return linhasRejeitadas;
+    }
+
+    public int getNaoGravados() {
+        return naoGravados;
+    }
+
+    public List<LoteNaoGravado> getLotesNaoGravados() {
+        return lotesNaoGravados;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.minibiz.dto;
+
+import br.com.minibiz.model.client.Client;
+
+// Resultado enxuto da busca de clientes, servido direto do índice em memória
+public record ClientSearchResultDTO(Long id, String nome, String email, String telefone) {
+
+    public static ClientSearchResultDTO of(Client client) {
+        return new ClientSearchResultDTO(client.getId(), client.getNome(), client.getEmail(), client.getTelefone());
+    }
+}
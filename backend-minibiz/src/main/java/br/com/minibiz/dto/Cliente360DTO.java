@@ -0,0 +1,9 @@
+package br.com.minibiz.dto;
+
+import br.com.minibiz.model.client.Client;
+
+import java.util.List;
+
+// Visão completa do cliente para a tela de detalhe: cadastro, últimas vendas com itens e totais
+public record Cliente360DTO(Client cliente, List<VendaResponse> ultimasVendas, ResumoClienteDTO resumo) {
+}
@@ -0,0 +1,17 @@
+package br.com.minibiz.dto;
+
+import br.com.minibiz.model.product.Product;
+
+// Situação de estoque de um produto monitorado, como aparece na lista de reposição
+public record EstoqueBaixoDTO(Long id, String nome, String codigoProduto, int quantidadeEmEstoque,
+        Integer estoqueMinimo) {
+
+    public static EstoqueBaixoDTO of(Product product) {
+        return new EstoqueBaixoDTO(product.getId(), product.getNome(), product.getCodigoProduto(),
+                product.getQuantidadeEmEstoque(), product.getEstoqueMinimo());
+    }
+
+    public boolean abaixoDoMinimo() {
+        return estoqueMinimo != null && quantidadeEmEstoque < estoqueMinimo;
+    }
+}
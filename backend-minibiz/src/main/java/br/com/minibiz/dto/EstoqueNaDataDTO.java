@@ -0,0 +1,12 @@
+package br.com.minibiz.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estoque de um produto numa data, calculado pelo snapshot mais próximo mais o diário.
+ * {@code quantidadeNoCadastro} só vem preenchida na consulta do estoque atual; se for diferente
+ * de {@code quantidade}, o contador do produto divergiu do diário.
+ */
+public record EstoqueNaDataDTO(Long productId, LocalDateTime data, long quantidade, LocalDateTime snapshotEm,
+        long movimentosReaplicados, Integer quantidadeNoCadastro) {
+}
@@ -0,0 +1,12 @@
+package br.com.minibiz.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Reajuste de preço em lote. Informe um único filtro (categoria, codigos ou ids) e
+ * o percentual e/ou o valor a somar: novo preço = preço * (1 + percentual/100) + valor.
+ */
+public record ProductBulkPriceRequest(String categoria, List<String> codigos, List<Long> ids,
+        BigDecimal percentual, BigDecimal valor) {
+}
@@ -0,0 +1,7 @@
+package br.com.minibiz.dto;
+
+import java.util.List;
+
+// Ajuste relativo de estoque em lote: delta positivo entra, negativo sai. Informe um único filtro.
+public record ProductBulkStockRequest(String categoria, List<String> codigos, List<Long> ids, Integer delta) {
+}
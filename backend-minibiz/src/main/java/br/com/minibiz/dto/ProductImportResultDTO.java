@@ -0,0 +1,69 @@
+package br.com.minibiz.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportResultDTO {
+    // Evita que um arquivo inteiro inválido gere uma resposta do tamanho do arquivo
+    private static final int MAXIMO_LINHAS_REJEITADAS = 1000;
+
+    private int inseridos;
+    private int atualizados;
+    private int rejeitados;
+    private int naoGravados;
+    private final List<LinhaRejeitada> linhasRejeitadas = new ArrayList<>();
+    private final List<LoteNaoGravado> lotesNaoGravados = new ArrayList<>();
+
+    public record LinhaRejeitada(long linha, String motivo) {
+    }
+
+    // Lote que voltou atrás no banco: nenhuma linha válida entre primeiraLinha e ultimaLinha foi gravada
+    public record LoteNaoGravado(long primeiraLinha, long ultimaLinha, int linhas, String motivo) {
+    }
+
+    public void somarInseridos(int quantidade) {
+        this.inseridos += quantidade;
+    }
+
+    public void somarAtualizados(int quantidade) {
+        this.atualizados += quantidade;
+    }
+
+    public void rejeitar(long linha, String motivo) {
+        this.rejeitados++;
+        if (linhasRejeitadas.size() < MAXIMO_LINHAS_REJEITADAS) {
+            linhasRejeitadas.add(new LinhaRejeitada(linha, motivo));
+        }
+    }
+
+    public void naoGravar(long primeiraLinha, long ultimaLinha, int linhas, String motivo) {
+        this.naoGravados += linhas;
+        lotesNaoGravados.add(new LoteNaoGravado(primeiraLinha, ultimaLinha, linhas, motivo));
+    }
+
+    // Getters
+
+    public int getInseridos() {
+        return inseridos;
+    }
+
+    public int getAtualizados() {
+        return atualizados;
+    }
+
+    public int getRejeitados() {
+        return rejeitados;
+    }
+
+    public List<LinhaRejeitada> getLinhasRejeitadas() {
+        return linhasRejeitadas;
+    }
+
+    public int getNaoGravados() {
+        return naoGravados;
+    }
+
+    public List<LoteNaoGravado> getLotesNaoGravados() {
+        return lotesNaoGravados;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.minibiz.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Atualização parcial de produto. Só os campos informados (não nulos) são alterados;
+ * {@code versao} é obrigatória e deve ser a versão lida pelo cliente.
+ * O estoque não é editável por aqui: ele muda por vendas e ajustes de estoque.
+ */
+public record ProductPatchDTO(String nome, String descricao, BigDecimal preco, String codigoProduto,
+        String categoria, Integer estoqueMinimo, Long versao) {
+}
@@ -0,0 +1,12 @@
+package br.com.minibiz.dto;
+
+import br.com.minibiz.model.product.Product;
+
+// Resultado enxuto da busca de produtos, servido direto do índice em memória
+public record ProductSearchResultDTO(Long id, String nome, String codigoProduto, String categoria) {
+
+    public static ProductSearchResultDTO of(Product product) {
+        return new ProductSearchResultDTO(product.getId(), product.getNome(), product.getCodigoProduto(),
+                product.getCategoria());
+    }
+}
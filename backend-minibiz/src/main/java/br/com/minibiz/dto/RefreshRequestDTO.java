@@ -0,0 +1,5 @@
+package br.com.minibiz.dto;
+
+public record RefreshRequestDTO(String refreshToken) {
+
+}
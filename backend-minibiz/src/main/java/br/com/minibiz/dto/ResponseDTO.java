@@ -1,5 +1,5 @@
 package br.com.minibiz.dto;
 
-public record ResponseDTO (String name, String token) { 
+public record ResponseDTO (String name, String token, String refreshToken) { 
 	
 }
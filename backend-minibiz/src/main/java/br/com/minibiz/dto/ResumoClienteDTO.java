@@ -0,0 +1,22 @@
+package br.com.minibiz.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+// Totais de todo o histórico do cliente; valores e ticket médio desconsideram vendas canceladas
+public record ResumoClienteDTO(long totalVendas, long vendasCanceladas, BigDecimal valorTotal, BigDecimal ticketMedio,
+        LocalDateTime primeiraCompra, LocalDateTime ultimaCompra) {
+
+    // Usado pela consulta agregada; o ticket médio é derivado aqui
+    public ResumoClienteDTO(Long totalVendas, Long vendasCanceladas, BigDecimal valorTotal,
+            LocalDateTime primeiraCompra, LocalDateTime ultimaCompra) {
+        this(totalVendas, vendasCanceladas, valorTotal, ticketMedio(valorTotal, totalVendas - vendasCanceladas),
+                primeiraCompra, ultimaCompra);
+    }
+
+    private static BigDecimal ticketMedio(BigDecimal valorTotal, long vendasValidas) {
+        return vendasValidas == 0 ? BigDecimal.ZERO
+                : valorTotal.divide(BigDecimal.valueOf(vendasValidas), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,5 @@
+package br.com.minibiz.dto;
+
+// Soma dos deltas e quantidade de movimentos de estoque num intervalo
+public record ResumoMovimentosDTO(Long soma, Long movimentos) {
+}
@@ -0,0 +1,71 @@
+package br.com.minibiz.infra.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Balde de fichas por chave, implementado como GCRA (generic cell rate algorithm): cada balde é um único
+ * AtomicLong com o "instante teórico de chegada" da próxima requisição, atualizado por CAS, sem locks.
+ *
+ * Equivale a um balde com {@code rajada} fichas, reabastecido a uma ficha por {@code intervalo}. Um balde
+ * cujo instante já passou está cheio, idêntico a um balde novo, e pode ser descartado sem perder estado.
+ */
+public class LimitadorTaxa {
+
+    private final long intervaloNanos;
+    private final long toleranciaNanos;
+    private final LongSupplier relogio;
+    private final ConcurrentHashMap<String, AtomicLong> baldes = new ConcurrentHashMap<>();
+
+    public LimitadorTaxa(int requisicoesPorMinuto, int rajada) {
+        this(requisicoesPorMinuto, rajada, System::nanoTime);
+    }
+
+    LimitadorTaxa(int requisicoesPorMinuto, int rajada, LongSupplier relogio) {
+        if (requisicoesPorMinuto <= 0 || rajada <= 0) {
+            throw new IllegalArgumentException("requisicoesPorMinuto e rajada devem ser positivos");
+        }
+        this.intervaloNanos = 60_000_000_000L / requisicoesPorMinuto;
+        this.toleranciaNanos = intervaloNanos * rajada;
+        this.relogio = relogio;
+    }
+
+    /**
+     * Consome uma ficha do balde da chave. Devolve 0 se a requisição é permitida; senão, quantos
+     * nanossegundos faltam para a próxima ficha (o Retry-After).
+     */
+    public long tentarConsumir(String chave) {
+        long agora = relogio.getAsLong();
+        AtomicLong balde = baldes.get(chave);
+        if (balde == null) {
+            balde = baldes.computeIfAbsent(chave, k -> new AtomicLong(agora));
+        }
+        while (true) {
+            long previsto = balde.get();
+            long proximo = Math.max(previsto, agora) + intervaloNanos;
+            long excesso = proximo - agora - toleranciaNanos;
+            if (excesso > 0) {
+                return excesso;
+            }
+            if (balde.compareAndSet(previsto, proximo)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Remove os baldes cheios (sem uso desde que se reabasteceram). Uma requisição concorrente com a
+     * remoção pode ter sua ficha esquecida, o que só a favorece; o limite volta a valer na seguinte.
+     */
+    public int removerOciosos() {
+        long agora = relogio.getAsLong();
+        int antes = baldes.size();
+        baldes.values().removeIf(balde -> balde.get() - agora <= 0);
+        return antes - baldes.size();
+    }
+
+    public int tamanho() {
+        return baldes.size();
+    }
+}
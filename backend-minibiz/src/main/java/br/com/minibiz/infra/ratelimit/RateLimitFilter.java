@@ -0,0 +1,123 @@
+package br.com.minibiz.infra.ratelimit;
+
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.infra.security.UsuarioAutenticado;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limita a taxa de requisições por usuário (email do token) ou, sem token válido, por IP. Fica antes do
+ * SecurityFilter, então requisições recusadas não chegam a autenticar nem a tocar no banco.
+ * Cada grupo de rotas tem seus próprios baldes; ver {@link RateLimitProperties}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String CORPO_429 =
+            "{\"message\":\"Muitas requisições. Tente novamente em instantes.\",\"success\":false}";
+
+    private final TokenService tokenService;
+    private final boolean habilitado;
+    private final List<GrupoLimitado> grupos = new ArrayList<>();
+    private final GrupoLimitado padrao;
+    private final AntPathMatcher matcher = new AntPathMatcher();
+
+    private record GrupoLimitado(String nome, List<String> padroes, LimitadorTaxa limitador, Counter rejeitadas) {
+    }
+
+    public RateLimitFilter(RateLimitProperties properties, TokenService tokenService,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.tokenService = tokenService;
+        this.habilitado = properties.isHabilitado();
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        for (RateLimitProperties.Grupo grupo : properties.getGrupos()) {
+            grupos.add(criarGrupo(grupo.getNome(), grupo.getPadroes(), grupo, registry));
+        }
+        this.padrao = criarGrupo("padrao", List.of("/**"), properties.getPadrao(), registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Preflight de CORS não carrega credenciais e não deve consumir fichas
+        return !habilitado || HttpMethod.OPTIONS.matches(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        GrupoLimitado grupo = grupoDaRota(request.getRequestURI().substring(request.getContextPath().length()));
+        long esperaNanos = grupo.limitador().tentarConsumir(chaveDoCliente(request));
+        if (esperaNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (grupo.rejeitadas() != null) {
+            grupo.rejeitadas().increment();
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Retry-After é em segundos inteiros: arredonda para cima para o cliente não voltar cedo demais
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString((esperaNanos + 999_999_999L) / 1_000_000_000L));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(CORPO_429);
+    }
+
+    // Baldes que já se reabasteceram por completo são iguais a baldes novos e podem sair da memória
+    @Scheduled(fixedDelayString = "${minibiz.ratelimit.limpeza-ms:60000}")
+    public void removerOciosos() {
+        grupos.forEach(grupo -> grupo.limitador().removerOciosos());
+        padrao.limitador().removerOciosos();
+    }
+
+    private GrupoLimitado grupoDaRota(String caminho) {
+        for (GrupoLimitado grupo : grupos) {
+            for (String padraoRota : grupo.padroes()) {
+                if (matcher.match(padraoRota, caminho)) {
+                    return grupo;
+                }
+            }
+        }
+        return padrao;
+    }
+
+    // O token é validado (assinatura conferida) para que um email forjado não sirva para escapar do limite
+    // Atrás de proxy confiável, getRemoteAddr já é o IP do X-Forwarded-For (server.forward-headers-strategy)
+    private String chaveDoCliente(HttpServletRequest request) {
+        UsuarioAutenticado usuario = tokenService.autenticarRequisicao(request);
+        return usuario != null ? "u:" + usuario.email() : "ip:" + request.getRemoteAddr();
+    }
+
+    private static GrupoLimitado criarGrupo(String nome, List<String> padroes, RateLimitProperties.Limite limite,
+            MeterRegistry registry) {
+        LimitadorTaxa limitador = new LimitadorTaxa(limite.getRequisicoesPorMinuto(), limite.getRajada());
+        Counter rejeitadas = null;
+        if (registry != null) {
+            rejeitadas = Counter.builder("minibiz.ratelimit.rejeitadas")
+                    .description("Requisições recusadas com 429 pelo limite de taxa")
+                    .tag("grupo", nome)
+                    .register(registry);
+            Gauge.builder("minibiz.ratelimit.baldes", limitador, LimitadorTaxa::tamanho)
+                    .description("Clientes com balde ativo (ainda não reabastecido)")
+                    .tag("grupo", nome)
+                    .register(registry);
+        }
+        return new GrupoLimitado(nome, List.copyOf(padroes), limitador, rejeitadas);
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.minibiz.infra.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limites de requisições por usuário (ou IP, sem token) em minibiz.properties. Os grupos são avaliados
+ * na ordem da lista e a requisição usa o primeiro cujo padrão de rota combina; as demais usam o padrão.
+ */
+@ConfigurationProperties(prefix = "minibiz.ratelimit")
+public class RateLimitProperties {
+
+    private boolean habilitado = true;
+    private Limite padrao = new Limite(600, 100);
+    private List<Grupo> grupos = new ArrayList<>();
+
+    public static class Limite {
+        private int requisicoesPorMinuto;
+        private int rajada;
+
+        public Limite() {
+        }
+
+        public Limite(int requisicoesPorMinuto, int rajada) {
+            this.requisicoesPorMinuto = requisicoesPorMinuto;
+            this.rajada = rajada;
+        }
+
+        public int getRequisicoesPorMinuto() {
+            return requisicoesPorMinuto;
+        }
+
+        public void setRequisicoesPorMinuto(int requisicoesPorMinuto) {
+            this.requisicoesPorMinuto = requisicoesPorMinuto;
+        }
+
+        public int getRajada() {
+            return rajada;
+        }
+
+        public void setRajada(int rajada) {
+            this.rajada = rajada;
+        }
+    }
+
+    public static class Grupo extends Limite {
+        private String nome;
+        private List<String> padroes = new ArrayList<>();
+
+        public String getNome() {
+            return nome;
+        }
+
+        public void setNome(String nome) {
+            this.nome = nome;
+        }
+
+        public List<String> getPadroes() {
+            return padroes;
+        }
+
+        public void setPadroes(List<String> padroes) {
+            this.padroes = padroes;
+        }
+    }
+
+    // Getters e Setters
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public Limite getPadrao() {
+        return padrao;
+    }
+
+    public void setPadrao(Limite padrao) {
+        this.padrao = padrao;
+    }
+
+    public List<Grupo> getGrupos() {
+        return grupos;
+    }
+
+    public void setGrupos(List<Grupo> grupos) {
+        this.grupos = grupos;
+    }
+}
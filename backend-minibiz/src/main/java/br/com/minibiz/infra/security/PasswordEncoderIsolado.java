@@ -0,0 +1,110 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.config.exception.ServiceUnavailableException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt executado num pool próprio, de tamanho fixo e fila limitada, em vez das threads do Tomcat.
+ *
+ * Cada hash consome dezenas de milissegundos de CPU; uma rajada de logins na abertura da loja ocuparia
+ * todas as threads de requisição e atrasaria as vendas. Aqui no máximo {@code threads} hashes rodam ao
+ * mesmo tempo; com a fila cheia a requisição recebe 503 na hora, e também se o hash não terminar
+ * dentro do tempo limite, em vez de esperar indefinidamente.
+ */
+public class PasswordEncoderIsolado implements PasswordEncoder, AutoCloseable {
+
+    private static final Pattern CUSTO_BCRYPT = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String MENSAGEM_SATURADO = "Servidor ocupado processando logins. Tente novamente em instantes.";
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final int custo;
+    private final ThreadPoolExecutor executor;
+    private final long tempoLimiteMs;
+
+    public PasswordEncoderIsolado(int custo, int threads, int tamanhoFila, long tempoLimiteMs) {
+        this.bcrypt = new BCryptPasswordEncoder(custo);
+        this.custo = custo;
+        this.tempoLimiteMs = tempoLimiteMs;
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(tamanhoFila), tarefa -> {
+                    Thread thread = new Thread(tarefa, "hash-senha-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executar(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executar(() -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Verdadeiro quando o hash gravado usa um custo diferente do configurado, para mais ou para menos:
+     * o login bem-sucedido é o único momento em que a senha em texto está disponível para regerá-lo.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = CUSTO_BCRYPT.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != custo;
+    }
+
+    public int getCusto() {
+        return custo;
+    }
+
+    // Hashes em execução e na fila, para métricas e diagnóstico
+    public int getPendentes() {
+        return executor.getActiveCount() + executor.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T executar(Callable<T> hash) {
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(hash);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException(MENSAGEM_SATURADO);
+        }
+        try {
+            return futuro.get(tempoLimiteMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futuro.cancel(true);
+            throw new ServiceUnavailableException(MENSAGEM_SATURADO);
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(MENSAGEM_SATURADO);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.model.user.RefreshToken;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tokens de renovação: o cliente troca um token opaco por um novo token de acesso sem reenviar a senha,
+ * então a renovação não passa pelo BCrypt. O token tem 256 bits aleatórios, e por isso basta gravar o seu
+ * SHA-256 (sem sal nem custo) para que um vazamento da tabela não sirva para nada.
+ *
+ * Cada renovação rotaciona o token: o usado é marcado e um novo da mesma família é emitido. Apresentar um
+ * token já usado indica que ele foi copiado, e a família inteira é apagada, encerrando a sessão nos dois lados.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int BYTES_TOKEN = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${minibiz.refresh.validade-dias:30}")
+    private int validadeDias = 30;
+
+    public record Renovacao(User usuario, String refreshToken) {
+    }
+
+    // Início de uma sessão (login ou cadastro): nova família de tokens
+    @Transactional
+    public String emitir(User usuario) {
+        return emitir(usuario, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Troca o token por um novo da mesma família. Vazio se o token não existe, expirou ou já foi usado;
+     * neste último caso a família é revogada.
+     */
+    @Transactional
+    public Optional<Renovacao> renovar(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<RefreshToken> encontrado = refreshTokenRepository.findByHashComUsuario(hash(token));
+        if (encontrado.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken atual = encontrado.get();
+        LocalDateTime agora = LocalDateTime.now(ZoneOffset.UTC);
+        if (!atual.getExpiraEm().isAfter(agora)) {
+            return Optional.empty();
+        }
+        if (atual.getUsadoEm() != null || refreshTokenRepository.marcarUsado(atual.getId(), agora) == 0) {
+            log.warn("Token de renovação reutilizado (usuário {}); sessão revogada", atual.getUsuario().getId());
+            refreshTokenRepository.deleteByFamilia(atual.getFamilia());
+            return Optional.empty();
+        }
+        return Optional.of(new Renovacao(atual.getUsuario(), emitir(atual.getUsuario(), atual.getFamilia())));
+    }
+
+    // Logout: encerra a sessão do token informado
+    @Transactional
+    public void revogar(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByHashComUsuario(hash(token))
+                .ifPresent(atual -> refreshTokenRepository.deleteByFamilia(atual.getFamilia()));
+    }
+
+    // Troca de senha: encerra todas as sessões do usuário
+    @Transactional
+    public void revogarTodos(String userId) {
+        if (userId != null) {
+            refreshTokenRepository.deleteByUsuario(userId);
+        }
+    }
+
+    @Scheduled(cron = "${minibiz.refresh.limpeza.cron:0 30 3 * * *}")
+    @Transactional
+    public void limpar() {
+        int removidos = refreshTokenRepository.deleteExpirados(LocalDateTime.now(ZoneOffset.UTC));
+        if (removidos > 0) {
+            log.info("Tokens de renovação expirados removidos: {}", removidos);
+        }
+    }
+
+    private String emitir(User usuario, String familia) {
+        byte[] bytes = new byte[BYTES_TOKEN];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(token), usuario, familia,
+                LocalDateTime.now(ZoneOffset.UTC).plusDays(validadeDias)));
+        return token;
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
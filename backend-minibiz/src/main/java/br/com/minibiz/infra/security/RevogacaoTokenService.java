@@ -0,0 +1,159 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.model.user.RevogacaoUsuario;
+import br.com.minibiz.model.user.TokenRevogado;
+import br.com.minibiz.repository.RevogacaoUsuarioRepository;
+import br.com.minibiz.repository.TokenRevogadoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Revogação de tokens JWT antes da expiração, consultada em toda requisição autenticada.
+ *
+ * Logout revoga um token pelo jti; troca de senha revoga todos os tokens do usuário emitidos até aquele
+ * momento. As revogações por usuário são poucas e ficam inteiras em memória. As por jti passam por um
+ * filtro de Bloom: o caso comum (token não revogado) custa alguns hashes, e só um "talvez" vai ao banco.
+ * As duas tabelas guardam cada revogação até o token revogado expirar, quando a limpeza periódica a apaga
+ * e remonta o filtro.
+ *
+ * Revogações feitas por outra instância da aplicação chegam pela sincronização, que a cada poucos segundos
+ * busca no banco as revogações recentes (duas consultas por índice, por instância, em vez de uma por
+ * requisição). A busca volta um minuto além da anterior, para pegar linhas de transações que
+ * demoraram a confirmar e relógios um pouco diferentes entre as instâncias; reaplicar uma revogação não muda nada.
+ */
+@Service
+public class RevogacaoTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RevogacaoTokenService.class);
+    private static final int CAPACIDADE_PADRAO = 100_000;
+    private static final double TAXA_FALSOS_POSITIVOS = 0.001;
+    private static final Duration SOBREPOSICAO_SINCRONIZACAO = Duration.ofMinutes(1);
+
+    @Autowired
+    private TokenRevogadoRepository tokenRevogadoRepository;
+
+    @Autowired
+    private RevogacaoUsuarioRepository revogacaoUsuarioRepository;
+
+    @Value("${minibiz.revogacao.capacidade:100000}")
+    private int capacidade = CAPACIDADE_PADRAO;
+
+    private volatile BloomFilter filtro = new BloomFilter(CAPACIDADE_PADRAO, TAXA_FALSOS_POSITIVOS);
+    private final AtomicInteger adicionadosAoFiltro = new AtomicInteger();
+    private final Map<String, Instant> revogadosAntesDe = new ConcurrentHashMap<>();
+    private volatile LocalDateTime ultimaSincronizacao = LocalDateTime.now(ZoneOffset.UTC);
+
+    public boolean revogado(UsuarioAutenticado usuario) {
+        if (usuario.id() != null) {
+            Instant limite = revogadosAntesDe.get(usuario.id());
+            // Tokens antigos, sem iat, caem em qualquer revogação do usuário
+            if (limite != null && (usuario.emitidoEm() == null || usuario.emitidoEm().isBefore(limite))) {
+                return true;
+            }
+        }
+        return usuario.tokenId() != null && filtro.talvezContenha(usuario.tokenId())
+                && tokenRevogadoRepository.existsById(usuario.tokenId());
+    }
+
+    // Logout: revoga só o token usado na requisição; tokens sem jti revogam todas as sessões do usuário
+    @Transactional
+    public void revogar(UsuarioAutenticado usuario) {
+        if (usuario.tokenId() == null) {
+            revogarTodos(usuario.id());
+            return;
+        }
+        tokenRevogadoRepository.save(new TokenRevogado(usuario.tokenId(), paraLocal(usuario.expiraEm()),
+                LocalDateTime.now(ZoneOffset.UTC)));
+        adicionarAoFiltro(usuario.tokenId());
+    }
+
+    private void adicionarAoFiltro(String jti) {
+        if (filtro.talvezContenha(jti)) {
+            return;
+        }
+        filtro.adicionar(jti);
+        if (adicionadosAoFiltro.incrementAndGet() == capacidade) {
+            log.warn("Filtro de revogação de tokens atingiu a capacidade ({}); aumente minibiz.revogacao.capacidade",
+                    capacidade);
+        }
+    }
+
+    /**
+     * Invalida todos os tokens do usuário emitidos até agora. O iat do JWT tem precisão de segundos,
+     * então o limite é truncado: um token emitido no mesmo segundo da revogação continua válido.
+     */
+    @Transactional
+    public void revogarTodos(String userId) {
+        if (userId == null) {
+            return;
+        }
+        Instant limite = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        revogacaoUsuarioRepository.save(new RevogacaoUsuario(userId, paraLocal(limite),
+                paraLocal(limite.plus(TokenService.VALIDADE))));
+        aplicar(userId, limite);
+    }
+
+    private void aplicar(String userId, Instant limite) {
+        revogadosAntesDe.merge(userId, limite, (anterior, novo) -> novo.isAfter(anterior) ? novo : anterior);
+    }
+
+    @PostConstruct
+    public void carregar() {
+        LocalDateTime agora = LocalDateTime.now(ZoneOffset.UTC);
+        List<String> jtis = tokenRevogadoRepository.findJtisAtivos(agora);
+        BloomFilter novo = new BloomFilter(Math.max(capacidade, jtis.size() * 2), TAXA_FALSOS_POSITIVOS);
+        jtis.forEach(novo::adicionar);
+        filtro = novo;
+        adicionadosAoFiltro.set(jtis.size());
+
+        revogadosAntesDe.clear();
+        revogacaoUsuarioRepository.findByExpiraEmAfter(agora)
+                .forEach(r -> revogadosAntesDe.put(r.getUserId(), r.getRevogadosAntesDe().toInstant(ZoneOffset.UTC)));
+        ultimaSincronizacao = agora;
+    }
+
+    // Traz as revogações gravadas por outras instâncias desde a última busca
+    @Scheduled(fixedDelayString = "${minibiz.revogacao.sincronizacao-ms:5000}")
+    public void sincronizar() {
+        LocalDateTime agora = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime desde = ultimaSincronizacao.minus(SOBREPOSICAO_SINCRONIZACAO);
+        tokenRevogadoRepository.findJtisRevogadosDesde(desde).forEach(this::adicionarAoFiltro);
+        revogacaoUsuarioRepository.findByRevogadosAntesDeAfter(desde)
+                .forEach(r -> aplicar(r.getUserId(), r.getRevogadosAntesDe().toInstant(ZoneOffset.UTC)));
+        ultimaSincronizacao = agora;
+    }
+
+    // Apaga as revogações de tokens que já expiraram e remonta o filtro só com as que restam
+    @Scheduled(cron = "${minibiz.revogacao.limpeza.cron:0 */15 * * * *}")
+    @Transactional
+    public void limpar() {
+        LocalDateTime agora = LocalDateTime.now(ZoneOffset.UTC);
+        int tokens = tokenRevogadoRepository.deleteExpirados(agora);
+        int usuarios = revogacaoUsuarioRepository.deleteExpiradas(agora);
+        carregar();
+        if (tokens + usuarios > 0) {
+            log.info("Revogações expiradas removidas: {} tokens, {} usuários", tokens, usuarios);
+        }
+    }
+
+    // As datas de expiração são gravadas em UTC, como no próprio JWT
+    private static LocalDateTime paraLocal(Instant instante) {
+        return LocalDateTime.ofInstant(instante, ZoneOffset.UTC);
+    }
+}
@@ -1,15 +1,23 @@
 package br.com.minibiz.infra.security;
 
+import br.com.minibiz.infra.ratelimit.RateLimitFilter;
+import br.com.minibiz.infra.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,13 +27,35 @@ import org.springframework.web.filter.CorsFilter;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     @Autowired
     SecurityFilter securityFilter;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public RateLimitFilter rateLimitFilter(RateLimitProperties properties, TokenService tokenService,
+                                           ObjectProvider<MeterRegistry> meterRegistry) {
+        return new RateLimitFilter(properties, tokenService, meterRegistry);
+    }
+
+    // O limite de taxa roda só na cadeia do Spring Security, antes do SecurityFilter; sem isto o Boot
+    // registraria o filtro também diretamente no servlet
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean<RateLimitFilter> registro = new FilterRegistrationBean<>(rateLimitFilter);
+        registro.setEnabled(false);
+        return registro;
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimitFilter rateLimitFilter,
+                                                   Environment environment) throws Exception {
+        // O scrape do Prometheus só dispensa token na porta de gerenciamento (management.server.port), que não é
+        // publicada para fora; se o Actuator voltar para a porta da API, /actuator/prometheus exige autenticação
+        String[] actuatorPublico = ManagementPortType.get(environment) == ManagementPortType.DIFFERENT
+                ? new String[] {"/actuator/health", "/actuator/prometheus"}
+                : new String[] {"/actuator/health"};
         http
                 .csrf(csrf -> csrf.disable())
                 .cors(cors -> cors.configurationSource(corsConfigurationSource())) // Adicionando CORS
@@ -34,15 +64,20 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS, "/auth/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/login").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
+                        .requestMatchers(HttpMethod.POST, "/auth/refresh").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/forgot-password").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/reset-password").permitAll()
+                        .requestMatchers(HttpMethod.GET, actuatorPublico).permitAll()
+                        // O stream SSE prende uma requisição assíncrona por inscrito: só para usuários autenticados
+                        .requestMatchers(HttpMethod.GET, "/api/products/estoque-baixo/eventos").authenticated()
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll() // Permitir requisições GET para produtos
                         .requestMatchers(HttpMethod.POST, "/api/products").permitAll() // Permitir requisições POST para produtos
                         .requestMatchers(HttpMethod.PUT, "/api/products/**").permitAll() // Permitir requisições PUT para produtos
                         .requestMatchers(HttpMethod.DELETE, "/api/products/**").permitAll() // Permitir requisições DELETE para produtos
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(securityFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, SecurityFilter.class);
         return http.build();
     }
 
@@ -59,9 +94,14 @@ public class SecurityConfig {
         return source;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    // BCrypt fora das threads do Tomcat; threads = 0 usa a quantidade de núcleos
+    @Bean(destroyMethod = "close")
+    public PasswordEncoder passwordEncoder(@Value("${minibiz.senha.bcrypt.custo:10}") int custo,
+                                           @Value("${minibiz.senha.threads:0}") int threads,
+                                           @Value("${minibiz.senha.fila:64}") int fila,
+                                           @Value("${minibiz.senha.tempo-limite-ms:2000}") long tempoLimiteMs) {
+        int tamanhoPool = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new PasswordEncoderIsolado(custo, tamanhoPool, fila, tempoLimiteMs);
     }
 
     @Bean
@@ -1,63 +1,66 @@
 package br.com.minibiz.infra.security;
 
-import br.com.minibiz.model.user.User;
 import br.com.minibiz.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
 
 @Component
 public class SecurityFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private TokenService tokenService;
+    private final TokenService tokenService;
+    private final UserRepository userRepository;
+    private final RevogacaoTokenService revogacaoTokenService;
 
-    @Autowired
-    private UserRepository userRepository;
+    public SecurityFilter(TokenService tokenService, UserRepository userRepository,
+            RevogacaoTokenService revogacaoTokenService) {
+        this.tokenService = tokenService;
+        this.userRepository = userRepository;
+        this.revogacaoTokenService = revogacaoTokenService;
+    }
 
     /**
      * O método doFilterInternal é chamado uma vez por solicitação e é responsável por
      * aplicar a lógica de segurança antes que a solicitação prossiga.
+     * O usuário autenticado vem das claims do token: não há consulta ao banco por requisição.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-       
-        var token = this.recoverToken(request);  // Recupera o token da solicitação HTTP
 
-        var login = tokenService.validateToken(token); // Valida o token e extrai o login (email) do usuário
+        var usuario = tokenService.autenticarRequisicao(request); // Recupera e valida o token do cabeçalho Authorization, extraindo id, email e papel das claims
 
-        if (login != null) {           
-        	User user = userRepository.findByEmail(login).orElseThrow(() -> new RuntimeException("User Not Found")); // Busca o usuário no banco de dados usando o email extraído do token
+        if (usuario != null && usuario.id() == null) {
+            usuario = this.completarTokenAntigo(usuario);
+        }
 
-            var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")); // Cria uma lista de autoridades com a permissão "ROLE_USER"
- 
-            var authentication = new UsernamePasswordAuthenticationToken(user, null, authorities); // Cria um objeto de autenticação com o usuário e suas autoridades
+        if (usuario != null && revogacaoTokenService.revogado(usuario)) {
+            usuario = null; // Token revogado por logout ou troca de senha: segue como requisição anônima
+        }
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);// Define o contexto de segurança com o objeto de autenticação criado
+        if (usuario != null) {
+            var authentication = new UsernamePasswordAuthenticationToken(usuario, null, usuario.authorities()); // Cria um objeto de autenticação com o usuário e suas autoridades
+
+            SecurityContextHolder.getContext().setAuthentication(authentication); // Define o contexto de segurança com o objeto de autenticação criado
         }
-        
+
         filterChain.doFilter(request, response); // Continua o filtro da solicitação
     }
 
     /**
-     * O método recoverToken extrai o token do cabeçalho "Authorization" da solicitação.
-     * Se o cabeçalho não estiver presente, retorna null.
+     * Tokens emitidos antes das claims uid/role (válidos por até 2 horas após a atualização)
+     * ainda são aceitos, buscando o usuário pelo email como antes.
      */
-    private String recoverToken(HttpServletRequest request) {
-        var authHeader = request.getHeader("Authorization"); // Obtém o cabeçalho "Authorization" da solicitação
-        
-        if (authHeader == null) return null; // Verifica se o cabeçalho está presente e, caso contrário, retorna null
- 
-        return authHeader.replace("Bearer ", ""); // Remove o prefixo "Bearer " do token e retorna o valor limpo
+    private UsuarioAutenticado completarTokenAntigo(UsuarioAutenticado usuario) {
+        return userRepository.findByEmail(usuario.email())
+                .map(user -> new UsuarioAutenticado(user.getId(), user.getEmail(), user.getRole(), usuario.tokenId(),
+                        usuario.emitidoEm(), usuario.expiraEm()))
+                .orElse(null);
     }
-}
\ No newline at end of file
+}
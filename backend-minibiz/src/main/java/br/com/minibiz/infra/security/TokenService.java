@@ -1,35 +1,53 @@
 package br.com.minibiz.infra.security;
 
 import br.com.minibiz.model.user.User;
-//import br.com.minibiz.repository.UserRepository;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class TokenService {
 
-    @Autowired
-   // private UserRepository userRepository;
+    static final String ISSUER = "minibiz-api";
+    static final String CLAIM_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    // Curta de propósito: a sessão continua pelo token de renovação (RefreshTokenService)
+    static final Duration VALIDADE = Duration.ofMinutes(15);
+    private static final String PREFIXO_BEARER = "Bearer ";
+    private static final String ATRIBUTO_USUARIO = TokenService.class.getName() + ".usuario";
 
-    @Value("${api.security.token.secret}")
-    private String secret;
+    // Algorithm e JWTVerifier são imutáveis e thread-safe: criados uma vez em vez de a cada requisição
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+
+    public TokenService(@Value("${api.security.token.secret}") String secret) {
+        this.algorithm = Algorithm.HMAC256(secret);
+        this.verifier = JWT.require(algorithm).withIssuer(ISSUER).build();
+    }
 
     public String generateToken(User user) {
+        // O iat do JWT tem precisão de segundos; truncar aqui mantém o valor igual ao que é lido de volta
+        Instant agora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             return JWT.create()
-                    .withIssuer("minibiz-api")
+                    .withIssuer(ISSUER)
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withIssuedAt(agora)
                     .withSubject(user.getEmail())
-                    .withExpiresAt(Date.from(Instant.now().plus(2, ChronoUnit.HOURS)))
+                    .withClaim(CLAIM_ID, user.getId())
+                    .withClaim(CLAIM_ROLE, user.getRole() != null ? user.getRole() : UsuarioAutenticado.ROLE_PADRAO)
+                    .withExpiresAt(agora.plus(VALIDADE))
                     .sign(algorithm);
         } catch (JWTCreationException exception) {
             throw new RuntimeException("Erro ao autenticar!", exception);
@@ -37,15 +55,54 @@ public class TokenService {
     }
 
     public String validateToken(String token) {
+        DecodedJWT jwt = verificar(token);
+        return jwt != null ? jwt.getSubject() : null;
+    }
+
+    /**
+     * Valida o token e devolve o usuário descrito nas claims, ou null se o token for inválido.
+     * Tokens emitidos antes das claims uid/role devolvem um usuário sem id; os anteriores ao jti, sem tokenId e emitidoEm.
+     */
+    public UsuarioAutenticado autenticar(String token) {
+        DecodedJWT jwt = verificar(token);
+        if (jwt == null) {
+            return null;
+        }
+        return new UsuarioAutenticado(jwt.getClaim(CLAIM_ID).asString(), jwt.getSubject(),
+                jwt.getClaim(CLAIM_ROLE).asString(), jwt.getId(), jwt.getIssuedAtAsInstant(), jwt.getExpiresAtAsInstant());
+    }
+
+    /**
+     * Usuário do token no cabeçalho Authorization. A validação é feita uma vez por requisição e guardada
+     * num atributo, para que os filtros seguintes (limite de taxa, autenticação) não a repitam.
+     */
+    public UsuarioAutenticado autenticarRequisicao(HttpServletRequest request) {
+        Object memorizado = request.getAttribute(ATRIBUTO_USUARIO);
+        if (memorizado != null) {
+            return memorizado instanceof UsuarioAutenticado usuario ? usuario : null;
+        }
+        UsuarioAutenticado usuario = autenticar(extrairToken(request));
+        request.setAttribute(ATRIBUTO_USUARIO, usuario != null ? usuario : Boolean.FALSE);
+        return usuario;
+    }
+
+    // Token do cabeçalho "Authorization", sem o prefixo "Bearer "; null se o cabeçalho não estiver presente
+    private static String extrairToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null) {
+            return null;
+        }
+        return authHeader.startsWith(PREFIXO_BEARER) ? authHeader.substring(PREFIXO_BEARER.length()) : authHeader;
+    }
+
+    private DecodedJWT verificar(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-            return JWT.require(algorithm)
-                    .withIssuer("minibiz-api")
-                    .build()
-                    .verify(token)
-                    .getSubject();
+            return verifier.verify(token);
         } catch (JWTVerificationException exception) {
             return null;
         }
     }
-}
\ No newline at end of file
+}
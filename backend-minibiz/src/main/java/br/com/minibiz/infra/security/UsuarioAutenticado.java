@@ -0,0 +1,25 @@
+package br.com.minibiz.infra.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Principal das requisições autenticadas, montado só com as claims do token, sem ir ao banco.
+ * tokenId (jti), emitidoEm (iat) e expiraEm (exp) identificam o token usado, para revogá-lo no logout.
+ */
+public record UsuarioAutenticado(String id, String email, String role, String tokenId, Instant emitidoEm,
+        Instant expiraEm) {
+
+    public static final String ROLE_PADRAO = "USER";
+
+    // Todo usuário tem ROLE_USER; um papel diferente (ex.: ADMIN) é somado a ela
+    public List<GrantedAuthority> authorities() {
+        if (role == null || role.isBlank() || ROLE_PADRAO.equals(role)) {
+            return List.of(new SimpleGrantedAuthority("ROLE_" + ROLE_PADRAO));
+        }
+        return List.of(new SimpleGrantedAuthority("ROLE_" + ROLE_PADRAO), new SimpleGrantedAuthority("ROLE_" + role));
+    }
+}
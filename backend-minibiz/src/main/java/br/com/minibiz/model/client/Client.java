@@ -1,13 +1,20 @@
 package br.com.minibiz.model.client;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "client") // Seleciona a tabela products do banco de dados.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "minibiz.cliente")
 public class Client {
 
     @Id
@@ -17,6 +24,7 @@ public class Client {
     private String endereco;
     private String email;
     private String telefone;
+    private LocalDateTime dataAtualizacao;
 	
 
     // Getters e Setters
@@ -50,4 +58,10 @@ public class Client {
 	public void setTelefone(String telefone) {
 		this.telefone = telefone;
 	}
+	public LocalDateTime getDataAtualizacao() {
+		return this.dataAtualizacao;
+	}
+	public void setDataAtualizacao(LocalDateTime dataAtualizacao) {
+		this.dataAtualizacao = dataAtualizacao;
+	}
 }
@@ -0,0 +1,37 @@
+package br.com.minibiz.model.colecao;
+
+import jakarta.persistence.*;
+
+/**
+ * Versão de uma coleção (produtos, clientes), incrementada a cada escrita nela. Fica no banco para que todas
+ * as instâncias da aplicação validem as ETags das listagens pela mesma versão.
+ */
+@Entity
+@Table(name = "versao_colecao")
+public class VersaoColecao {
+
+    @Id
+    @Column(name = "colecao", length = 20)
+    private String colecao;
+
+    @Column(name = "versao", nullable = false)
+    private long versao;
+
+    protected VersaoColecao() {
+    }
+
+    public VersaoColecao(String colecao, long versao) {
+        this.colecao = colecao;
+        this.versao = versao;
+    }
+
+    // Getters
+
+    public String getColecao() {
+        return colecao;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.minibiz.model.email;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email a enviar, gravado na mesma transação da operação que o gerou. O envio por SMTP fica com o
+ * EmailOutboxDispatcher, fora das threads de requisição; {@code reserva} marca o lote que um dispatcher
+ * pegou, e {@code proximaTentativa} serve tanto ao backoff quanto ao prazo da reserva.
+ */
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_proxima", columnList = "status, proxima_tentativa"),
+        @Index(name = "idx_email_outbox_reserva", columnList = "reserva")
+})
+public class EmailOutbox {
+
+    private static final int TAMANHO_ERRO = 500;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(nullable = false, length = 10000)
+    private String corpo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(name = "proxima_tentativa", nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(length = 36)
+    private String reserva;
+
+    @Column(name = "ultimo_erro", length = TAMANHO_ERRO)
+    private String ultimoErro;
+
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "enviado_em")
+    private LocalDateTime enviadoEm;
+
+    protected EmailOutbox() {
+    }
+
+    public EmailOutbox(String destinatario, String assunto, String corpo, LocalDateTime agora) {
+        this.destinatario = destinatario;
+        this.assunto = assunto;
+        this.corpo = corpo;
+        this.criadoEm = agora;
+        this.proximaTentativa = agora;
+    }
+
+    public void marcarEnviado(LocalDateTime agora) {
+        status = StatusEmail.ENVIADO;
+        enviadoEm = agora;
+        reserva = null;
+        ultimoErro = null;
+    }
+
+    // Sem próxima tentativa, o email vai para FALHOU e não é mais tentado
+    public void registrarFalha(String erro, LocalDateTime proxima) {
+        tentativas++;
+        reserva = null;
+        ultimoErro = erro != null && erro.length() > TAMANHO_ERRO ? erro.substring(0, TAMANHO_ERRO) : erro;
+        if (proxima == null) {
+            status = StatusEmail.FALHOU;
+        } else {
+            proximaTentativa = proxima;
+        }
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDestinatario() {
+        return destinatario;
+    }
+
+    public String getAssunto() {
+        return assunto;
+    }
+
+    public String getCorpo() {
+        return corpo;
+    }
+
+    public StatusEmail getStatus() {
+        return status;
+    }
+
+    public int getTentativas() {
+        return tentativas;
+    }
+
+    public LocalDateTime getProximaTentativa() {
+        return proximaTentativa;
+    }
+
+    public String getReserva() {
+        return reserva;
+    }
+
+    public String getUltimoErro() {
+        return ultimoErro;
+    }
+
+    public LocalDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public LocalDateTime getEnviadoEm() {
+        return enviadoEm;
+    }
+}
@@ -0,0 +1,7 @@
+package br.com.minibiz.model.email;
+
+public enum StatusEmail {
+    PENDENTE,
+    ENVIADO,
+    FALHOU; // Esgotou as tentativas (dead letter); fica na tabela para análise
+}
@@ -0,0 +1,74 @@
+package br.com.minibiz.model.estoque;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lançamento do diário de estoque: cada alteração da quantidade de um produto gera um registro,
+ * que nunca é alterado nem removido. Usa sequence (e não IDENTITY) para que o Hibernate agrupe
+ * os INSERTs de uma transação num único batch JDBC.
+ */
+@Entity
+@Table(name = "movimento_estoque",
+        indexes = @Index(name = "idx_movimento_estoque_produto_data", columnList = "product_id, data_movimento"))
+public class MovimentoEstoque {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movimento_estoque_seq")
+    @SequenceGenerator(name = "movimento_estoque_seq", sequenceName = "movimento_estoque_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private int delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private TipoMovimento tipo;
+
+    @Column(name = "data_movimento", nullable = false, updatable = false)
+    private LocalDateTime dataMovimento;
+
+    @Column(updatable = false)
+    private Long vendaId; // Venda que originou o movimento, quando houver
+
+    protected MovimentoEstoque() {
+    }
+
+    public MovimentoEstoque(Long productId, int delta, TipoMovimento tipo, LocalDateTime dataMovimento, Long vendaId) {
+        this.productId = productId;
+        this.delta = delta;
+        this.tipo = tipo;
+        this.dataMovimento = dataMovimento;
+        this.vendaId = vendaId;
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public TipoMovimento getTipo() {
+        return tipo;
+    }
+
+    public LocalDateTime getDataMovimento() {
+        return dataMovimento;
+    }
+
+    public Long getVendaId() {
+        return vendaId;
+    }
+}
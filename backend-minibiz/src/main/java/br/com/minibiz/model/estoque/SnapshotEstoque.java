@@ -0,0 +1,46 @@
+package br.com.minibiz.model.estoque;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Estoque consolidado de um produto numa data: ponto de partida para reaplicar o diário
+@Entity
+@Table(name = "snapshot_estoque",
+        indexes = @Index(name = "idx_snapshot_estoque_produto_data", columnList = "product_id, data_snapshot"))
+public class SnapshotEstoque {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private int quantidade;
+
+    @Column(name = "data_snapshot", nullable = false, updatable = false)
+    private LocalDateTime dataSnapshot;
+
+    protected SnapshotEstoque() {
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public LocalDateTime getDataSnapshot() {
+        return dataSnapshot;
+    }
+}
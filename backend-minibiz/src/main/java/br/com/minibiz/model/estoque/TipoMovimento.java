@@ -0,0 +1,9 @@
+package br.com.minibiz.model.estoque;
+
+public enum TipoMovimento {
+    CADASTRO,
+    VENDA,
+    CANCELAMENTO,
+    AJUSTE,
+    IMPORTACAO;
+}
@@ -1,16 +1,25 @@
 package br.com.minibiz.model.product;
 
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "product") // Seleciona a tabela products do banco de dados.
+@Table(name = "product", // Seleciona a tabela products do banco de dados.
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_codigo_produto", columnNames = "codigo_produto"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "minibiz.produto") // Lido em toda venda, muda pouco
 public class Product {
 
     @Id
@@ -20,10 +29,17 @@ public class Product {
     private String descricao;
     private BigDecimal preco;
     private int quantidadeEmEstoque;
+    private Integer estoqueMinimo; // Ponto de reposição; nulo quando o produto não é monitorado
+    @Column(name = "codigo_produto") // Código de barras lido no PDV, único por produto
     private String codigoProduto;
     private LocalDateTime dataCriacao;
     private LocalDateTime dataAtualizacao;
     private String categoria;
+    @ColumnDefault("0") // Preenche os produtos já existentes quando a coluna é criada
+    @Column(nullable = false)
+    // Incrementada a cada edição do cadastro (PUT, PATCH, reajuste de preço, importação) e enviada de volta no
+    // PATCH para detectar conflitos. Não é @Version: baixas e devoluções de estoque não a alteram
+    private Long versao = 0L;
 
     // Getters e Setters
 
@@ -67,6 +83,14 @@ public class Product {
         this.quantidadeEmEstoque = quantidadeEmEstoque;
     }
 
+    public Integer getEstoqueMinimo() {
+        return this.estoqueMinimo;
+    }
+
+    public void setEstoqueMinimo(Integer estoqueMinimo) {
+        this.estoqueMinimo = estoqueMinimo;
+    }
+
     public String getCodigoProduto() {
         return this.codigoProduto;
     }
@@ -98,4 +122,12 @@ public class Product {
     public void setCategoria(String categoria) {
         this.categoria = categoria;
     }
+
+    public Long getVersao() {
+        return this.versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
 }
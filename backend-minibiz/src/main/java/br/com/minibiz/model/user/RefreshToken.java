@@ -0,0 +1,75 @@
+package br.com.minibiz.model.user;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token de renovação opaco. Só o SHA-256 do token é gravado, com índice único, para que a renovação seja uma
+ * única busca indexada. Cada uso gera um novo token da mesma família e marca este como usado; a linha fica até
+ * expirar para que um reuso (token vazado) seja detectado e derrube a família inteira.
+ */
+@Entity
+@Table(name = "refresh_token", indexes = {
+        @Index(name = "idx_refresh_token_familia", columnList = "familia"),
+        @Index(name = "idx_refresh_token_usuario", columnList = "usuario_id"),
+        @Index(name = "idx_refresh_token_expira_em", columnList = "expira_em")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64, nullable = false, unique = true)
+    private String hash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "usuario_id", nullable = false)
+    private User usuario;
+
+    @Column(length = 36, nullable = false)
+    private String familia;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    @Column(name = "usado_em")
+    private LocalDateTime usadoEm;
+
+    protected RefreshToken() {
+    }
+
+    public RefreshToken(String hash, User usuario, String familia, LocalDateTime expiraEm) {
+        this.hash = hash;
+        this.usuario = usuario;
+        this.familia = familia;
+        this.expiraEm = expiraEm;
+    }
+
+    // Getters
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public User getUsuario() {
+        return usuario;
+    }
+
+    public String getFamilia() {
+        return familia;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public LocalDateTime getUsadoEm() {
+        return usadoEm;
+    }
+}
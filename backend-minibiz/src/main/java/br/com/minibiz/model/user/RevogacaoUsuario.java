@@ -0,0 +1,48 @@
+package br.com.minibiz.model.user;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Todos os tokens do usuário emitidos antes de {@code revogadosAntesDe} são inválidos (ex.: troca de senha).
+ * Em {@code expiraEm} o último desses tokens já expirou e a linha pode ser apagada.
+ */
+@Entity
+@Table(name = "revogacao_usuario",
+        indexes = @Index(name = "idx_revogacao_usuario_revogados_antes_de", columnList = "revogados_antes_de"))
+public class RevogacaoUsuario {
+
+    @Id
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "revogados_antes_de", nullable = false)
+    private LocalDateTime revogadosAntesDe;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    protected RevogacaoUsuario() {
+    }
+
+    public RevogacaoUsuario(String userId, LocalDateTime revogadosAntesDe, LocalDateTime expiraEm) {
+        this.userId = userId;
+        this.revogadosAntesDe = revogadosAntesDe;
+        this.expiraEm = expiraEm;
+    }
+
+    // Getters
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getRevogadosAntesDe() {
+        return revogadosAntesDe;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+}
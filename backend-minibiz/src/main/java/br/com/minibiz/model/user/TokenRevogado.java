@@ -0,0 +1,48 @@
+package br.com.minibiz.model.user;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Token revogado antes de expirar (logout); a linha só precisa existir até a expiração do próprio token
+@Entity
+@Table(name = "token_revogado", indexes = {
+        @Index(name = "idx_token_revogado_expira_em", columnList = "expira_em"),
+        @Index(name = "idx_token_revogado_revogado_em", columnList = "revogado_em")
+})
+public class TokenRevogado {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "expira_em", nullable = false)
+    private LocalDateTime expiraEm;
+
+    // Quando foi revogado, em UTC: as outras instâncias buscam as revogações recentes por esta coluna
+    @Column(name = "revogado_em")
+    private LocalDateTime revogadoEm;
+
+    protected TokenRevogado() {
+    }
+
+    public TokenRevogado(String jti, LocalDateTime expiraEm, LocalDateTime revogadoEm) {
+        this.jti = jti;
+        this.expiraEm = expiraEm;
+        this.revogadoEm = revogadoEm;
+    }
+
+    // Getters
+
+    public String getJti() {
+        return jti;
+    }
+
+    public LocalDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public LocalDateTime getRevogadoEm() {
+        return revogadoEm;
+    }
+}
@@ -1,13 +1,18 @@
 package br.com.minibiz.model.user;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity 
 @Table(name = "users")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "minibiz.usuario") // Lido em toda requisição autenticada
 public class User {
 	
 	// Construtor sem argumentos (equivalente a @NoArgsConstructor)
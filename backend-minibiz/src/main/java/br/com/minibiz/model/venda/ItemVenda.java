@@ -1,6 +1,7 @@
 package br.com.minibiz.model.venda;
 
 import br.com.minibiz.model.product.Product;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
@@ -12,6 +13,7 @@ public class ItemVenda {
 
     @ManyToOne
     @JoinColumn(name = "venda_id")
+    @JsonIgnore // Volta para a venda que já contém o item: serializar entraria em recursão
     private Venda venda;
 
     @ManyToOne
@@ -2,6 +2,7 @@ package br.com.minibiz.model.venda;
 
 import br.com.minibiz.model.client.Client;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,7 +18,9 @@ public class Venda {
     @JoinColumn(name = "client_id")
     private Client client;
 
+    // Listagens carregam os itens de até 50 vendas numa consulta, e não uma por venda
     @OneToMany(mappedBy = "venda", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<ItemVenda> items;
 
     private BigDecimal valorTotal;
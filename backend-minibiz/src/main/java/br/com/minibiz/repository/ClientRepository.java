@@ -2,9 +2,17 @@ package br.com.minibiz.repository;
 
 import br.com.minibiz.model.client.Client;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Optional;
+
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
-	
+
+	// Validador do GET condicional: só a data, sem carregar a entidade
+	@Query("SELECT c.dataAtualizacao FROM Client c WHERE c.id = :id")
+	Optional<LocalDateTime> findDataAtualizacaoById(@Param("id") Long id);
 }
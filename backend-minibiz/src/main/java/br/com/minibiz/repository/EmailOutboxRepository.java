@@ -0,0 +1,59 @@
+package br.com.minibiz.repository;
+
+import br.com.minibiz.model.email.EmailOutbox;
+import br.com.minibiz.model.email.StatusEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status = :status AND e.proximaTentativa <= :agora ORDER BY e.id")
+    List<Long> findIdsProntos(@Param("status") StatusEmail status, @Param("agora") LocalDateTime agora,
+                              Pageable pageable);
+
+    /**
+     * Reserva os emails para um dispatcher até {@code reservadoAte}. As condições se repetem no UPDATE para que,
+     * com mais de uma instância, cada email seja reservado por uma só; se o dispatcher cair, o email volta a
+     * ficar pronto quando a reserva vence.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.reserva = :reserva, e.proximaTentativa = :reservadoAte "
+            + "WHERE e.id IN :ids AND e.status = :status AND e.proximaTentativa <= :agora")
+    int reservar(@Param("ids") List<Long> ids, @Param("reserva") String reserva,
+                 @Param("reservadoAte") LocalDateTime reservadoAte, @Param("status") StatusEmail status,
+                 @Param("agora") LocalDateTime agora);
+
+    List<EmailOutbox> findByReserva(String reserva);
+
+    /**
+     * Os dois UPDATEs abaixo gravam o resultado do envio só se o email ainda estiver com a reserva deste
+     * dispatcher. Se ela venceu durante o envio e outra instância reservou o email, nada é alterado e o
+     * estado gravado pela outra instância prevalece.
+     */
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :enviado, e.enviadoEm = :agora, e.reserva = NULL, e.ultimoErro = NULL "
+            + "WHERE e.id IN :ids AND e.reserva = :reserva")
+    int marcarEnviados(@Param("ids") List<Long> ids, @Param("reserva") String reserva,
+                       @Param("enviado") StatusEmail enviado, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :status, e.tentativas = :tentativas, e.ultimoErro = :erro, "
+            + "e.proximaTentativa = :proximaTentativa, e.reserva = NULL WHERE e.id = :id AND e.reserva = :reserva")
+    int registrarFalha(@Param("id") Long id, @Param("reserva") String reserva, @Param("status") StatusEmail status,
+                       @Param("tentativas") int tentativas, @Param("erro") String erro,
+                       @Param("proximaTentativa") LocalDateTime proximaTentativa);
+
+    long countByStatus(StatusEmail status);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = :status AND e.enviadoEm < :limite")
+    int deleteEnviadosAntesDe(@Param("status") StatusEmail status, @Param("limite") LocalDateTime limite);
+}
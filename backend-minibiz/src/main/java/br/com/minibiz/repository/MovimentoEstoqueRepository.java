@@ -0,0 +1,20 @@
+package br.com.minibiz.repository;
+
+import br.com.minibiz.dto.ResumoMovimentosDTO;
+import br.com.minibiz.model.estoque.MovimentoEstoque;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MovimentoEstoqueRepository extends JpaRepository<MovimentoEstoque, Long> {
+
+    // Soma e quantidade dos movimentos de um produto no intervalo (desde, ate]
+    @Query("SELECT new br.com.minibiz.dto.ResumoMovimentosDTO(COALESCE(SUM(m.delta), 0), COUNT(m)) "
+            + "FROM MovimentoEstoque m WHERE m.productId = :productId AND m.dataMovimento > :desde AND m.dataMovimento <= :ate")
+    ResumoMovimentosDTO resumir(@Param("productId") Long productId, @Param("desde") LocalDateTime desde,
+            @Param("ate") LocalDateTime ate);
+}
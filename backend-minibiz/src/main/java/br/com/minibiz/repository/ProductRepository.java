@@ -1,9 +1,89 @@
 package br.com.minibiz.repository;
 
+import br.com.minibiz.dto.EstoqueBaixoDTO;
 import br.com.minibiz.model.product.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+    Optional<Product> findByCodigoProduto(String codigoProduto);
+
+    // Edição do cadastro: a linha fica bloqueada (SELECT ... FOR UPDATE) até o commit, então a versão conferida
+    // e o estoque usado no movimento de ajuste não mudam no meio do caminho. Vai sempre ao banco, não ao cache
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdParaAtualizacao(@Param("id") Long id);
+
+    // Validador do GET condicional: só a data, sem carregar a entidade
+    @Query("SELECT COALESCE(p.dataAtualizacao, p.dataCriacao) FROM Product p WHERE p.id = :id")
+    Optional<LocalDateTime> findUltimaAlteracaoById(@Param("id") Long id);
+
+    @Query("SELECT new br.com.minibiz.dto.EstoqueBaixoDTO(p.id, p.nome, p.codigoProduto, p.quantidadeEmEstoque, p.estoqueMinimo) "
+            + "FROM Product p WHERE p.id = :id")
+    Optional<EstoqueBaixoDTO> findSituacaoEstoqueById(@Param("id") Long id);
+
+    @Query("SELECT new br.com.minibiz.dto.EstoqueBaixoDTO(p.id, p.nome, p.codigoProduto, p.quantidadeEmEstoque, p.estoqueMinimo) "
+            + "FROM Product p WHERE p.estoqueMinimo IS NOT NULL AND p.quantidadeEmEstoque < p.estoqueMinimo")
+    List<EstoqueBaixoDTO> findAbaixoDoEstoqueMinimo();
+
+    // Atualizações em lote: um único UPDATE no banco, sem carregar as entidades.
+    // Produtos cujo preço ou estoque ficariam negativos não são alterados. Só o reajuste de preço muda a versao.
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.preco = p.preco * :fator + :acrescimo, p.versao = p.versao + 1, p.dataAtualizacao = :agora "
+            + "WHERE LOWER(p.categoria) = LOWER(:categoria) AND p.preco * :fator + :acrescimo >= 0")
+    int reajustarPrecoPorCategoria(@Param("categoria") String categoria, @Param("fator") BigDecimal fator,
+            @Param("acrescimo") BigDecimal acrescimo, @Param("agora") LocalDateTime agora);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.preco = p.preco * :fator + :acrescimo, p.versao = p.versao + 1, p.dataAtualizacao = :agora "
+            + "WHERE p.codigoProduto IN :codigos AND p.preco * :fator + :acrescimo >= 0")
+    int reajustarPrecoPorCodigos(@Param("codigos") Collection<String> codigos, @Param("fator") BigDecimal fator,
+            @Param("acrescimo") BigDecimal acrescimo, @Param("agora") LocalDateTime agora);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.preco = p.preco * :fator + :acrescimo, p.versao = p.versao + 1, p.dataAtualizacao = :agora "
+            + "WHERE p.id IN :ids AND p.preco * :fator + :acrescimo >= 0")
+    int reajustarPrecoPorIds(@Param("ids") Collection<Long> ids, @Param("fator") BigDecimal fator,
+            @Param("acrescimo") BigDecimal acrescimo, @Param("agora") LocalDateTime agora);
+
+    // Produtos alterados por um ajuste de estoque em lote, identificados pela data gravada no UPDATE
+    @Query("SELECT p.id FROM Product p WHERE LOWER(p.categoria) = LOWER(:categoria) AND p.dataAtualizacao = :agora")
+    List<Long> findIdsPorCategoriaAlteradosEm(@Param("categoria") String categoria, @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT p.id FROM Product p WHERE p.codigoProduto IN :codigos AND p.dataAtualizacao = :agora")
+    List<Long> findIdsPorCodigosAlteradosEm(@Param("codigos") Collection<String> codigos, @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids AND p.dataAtualizacao = :agora")
+    List<Long> findIdsPorIdsAlteradosEm(@Param("ids") Collection<Long> ids, @Param("agora") LocalDateTime agora);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantidadeEmEstoque = p.quantidadeEmEstoque + :delta, p.dataAtualizacao = :agora "
+            + "WHERE LOWER(p.categoria) = LOWER(:categoria) AND p.quantidadeEmEstoque + :delta >= 0")
+    int ajustarEstoquePorCategoria(@Param("categoria") String categoria, @Param("delta") int delta,
+            @Param("agora") LocalDateTime agora);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantidadeEmEstoque = p.quantidadeEmEstoque + :delta, p.dataAtualizacao = :agora "
+            + "WHERE p.codigoProduto IN :codigos AND p.quantidadeEmEstoque + :delta >= 0")
+    int ajustarEstoquePorCodigos(@Param("codigos") Collection<String> codigos, @Param("delta") int delta,
+            @Param("agora") LocalDateTime agora);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantidadeEmEstoque = p.quantidadeEmEstoque + :delta, p.dataAtualizacao = :agora "
+            + "WHERE p.id IN :ids AND p.quantidadeEmEstoque + :delta >= 0")
+    int ajustarEstoquePorIds(@Param("ids") Collection<Long> ids, @Param("delta") int delta,
+            @Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,36 @@
+package br.com.minibiz.repository;
+
+import br.com.minibiz.model.user.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    // Token e usuário numa só consulta pelo índice único do hash
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.usuario WHERE r.hash = :hash")
+    Optional<RefreshToken> findByHashComUsuario(@Param("hash") String hash);
+
+    // Só um dos usos concorrentes do mesmo token consegue marcá-lo; os demais contam como reuso
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.usadoEm = :agora WHERE r.id = :id AND r.usadoEm IS NULL")
+    int marcarUsado(@Param("id") Long id, @Param("agora") LocalDateTime agora);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.familia = :familia")
+    int deleteByFamilia(@Param("familia") String familia);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.usuario.id = :userId")
+    int deleteByUsuario(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiraEm <= :agora")
+    int deleteExpirados(@Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,24 @@
+package br.com.minibiz.repository;
+
+import br.com.minibiz.model.user.RevogacaoUsuario;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevogacaoUsuarioRepository extends JpaRepository<RevogacaoUsuario, String> {
+
+    List<RevogacaoUsuario> findByExpiraEmAfter(LocalDateTime agora);
+
+    // Revogações recentes, feitas por qualquer instância
+    List<RevogacaoUsuario> findByRevogadosAntesDeAfter(LocalDateTime desde);
+
+    @Modifying
+    @Query("DELETE FROM RevogacaoUsuario r WHERE r.expiraEm <= :agora")
+    int deleteExpiradas(@Param("agora") LocalDateTime agora);
+}
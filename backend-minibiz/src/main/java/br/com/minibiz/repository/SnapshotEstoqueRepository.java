@@ -0,0 +1,53 @@
+package br.com.minibiz.repository;
+
+import br.com.minibiz.model.estoque.SnapshotEstoque;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface SnapshotEstoqueRepository extends JpaRepository<SnapshotEstoque, Long> {
+
+    Optional<SnapshotEstoque> findFirstByProductIdAndDataSnapshotLessThanEqualOrderByDataSnapshotDesc(Long productId,
+            LocalDateTime data);
+
+    /**
+     * Consolida o diário até o corte: para cada produto com movimentos desde o último snapshot,
+     * grava o snapshot anterior (ou zero) somado a esses movimentos.
+     *
+     * Sem o espaço declarado, o Hibernate não sabe o que um SQL nativo altera e invalida todas as regiões do
+     * cache L2 (produtos, clientes, usuários) a cada consolidação; com ele, só o que depende de snapshot_estoque.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "snapshot_estoque"))
+    @Query(value = "INSERT INTO snapshot_estoque (product_id, quantidade, data_snapshot) "
+            + "SELECT m.product_id, COALESCE(s.quantidade, 0) + SUM(m.delta), :corte "
+            + "FROM movimento_estoque m "
+            + "LEFT JOIN snapshot_estoque s ON s.product_id = m.product_id AND s.data_snapshot = "
+            + "(SELECT MAX(s2.data_snapshot) FROM snapshot_estoque s2 WHERE s2.product_id = m.product_id) "
+            + "WHERE m.data_movimento <= :corte AND (s.id IS NULL OR m.data_movimento > s.data_snapshot) "
+            + "GROUP BY m.product_id, s.quantidade", nativeQuery = true)
+    int consolidarAte(@Param("corte") LocalDateTime corte);
+
+    /**
+     * Produtos anteriores ao diário (sem snapshot nem movimento de cadastro) recebem um snapshot inicial
+     * com o estoque que tinham antes do primeiro movimento registrado.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "snapshot_estoque"))
+    @Query(value = "INSERT INTO snapshot_estoque (product_id, quantidade, data_snapshot) "
+            + "SELECT p.id, p.quantidade_em_estoque - COALESCE((SELECT SUM(m.delta) FROM movimento_estoque m "
+            + "WHERE m.product_id = p.id), 0), :inicio FROM product p "
+            + "WHERE NOT EXISTS (SELECT 1 FROM snapshot_estoque s WHERE s.product_id = p.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM movimento_estoque m WHERE m.product_id = p.id AND m.tipo = 'CADASTRO')",
+            nativeQuery = true)
+    int criarSnapshotsIniciais(@Param("inicio") LocalDateTime inicio);
+}
@@ -0,0 +1,27 @@
+package br.com.minibiz.repository;
+
+import br.com.minibiz.model.user.TokenRevogado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TokenRevogadoRepository extends JpaRepository<TokenRevogado, String> {
+
+    // Só os ids, para remontar o filtro de Bloom sem carregar as entidades
+    @Query("SELECT t.jti FROM TokenRevogado t WHERE t.expiraEm > :agora")
+    List<String> findJtisAtivos(@Param("agora") LocalDateTime agora);
+
+    // Revogações recentes, feitas por qualquer instância
+    @Query("SELECT t.jti FROM TokenRevogado t WHERE t.revogadoEm > :desde")
+    List<String> findJtisRevogadosDesde(@Param("desde") LocalDateTime desde);
+
+    @Modifying
+    @Query("DELETE FROM TokenRevogado t WHERE t.expiraEm <= :agora")
+    int deleteExpirados(@Param("agora") LocalDateTime agora);
+}
@@ -1,10 +1,16 @@
 package br.com.minibiz.repository;
 
 import br.com.minibiz.model.user.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, String> {
+    // Consulta cacheável: o resultado guarda só o id e a entidade vem da região minibiz.usuario.
+    // Qualquer escrita na tabela users invalida o resultado.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 }
\ No newline at end of file
@@ -1,13 +1,17 @@
 package br.com.minibiz.repository;
 
+import br.com.minibiz.dto.ResumoClienteDTO;
 import br.com.minibiz.model.venda.ItemVenda;
+import br.com.minibiz.model.venda.StatusVenda;
 import br.com.minibiz.model.venda.Venda;
 import br.com.minibiz.model.client.Client;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query; 
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface VendaRepository extends JpaRepository<Venda, Long> {
@@ -19,6 +23,18 @@ public interface VendaRepository extends JpaRepository<Venda, Long> {
 
     @Query("SELECT v FROM Venda v WHERE v.client.nome = :clientName AND v.vendaDate BETWEEN :startDate AND :endDate")
     List<Venda> findAllByClientNameAndVendaDateBetween(@Param("clientName") String clientName, @Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-}
 
+    // Visão 360 do cliente: ids das últimas vendas, depois as vendas com itens e produtos numa única consulta
+    @Query("SELECT v.id FROM Venda v WHERE v.client.id = :clientId ORDER BY v.vendaDate DESC, v.id DESC")
+    List<Long> findUltimosIdsByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
+    @Query("SELECT DISTINCT v FROM Venda v LEFT JOIN FETCH v.items i LEFT JOIN FETCH i.product "
+            + "WHERE v.id IN :ids ORDER BY v.vendaDate DESC, v.id DESC")
+    List<Venda> findAllComItensByIdIn(@Param("ids") Collection<Long> ids);
 
+    @Query("SELECT new br.com.minibiz.dto.ResumoClienteDTO(COUNT(v), "
+            + "COALESCE(SUM(CASE WHEN v.status = :cancelada THEN 1L ELSE 0L END), 0L), "
+            + "COALESCE(SUM(CASE WHEN v.status = :cancelada THEN 0 ELSE v.valorTotal END), 0), "
+            + "MIN(v.vendaDate), MAX(v.vendaDate)) FROM Venda v WHERE v.client.id = :clientId")
+    ResumoClienteDTO resumirPorCliente(@Param("clientId") Long clientId, @Param("cancelada") StatusVenda cancelada);
+}
@@ -0,0 +1,22 @@
+package br.com.minibiz.repository;
+
+import br.com.minibiz.model.colecao.VersaoColecao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface VersaoColecaoRepository extends JpaRepository<VersaoColecao, String> {
+
+    // Lida sempre do banco, sem cache: outra instância pode ter incrementado a versão
+    @Query("SELECT v.versao FROM VersaoColecao v WHERE v.colecao = :colecao")
+    Optional<Long> findVersao(@Param("colecao") String colecao);
+
+    @Modifying
+    @Query("UPDATE VersaoColecao v SET v.versao = v.versao + 1 WHERE v.colecao = :colecao")
+    int incrementar(@Param("colecao") String colecao);
+}
@@ -0,0 +1,68 @@
+package br.com.minibiz.service;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Descarte de entradas do cache de segundo nível após escritas feitas por fora do Hibernate (JDBC).
+ *
+ * Dentro de uma transação a entrada é travada como o Hibernate faz nas próprias escritas (soft lock da
+ * estratégia READ_WRITE) e destravada ao fim dela: até lá ninguém lê a entrada do cache, e uma leitura
+ * iniciada antes do commit não consegue devolver ao cache a linha anterior. Fora de transação, só descarta.
+ */
+@Component
+public class CacheSegundoNivel {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public void descartar(Class<?> entidade, Object id) {
+        descartar(entidade, List.of(id));
+    }
+
+    public void descartar(Class<?> entidade, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            Cache cache = entityManagerFactory.getCache();
+            ids.forEach(id -> cache.evict(entidade, id));
+            return;
+        }
+        SharedSessionContractImplementor sessao = entityManager.unwrap(SharedSessionContractImplementor.class);
+        EntityPersister persister = sessao.getFactory().getMappingMetamodel().getEntityDescriptor(entidade);
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        EntityDataAccess acesso = persister.getCacheAccessStrategy();
+        Map<Object, SoftLock> travas = new LinkedHashMap<>();
+        for (Object id : ids) {
+            Object chave = acesso.generateCacheKey(id, persister, sessao.getFactory(), sessao.getTenantIdentifier());
+            travas.put(chave, acesso.lockItem(sessao, chave, null));
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                travas.forEach((chave, trava) -> acesso.unlockItem(sessao, chave, trava));
+            }
+        });
+    }
+}
@@ -0,0 +1,285 @@
+package br.com.minibiz.service;
+
+import br.com.minibiz.config.exception.BadRequestException;
+import br.com.minibiz.dto.ClientImportResultDTO;
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.service.CollectionVersionService.Colecao;
+import br.com.minibiz.service.csv.CsvLineParser;
+import br.com.minibiz.service.dedup.ChaveContato;
+import br.com.minibiz.service.dedup.LongHashSet;
+import br.com.minibiz.service.search.ClientSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importação de clientes a partir de CSV, lido linha a linha, descartando repetidos.
+ *
+ * Dois clientes são o mesmo quando têm o mesmo e-mail ou o mesmo telefone depois de normalizados.
+ * Os contatos já cadastrados e os do arquivo ficam em memória só como hashes de 64 bits num conjunto
+ * de long primitivos, então a memória cresce com 8 a 16 bytes por contato, e não com as linhas.
+ * Os clientes novos são gravados em lotes via batch JDBC; a primeira ocorrência prevalece e as
+ * seguintes são relatadas como duplicadas.
+ *
+ * Cada lote é confirmado por si: se a gravação de um lote falha, só ele volta atrás, a importação segue com
+ * os próximos e o resultado informa o intervalo de linhas que ficou de fora.
+ */
+@Service
+public class ClientImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientImportService.class);
+    private static final int TAMANHO_MAXIMO_LOTE = 5000;
+    private static final int FETCH_SIZE_CONTATOS = 1000;
+
+    private static final String COLUNA_NOME = "nome";
+    private static final String COLUNA_EMAIL = "email";
+    private static final String COLUNA_TELEFONE = "telefone";
+    private static final String COLUNA_ENDERECO = "endereco";
+    private static final String MOTIVO_LOTE_NAO_GRAVADO = "Erro ao gravar o lote no banco de dados.";
+
+    private static final String SQL_TOTAL_E_MAIOR_ID = "SELECT COUNT(*), COALESCE(MAX(id), 0) FROM client";
+    private static final String SQL_CONTATOS = "SELECT email, telefone FROM client";
+    private static final String SQL_INSERT =
+            "INSERT INTO client (nome, email, telefone, endereco, data_atualizacao) "
+                    + "VALUES (:nome, :email, :telefone, :endereco, :agora)";
+    private static final String SQL_CLIENTES_NOVOS =
+            "SELECT id, nome, email, telefone FROM client WHERE id > :ultimoId ORDER BY id";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ClientSearchIndex clientSearchIndex;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Value("${minibiz.importacao.tamanho-lote:500}")
+    private int tamanhoLotePadrao;
+
+    private record LinhaCliente(long linha, String nome, String email, String telefone, String telefoneNormalizado,
+            String endereco) {
+    }
+
+    // Contatos já vistos, separados para que o relatório diga se o repetido veio do banco ou do arquivo
+    private record Contatos(LongHashSet cadastrados, LongHashSet doArquivo) {
+    }
+
+    public ClientImportResultDTO importar(InputStream csv, Integer tamanhoLote) throws IOException {
+        int lote = Math.min(Math.max(tamanhoLote != null ? tamanhoLote : tamanhoLotePadrao, 1), TAMANHO_MAXIMO_LOTE);
+        ClientImportResultDTO resultado = new ClientImportResultDTO();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String cabecalho = reader.readLine();
+            if (cabecalho == null || cabecalho.isBlank()) {
+                throw new BadRequestException("Arquivo CSV vazio.");
+            }
+            if (cabecalho.charAt(0) == '\uFEFF') {
+                cabecalho = cabecalho.substring(1);
+            }
+            CsvLineParser parser = CsvLineParser.detectar(cabecalho);
+            Map<String, Integer> colunas = mapearColunas(parser.parse(cabecalho));
+
+            long[] ultimoIdIndexado = new long[1];
+            Contatos contatos = carregarContatosCadastrados(ultimoIdIndexado);
+            List<LinhaCliente> pendentes = new ArrayList<>(lote);
+            String linha;
+            long numeroLinha = 1;
+            while ((linha = reader.readLine()) != null) {
+                numeroLinha++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                LinhaCliente cliente;
+                try {
+                    cliente = converter(numeroLinha, parser.parse(linha), colunas);
+                } catch (IllegalArgumentException e) {
+                    resultado.rejeitar(numeroLinha, e.getMessage());
+                    continue;
+                }
+                String duplicado = registrarContatos(cliente, contatos);
+                if (duplicado != null) {
+                    resultado.duplicar(numeroLinha, duplicado);
+                    continue;
+                }
+                pendentes.add(cliente);
+                if (pendentes.size() >= lote) {
+                    ultimoIdIndexado[0] = gravarLote(pendentes, resultado, ultimoIdIndexado[0]);
+                }
+            }
+            gravarLote(pendentes, resultado, ultimoIdIndexado[0]);
+            log.info("Importação de clientes: {} inseridos, {} duplicados, {} rejeitados ({} KB em chaves de contato)",
+                    resultado.getInseridos(), resultado.getDuplicados(), resultado.getRejeitados(),
+                    (contatos.cadastrados().bytesAlocados() + contatos.doArquivo().bytesAlocados()) / 1024);
+        }
+        return resultado;
+    }
+
+    // Lê os contatos cadastrados em fluxo, guardando só os hashes, e o maior id atual para reindexar depois
+    private Contatos carregarContatosCadastrados(long[] maiorId) {
+        return transactionTemplate.execute(status -> {
+            int[] total = new int[1];
+            jdbcTemplate.getJdbcOperations().query(SQL_TOTAL_E_MAIOR_ID, rs -> {
+                total[0] = rs.getInt(1);
+                maiorId[0] = rs.getLong(2);
+            });
+            LongHashSet cadastrados = new LongHashSet(2 * total[0]);
+            // Com fetch size o driver do PostgreSQL usa cursor e não traz a tabela inteira de uma vez
+            jdbcTemplate.getJdbcOperations().query(con -> {
+                PreparedStatement ps = con.prepareStatement(SQL_CONTATOS);
+                ps.setFetchSize(FETCH_SIZE_CONTATOS);
+                return ps;
+            }, rs -> {
+                adicionarCadastrado(cadastrados, rs.getString("email"), true);
+                adicionarCadastrado(cadastrados, rs.getString("telefone"), false);
+            });
+            return new Contatos(cadastrados, new LongHashSet(1024));
+        });
+    }
+
+    // Contatos antigos fora do padrão atual não impedem a importação; só não entram na comparação
+    private static void adicionarCadastrado(LongHashSet cadastrados, String valor, boolean email) {
+        try {
+            String normalizado = email ? ChaveContato.normalizarEmail(valor) : ChaveContato.normalizarTelefone(valor);
+            if (normalizado != null) {
+                cadastrados.add(email ? ChaveContato.hashEmail(normalizado) : ChaveContato.hashTelefone(normalizado));
+            }
+        } catch (IllegalArgumentException e) {
+            // contato inválido já gravado: ignorado
+        }
+    }
+
+    /**
+     * Devolve o motivo se o e-mail ou o telefone já foi visto; senão registra os dois e devolve nulo.
+     * Um repetido não registra seus contatos, então só a primeira ocorrência define quem é o cliente.
+     */
+    private static String registrarContatos(LinhaCliente cliente, Contatos contatos) {
+        long hashEmail = cliente.email() != null ? ChaveContato.hashEmail(cliente.email()) : 0;
+        long hashTelefone = cliente.telefone() != null ? ChaveContato.hashTelefone(cliente.telefoneNormalizado()) : 0;
+        if (cliente.email() != null) {
+            if (contatos.cadastrados().contains(hashEmail)) {
+                return "e-mail já cadastrado: " + cliente.email();
+            }
+            if (contatos.doArquivo().contains(hashEmail)) {
+                return "e-mail repetido no arquivo: " + cliente.email();
+            }
+        }
+        if (cliente.telefone() != null) {
+            if (contatos.cadastrados().contains(hashTelefone)) {
+                return "telefone já cadastrado: " + cliente.telefone();
+            }
+            if (contatos.doArquivo().contains(hashTelefone)) {
+                return "telefone repetido no arquivo: " + cliente.telefone();
+            }
+        }
+        if (cliente.email() != null) {
+            contatos.doArquivo().add(hashEmail);
+        }
+        if (cliente.telefone() != null) {
+            contatos.doArquivo().add(hashTelefone);
+        }
+        return null;
+    }
+
+    private long gravarLote(List<LinhaCliente> pendentes, ClientImportResultDTO resultado, long ultimoIdIndexado) {
+        if (pendentes.isEmpty()) {
+            return ultimoIdIndexado;
+        }
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        MapSqlParameterSource[] inserts = pendentes.stream()
+                .map(cliente -> new MapSqlParameterSource()
+                        .addValue("nome", cliente.nome(), Types.VARCHAR)
+                        .addValue("email", cliente.email(), Types.VARCHAR)
+                        .addValue("telefone", cliente.telefone(), Types.VARCHAR)
+                        .addValue("endereco", cliente.endereco(), Types.VARCHAR)
+                        .addValue("agora", agora, Types.TIMESTAMP))
+                .toArray(MapSqlParameterSource[]::new);
+        long primeira = pendentes.get(0).linha();
+        long ultima = pendentes.get(pendentes.size() - 1).linha();
+        pendentes.clear();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(SQL_INSERT, inserts));
+        } catch (DataAccessException | TransactionException e) {
+            // O lote volta atrás por inteiro; o detalhe do banco fica no log, a resposta diz só quais linhas faltaram
+            log.warn("Importação de clientes: lote das linhas {} a {} não gravado", primeira, ultima, e);
+            resultado.naoGravar(primeira, ultima, inserts.length, MOTIVO_LOTE_NAO_GRAVADO);
+            return ultimoIdIndexado;
+        }
+        resultado.somarInseridos(inserts.length);
+        collectionVersionService.incrementar(Colecao.CLIENTES);
+        return indexarNovos(ultimoIdIndexado);
+    }
+
+    // O batch JDBC não devolve os ids gerados: indexa para a busca tudo o que foi criado desde o último lote
+    private long indexarNovos(long ultimoIdIndexado) {
+        long[] maiorId = {ultimoIdIndexado};
+        jdbcTemplate.query(SQL_CLIENTES_NOVOS, new MapSqlParameterSource("ultimoId", ultimoIdIndexado), rs -> {
+            Client client = new Client();
+            client.setId(rs.getLong("id"));
+            client.setNome(rs.getString("nome"));
+            client.setEmail(rs.getString("email"));
+            client.setTelefone(rs.getString("telefone"));
+            clientSearchIndex.indexar(client);
+            maiorId[0] = client.getId();
+        });
+        return maiorId[0];
+    }
+
+    private Map<String, Integer> mapearColunas(List<String> cabecalho) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(cabecalho.get(i).toLowerCase(Locale.ROOT).replace("_", "").replace("-", ""), i);
+        }
+        if (!colunas.containsKey(COLUNA_NOME)) {
+            throw new BadRequestException("Cabeçalho do CSV sem a coluna obrigatória: nome."
+                    + " Colunas aceitas: nome, email, telefone, endereco.");
+        }
+        return colunas;
+    }
+
+    // O e-mail é gravado normalizado; o telefone mantém a formatação do arquivo
+    private static LinhaCliente converter(long numeroLinha, List<String> campos, Map<String, Integer> colunas) {
+        String nome = campo(campos, colunas, COLUNA_NOME);
+        if (nome == null) {
+            throw new IllegalArgumentException("nome é obrigatório.");
+        }
+        String email = ChaveContato.normalizarEmail(campo(campos, colunas, COLUNA_EMAIL));
+        String telefone = campo(campos, colunas, COLUNA_TELEFONE);
+        return new LinhaCliente(numeroLinha, nome, email, telefone, ChaveContato.normalizarTelefone(telefone),
+                campo(campos, colunas, COLUNA_ENDERECO));
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> colunas, String coluna) {
+        Integer indice = colunas.get(coluna);
+        if (indice == null || indice >= campos.size() || campos.get(indice).isEmpty()) {
+            return null;
+        }
+        return campos.get(indice);
+    }
+}
@@ -2,12 +2,18 @@ package br.com.minibiz.service;
 
 import br.com.minibiz.config.exception.ClientNotFoundException;
 import br.com.minibiz.config.exception.ClientServiceException;
+import br.com.minibiz.dto.ClientSearchResultDTO;
 import br.com.minibiz.model.client.Client;
 import br.com.minibiz.repository.ClientRepository;
+import br.com.minibiz.service.CollectionVersionService.Colecao;
+import br.com.minibiz.service.search.ClientSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -15,13 +21,25 @@ public class ClientService {
 	@Autowired
 	private ClientRepository clientRepository;
 
+	@Autowired
+	private CollectionVersionService collectionVersionService;
+
+	@Autowired
+	private ClientSearchIndex clientSearchIndex;
+
+	private static final int LIMITE_MAXIMO_BUSCA = 50;
+
 	public Client findById(Long id) {
 		return clientRepository.findById(id).orElseThrow(() -> new ClientNotFoundException(id));
 	}
 
 	public Client create(Client client) {
 		try {
-			return clientRepository.save(client);
+			client.setDataAtualizacao(LocalDateTime.now());
+			Client salvo = clientRepository.save(client);
+			clientSearchIndex.indexar(salvo);
+			collectionVersionService.incrementar(Colecao.CLIENTES);
+			return salvo;
 		} catch (Exception e) {
 			throw new ClientServiceException("Erro ao adicionar cliente: " + e.getMessage());
 		}
@@ -35,7 +53,11 @@ public class ClientService {
 			clienteExistente.setEndereco(clienteAtualizado.getEndereco());
 			clienteExistente.setEmail(clienteAtualizado.getEmail());
 			clienteExistente.setTelefone(clienteAtualizado.getTelefone());
-			return clientRepository.save(clienteExistente);
+			clienteExistente.setDataAtualizacao(LocalDateTime.now());
+			Client salvo = clientRepository.save(clienteExistente);
+			clientSearchIndex.indexar(salvo);
+			collectionVersionService.incrementar(Colecao.CLIENTES);
+			return salvo;
 		} else {
 			throw new ClientNotFoundException(id);
 		}
@@ -47,6 +69,8 @@ public class ClientService {
 		}
 		try {
 			clientRepository.deleteById(id);
+			clientSearchIndex.remover(id);
+			collectionVersionService.incrementar(Colecao.CLIENTES);
 		} catch (Exception e) {
 			throw new ClientServiceException("Erro ao deletar cliente: " + e.getMessage());
 		}
@@ -55,4 +79,18 @@ public class ClientService {
 	public Page<Client> findAll(Pageable pageable) {
 		return clientRepository.findAll(pageable);
 	}
+
+	// Busca por nome, e-mail ou telefone servida pelo índice em memória, sem ir ao banco
+	public List<ClientSearchResultDTO> search(String consulta, int limite) {
+		return clientSearchIndex.buscar(consulta, Math.min(Math.max(limite, 1), LIMITE_MAXIMO_BUSCA));
+	}
+
+	// Validadores do GET condicional, obtidos sem carregar os clientes
+	public Optional<LocalDateTime> findUltimaAlteracao(Long id) {
+		return clientRepository.findDataAtualizacaoById(id);
+	}
+
+	public String etagDaPagina(Pageable pageable) {
+		return collectionVersionService.etagDaPagina(Colecao.CLIENTES, pageable);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package br.com.minibiz.service;
+
+import br.com.minibiz.model.colecao.VersaoColecao;
+import br.com.minibiz.repository.VersaoColecaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Versão por coleção, usada como ETag das listagens paginadas.
+ *
+ * Toda escrita numa coleção incrementa a versão; assim uma página pode ser validada com uma leitura
+ * por chave primária, sem a consulta da página. A versão fica no banco (tabela {@code versao_colecao}),
+ * então uma escrita feita por qualquer instância invalida as ETags emitidas por todas.
+ */
+@Service
+public class CollectionVersionService {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectionVersionService.class);
+
+    public enum Colecao {
+        PRODUTOS, CLIENTES
+    }
+
+    private final VersaoColecaoRepository versaoColecaoRepository;
+    private final TransactionTemplate transacaoPropria;
+
+    public CollectionVersionService(VersaoColecaoRepository versaoColecaoRepository,
+            PlatformTransactionManager transactionManager) {
+        this.versaoColecaoRepository = versaoColecaoRepository;
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Cria as linhas que faltam na subida, para que cada escrita custe só o UPDATE do incremento.
+     * Várias instâncias subindo juntas podem tentar criar a mesma linha; a que perde só segue.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void criarVersoes() {
+        for (Colecao colecao : Colecao.values()) {
+            try {
+                transacaoPropria.executeWithoutResult(status -> {
+                    if (versaoColecaoRepository.findVersao(colecao.name()).isEmpty()) {
+                        versaoColecaoRepository.saveAndFlush(new VersaoColecao(colecao.name(), 0));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                log.debug("Versão da coleção {} criada por outra instância", colecao);
+            }
+        }
+    }
+
+    /**
+     * Incrementa a versão da coleção. Dentro de uma transação o incremento só acontece após o commit,
+     * para que uma leitura concorrente não associe a nova versão a dados ainda não confirmados.
+     */
+    public void incrementar(Colecao colecao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    gravarIncremento(colecao);
+                }
+            });
+        } else {
+            gravarIncremento(colecao);
+        }
+    }
+
+    public long versao(Colecao colecao) {
+        return versaoColecaoRepository.findVersao(colecao.name()).orElse(0L);
+    }
+
+    // A página, o tamanho e a ordenação fazem parte da ETag: cada combinação é uma representação diferente
+    public String etagDaPagina(Colecao colecao, Pageable pageable) {
+        String pagina = pageable.isPaged()
+                ? pageable.getPageNumber() + "-" + pageable.getPageSize() + "-" + Integer.toHexString(pageable.getSort().hashCode())
+                : "todos";
+        return "\"" + colecao.name().toLowerCase() + "-" + versao(colecao) + "-" + pagina + "\"";
+    }
+
+    /**
+     * Em transação própria e curta: a linha da coleção fica travada só durante este UPDATE, e não durante toda
+     * a escrita que o disparou, então vendas simultâneas não se enfileiram nela. A escrita já foi confirmada;
+     * uma falha aqui só é registrada no log.
+     */
+    private void gravarIncremento(Colecao colecao) {
+        try {
+            try {
+                transacaoPropria.executeWithoutResult(status -> {
+                    if (versaoColecaoRepository.incrementar(colecao.name()) == 0) {
+                        versaoColecaoRepository.saveAndFlush(new VersaoColecao(colecao.name(), 1));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // A linha sumiu depois da subida e outra instância a recriou ao mesmo tempo
+                transacaoPropria.executeWithoutResult(status -> versaoColecaoRepository.incrementar(colecao.name()));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível incrementar a versão da coleção {}", colecao, e);
+        }
+    }
+}
@@ -1,30 +1,40 @@
 package br.com.minibiz.service;
 
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import br.com.minibiz.model.email.EmailOutbox;
+import br.com.minibiz.repository.EmailOutboxRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import br.com.minibiz.model.user.User;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
 @Service
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
 
     
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(EmailOutboxRepository emailOutboxRepository) {
+        this.emailOutboxRepository = emailOutboxRepository;
+    }
+
+    /**
+     * Grava o email na outbox, dentro da transação corrente quando houver: ele só sai se a operação for
+     * confirmada. O envio por SMTP é feito depois pelo EmailOutboxDispatcher, fora da requisição. Os horários
+     * da outbox são em UTC, o relógio que o dispatcher usa para decidir o que está pronto.
+     */
+    @Transactional
+    public void enfileirar(String destinatario, String assunto, String corpo) {
+        emailOutboxRepository.save(new EmailOutbox(destinatario, assunto, corpo, LocalDateTime.now(ZoneOffset.UTC)));
     }
 
+    @Transactional
     public void sendPasswordResetEmail(User user, String token) {
         String subject = "Reset Password";
         String resetUrl = "http://localhost:4200/reset-password?token=" + token;
         String message = "Click on the following link to reset your password: " + resetUrl;
 
-        SimpleMailMessage email = new SimpleMailMessage();
-        email.setTo(user.getEmail());
-        email.setSubject(subject);
-        email.setText(message);
-
-        mailSender.send(email);
+        enfileirar(user.getEmail(), subject, message);
     }
 }
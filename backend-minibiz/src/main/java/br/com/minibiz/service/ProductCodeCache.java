@@ -0,0 +1,46 @@
+package br.com.minibiz.service;
+
+import br.com.minibiz.model.product.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Near cache código de barras -> id do produto usado pela leitura no PDV.
+ * Guarda só o id: a entidade vem do cache de segundo nível, que já acompanha preço e estoque.
+ * O ProductService mantém o mapa coerente em toda escrita.
+ */
+@Component
+public class ProductCodeCache {
+
+    private final ConcurrentHashMap<String, Long> idPorCodigo = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> codigoPorId = new ConcurrentHashMap<>();
+
+    public Long get(String codigoProduto) {
+        return idPorCodigo.get(codigoProduto);
+    }
+
+    public void put(Product product) {
+        put(product.getId(), product.getCodigoProduto());
+    }
+
+    public void put(Long productId, String novoCodigo) {
+        // O compute serializa as escritas do mesmo produto, mantendo os dois mapas consistentes
+        codigoPorId.compute(productId, (id, codigoAnterior) -> {
+            if (codigoAnterior != null && !codigoAnterior.equals(novoCodigo)) {
+                idPorCodigo.remove(codigoAnterior, id);
+            }
+            if (novoCodigo != null) {
+                idPorCodigo.put(novoCodigo, id);
+            }
+            return novoCodigo;
+        });
+    }
+
+    public void remove(Long id) {
+        codigoPorId.computeIfPresent(id, (chave, codigo) -> {
+            idPorCodigo.remove(codigo, chave);
+            return null;
+        });
+    }
+}
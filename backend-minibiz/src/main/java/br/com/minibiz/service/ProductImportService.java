@@ -0,0 +1,343 @@
+package br.com.minibiz.service;
+
+import br.com.minibiz.config.exception.BadRequestException;
+import br.com.minibiz.dto.ProductImportResultDTO;
+import br.com.minibiz.dto.ProductSearchResultDTO;
+import br.com.minibiz.model.estoque.TipoMovimento;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.service.CollectionVersionService.Colecao;
+import br.com.minibiz.service.csv.CsvLineParser;
+import br.com.minibiz.service.estoque.EstoqueAlteradoEvent;
+import br.com.minibiz.service.estoque.MovimentoEstoqueService;
+import br.com.minibiz.service.search.ProductSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Importação de produtos a partir de CSV, lido linha a linha.
+ *
+ * As linhas válidas são acumuladas em lotes e gravadas com batch JDBC: uma consulta descobre quais
+ * códigos já existem, e então um batch de INSERT e um de UPDATE gravam o lote numa transação.
+ * Só o lote corrente fica em memória, independentemente do tamanho do arquivo.
+ *
+ * Cada lote é confirmado por si: se a gravação de um lote falha, só ele volta atrás, a importação segue com
+ * os próximos e o resultado informa o intervalo de linhas que ficou de fora.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final int TAMANHO_MAXIMO_LOTE = 5000;
+
+    private static final String COLUNA_CODIGO = "codigoproduto";
+    private static final String COLUNA_NOME = "nome";
+    private static final String COLUNA_DESCRICAO = "descricao";
+    private static final String COLUNA_PRECO = "preco";
+    private static final String COLUNA_QUANTIDADE = "quantidadeemestoque";
+    private static final String COLUNA_CATEGORIA = "categoria";
+
+    // Preço no formato brasileiro: vírgula decimal e, opcionalmente, pontos agrupando milhares (1.234,56)
+    private static final Pattern PRECO_BRASILEIRO = Pattern.compile("-?(\\d{1,3}(\\.\\d{3})+|\\d+),\\d+");
+    // Sem vírgula, "1.234" tanto pode ser mil duzentos e trinta e quatro quanto um e pouco
+    private static final Pattern PRECO_AMBIGUO = Pattern.compile("-?\\d{1,3}(\\.\\d{3})+");
+    private static final String MOTIVO_LOTE_NAO_GRAVADO = "Erro ao gravar o lote no banco de dados.";
+
+    // O FOR UPDATE segura o estoque lido até o commit, para que o movimento gravado seja exatamente a diferença
+    private static final String SQL_CODIGOS_EXISTENTES =
+            "SELECT id, codigo_produto, quantidade_em_estoque FROM product WHERE codigo_produto IN (:codigos) FOR UPDATE";
+    private static final String SQL_IDS_POR_CODIGO =
+            "SELECT id, codigo_produto FROM product WHERE codigo_produto IN (:codigos)";
+    private static final String SQL_INSERT =
+            "INSERT INTO product (codigo_produto, nome, descricao, preco, quantidade_em_estoque, categoria, data_criacao, versao) "
+                    + "VALUES (:codigo, :nome, :descricao, :preco, COALESCE(:quantidade, 0), :categoria, :agora, 0)";
+    // Campos opcionais vazios no CSV preservam o valor atual
+    private static final String SQL_UPDATE =
+            "UPDATE product SET nome = :nome, descricao = COALESCE(:descricao, descricao), preco = :preco, "
+                    + "quantidade_em_estoque = COALESCE(:quantidade, quantidade_em_estoque), "
+                    + "categoria = COALESCE(:categoria, categoria), data_atualizacao = :agora, versao = versao + 1 "
+                    + "WHERE codigo_produto = :codigo";
+    private static final String SQL_PRODUTOS_DO_LOTE =
+            "SELECT id, nome, codigo_produto, categoria FROM product WHERE codigo_produto IN (:codigos)";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CacheSegundoNivel cacheSegundoNivel;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCodeCache productCodeCache;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MovimentoEstoqueService movimentoEstoqueService;
+
+    @Value("${minibiz.importacao.tamanho-lote:500}")
+    private int tamanhoLotePadrao;
+
+    private record LinhaProduto(long linha, String codigoProduto, String nome, String descricao, BigDecimal preco,
+            Integer quantidade, String categoria) {
+    }
+
+    private record ProdutoExistente(long id, int quantidade) {
+    }
+
+    private record LoteGravado(int inseridos, List<Long> idsAtualizados) {
+    }
+
+    public ProductImportResultDTO importar(InputStream csv, Integer tamanhoLote) throws IOException {
+        int lote = Math.min(Math.max(tamanhoLote != null ? tamanhoLote : tamanhoLotePadrao, 1), TAMANHO_MAXIMO_LOTE);
+        ProductImportResultDTO resultado = new ProductImportResultDTO();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            String cabecalho = reader.readLine();
+            if (cabecalho == null || cabecalho.isBlank()) {
+                throw new BadRequestException("Arquivo CSV vazio.");
+            }
+            if (cabecalho.charAt(0) == '\uFEFF') {
+                cabecalho = cabecalho.substring(1);
+            }
+            CsvLineParser parser = CsvLineParser.detectar(cabecalho);
+            Map<String, Integer> colunas = mapearColunas(parser.parse(cabecalho));
+
+            Map<String, LinhaProduto> pendentes = new LinkedHashMap<>();
+            String linha;
+            long numeroLinha = 1;
+            while ((linha = reader.readLine()) != null) {
+                numeroLinha++;
+                if (linha.isBlank()) {
+                    continue;
+                }
+                LinhaProduto produto;
+                try {
+                    produto = converter(numeroLinha, parser.parse(linha), colunas, parser.getSeparador());
+                } catch (IllegalArgumentException e) {
+                    resultado.rejeitar(numeroLinha, e.getMessage());
+                    continue;
+                }
+                // O mesmo código duas vezes no lote: grava o que já está pendente para a última linha prevalecer
+                if (pendentes.containsKey(produto.codigoProduto())) {
+                    gravarLote(pendentes, resultado);
+                }
+                pendentes.put(produto.codigoProduto(), produto);
+                if (pendentes.size() >= lote) {
+                    gravarLote(pendentes, resultado);
+                }
+            }
+            gravarLote(pendentes, resultado);
+        }
+        eventPublisher.publishEvent(EstoqueAlteradoEvent.recalcular());
+        return resultado;
+    }
+
+    private void gravarLote(Map<String, LinhaProduto> pendentes, ProductImportResultDTO resultado) {
+        if (pendentes.isEmpty()) {
+            return;
+        }
+        List<LinhaProduto> linhas = new ArrayList<>(pendentes.values());
+        List<String> codigos = new ArrayList<>(pendentes.keySet());
+        pendentes.clear();
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        LoteGravado gravado;
+        try {
+            gravado = transactionTemplate.execute(status -> gravarNaTransacao(linhas, codigos, agora));
+        } catch (DataAccessException | TransactionException e) {
+            // O lote volta atrás por inteiro; o detalhe do banco fica no log, a resposta diz só quais linhas faltaram
+            long primeira = linhas.get(0).linha();
+            long ultima = linhas.get(linhas.size() - 1).linha();
+            log.warn("Importação de produtos: lote das linhas {} a {} não gravado", primeira, ultima, e);
+            resultado.naoGravar(primeira, ultima, linhas.size(), MOTIVO_LOTE_NAO_GRAVADO);
+            return;
+        }
+
+        resultado.somarInseridos(gravado.inseridos());
+        resultado.somarAtualizados(gravado.idsAtualizados().size());
+        atualizarEstruturasEmMemoria(codigos);
+    }
+
+    private LoteGravado gravarNaTransacao(List<LinhaProduto> linhas, List<String> codigos, Timestamp agora) {
+        Map<String, ProdutoExistente> existentes = new HashMap<>();
+        jdbcTemplate.query(SQL_CODIGOS_EXISTENTES, new MapSqlParameterSource("codigos", codigos),
+                rs -> {
+                    existentes.put(rs.getString("codigo_produto"),
+                            new ProdutoExistente(rs.getLong("id"), rs.getInt("quantidade_em_estoque")));
+                });
+
+        List<MapSqlParameterSource> inserts = new ArrayList<>();
+        List<MapSqlParameterSource> updates = new ArrayList<>();
+        for (LinhaProduto linha : linhas) {
+            MapSqlParameterSource parametros = new MapSqlParameterSource()
+                    .addValue("codigo", linha.codigoProduto(), Types.VARCHAR)
+                    .addValue("nome", linha.nome(), Types.VARCHAR)
+                    .addValue("descricao", linha.descricao(), Types.VARCHAR)
+                    .addValue("preco", linha.preco(), Types.NUMERIC)
+                    .addValue("quantidade", linha.quantidade(), Types.INTEGER)
+                    .addValue("categoria", linha.categoria(), Types.VARCHAR)
+                    .addValue("agora", agora, Types.TIMESTAMP);
+            (existentes.containsKey(linha.codigoProduto()) ? updates : inserts).add(parametros);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT, inserts.toArray(new MapSqlParameterSource[0]));
+        }
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_UPDATE, updates.toArray(new MapSqlParameterSource[0]));
+        }
+        registrarMovimentos(linhas, existentes);
+        List<Long> idsAtualizados = existentes.values().stream().map(ProdutoExistente::id).toList();
+        // O batch JDBC passa por fora do Hibernate: as entradas do cache de segundo nível ficam travadas até o commit
+        cacheSegundoNivel.descartar(Product.class, idsAtualizados);
+        return new LoteGravado(inserts.size(), idsAtualizados);
+    }
+
+    // Cadastro com a quantidade inicial para os novos; diferença de estoque para os atualizados que a informaram
+    private void registrarMovimentos(List<LinhaProduto> linhas, Map<String, ProdutoExistente> existentes) {
+        List<String> novos = linhas.stream().map(LinhaProduto::codigoProduto)
+                .filter(codigo -> !existentes.containsKey(codigo)).toList();
+        Map<String, Long> idsNovos = new HashMap<>();
+        if (!novos.isEmpty()) {
+            jdbcTemplate.query(SQL_IDS_POR_CODIGO, new MapSqlParameterSource("codigos", novos), rs -> {
+                idsNovos.put(rs.getString("codigo_produto"), rs.getLong("id"));
+            });
+        }
+        for (LinhaProduto linha : linhas) {
+            ProdutoExistente existente = existentes.get(linha.codigoProduto());
+            if (existente == null) {
+                movimentoEstoqueService.registrar(idsNovos.get(linha.codigoProduto()),
+                        linha.quantidade() != null ? linha.quantidade() : 0, TipoMovimento.CADASTRO, null);
+            } else if (linha.quantidade() != null) {
+                movimentoEstoqueService.registrar(existente.id(), linha.quantidade() - existente.quantidade(),
+                        TipoMovimento.IMPORTACAO, null);
+            }
+        }
+    }
+
+    // Reindexa o lote já confirmado
+    private void atualizarEstruturasEmMemoria(List<String> codigos) {
+        collectionVersionService.incrementar(Colecao.PRODUTOS);
+        jdbcTemplate.query(SQL_PRODUTOS_DO_LOTE, new MapSqlParameterSource("codigos", codigos), rs -> {
+            ProductSearchResultDTO produto = new ProductSearchResultDTO(rs.getLong("id"), rs.getString("nome"),
+                    rs.getString("codigo_produto"), rs.getString("categoria"));
+            productSearchIndex.indexar(produto);
+            productCodeCache.put(produto.id(), produto.codigoProduto());
+        });
+    }
+
+    private Map<String, Integer> mapearColunas(List<String> cabecalho) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.size(); i++) {
+            colunas.put(cabecalho.get(i).toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        for (String obrigatoria : List.of(COLUNA_CODIGO, COLUNA_NOME, COLUNA_PRECO)) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new BadRequestException("Cabeçalho do CSV sem a coluna obrigatória: " + obrigatoria
+                        + ". Colunas aceitas: codigoProduto, nome, descricao, preco, quantidadeEmEstoque, categoria.");
+            }
+        }
+        return colunas;
+    }
+
+    private LinhaProduto converter(long numeroLinha, List<String> campos, Map<String, Integer> colunas, char separador) {
+        String codigo = campo(campos, colunas, COLUNA_CODIGO);
+        if (codigo == null) {
+            throw new IllegalArgumentException("codigoProduto é obrigatório.");
+        }
+        String nome = campo(campos, colunas, COLUNA_NOME);
+        if (nome == null) {
+            throw new IllegalArgumentException("nome é obrigatório.");
+        }
+        BigDecimal preco = converterPreco(campo(campos, colunas, COLUNA_PRECO), separador);
+        Integer quantidade = converterQuantidade(campo(campos, colunas, COLUNA_QUANTIDADE));
+        return new LinhaProduto(numeroLinha, codigo, nome, campo(campos, colunas, COLUNA_DESCRICAO), preco, quantidade,
+                campo(campos, colunas, COLUNA_CATEGORIA));
+    }
+
+    private static String campo(List<String> campos, Map<String, Integer> colunas, String coluna) {
+        Integer indice = colunas.get(coluna);
+        if (indice == null || indice >= campos.size() || campos.get(indice).isEmpty()) {
+            return null;
+        }
+        return campos.get(indice);
+    }
+
+    private static BigDecimal converterPreco(String valor, char separador) {
+        if (valor == null) {
+            throw new IllegalArgumentException("preco é obrigatório.");
+        }
+        // Com ';' como separador o preço costuma vir no formato brasileiro (1.234,56). Os pontos só são tratados
+        // como milhar quando há vírgula decimal; sem ela vale o ponto decimal (2.50), e "1.234" é recusado
+        String normalizado = valor;
+        if (separador == ';') {
+            if (valor.indexOf(',') >= 0) {
+                if (!PRECO_BRASILEIRO.matcher(valor).matches()) {
+                    throw new IllegalArgumentException("preco inválido: " + valor);
+                }
+                normalizado = valor.replace(".", "").replace(',', '.');
+            } else if (PRECO_AMBIGUO.matcher(valor).matches()) {
+                throw new IllegalArgumentException("preco ambíguo: " + valor + " (informe os centavos com vírgula, ex.: 1.234,00)");
+            }
+        }
+        try {
+            BigDecimal preco = new BigDecimal(normalizado);
+            if (preco.signum() < 0) {
+                throw new IllegalArgumentException("preco não pode ser negativo: " + valor);
+            }
+            return preco;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("preco inválido: " + valor);
+        }
+    }
+
+    private static Integer converterQuantidade(String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            int quantidade = Integer.parseInt(valor);
+            if (quantidade < 0) {
+                throw new IllegalArgumentException("quantidadeEmEstoque não pode ser negativa: " + valor);
+            }
+            return quantidade;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("quantidadeEmEstoque inválida: " + valor);
+        }
+    }
+}
@@ -1,14 +1,36 @@
 package br.com.minibiz.service;
 
+import br.com.minibiz.config.exception.BadRequestException;
+import br.com.minibiz.config.exception.ConflictException;
+import br.com.minibiz.dto.ProductBulkPriceRequest;
+import br.com.minibiz.dto.ProductBulkStockRequest;
+import br.com.minibiz.dto.ProductPatchDTO;
+import br.com.minibiz.dto.ProductSearchResultDTO;
+import br.com.minibiz.model.estoque.TipoMovimento;
 import br.com.minibiz.model.product.Product;
 import br.com.minibiz.repository.ProductRepository;
 import br.com.minibiz.config.exception.ProductNotFoundException;
+import br.com.minibiz.service.CollectionVersionService.Colecao;
+import br.com.minibiz.service.estoque.EstoqueAlteradoEvent;
+import br.com.minibiz.service.estoque.MovimentoEstoqueService;
+import br.com.minibiz.service.search.ProductSearchIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -17,42 +39,296 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCodeCache productCodeCache;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheSegundoNivel cacheSegundoNivel;
+
+    @Autowired
+    private MovimentoEstoqueService movimentoEstoqueService;
+
+    private static final int LIMITE_MAXIMO_BUSCA = 50;
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    @Transactional
     public Product create(Product product) {
         product.setDataCriacao(LocalDateTime.now());
-        return productRepository.save(product);
+        Product salvo = productRepository.save(product);
+        movimentoEstoqueService.registrar(salvo.getId(), salvo.getQuantidadeEmEstoque(), TipoMovimento.CADASTRO, null);
+        indexarAposCommit(salvo);
+        collectionVersionService.incrementar(Colecao.PRODUTOS);
+        eventPublisher.publishEvent(EstoqueAlteradoEvent.alterado(salvo));
+        return salvo;
     }
 
+    /**
+     * Substitui o cadastro do produto, exceto o estoque. Vendas não mudam a versão, então um corpo montado antes
+     * delas passaria na checagem e devolveria ao estoque o que foi vendido; o estoque muda só por vendas,
+     * {@code /bulk/estoque} (delta relativo) e importação.
+     */
+    @Transactional
     public Product update(Long id, Product produtoAtualizado) {
-        Optional<Product> produtoOptional = productRepository.findById(id);
+        Optional<Product> produtoOptional = productRepository.findByIdParaAtualizacao(id);
         if (produtoOptional.isPresent()) {
             Product produtoExistente = produtoOptional.get();
+            if (produtoAtualizado.getVersao() != null && !produtoAtualizado.getVersao().equals(produtoExistente.getVersao())) {
+                throw new ConflictException("O produto " + id + " foi alterado por outra operação (versão atual "
+                        + produtoExistente.getVersao() + ").");
+            }
             produtoExistente.setNome(produtoAtualizado.getNome());
             produtoExistente.setDescricao(produtoAtualizado.getDescricao());
             produtoExistente.setPreco(produtoAtualizado.getPreco());
-            produtoExistente.setQuantidadeEmEstoque(produtoAtualizado.getQuantidadeEmEstoque());
+            produtoExistente.setEstoqueMinimo(produtoAtualizado.getEstoqueMinimo());
             produtoExistente.setCodigoProduto(produtoAtualizado.getCodigoProduto());
             produtoExistente.setCategoria(produtoAtualizado.getCategoria());
             produtoExistente.setDataAtualizacao(LocalDateTime.now());
-            return productRepository.save(produtoExistente);
+            produtoExistente.setVersao(produtoExistente.getVersao() + 1);
+            Product salvo = productRepository.save(produtoExistente);
+            indexarAposCommit(salvo);
+            collectionVersionService.incrementar(Colecao.PRODUTOS);
+            eventPublisher.publishEvent(EstoqueAlteradoEvent.alterado(salvo));
+            return salvo;
         } else {
             throw new ProductNotFoundException(id);
         }
     }
 
+    /**
+     * Atualização parcial: um único UPDATE com os campos informados, condicionado à versão lida pelo cliente.
+     * A linha não é relida; se nenhuma linha for alterada, o produto não existe (404) ou mudou desde a leitura (409).
+     */
+    @Transactional
+    public void patch(Long id, ProductPatchDTO patch) {
+        if (patch.versao() == null) {
+            throw new BadRequestException("Informe a versão do produto (campo versao).");
+        }
+        if (patch.preco() != null && patch.preco().signum() < 0) {
+            throw new BadRequestException("O preço não pode ser negativo.");
+        }
+        LocalDateTime agora = LocalDateTime.now();
+        List<String> atribuicoes = new ArrayList<>();
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("versao", patch.versao())
+                .addValue("agora", Timestamp.valueOf(agora));
+        adicionarAtribuicao(atribuicoes, parametros, "nome", patch.nome());
+        adicionarAtribuicao(atribuicoes, parametros, "descricao", patch.descricao());
+        adicionarAtribuicao(atribuicoes, parametros, "preco", patch.preco());
+        adicionarAtribuicao(atribuicoes, parametros, "codigo_produto", patch.codigoProduto());
+        adicionarAtribuicao(atribuicoes, parametros, "categoria", patch.categoria());
+        adicionarAtribuicao(atribuicoes, parametros, "estoque_minimo", patch.estoqueMinimo());
+        if (atribuicoes.isEmpty()) {
+            throw new BadRequestException("Nenhum campo informado para atualizar.");
+        }
+
+        String sql = "UPDATE product SET " + String.join(", ", atribuicoes)
+                + ", data_atualizacao = :agora, versao = versao + 1 WHERE id = :id AND versao = :versao";
+        if (jdbcTemplate.update(sql, parametros) == 0) {
+            if (!productRepository.existsById(id)) {
+                throw new ProductNotFoundException(id);
+            }
+            throw new ConflictException("O produto " + id + " foi alterado por outra operação desde a versão "
+                    + patch.versao() + ".");
+        }
+
+        // O UPDATE passou por fora do Hibernate: descarta só esta entrada do cache de segundo nível
+        cacheSegundoNivel.descartar(Product.class, id);
+        atualizarIndicesAposPatch(id, patch, agora);
+        collectionVersionService.incrementar(Colecao.PRODUTOS);
+    }
+
+    private static void adicionarAtribuicao(List<String> atribuicoes, MapSqlParameterSource parametros,
+            String coluna, Object valor) {
+        if (valor != null) {
+            atribuicoes.add(coluna + " = :" + coluna);
+            parametros.addValue(coluna, valor);
+        }
+    }
+
+    // Índice de busca e near cache são atualizados a partir do que já está em memória e dos campos do patch
+    private void atualizarIndicesAposPatch(Long id, ProductPatchDTO patch, LocalDateTime agora) {
+        if (patch.nome() != null || patch.codigoProduto() != null || patch.categoria() != null) {
+            ProductSearchResultDTO indexado = productSearchIndex.get(id);
+            if (indexado != null) {
+                ProductSearchResultDTO atualizado = new ProductSearchResultDTO(id,
+                        patch.nome() != null ? patch.nome() : indexado.nome(),
+                        patch.codigoProduto() != null ? patch.codigoProduto() : indexado.codigoProduto(),
+                        patch.categoria() != null ? patch.categoria() : indexado.categoria());
+                aposCommit(() -> productSearchIndex.indexar(atualizado));
+            } else {
+                productRepository.findById(id).ifPresent(produto -> aposCommit(() -> productSearchIndex.indexar(produto)));
+            }
+        }
+        if (patch.codigoProduto() != null) {
+            aposCommit(() -> productCodeCache.put(id, patch.codigoProduto()));
+        }
+        if (patch.estoqueMinimo() != null) {
+            productRepository.findSituacaoEstoqueById(id)
+                    .ifPresent(situacao -> eventPublisher.publishEvent(EstoqueAlteradoEvent.alterado(situacao, agora)));
+        }
+    }
+
+    @Transactional
     public void delete(Long id) {
         if (productRepository.existsById(id)) {
             productRepository.deleteById(id);
+            aposCommit(() -> {
+                productSearchIndex.remover(id);
+                productCodeCache.remove(id);
+            });
+            collectionVersionService.incrementar(Colecao.PRODUTOS);
+            eventPublisher.publishEvent(EstoqueAlteradoEvent.removido(id));
         } else {
             throw new ProductNotFoundException(id);
         }
     }
 
+    private void indexarAposCommit(Product produto) {
+        aposCommit(() -> {
+            productSearchIndex.indexar(produto);
+            productCodeCache.put(produto);
+        });
+    }
+
+    // Índice de busca e near cache são compartilhados entre as requisições: só refletem a escrita depois do
+    // commit, para que uma busca não encontre um produto que o rollback desfez
+    private static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
     public Product findById(Long id) {
         return productRepository.findById(id)
             .orElseThrow(() -> new ProductNotFoundException(id));
     }
 
+    /**
+     * Leitura do código de barras: o id sai do near cache e a entidade do cache de segundo nível.
+     * Se o código mudou desde que foi cacheado, a entrada é descartada e a busca vai ao índice único.
+     */
+    public Product findByCodigoProduto(String codigoProduto) {
+        Long id = productCodeCache.get(codigoProduto);
+        if (id != null) {
+            Optional<Product> product = productRepository.findById(id);
+            if (product.isPresent() && codigoProduto.equals(product.get().getCodigoProduto())) {
+                return product.get();
+            }
+            productCodeCache.remove(id);
+        }
+        Product product = productRepository.findByCodigoProduto(codigoProduto)
+            .orElseThrow(() -> new ProductNotFoundException(codigoProduto));
+        productCodeCache.put(product);
+        return product;
+    }
+
     public Page<Product> findAll(Pageable pageable) {
         return productRepository.findAll(pageable);
     }
+
+    // Validadores do GET condicional, obtidos sem carregar os produtos
+    public Optional<LocalDateTime> findUltimaAlteracao(Long id) {
+        return productRepository.findUltimaAlteracaoById(id);
+    }
+
+    public String etagDaPagina(Pageable pageable) {
+        return collectionVersionService.etagDaPagina(Colecao.PRODUTOS, pageable);
+    }
+
+    // Busca por nome, código ou categoria servida pelo índice em memória, sem ir ao banco
+    public List<ProductSearchResultDTO> search(String consulta, int limite) {
+        return productSearchIndex.buscar(consulta, Math.min(Math.max(limite, 1), LIMITE_MAXIMO_BUSCA));
+    }
+
+    /**
+     * Reajusta o preço de todos os produtos do filtro num único UPDATE, sem ler as entidades.
+     * Devolve a quantidade de produtos alterados.
+     */
+    @Transactional
+    public int reajustarPrecos(ProductBulkPriceRequest request) {
+        if (request.percentual() == null && request.valor() == null) {
+            throw new BadRequestException("Informe o percentual e/ou o valor do reajuste.");
+        }
+        BigDecimal percentual = request.percentual() != null ? request.percentual() : BigDecimal.ZERO;
+        if (percentual.compareTo(CEM.negate()) <= 0) {
+            throw new BadRequestException("O percentual de reajuste deve ser maior que -100.");
+        }
+        BigDecimal fator = BigDecimal.ONE.add(percentual.divide(CEM));
+        BigDecimal acrescimo = request.valor() != null ? request.valor() : BigDecimal.ZERO;
+        LocalDateTime agora = LocalDateTime.now();
+
+        validarFiltro(request.categoria(), request.codigos(), request.ids());
+        collectionVersionService.incrementar(Colecao.PRODUTOS);
+        if (request.categoria() != null) {
+            return productRepository.reajustarPrecoPorCategoria(request.categoria().trim(), fator, acrescimo, agora);
+        }
+        if (request.codigos() != null) {
+            return productRepository.reajustarPrecoPorCodigos(request.codigos(), fator, acrescimo, agora);
+        }
+        return productRepository.reajustarPrecoPorIds(request.ids(), fator, acrescimo, agora);
+    }
+
+    /**
+     * Soma o delta ao estoque de todos os produtos do filtro num único UPDATE. Como o ajuste é
+     * relativo e feito pelo banco, não sobrescreve baixas de vendas concorrentes.
+     */
+    @Transactional
+    public int ajustarEstoque(ProductBulkStockRequest request) {
+        if (request.delta() == null || request.delta() == 0) {
+            throw new BadRequestException("Informe um delta de estoque diferente de zero.");
+        }
+        // Truncada à precisão do banco: a mesma data identifica depois os produtos alterados
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        validarFiltro(request.categoria(), request.codigos(), request.ids());
+        collectionVersionService.incrementar(Colecao.PRODUTOS);
+        // O UPDATE em lote não diz quais produtos mudaram: a lista de reposição é recalculada após o commit
+        eventPublisher.publishEvent(EstoqueAlteradoEvent.recalcular());
+        List<Long> alterados;
+        if (request.categoria() != null) {
+            String categoria = request.categoria().trim();
+            productRepository.ajustarEstoquePorCategoria(categoria, request.delta(), agora);
+            alterados = productRepository.findIdsPorCategoriaAlteradosEm(categoria, agora);
+        } else if (request.codigos() != null) {
+            productRepository.ajustarEstoquePorCodigos(request.codigos(), request.delta(), agora);
+            alterados = productRepository.findIdsPorCodigosAlteradosEm(request.codigos(), agora);
+        } else {
+            productRepository.ajustarEstoquePorIds(request.ids(), request.delta(), agora);
+            alterados = productRepository.findIdsPorIdsAlteradosEm(request.ids(), agora);
+        }
+        // As linhas alteradas seguem bloqueadas por esta transação, então a consulta enxerga exatamente o UPDATE
+        movimentoEstoqueService.registrar(alterados, request.delta(), TipoMovimento.AJUSTE);
+        return alterados.size();
+    }
+
+    private static void validarFiltro(String categoria, List<String> codigos, List<Long> ids) {
+        int filtros = (categoria != null ? 1 : 0) + (codigos != null ? 1 : 0) + (ids != null ? 1 : 0);
+        if (filtros != 1) {
+            throw new BadRequestException("Informe exatamente um filtro: categoria, codigos ou ids.");
+        }
+        if ((categoria != null && categoria.isBlank()) || (codigos != null && codigos.isEmpty())
+                || (ids != null && ids.isEmpty())) {
+            throw new BadRequestException("O filtro informado está vazio.");
+        }
+    }
 }
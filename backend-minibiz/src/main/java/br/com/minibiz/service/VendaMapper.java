@@ -0,0 +1,48 @@
+package br.com.minibiz.service;
+
+import br.com.minibiz.dto.ProductDTO;
+import br.com.minibiz.dto.VendaResponse;
+import br.com.minibiz.model.venda.ItemVenda;
+import br.com.minibiz.model.venda.Venda;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cálculos e conversões da venda que não dependem de banco nem de estado do serviço: o total dos itens e o
+ * mapeamento da entidade para a resposta da API.
+ */
+public final class VendaMapper {
+
+    private VendaMapper() {
+    }
+
+    public static BigDecimal calcularTotal(List<ItemVenda> items) {
+        return items.stream()
+                .map(item -> item.getProduct().getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public static VendaResponse convertToVendaResponse(Venda venda) {
+        VendaResponse response = new VendaResponse();
+        response.setId(venda.getId());
+        response.setClientId(venda.getClient().getId());
+        response.setValorTotal(venda.getValorTotal());
+        response.setVendaDate(venda.getVendaDate());
+        response.setStatus(venda.getStatus());
+
+        List<ProductDTO> productDTOs = venda.getItems().stream().map(item -> {
+            ProductDTO dto = new ProductDTO();
+            dto.setId(item.getProduct().getId());
+            dto.setNome(item.getProduct().getNome());
+            dto.setPreco(item.getProduct().getPreco());
+            dto.setQuantidade(item.getQuantidade());
+            return dto;
+        }).collect(Collectors.toList());
+
+        response.setProducts(productDTOs);
+
+        return response;
+    }
+}
@@ -1,8 +1,10 @@
 package br.com.minibiz.service;
 
+import br.com.minibiz.config.exception.ClientNotFoundException;
+import br.com.minibiz.dto.Cliente360DTO;
 import br.com.minibiz.dto.DetalheVendaDTO;
 import br.com.minibiz.dto.ItemVendaDTO;
-import br.com.minibiz.dto.ProductDTO;
+import br.com.minibiz.dto.ResumoClienteDTO;
 import br.com.minibiz.dto.VendaDTO;
 import br.com.minibiz.dto.VendaRelatorioFinanceiroResponse;
 import br.com.minibiz.dto.VendaRequest;
@@ -11,23 +13,43 @@ import br.com.minibiz.model.venda.ItemVenda;
 import br.com.minibiz.model.venda.StatusVenda;
 import br.com.minibiz.model.venda.Venda;
 import br.com.minibiz.model.client.Client;
+import br.com.minibiz.model.estoque.TipoMovimento;
 import br.com.minibiz.model.product.Product;
 import br.com.minibiz.repository.VendaRepository;
 import br.com.minibiz.repository.ClientRepository;
 import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.service.CollectionVersionService.Colecao;
+import br.com.minibiz.service.email.ReciboVendaService;
+import br.com.minibiz.service.estoque.EstoqueProdutoService;
+import br.com.minibiz.service.estoque.MovimentoEstoqueService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Service
-public class VendaService {
+public class VendaService implements MeterBinder {
+
+	private static final int LIMITE_MAXIMO_VENDAS_360 = 50;
+
+	// Contadores publicados em /actuator/metrics/minibiz.vendas.*; os de venda gravada só sobem após o commit
+	private final AtomicLong vendasRegistradas = new AtomicLong();
+	private final AtomicLong vendasCanceladas = new AtomicLong();
+	private final AtomicLong vendasConcluidas = new AtomicLong();
+	private final AtomicLong rejeicoesEstoque = new AtomicLong();
 
 	@Autowired
 	private VendaRepository vendaRepository;
@@ -38,6 +60,18 @@ public class VendaService {
 	@Autowired
 	private ProductRepository productRepository;
 
+	@Autowired
+	private CollectionVersionService collectionVersionService;
+
+	@Autowired
+	private MovimentoEstoqueService movimentoEstoqueService;
+
+	@Autowired
+	private EstoqueProdutoService estoqueProdutoService;
+
+	@Autowired
+	private ReciboVendaService reciboVendaService;
+
 	@Transactional
 	public Venda registrarVenda(Long clientId, List<VendaDTO> produtosDTO) {
 		Client client = clientRepository.findById(clientId)
@@ -48,63 +82,50 @@ public class VendaService {
 		venda.setVendaDate(LocalDateTime.now());
 		venda.setStatus(StatusVenda.AGUARDANDO);
 
-		List<ItemVenda> items = produtosDTO.stream().map(produtoDTO -> {
-			Product product = productRepository.findById(produtoDTO.getProductId())
-					.orElseThrow(() -> new IllegalArgumentException("Produto não encontrado"));
-
-			int novaQuantidade = product.getQuantidadeEmEstoque() - produtoDTO.getQuantidade();
-			if (novaQuantidade < 0) {
-				throw new IllegalArgumentException("Estoque insuficiente para o produto: " + product.getNome());
-			}
-			product.setQuantidadeEmEstoque(novaQuantidade);
-			productRepository.save(product);
-
-			ItemVenda item = new ItemVenda();
-			item.setProduct(product);
-			item.setQuantidade(produtoDTO.getQuantidade());
-			item.setVenda(venda);
-
-			return item;
-		}).collect(Collectors.toList());
+		List<ItemVenda> items = criarItens(produtosDTO, venda);
+		baixarEstoque(items);
 
 		venda.setItems(items);
-		venda.setValorTotal(calcularTotal(items));
-
-		return vendaRepository.save(venda);
+		venda.setValorTotal(VendaMapper.calcularTotal(items));
+		// O estoque dos produtos mudou: invalida as ETags das listagens de produtos
+		collectionVersionService.incrementar(Colecao.PRODUTOS);
+
+		Venda vendaSalva = vendaRepository.save(venda);
+		// Os movimentos vão para o banco no flush do commit, num único batch
+		items.forEach(item -> movimentoEstoqueService.registrar(item.getProduct().getId(), -item.getQuantidade(),
+				TipoMovimento.VENDA, vendaSalva.getId()));
+		contarAposCommit(vendasRegistradas);
+		return vendaSalva;
 	}
 
 	@Transactional(readOnly = true)
 	public Page<VendaResponse> findAll(Pageable pageable) {
-		return vendaRepository.findAll(pageable).map(this::convertToVendaResponse);
+		return vendaRepository.findAll(pageable).map(VendaMapper::convertToVendaResponse);
 	}
 
 	@Transactional(readOnly = true)
 	public VendaResponse findById(Long id) {
 		Venda venda = vendaRepository.findById(id)
 				.orElseThrow(() -> new RuntimeException("Venda com ID " + id + " não encontrada."));
-		return convertToVendaResponse(venda);
+		return VendaMapper.convertToVendaResponse(venda);
 	}
 
-	private VendaResponse convertToVendaResponse(Venda venda) {
-		VendaResponse response = new VendaResponse();
-		response.setId(venda.getId());
-		response.setClientId(venda.getClient().getId());
-		response.setValorTotal(venda.getValorTotal());
-		response.setVendaDate(venda.getVendaDate());
-		response.setStatus(venda.getStatus());
-
-		List<ProductDTO> productDTOs = venda.getItems().stream().map(item -> {
-			ProductDTO dto = new ProductDTO();
-			dto.setId(item.getProduct().getId());
-			dto.setNome(item.getProduct().getNome());
-			dto.setPreco(item.getProduct().getPreco());
-			dto.setQuantidade(item.getQuantidade());
-			return dto;
-		}).collect(Collectors.toList());
+	/**
+	 * Cliente, últimas vendas com itens e totais do histórico numa única transação de leitura,
+	 * com um número fixo de consultas: cliente, ids das últimas vendas, vendas com itens (fetch join) e agregado.
+	 */
+	@Transactional(readOnly = true)
+	public Cliente360DTO cliente360(Long clientId, int limiteVendas) {
+		Client client = clientRepository.findById(clientId).orElseThrow(() -> new ClientNotFoundException(clientId));
 
-		response.setProducts(productDTOs);
+		// Paginar direto o fetch join de coleção faria o Hibernate paginar em memória; por isso os ids vêm antes
+		List<Long> ids = vendaRepository.findUltimosIdsByClientId(clientId,
+				PageRequest.of(0, Math.min(Math.max(limiteVendas, 1), LIMITE_MAXIMO_VENDAS_360)));
+		List<VendaResponse> ultimasVendas = ids.isEmpty() ? List.of()
+				: vendaRepository.findAllComItensByIdIn(ids).stream().map(VendaMapper::convertToVendaResponse).toList();
+		ResumoClienteDTO resumo = vendaRepository.resumirPorCliente(clientId, StatusVenda.CANCELADA);
 
-		return response;
+		return new Cliente360DTO(client, ultimasVendas, resumo);
 	}
 
 	@Transactional
@@ -116,13 +137,35 @@ public class VendaService {
 			throw new IllegalArgumentException("Esta venda já foi cancelada.");
 		}
 
-		vendaExistente.getItems().forEach(item -> {
-			Product product = item.getProduct();
-			product.setQuantidadeEmEstoque(product.getQuantidadeEmEstoque() + item.getQuantidade());
-			productRepository.save(product);
-		});
+		estoqueProdutoService.devolver(vendaExistente.getItems());
+		vendaExistente.getItems().forEach(item -> movimentoEstoqueService.registrar(item.getProduct().getId(),
+				item.getQuantidade(), TipoMovimento.CANCELAMENTO, id));
+		collectionVersionService.incrementar(Colecao.PRODUTOS);
 
 		vendaExistente.setStatus(StatusVenda.CANCELADA);
+		contarAposCommit(vendasCanceladas);
+		return vendaRepository.save(vendaExistente);
+	}
+
+	/**
+	 * Conclui uma venda aguardando e coloca o recibo do cliente na outbox de emails, na mesma transação:
+	 * o email só sai se a conclusão for gravada.
+	 */
+	@Transactional
+	public Venda concluir(Long id) {
+		Venda vendaExistente = vendaRepository.findById(id)
+				.orElseThrow(() -> new RuntimeException("Venda com ID " + id + " não encontrada."));
+
+		if (StatusVenda.CANCELADA.equals(vendaExistente.getStatus())) {
+			throw new IllegalArgumentException("Venda cancelada não pode ser concluída.");
+		}
+		if (StatusVenda.CONCLUIDA.equals(vendaExistente.getStatus())) {
+			throw new IllegalArgumentException("Esta venda já foi concluída.");
+		}
+
+		vendaExistente.setStatus(StatusVenda.CONCLUIDA);
+		reciboVendaService.enfileirar(vendaExistente);
+		contarAposCommit(vendasConcluidas);
 		return vendaRepository.save(vendaExistente);
 	}
 
@@ -135,36 +178,70 @@ public class VendaService {
 				.orElseThrow(() -> new IllegalArgumentException("Cliente não encontrado"));
 		vendaExistente.setClient(client);
 
-		List<ItemVenda> itemsAtualizados = vendaRequest.getProdutosDTO().stream().map(produtoDTO -> {
+		List<ItemVenda> itemsAtualizados = criarItens(vendaRequest.getProdutosDTO(), vendaExistente);
+		baixarEstoque(itemsAtualizados);
+		itemsAtualizados.forEach(item -> movimentoEstoqueService.registrar(item.getProduct().getId(),
+				-item.getQuantidade(), TipoMovimento.VENDA, id));
+
+		vendaExistente.setItems(itemsAtualizados);
+		vendaExistente.setValorTotal(VendaMapper.calcularTotal(itemsAtualizados));
+		collectionVersionService.incrementar(Colecao.PRODUTOS);
+		vendaExistente.setVendaDate(LocalDateTime.now());
+
+		return vendaRepository.save(vendaExistente);
+	}
+
+	private List<ItemVenda> criarItens(List<VendaDTO> produtosDTO, Venda venda) {
+		return produtosDTO.stream().map(produtoDTO -> {
 			Product product = productRepository.findById(produtoDTO.getProductId())
 					.orElseThrow(() -> new IllegalArgumentException("Produto não encontrado"));
 
-			int novaQuantidade = product.getQuantidadeEmEstoque() - produtoDTO.getQuantidade();
-			if (novaQuantidade < 0) {
-				throw new IllegalArgumentException("Estoque insuficiente para o produto: " + product.getNome());
-			}
-			product.setQuantidadeEmEstoque(novaQuantidade);
-			productRepository.save(product);
-
 			ItemVenda item = new ItemVenda();
 			item.setProduct(product);
 			item.setQuantidade(produtoDTO.getQuantidade());
-			item.setVenda(vendaExistente);
+			item.setVenda(venda);
 
 			return item;
 		}).collect(Collectors.toList());
+	}
 
-		vendaExistente.setItems(itemsAtualizados);
-		vendaExistente.setValorTotal(calcularTotal(itemsAtualizados));
-		vendaExistente.setVendaDate(LocalDateTime.now());
+	// A baixa é um UPDATE condicionado ao saldo no banco; sem saldo, a exceção desfaz a transação inteira
+	private void baixarEstoque(List<ItemVenda> items) {
+		estoqueProdutoService.baixar(items).ifPresent(product -> {
+			rejeicoesEstoque.incrementAndGet();
+			throw new IllegalArgumentException("Estoque insuficiente para o produto: " + product.getNome());
+		});
+	}
 
-		return vendaRepository.save(vendaExistente);
+	// Uma venda que volta atrás no commit não entra nas métricas
+	private static void contarAposCommit(AtomicLong contador) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					contador.incrementAndGet();
+				}
+			});
+		} else {
+			contador.incrementAndGet();
+		}
 	}
 
-	private BigDecimal calcularTotal(List<ItemVenda> items) {
-		return items.stream()
-				.map(item -> item.getProduct().getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())))
-				.reduce(BigDecimal.ZERO, BigDecimal::add);
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("minibiz.vendas.registradas", vendasRegistradas, AtomicLong::get)
+				.description("Vendas registradas")
+				.register(registry);
+		FunctionCounter.builder("minibiz.vendas.canceladas", vendasCanceladas, AtomicLong::get)
+				.description("Vendas canceladas, com o estoque devolvido")
+				.register(registry);
+		FunctionCounter.builder("minibiz.vendas.concluidas", vendasConcluidas, AtomicLong::get)
+				.description("Vendas concluídas")
+				.register(registry);
+		FunctionCounter.builder("minibiz.vendas.rejeitadas", rejeicoesEstoque, AtomicLong::get)
+				.description("Vendas recusadas por estoque insuficiente (registro ou edição)")
+				.tag("motivo", "estoque-insuficiente")
+				.register(registry);
 	}
 
 	public List<DetalheVendaDTO> getSalesReport(LocalDateTime startDate, LocalDateTime endDate, Long clientId, String clientName) {
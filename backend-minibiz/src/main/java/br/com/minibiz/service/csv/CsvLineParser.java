@@ -0,0 +1,59 @@
+package br.com.minibiz.service.csv;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parser de uma linha CSV por vez, para importações em streaming.
+ * Aceita campos entre aspas (com "" como aspas escapadas); quebras de linha dentro de campos não são suportadas.
+ */
+public final class CsvLineParser {
+
+    private final char separador;
+
+    public CsvLineParser(char separador) {
+        this.separador = separador;
+    }
+
+    // Planilhas exportadas em português costumam usar ';' porque a vírgula é o separador decimal
+    public static CsvLineParser detectar(String cabecalho) {
+        return new CsvLineParser(cabecalho.indexOf(';') >= 0 && cabecalho.indexOf(',') < 0 ? ';' : ',');
+    }
+
+    public List<String> parse(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"') {
+                    if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                        campo.append('"');
+                        i++;
+                    } else {
+                        entreAspas = false;
+                    }
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == separador) {
+                campos.add(campo.toString().trim());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (entreAspas) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha.");
+        }
+        campos.add(campo.toString().trim());
+        return campos;
+    }
+
+    public char getSeparador() {
+        return separador;
+    }
+}
@@ -0,0 +1,92 @@
+package br.com.minibiz.service.datagen;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.SplittableRandom;
+
+/**
+ * Quanto cada dia e cada hora vendem, relativamente, num varejo brasileiro: dezembro e a Black Friday em alta,
+ * janeiro e fevereiro em baixa, sábado como o dia mais forte e domingo o mais fraco, picos no almoço e no fim
+ * da tarde, e um crescimento gradual ao longo do período, como numa loja que vai ganhando clientes.
+ */
+public class CalendarioVendas {
+
+    // Janeiro a dezembro
+    private static final double[] PESO_MES = {0.80, 0.78, 0.92, 0.95, 1.05, 0.98, 1.00, 1.02, 0.97, 1.00, 1.12, 1.45};
+    // Segunda a domingo
+    private static final double[] PESO_DIA_SEMANA = {0.90, 0.92, 0.95, 1.00, 1.15, 1.35, 0.55};
+    // Loja aberta das 8h às 21h
+    private static final double[] PESO_HORA = {0, 0, 0, 0, 0, 0, 0, 0, 0.35, 0.60, 0.85, 1.10, 1.30, 1.05, 0.80,
+            0.80, 0.90, 1.15, 1.30, 1.10, 0.60, 0.25, 0, 0};
+    private static final double CRESCIMENTO_NO_PERIODO = 0.30;
+
+    private final LocalDate inicio;
+    private final LocalDate fim;
+    private final double[] horaAcumulada;
+
+    public CalendarioVendas(LocalDate inicio, LocalDate fim) {
+        if (fim.isBefore(inicio)) {
+            throw new IllegalArgumentException("O fim do período não pode ser anterior ao início");
+        }
+        this.inicio = inicio;
+        this.fim = fim;
+        horaAcumulada = new double[PESO_HORA.length];
+        double soma = 0;
+        for (int hora = 0; hora < PESO_HORA.length; hora++) {
+            soma += PESO_HORA[hora];
+            horaAcumulada[hora] = soma;
+        }
+        for (int hora = 0; hora < PESO_HORA.length; hora++) {
+            horaAcumulada[hora] /= soma;
+        }
+    }
+
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    public LocalDate getFim() {
+        return fim;
+    }
+
+    public int dias() {
+        return (int) ChronoUnit.DAYS.between(inicio, fim) + 1;
+    }
+
+    /** Peso relativo do dia; os pesos de todos os dias, somados, dividem as vendas do período. */
+    public double peso(LocalDate dia) {
+        double peso = PESO_MES[dia.getMonthValue() - 1] * PESO_DIA_SEMANA[dia.getDayOfWeek().getValue() - 1];
+        peso *= 1 + CRESCIMENTO_NO_PERIODO * ChronoUnit.DAYS.between(inicio, dia) / Math.max(1, dias() - 1);
+        LocalDate blackFriday = dia.withMonth(Month.NOVEMBER.getValue())
+                .with(TemporalAdjusters.dayOfWeekInMonth(4, DayOfWeek.FRIDAY));
+        LocalDate diaDasMaes = dia.withMonth(Month.MAY.getValue())
+                .with(TemporalAdjusters.dayOfWeekInMonth(2, DayOfWeek.SUNDAY));
+        if (dia.equals(blackFriday)) {
+            peso *= 3.0;
+        } else if (!dia.isBefore(blackFriday.minusDays(3)) && !dia.isAfter(blackFriday.plusDays(3))) {
+            peso *= 1.5; // Semana da Black Friday e a segunda-feira seguinte
+        } else if (dia.getMonth() == Month.DECEMBER && dia.getDayOfMonth() >= 15 && dia.getDayOfMonth() <= 24) {
+            peso *= 1.8;
+        } else if (dia.getMonth() == Month.DECEMBER && dia.getDayOfMonth() == 25
+                || dia.getMonth() == Month.JANUARY && dia.getDayOfMonth() == 1) {
+            peso *= 0.1; // Loja fechada na maior parte do dia
+        } else if (!dia.isBefore(diaDasMaes.minusDays(6)) && dia.isBefore(diaDasMaes)) {
+            peso *= 1.4;
+        }
+        return peso;
+    }
+
+    /** Horário de uma venda no dia, seguindo o movimento da loja ao longo das horas. */
+    public LocalDateTime horario(LocalDate dia, SplittableRandom random) {
+        double alvo = random.nextDouble();
+        int hora = 0;
+        while (hora < horaAcumulada.length - 1 && horaAcumulada[hora] <= alvo) {
+            hora++;
+        }
+        return dia.atTime(hora, random.nextInt(60), random.nextInt(60));
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.minibiz.service.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Tamanho e conteúdo dos carrinhos sintéticos. A maioria das compras tem de 1 a 4 itens (média perto de 2,5);
+ * uma em cada 15 é compra do mês, com 12 itens ou mais. Quase sempre se leva uma unidade de cada produto.
+ */
+final class Carrinho {
+
+    static final int MAXIMO_ITENS = 60;
+    private static final int MAXIMO_CARRINHO_COMUM = 12;
+    private static final int TENTATIVAS_SEM_REPETIR = 5;
+
+    private Carrinho() {
+    }
+
+    /** Preenche {@code destino} com posições distintas de produtos e devolve quantos itens o carrinho tem. */
+    static int sortear(SplittableRandom random, DistribuicaoZipf popularidade, int[] destino) {
+        int tamanho = random.nextInt(15) == 0
+                ? 12 + geometrica(random, 1.0 / 8, MAXIMO_ITENS - 12)
+                : 1 + geometrica(random, 0.4, MAXIMO_CARRINHO_COMUM - 1);
+        tamanho = Math.min(tamanho, popularidade.tamanho());
+        int itens = 0;
+        for (int i = 0; i < tamanho; i++) {
+            // Produto repetido vira outra escolha; num catálogo pequeno o carrinho pode ficar menor
+            for (int tentativa = 0; tentativa < TENTATIVAS_SEM_REPETIR; tentativa++) {
+                int produto = popularidade.sortear(random);
+                if (!contem(destino, itens, produto)) {
+                    destino[itens++] = produto;
+                    break;
+                }
+            }
+        }
+        return itens;
+    }
+
+    static int quantidade(SplittableRandom random) {
+        int sorteio = random.nextInt(100);
+        if (sorteio < 70) {
+            return 1;
+        }
+        if (sorteio < 90) {
+            return 2;
+        }
+        return sorteio < 97 ? 3 + random.nextInt(3) : 6 + random.nextInt(7);
+    }
+
+    // Número de fracassos antes do primeiro sucesso, limitado
+    private static int geometrica(SplittableRandom random, double sucesso, int maximo) {
+        int valor = 0;
+        while (valor < maximo && random.nextDouble() >= sucesso) {
+            valor++;
+        }
+        return valor;
+    }
+
+    private static boolean contem(int[] valores, int tamanho, int valor) {
+        for (int i = 0; i < tamanho; i++) {
+            if (valores[i] == valor) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
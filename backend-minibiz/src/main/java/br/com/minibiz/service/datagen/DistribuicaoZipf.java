@@ -0,0 +1,47 @@
+package br.com.minibiz.service.datagen;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sorteia posições de 0 a n-1 com probabilidade proporcional a 1/(posição+1)^expoente: poucos itens
+ * concentram a maior parte das escolhas, como os campeões de venda de uma loja. A distribuição
+ * acumulada é calculada uma vez; cada sorteio é uma busca binária.
+ */
+public class DistribuicaoZipf {
+
+    private final double[] acumulada;
+
+    public DistribuicaoZipf(int n, double expoente) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("A distribuição precisa de ao menos um item");
+        }
+        acumulada = new double[n];
+        double soma = 0;
+        for (int i = 0; i < n; i++) {
+            soma += 1 / Math.pow(i + 1, expoente);
+            acumulada[i] = soma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= soma;
+        }
+    }
+
+    public int sortear(SplittableRandom random) {
+        double alvo = random.nextDouble();
+        int inicio = 0;
+        int fim = acumulada.length - 1;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (acumulada[meio] < alvo) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    public int tamanho() {
+        return acumulada.length;
+    }
+}
@@ -0,0 +1,294 @@
+package br.com.minibiz.service.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Gera volume realista para testes de desempenho: clientes, produtos e milhões de vendas com seus itens.
+ * <ul>
+ *   <li>popularidade dos produtos em Zipf (poucos campeões de venda, cauda longa) e clientes recorrentes;</li>
+ *   <li>datas seguindo o CalendarioVendas (sazonalidade, Black Friday, dias da semana, horário da loja);</li>
+ *   <li>carrinhos de caixa, quase sempre com poucos itens e alguns de compra do mês.</li>
+ * </ul>
+ * As vendas são gravadas em ordem cronológica com ids explícitos, por JDBC em lotes, sem passar pelo
+ * Hibernate; no fim a identidade das tabelas é reiniciada após o último id. A mesma semente sobre o mesmo
+ * banco gera exatamente os mesmos dados. O estoque dos produtos e o diário de estoque não são alterados:
+ * as vendas geradas são histórico.
+ */
+@Service
+public class GeradorDadosSinteticos {
+
+    private static final Logger log = LoggerFactory.getLogger(GeradorDadosSinteticos.class);
+
+    private static final String SQL_INSERT_CLIENTE =
+            "INSERT INTO client (nome, email, telefone, endereco, data_atualizacao) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_PRODUTO =
+            "INSERT INTO product (codigo_produto, nome, descricao, preco, quantidade_em_estoque, estoque_minimo, "
+                    + "categoria, data_criacao, data_atualizacao, versao) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String SQL_INSERT_VENDA =
+            "INSERT INTO venda (id, client_id, valor_total, venda_date, status) VALUES (?, ?, ?, ?, ?)";
+    private static final String SQL_INSERT_ITEM =
+            "INSERT INTO item_venda (id, venda_id, product_id, quantidade) VALUES (?, ?, ?, ?)";
+    private static final int LOTE_CADASTROS = 1000;
+
+    // Palavras dos nomes gerados; o gerador de carga (minibiz-loadtest) busca por elas
+    private static final String[] TIPOS = {"Café", "Arroz", "Feijão", "Açúcar", "Leite", "Biscoito", "Sabonete",
+            "Detergente", "Macarrão", "Azeite", "Chocolate", "Refrigerante", "Suco", "Farinha", "Molho"};
+    private static final String[] MARCAS = {"Bom Dia", "Serrano", "Vale Verde", "Da Casa", "Tropical", "Primor",
+            "Estrela", "Aurora"};
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Fábio", "Gabriela", "Hugo",
+            "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Santos", "Lima", "Pereira",
+            "Costa", "Almeida", "Ribeiro", "Carvalho"};
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public GeradorDadosSinteticos(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @param clientes e produtos: quantos cadastrar antes das vendas (0 usa apenas os já existentes)
+     * @param expoenteProdutos concentração das vendas nos produtos mais populares (1 é o Zipf clássico)
+     * @param expoenteClientes concentração nos clientes mais frequentes
+     * @param lote vendas por executeBatch e commit
+     */
+    public record Parametros(long semente, int clientes, int produtos, int estoqueInicial, long vendas,
+                             LocalDate inicio, LocalDate fim, double expoenteProdutos, double expoenteClientes,
+                             int lote) {
+    }
+
+    public record Resumo(int clientes, int produtos, long vendas, long itens, Duration duracao) {
+    }
+
+    private record Contagem(long vendas, long itens) {
+    }
+
+    public Resumo gerar(Parametros parametros) {
+        long inicioNs = System.nanoTime();
+        SplittableRandom raiz = new SplittableRandom(parametros.semente());
+        SplittableRandom randomClientes = raiz.split();
+        SplittableRandom randomProdutos = raiz.split();
+        SplittableRandom randomVendas = raiz.split();
+
+        int clientes = inserirClientes(parametros.clientes(), randomClientes);
+        int produtos = inserirProdutos(parametros.produtos(), parametros.estoqueInicial(), randomProdutos);
+        Contagem vendas = inserirVendas(parametros, randomVendas);
+
+        Duration duracao = Duration.ofNanos(System.nanoTime() - inicioNs);
+        return new Resumo(clientes, produtos, vendas.vendas(), vendas.itens(), duracao);
+    }
+
+    public int inserirClientes(int quantidade, SplittableRandom random) {
+        long base = maiorId("client");
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> lote = new ArrayList<>(LOTE_CADASTROS);
+        for (long i = base + 1; i <= base + quantidade; i++) {
+            String nome = NOMES[random.nextInt(NOMES.length)] + " " + SOBRENOMES[random.nextInt(SOBRENOMES.length)];
+            lote.add(new Object[]{nome + " " + i, "cliente" + i + "@sintetico.minibiz.com",
+                    String.format("(11) 9%04d-%04d", i / 10_000 % 10_000, i % 10_000), "Rua Sintética, " + i, agora});
+            if (lote.size() == LOTE_CADASTROS) {
+                jdbcTemplate.batchUpdate(SQL_INSERT_CLIENTE, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT_CLIENTE, lote);
+        }
+        return quantidade;
+    }
+
+    // Preço entre R$ 1,99 e R$ 199,99; nome com tipo e marca, para a busca por palavra encontrar vários
+    public int inserirProdutos(int quantidade, int estoqueInicial, SplittableRandom random) {
+        long base = maiorId("product");
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> lote = new ArrayList<>(LOTE_CADASTROS);
+        for (long i = base + 1; i <= base + quantidade; i++) {
+            String tipo = TIPOS[random.nextInt(TIPOS.length)];
+            lote.add(new Object[]{String.format("SINT-%07d", i), tipo + " " + MARCAS[random.nextInt(MARCAS.length)] + " " + i,
+                    "Produto sintético", BigDecimal.valueOf(199 + random.nextInt(19_801), 2), estoqueInicial, 10, tipo,
+                    agora, agora});
+            if (lote.size() == LOTE_CADASTROS) {
+                jdbcTemplate.batchUpdate(SQL_INSERT_PRODUTO, lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            jdbcTemplate.batchUpdate(SQL_INSERT_PRODUTO, lote);
+        }
+        return quantidade;
+    }
+
+    private Contagem inserirVendas(Parametros parametros, SplittableRandom random) {
+        if (parametros.vendas() <= 0) {
+            return new Contagem(0, 0);
+        }
+        // Ordem de popularidade embaralhada: os campeões de venda não são simplesmente os primeiros ids
+        long[] produtoIds = jdbcTemplate.queryForList("SELECT id FROM product ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        long[] clienteIds = jdbcTemplate.queryForList("SELECT id FROM client ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        if (produtoIds.length == 0 || clienteIds.length == 0) {
+            throw new IllegalStateException("Gerar vendas exige ao menos um cliente e um produto");
+        }
+        embaralhar(produtoIds, random);
+        embaralhar(clienteIds, random);
+        long[] precos = precosEmCentavos(produtoIds);
+        DistribuicaoZipf popularidade = new DistribuicaoZipf(produtoIds.length, parametros.expoenteProdutos());
+        DistribuicaoZipf frequencia = new DistribuicaoZipf(clienteIds.length, parametros.expoenteClientes());
+        CalendarioVendas calendario = new CalendarioVendas(parametros.inicio(), parametros.fim());
+
+        double[] pesos = new double[calendario.dias()];
+        double somaPesos = 0;
+        for (int d = 0; d < pesos.length; d++) {
+            pesos[d] = calendario.peso(parametros.inicio().plusDays(d));
+            somaPesos += pesos[d];
+        }
+
+        long vendaId = maiorId("venda");
+        long itemId = maiorId("item_venda");
+        long gravadas = 0;
+        long totalItens = 0;
+        long proximoAviso = parametros.vendas() / 10;
+        int[] carrinho = new int[Carrinho.MAXIMO_ITENS];
+        try (Connection conexao = dataSource.getConnection()) {
+            boolean autoCommit = conexao.getAutoCommit();
+            conexao.setAutoCommit(false);
+            try (PreparedStatement insertVenda = conexao.prepareStatement(SQL_INSERT_VENDA);
+                 PreparedStatement insertItem = conexao.prepareStatement(SQL_INSERT_ITEM)) {
+                double acumulado = 0;
+                long alocadas = 0;
+                for (int d = 0; d < pesos.length; d++) {
+                    // Arredonda o acumulado, e não cada dia, para que a soma feche no total pedido
+                    acumulado += pesos[d];
+                    long ate = d == pesos.length - 1 ? parametros.vendas()
+                            : Math.round(parametros.vendas() * acumulado / somaPesos);
+                    int vendasNoDia = (int) (ate - alocadas);
+                    alocadas = ate;
+                    LocalDate dia = parametros.inicio().plusDays(d);
+                    LocalDateTime[] horarios = new LocalDateTime[vendasNoDia];
+                    for (int v = 0; v < vendasNoDia; v++) {
+                        horarios[v] = calendario.horario(dia, random);
+                    }
+                    Arrays.sort(horarios);
+                    boolean ultimoDia = d == pesos.length - 1;
+
+                    for (LocalDateTime horario : horarios) {
+                        vendaId++;
+                        int itens = Carrinho.sortear(random, popularidade, carrinho);
+                        long totalCentavos = 0;
+                        for (int i = 0; i < itens; i++) {
+                            int quantidade = Carrinho.quantidade(random);
+                            totalCentavos += precos[carrinho[i]] * quantidade;
+                            insertItem.setLong(1, ++itemId);
+                            insertItem.setLong(2, vendaId);
+                            insertItem.setLong(3, produtoIds[carrinho[i]]);
+                            insertItem.setInt(4, quantidade);
+                            insertItem.addBatch();
+                        }
+                        totalItens += itens;
+                        insertVenda.setLong(1, vendaId);
+                        insertVenda.setLong(2, clienteIds[frequencia.sortear(random)]);
+                        insertVenda.setBigDecimal(3, BigDecimal.valueOf(totalCentavos, 2));
+                        insertVenda.setTimestamp(4, Timestamp.valueOf(horario));
+                        insertVenda.setString(5, status(random, ultimoDia));
+                        insertVenda.addBatch();
+
+                        if (++gravadas % parametros.lote() == 0) {
+                            // Vendas antes dos itens, por causa da chave estrangeira
+                            insertVenda.executeBatch();
+                            insertItem.executeBatch();
+                            conexao.commit();
+                        }
+                        if (gravadas == proximoAviso) {
+                            log.info("Dados sintéticos: {} de {} vendas ({} itens)", gravadas, parametros.vendas(),
+                                    totalItens);
+                            proximoAviso += Math.max(1, parametros.vendas() / 10);
+                        }
+                    }
+                }
+                insertVenda.executeBatch();
+                insertItem.executeBatch();
+                conexao.commit();
+            } catch (SQLException e) {
+                conexao.rollback();
+                throw e;
+            } finally {
+                conexao.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Falha ao gravar as vendas sintéticas", e);
+        }
+        reiniciarIdentidade("venda", vendaId + 1);
+        reiniciarIdentidade("item_venda", itemId + 1);
+        return new Contagem(gravadas, totalItens);
+    }
+
+    // Pendentes só no último dia do período; antes disso a venda já foi concluída ou cancelada
+    private static String status(SplittableRandom random, boolean ultimoDia) {
+        int sorteio = random.nextInt(100);
+        if (ultimoDia && sorteio < 30) {
+            return "AGUARDANDO";
+        }
+        return sorteio >= 95 ? "CANCELADA" : "CONCLUIDA";
+    }
+
+    private long[] precosEmCentavos(long[] produtoIds) {
+        Map<Long, Long> porId = new HashMap<>(produtoIds.length * 2);
+        jdbcTemplate.query("SELECT id, preco FROM product", linha -> {
+            BigDecimal preco = linha.getBigDecimal("preco");
+            porId.put(linha.getLong("id"), preco == null ? 0 : preco.movePointRight(2).longValue());
+        });
+        long[] precos = new long[produtoIds.length];
+        for (int i = 0; i < produtoIds.length; i++) {
+            precos[i] = porId.getOrDefault(produtoIds[i], 0L);
+        }
+        return precos;
+    }
+
+    private long maiorId(String tabela) {
+        Long maior = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + tabela, Long.class);
+        return maior == null ? 0 : maior;
+    }
+
+    // Ids gravados explicitamente: a próxima inserção pela aplicação continua depois do último
+    private void reiniciarIdentidade(String tabela, long proximo) {
+        try {
+            jdbcTemplate.execute("ALTER TABLE " + tabela + " ALTER COLUMN id RESTART WITH " + proximo);
+        } catch (DataAccessException e) {
+            // Tabela criada com bigserial (PostgreSQL) e não como coluna de identidade
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence(?, 'id'), ?, false)", Long.class,
+                    tabela, proximo);
+        }
+    }
+
+    private static void embaralhar(long[] valores, SplittableRandom random) {
+        for (int i = valores.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long troca = valores[i];
+            valores[i] = valores[j];
+            valores[j] = troca;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.minibiz.service.dedup;
+
+import java.util.Locale;
+
+/**
+ * Normalização de e-mail e telefone e o hash de 64 bits usado para identificar clientes repetidos.
+ *
+ * Guardar só o hash mantém a deduplicação de milhões de contatos em poucas dezenas de MB. Com 64 bits,
+ * a chance de dois contatos diferentes colidirem entre alguns milhões de chaves é da ordem de 1 em 10^6;
+ * numa colisão o cliente seria tratado como repetido, e aparece no relatório da importação.
+ */
+public final class ChaveContato {
+
+    // Sementes diferentes para que um e-mail e um telefone com o mesmo texto não gerem a mesma chave
+    private static final long SEMENTE_EMAIL = 0x6D61696CL;
+    private static final long SEMENTE_TELEFONE = 0x74656C65L;
+    private static final int DIGITOS_MINIMOS_TELEFONE = 8;
+
+    private ChaveContato() {
+    }
+
+    // E-mail sem espaços nas pontas e em minúsculas; nulo se vazio
+    public static String normalizarEmail(String email) {
+        if (email == null || email.isBlank()) {
+            return null;
+        }
+        String normalizado = email.trim().toLowerCase(Locale.ROOT);
+        int arroba = normalizado.indexOf('@');
+        if (arroba <= 0 || arroba != normalizado.lastIndexOf('@') || arroba == normalizado.length() - 1
+                || normalizado.indexOf(' ') >= 0) {
+            throw new IllegalArgumentException("e-mail inválido: " + email);
+        }
+        return normalizado;
+    }
+
+    /**
+     * Só os dígitos do telefone, sem o código do país (55) e sem o zero de longa distância,
+     * para que "+55 (11) 98765-4321" e "011 98765 4321" sejam o mesmo número. Nulo se vazio.
+     */
+    public static String normalizarTelefone(String telefone) {
+        if (telefone == null || telefone.isBlank()) {
+            return null;
+        }
+        StringBuilder digitos = new StringBuilder(telefone.length());
+        for (int i = 0; i < telefone.length(); i++) {
+            char c = telefone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        int inicio = 0;
+        while (inicio < digitos.length() && digitos.charAt(inicio) == '0') {
+            inicio++;
+        }
+        // DDI do Brasil seguido de DDD e número com 8 ou 9 dígitos
+        if (digitos.length() - inicio >= 12 && digitos.charAt(inicio) == '5' && digitos.charAt(inicio + 1) == '5') {
+            inicio += 2;
+        }
+        String normalizado = digitos.substring(inicio);
+        if (normalizado.length() < DIGITOS_MINIMOS_TELEFONE) {
+            throw new IllegalArgumentException("telefone inválido: " + telefone);
+        }
+        return normalizado;
+    }
+
+    public static long hashEmail(String emailNormalizado) {
+        return hash(SEMENTE_EMAIL, emailNormalizado);
+    }
+
+    public static long hashTelefone(String telefoneNormalizado) {
+        return hash(SEMENTE_TELEFONE, telefoneNormalizado);
+    }
+
+    // FNV-1a sobre os caracteres, finalizado com o fmix64 do MurmurHash3 para espalhar todos os bits
+    private static long hash(long semente, String texto) {
+        long h = 0xCBF29CE484222325L ^ semente;
+        for (int i = 0; i < texto.length(); i++) {
+            h ^= texto.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE1A85EC5L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.minibiz.service.dedup;
+
+/**
+ * Conjunto de long com endereçamento aberto, sem objetos por elemento: cada chave ocupa 8 bytes
+ * num array (mais a folga do fator de carga), contra dezenas de bytes de um HashSet&lt;Long&gt;.
+ * Não é thread-safe.
+ */
+public final class LongHashSet {
+
+    private static final long VAZIO = 0L;
+    private static final float FATOR_CARGA = 0.75f;
+
+    private long[] chaves;
+    private int mascara;
+    private int tamanho;
+    private int limite;
+    // O zero marca posições vazias, então é guardado à parte
+    private boolean contemZero;
+
+    public LongHashSet(int capacidadeEsperada) {
+        int minimo = (int) Math.min(Math.max(capacidadeEsperada, 4) / FATOR_CARGA + 1, 1 << 30);
+        alocar(Integer.highestOneBit(minimo - 1) << 1);
+    }
+
+    /**
+     * Adiciona a chave e devolve true se ela ainda não estava no conjunto.
+     */
+    public boolean add(long chave) {
+        if (chave == VAZIO) {
+            if (contemZero) {
+                return false;
+            }
+            contemZero = true;
+            tamanho++;
+            return true;
+        }
+        int posicao = posicao(chave);
+        while (chaves[posicao] != VAZIO) {
+            if (chaves[posicao] == chave) {
+                return false;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        chaves[posicao] = chave;
+        if (++tamanho > limite) {
+            crescer();
+        }
+        return true;
+    }
+
+    public boolean contains(long chave) {
+        if (chave == VAZIO) {
+            return contemZero;
+        }
+        int posicao = posicao(chave);
+        while (chaves[posicao] != VAZIO) {
+            if (chaves[posicao] == chave) {
+                return true;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return false;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    // Memória ocupada pelo array de chaves, para dimensionar importações grandes
+    public long bytesAlocados() {
+        return 8L * chaves.length;
+    }
+
+    private void crescer() {
+        long[] anteriores = chaves;
+        alocar(chaves.length << 1);
+        for (long chave : anteriores) {
+            if (chave != VAZIO) {
+                int posicao = posicao(chave);
+                while (chaves[posicao] != VAZIO) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                chaves[posicao] = chave;
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        mascara = capacidade - 1;
+        limite = (int) (capacidade * FATOR_CARGA);
+    }
+
+    // As chaves já são hashes de 64 bits, mas o espalhamento evita agrupamentos se não forem
+    private int posicao(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
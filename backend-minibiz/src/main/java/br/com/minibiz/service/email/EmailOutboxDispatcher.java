@@ -0,0 +1,236 @@
+package br.com.minibiz.service.email;
+
+import br.com.minibiz.model.email.EmailOutbox;
+import br.com.minibiz.model.email.StatusEmail;
+import br.com.minibiz.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envia os emails da outbox em segundo plano, em lotes repartidos entre as conexões do
+ * {@link SmtpTransportPool}. Falhas são reagendadas com espera exponencial; depois de {@code maxTentativas}
+ * o email fica como FALHOU (dead letter).
+ *
+ * Nenhuma transação fica aberta durante o SMTP: o lote é reservado numa transação curta e o resultado
+ * gravado em outra, condicionado à reserva. A reserva dura o pior caso do envio do lote
+ * ({@link SmtpTransportPool#tempoMaximoEnvio}) mais uma folga, para que outra instância não pegue e reenvie
+ * emails que ainda estão sendo enviados.
+ *
+ * Os horários da outbox são gravados em UTC, como os dos tokens.
+ */
+@Service
+public class EmailOutboxDispatcher implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    // Folga da reserva além do envio: gravação do resultado, pausas de GC, relógios um pouco diferentes
+    private static final Duration FOLGA_RESERVA = Duration.ofMinutes(1);
+    // Sem tempos limite no JavaMail o envio não tem pior caso; a reserva fica num valor fixo e generoso
+    private static final Duration RESERVA_SEM_TEMPO_LIMITE = Duration.ofMinutes(15);
+    private static final Duration RETENCAO_ENVIADOS = Duration.ofDays(7);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final SmtpTransportPool transportPool;
+    private final TransactionTemplate transactionTemplate;
+    private final InternetAddress remetente;
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+    private final Duration reserva;
+
+    private final AtomicLong enviados = new AtomicLong();
+    private final AtomicLong falhas = new AtomicLong();
+    private final AtomicLong descartados = new AtomicLong();
+    private final AtomicLong pendentes = new AtomicLong();
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, SmtpTransportPool transportPool,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${MAIL_USERNAME:minibizsolution@gmail.com}") String remetente,
+                                 @Value("${minibiz.email.lote:50}") int tamanhoLote,
+                                 @Value("${minibiz.email.max-tentativas:8}") int maxTentativas,
+                                 @Value("${minibiz.email.espera-inicial-segundos:30}") long esperaInicialSegundos,
+                                 @Value("${minibiz.email.espera-maxima-segundos:3600}") long esperaMaximaSegundos) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.transportPool = transportPool;
+        this.transactionTemplate = transactionTemplate;
+        this.remetente = endereco(remetente);
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.esperaInicial = Duration.ofSeconds(esperaInicialSegundos);
+        this.esperaMaxima = Duration.ofSeconds(esperaMaximaSegundos);
+        this.reserva = transportPool.tempoMaximoEnvio(tamanhoLote)
+                .map(envio -> envio.plus(FOLGA_RESERVA))
+                .orElseGet(() -> {
+                    log.warn("Tempos limite do SMTP não configurados; emails reservados por {}", RESERVA_SEM_TEMPO_LIMITE);
+                    return RESERVA_SEM_TEMPO_LIMITE;
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${minibiz.email.intervalo-ms:5000}")
+    public void despachar() {
+        // Lote cheio indica que pode haver mais emails prontos: segue sem esperar o próximo ciclo
+        int tentados;
+        do {
+            tentados = enviarPendentes();
+        } while (tentados == tamanhoLote);
+        pendentes.set(emailOutboxRepository.countByStatus(StatusEmail.PENDENTE));
+    }
+
+    // Envia um lote de emails prontos e devolve quantos foram tentados
+    public int enviarPendentes() {
+        String reserva = UUID.randomUUID().toString();
+        List<EmailOutbox> lote = reservarLote(reserva);
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        Map<MimeMessage, EmailOutbox> porMensagem = new IdentityHashMap<>();
+        Map<EmailOutbox, Exception> falhasDoLote = new IdentityHashMap<>();
+        for (EmailOutbox email : lote) {
+            try {
+                porMensagem.put(mensagem(email), email);
+            } catch (MessagingException e) {
+                falhasDoLote.put(email, e); // Endereço malformado: nem chega ao servidor
+            }
+        }
+        transportPool.enviar(new ArrayList<>(porMensagem.keySet()))
+                .forEach((mensagem, erro) -> falhasDoLote.put(porMensagem.get(mensagem), erro));
+
+        LocalDateTime agora = LocalDateTime.now(ZoneOffset.UTC);
+        List<Long> entregues = new ArrayList<>();
+        for (EmailOutbox email : lote) {
+            Exception falha = falhasDoLote.get(email);
+            if (falha == null) {
+                email.marcarEnviado(agora);
+                entregues.add(email.getId());
+                continue;
+            }
+            int tentativas = email.getTentativas() + 1;
+            if (tentativas >= maxTentativas) {
+                log.error("Email {} para {} descartado após {} tentativas: {}", email.getId(),
+                        email.getDestinatario(), tentativas, falha.getMessage());
+                email.registrarFalha(falha.getMessage(), null);
+                descartados.incrementAndGet();
+            } else {
+                email.registrarFalha(falha.getMessage(), agora.plus(espera(tentativas)));
+            }
+        }
+        int gravados = transactionTemplate.execute(
+                status -> gravarResultado(reserva, entregues, agora, falhasDoLote.keySet()));
+        if (gravados < lote.size()) {
+            log.warn("Reserva vencida durante o envio: resultado de {} de {} emails não gravado; "
+                    + "outra instância pode tê-los reenviado", lote.size() - gravados, lote.size());
+        }
+
+        enviados.addAndGet(lote.size() - falhasDoLote.size());
+        falhas.addAndGet(falhasDoLote.size());
+        if (!falhasDoLote.isEmpty()) {
+            log.warn("Falha ao enviar {} de {} emails; serão tentados novamente", falhasDoLote.size(), lote.size());
+        }
+        return lote.size();
+    }
+
+    // Emails enviados não são mais necessários depois de alguns dias; os que falharam ficam para análise
+    @Scheduled(cron = "${minibiz.email.limpeza.cron:0 0 4 * * *}")
+    public void limpar() {
+        LocalDateTime limite = LocalDateTime.now(ZoneOffset.UTC).minus(RETENCAO_ENVIADOS);
+        Integer removidos = transactionTemplate.execute(
+                status -> emailOutboxRepository.deleteEnviadosAntesDe(StatusEmail.ENVIADO, limite));
+        log.info("Emails enviados removidos da outbox: {}", removidos);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("minibiz.email.enviados", enviados, AtomicLong::get)
+                .description("Emails entregues ao servidor SMTP")
+                .register(registry);
+        FunctionCounter.builder("minibiz.email.falhas", falhas, AtomicLong::get)
+                .description("Tentativas de envio que falharam (serão repetidas ou descartadas)")
+                .register(registry);
+        FunctionCounter.builder("minibiz.email.descartados", descartados, AtomicLong::get)
+                .description("Emails que esgotaram as tentativas e ficaram como FALHOU")
+                .register(registry);
+        Gauge.builder("minibiz.email.fila", pendentes, AtomicLong::get)
+                .description("Emails pendentes na outbox, medidos a cada ciclo do dispatcher")
+                .register(registry);
+        FunctionCounter.builder("minibiz.email.conexoes.abertas", transportPool, SmtpTransportPool::getConexoesAbertas)
+                .description("Conexões SMTP abertas pelo pool (crescimento lento = conexões reaproveitadas)")
+                .register(registry);
+    }
+
+    // Espera antes da tentativa seguinte: dobra a cada falha, até o máximo configurado
+    Duration espera(int tentativas) {
+        Duration espera = esperaInicial.multipliedBy(1L << Math.min(tentativas - 1, 30));
+        return espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera;
+    }
+
+    // Quantos emails ainda estavam com esta reserva e tiveram o resultado gravado
+    private int gravarResultado(String reserva, List<Long> entregues, LocalDateTime agora,
+                                Collection<EmailOutbox> falharam) {
+        int gravados = entregues.isEmpty() ? 0
+                : emailOutboxRepository.marcarEnviados(entregues, reserva, StatusEmail.ENVIADO, agora);
+        for (EmailOutbox email : falharam) {
+            gravados += emailOutboxRepository.registrarFalha(email.getId(), reserva, email.getStatus(),
+                    email.getTentativas(), email.getUltimoErro(), email.getProximaTentativa());
+        }
+        return gravados;
+    }
+
+    private List<EmailOutbox> reservarLote(String reserva) {
+        LocalDateTime agora = LocalDateTime.now(ZoneOffset.UTC);
+        return transactionTemplate.execute(status -> {
+            List<Long> ids = emailOutboxRepository.findIdsProntos(StatusEmail.PENDENTE, agora,
+                    PageRequest.of(0, tamanhoLote));
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            emailOutboxRepository.reservar(ids, reserva, agora.plus(this.reserva), StatusEmail.PENDENTE, agora);
+            return emailOutboxRepository.findByReserva(reserva);
+        });
+    }
+
+    private MimeMessage mensagem(EmailOutbox email) throws MessagingException {
+        MimeMessage mensagem = new MimeMessage(transportPool.sessao());
+        mensagem.setFrom(remetente);
+        mensagem.setRecipient(Message.RecipientType.TO, new InternetAddress(email.getDestinatario(), true));
+        mensagem.setSubject(email.getAssunto(), StandardCharsets.UTF_8.name());
+        mensagem.setText(email.getCorpo(), StandardCharsets.UTF_8.name());
+        mensagem.setSentDate(new Date());
+        mensagem.saveChanges();
+        return mensagem;
+    }
+
+    private static InternetAddress endereco(String email) {
+        try {
+            return new InternetAddress(email, true);
+        } catch (MessagingException e) {
+            throw new IllegalArgumentException("Remetente de email inválido: " + email, e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.minibiz.service.email;
+
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.model.venda.ItemVenda;
+import br.com.minibiz.model.venda.Venda;
+import br.com.minibiz.service.EmailService;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Recibo por email das vendas concluídas. O template é lido e compilado uma vez; cada venda só preenche
+ * os valores. O recibo vai para a outbox na transação da venda e é enviado pelo EmailOutboxDispatcher.
+ */
+@Service
+public class ReciboVendaService {
+
+    private static final Locale LOCALE_BR = Locale.forLanguageTag("pt-BR");
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final EmailService emailService;
+    private final TemplateTexto assunto = TemplateTexto.compilar("Recibo da venda nº {{numero}} - MiniBiz");
+    private final TemplateTexto corpo;
+
+    public ReciboVendaService(EmailService emailService) {
+        this.emailService = emailService;
+        this.corpo = TemplateTexto.compilar(lerTemplate("templates/email/recibo-venda.txt"));
+    }
+
+    // Devolve false quando o cliente não tem email cadastrado e o recibo não é gerado
+    public boolean enfileirar(Venda venda) {
+        Client client = venda.getClient();
+        if (client == null || client.getEmail() == null || client.getEmail().isBlank()) {
+            return false;
+        }
+        Map<String, Object> dados = dados(venda);
+        emailService.enfileirar(client.getEmail(), assunto.preencher(dados), corpo.preencher(dados));
+        return true;
+    }
+
+    // Map.of não aceita nulos: um nome ausente vira texto vazio em vez de derrubar o recibo
+    Map<String, Object> dados(Venda venda) {
+        List<Map<String, Object>> itens = new ArrayList<>(venda.getItems().size());
+        for (ItemVenda item : venda.getItems()) {
+            BigDecimal preco = item.getProduct().getPreco();
+            itens.add(Map.of(
+                    "quantidade", item.getQuantidade(),
+                    "produto", Objects.requireNonNullElse(item.getProduct().getNome(), ""),
+                    "precoUnitario", moeda(preco),
+                    "subtotal", moeda(preco.multiply(BigDecimal.valueOf(item.getQuantidade())))));
+        }
+        return Map.of(
+                "cliente", Objects.requireNonNullElse(venda.getClient().getNome(), ""),
+                "numero", venda.getId(),
+                "data", venda.getVendaDate().format(FORMATO_DATA),
+                "itens", itens,
+                "total", moeda(venda.getValorTotal()));
+    }
+
+    private static String moeda(BigDecimal valor) {
+        return String.format(LOCALE_BR, "R$ %,.2f", valor);
+    }
+
+    private static String lerTemplate(String caminho) {
+        try {
+            return new String(new ClassPathResource(caminho).getContentAsByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Template de email não encontrado: " + caminho, e);
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package br.com.minibiz.service.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pequeno pool de conexões SMTP (Transport) mantidas abertas entre um lote e outro, em vez de uma sessão
+ * SMTP (conexão, STARTTLS, AUTH) por envio. Um lote é dividido entre as conexões e enviado em paralelo,
+ * uma thread por conexão. As mensagens são enviadas sem testar a conexão antes de cada uma: se ela caiu,
+ * o envio falha, a conexão é refeita e a mensagem repetida. Só uma conexão parada há algum tempo recebe um
+ * NOOP antes do primeiro envio. As que ficam ociosas por muito tempo são fechadas.
+ */
+@Component
+public class SmtpTransportPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPool.class);
+    private static final long OCIOSIDADE_MAXIMA_NANOS = TimeUnit.SECONDS.toNanos(60);
+    // Parada por mais que isso, a conexão é testada antes de usar: o servidor pode tê-la derrubado
+    private static final long SONDAGEM_APOS_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long ESPERA_CONEXAO_SEGUNDOS = 30;
+
+    private final JavaMailSenderImpl mailSender;
+    private final int tamanho;
+    private final BlockingQueue<Conexao> livres;
+    private final ExecutorService executor;
+    private final AtomicLong conexoesAbertas = new AtomicLong();
+
+    private static final class Conexao {
+        private Transport transport;
+        private long ultimoUso;
+    }
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender, @Value("${minibiz.email.conexoes:2}") int tamanho) {
+        if (tamanho < 1) {
+            throw new IllegalArgumentException("minibiz.email.conexoes deve ser positivo");
+        }
+        this.mailSender = mailSender;
+        this.tamanho = tamanho;
+        this.livres = new ArrayBlockingQueue<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            livres.add(new Conexao());
+        }
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(tamanho, tarefa -> {
+            Thread thread = new Thread(tarefa, "smtp-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Session sessao() {
+        return mailSender.getSession();
+    }
+
+    /**
+     * Envia as mensagens, divididas entre as conexões do pool, e devolve as que falharam com o erro de cada uma.
+     * Se a conexão cai no meio do lote, ela é refeita uma vez; se não reconectar, o restante da parte falha.
+     */
+    public Map<MimeMessage, Exception> enviar(List<MimeMessage> mensagens) {
+        Map<MimeMessage, Exception> falhas = new ConcurrentHashMap<>();
+        if (mensagens.isEmpty()) {
+            return falhas;
+        }
+        int partes = Math.min(tamanho, mensagens.size());
+        int porParte = (mensagens.size() + partes - 1) / partes;
+        List<Future<?>> envios = new ArrayList<>(partes);
+        for (int inicio = 0; inicio < mensagens.size(); inicio += porParte) {
+            List<MimeMessage> parte = mensagens.subList(inicio, Math.min(inicio + porParte, mensagens.size()));
+            envios.add(executor.submit(() -> enviarParte(parte, falhas)));
+        }
+        for (Future<?> envio : envios) {
+            try {
+                envio.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Envio de emails interrompido", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Falha inesperada no envio de emails", e.getCause());
+            }
+        }
+        return falhas;
+    }
+
+    /**
+     * Pior caso de {@link #enviar} para {@code mensagens} mensagens, pelos tempos limite do JavaMail: a espera por
+     * uma conexão livre, uma reconexão (conexão e saudação) e, na maior parte, uma escrita e uma leitura por
+     * mensagem, contando a repetida após a reconexão. Vazio se algum tempo limite não estiver configurado,
+     * porque aí o envio não tem limite.
+     */
+    public Optional<Duration> tempoMaximoEnvio(int mensagens) {
+        Long conexao = tempoLimiteMs("connectiontimeout");
+        Long leitura = tempoLimiteMs("timeout");
+        Long escrita = tempoLimiteMs("writetimeout");
+        if (conexao == null || leitura == null || escrita == null) {
+            return Optional.empty();
+        }
+        int partes = Math.max(1, Math.min(tamanho, mensagens));
+        int porParte = (mensagens + partes - 1) / partes;
+        return Optional.of(Duration.ofSeconds(ESPERA_CONEXAO_SEGUNDOS)
+                .plusMillis(conexao + leitura)
+                .plusMillis((porParte + 1L) * (escrita + leitura)));
+    }
+
+    private Long tempoLimiteMs(String nome) {
+        String valor = sessao().getProperty("mail." + protocolo() + "." + nome);
+        if (valor == null) {
+            return null;
+        }
+        long ms = Long.parseLong(valor.trim());
+        return ms > 0 ? ms : null;
+    }
+
+    private void enviarParte(List<MimeMessage> parte, Map<MimeMessage, Exception> falhas) {
+        Conexao conexao;
+        try {
+            conexao = livres.poll(ESPERA_CONEXAO_SEGUNDOS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            parte.forEach(mensagem -> falhas.put(mensagem, e));
+            return;
+        }
+        if (conexao == null) {
+            IllegalStateException semConexao = new IllegalStateException("Nenhuma conexão SMTP livre");
+            parte.forEach(mensagem -> falhas.put(mensagem, semConexao));
+            return;
+        }
+        try {
+            if (conexao.transport != null && System.nanoTime() - conexao.ultimoUso > SONDAGEM_APOS_NANOS
+                    && !conexao.transport.isConnected()) {
+                fechar(conexao);
+            }
+            boolean reconectou = false;
+            for (int i = 0; i < parte.size(); i++) {
+                MimeMessage mensagem = parte.get(i);
+                try {
+                    if (conexao.transport == null) {
+                        conectar(conexao);
+                    }
+                    conexao.transport.sendMessage(mensagem, mensagem.getAllRecipients());
+                } catch (MessagingException | IllegalStateException e) {
+                    // Só depois de uma falha a conexão é testada (NOOP), para separar recusa de conexão caída
+                    if (conexao.transport != null && conexao.transport.isConnected()) {
+                        falhas.put(mensagem, e); // Recusa só desta mensagem (ex.: destinatário inválido)
+                    } else if (!reconectou) {
+                        reconectou = true;
+                        fechar(conexao);
+                        i--; // A conexão caiu: tenta a mesma mensagem numa conexão nova
+                    } else {
+                        fechar(conexao);
+                        parte.subList(i, parte.size()).forEach(restante -> falhas.put(restante, e));
+                        return;
+                    }
+                }
+            }
+        } finally {
+            conexao.ultimoUso = System.nanoTime();
+            livres.add(conexao);
+        }
+    }
+
+    private void conectar(Conexao conexao) throws MessagingException {
+        Transport transport = sessao().getTransport(protocolo());
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(),
+                mailSender.getPassword());
+        conexao.transport = transport;
+        conexoesAbertas.incrementAndGet();
+    }
+
+    // Mesma ordem do JavaMailSenderImpl: protocolo configurado, propriedade da sessão ou smtp
+    private String protocolo() {
+        if (mailSender.getProtocol() != null) {
+            return mailSender.getProtocol();
+        }
+        return sessao().getProperty("mail.transport.protocol") != null
+                ? sessao().getProperty("mail.transport.protocol") : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+    }
+
+    // Servidores SMTP derrubam conexões paradas; fechar antes evita um NOOP que falharia no próximo lote
+    @Scheduled(fixedDelay = 30_000)
+    public void fecharOciosas() {
+        long agora = System.nanoTime();
+        for (int i = 0; i < tamanho; i++) {
+            Conexao conexao = livres.poll();
+            if (conexao == null) {
+                return;
+            }
+            if (conexao.transport != null && agora - conexao.ultimoUso > OCIOSIDADE_MAXIMA_NANOS) {
+                fechar(conexao);
+            }
+            livres.add(conexao);
+        }
+    }
+
+    // Conexões SMTP abertas desde a subida; cresce devagar quando as conexões estão sendo reaproveitadas
+    public long getConexoesAbertas() {
+        return conexoesAbertas.get();
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        Conexao conexao;
+        while ((conexao = livres.poll()) != null) {
+            fechar(conexao);
+        }
+    }
+
+    private static void fechar(Conexao conexao) {
+        if (conexao.transport == null) {
+            return;
+        }
+        try {
+            conexao.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Erro ao fechar conexão SMTP", e);
+        }
+        conexao.transport = null;
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.minibiz.service.email;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template de texto compilado uma vez e preenchido muitas vezes. Aceita variáveis {@code {{nome}}} e
+ * seções repetidas {@code {{#lista}}...{{/lista}}}, cujo valor é uma lista de mapas com as variáveis de
+ * cada repetição. A compilação separa o texto fixo das variáveis, de modo que preencher é só concatenar.
+ */
+public final class TemplateTexto {
+
+    private static final String ABRE = "{{";
+    private static final String FECHA = "}}";
+
+    private final List<Parte> partes;
+
+    private interface Parte {
+        void escrever(StringBuilder saida, Map<String, ?> dados);
+    }
+
+    private record Texto(String texto) implements Parte {
+        public void escrever(StringBuilder saida, Map<String, ?> dados) {
+            saida.append(texto);
+        }
+    }
+
+    private record Variavel(String nome) implements Parte {
+        public void escrever(StringBuilder saida, Map<String, ?> dados) {
+            Object valor = dados.get(nome);
+            if (valor != null) {
+                saida.append(valor);
+            }
+        }
+    }
+
+    private record Secao(String nome, List<Parte> partes) implements Parte {
+        @SuppressWarnings("unchecked")
+        public void escrever(StringBuilder saida, Map<String, ?> dados) {
+            Object valor = dados.get(nome);
+            if (!(valor instanceof List<?> itens)) {
+                return;
+            }
+            for (Object item : itens) {
+                Map<String, ?> dadosItem = (Map<String, ?>) item;
+                for (Parte parte : partes) {
+                    parte.escrever(saida, dadosItem);
+                }
+            }
+        }
+    }
+
+    private TemplateTexto(List<Parte> partes) {
+        this.partes = partes;
+    }
+
+    public static TemplateTexto compilar(String template) {
+        int[] posicao = {0};
+        List<Parte> partes = compilar(template, posicao, null);
+        return new TemplateTexto(partes);
+    }
+
+    public String preencher(Map<String, ?> dados) {
+        StringBuilder saida = new StringBuilder(256);
+        for (Parte parte : partes) {
+            parte.escrever(saida, dados);
+        }
+        return saida.toString();
+    }
+
+    // Lê partes até o fim do template ou até o fechamento da seção aberta
+    private static List<Parte> compilar(String template, int[] posicao, String secaoAberta) {
+        List<Parte> partes = new ArrayList<>();
+        while (posicao[0] < template.length()) {
+            int abre = template.indexOf(ABRE, posicao[0]);
+            if (abre < 0) {
+                partes.add(new Texto(template.substring(posicao[0])));
+                posicao[0] = template.length();
+                break;
+            }
+            if (abre > posicao[0]) {
+                partes.add(new Texto(template.substring(posicao[0], abre)));
+            }
+            int fecha = template.indexOf(FECHA, abre);
+            if (fecha < 0) {
+                throw new IllegalArgumentException("Marcador sem fechamento na posição " + abre);
+            }
+            String marcador = template.substring(abre + ABRE.length(), fecha).trim();
+            posicao[0] = fecha + FECHA.length();
+            if (marcador.startsWith("#")) {
+                String nome = marcador.substring(1).trim();
+                partes.add(new Secao(nome, List.copyOf(compilar(template, posicao, nome))));
+            } else if (marcador.startsWith("/")) {
+                if (!marcador.substring(1).trim().equals(secaoAberta)) {
+                    throw new IllegalArgumentException("Fechamento inesperado: " + marcador);
+                }
+                return partes;
+            } else {
+                partes.add(new Variavel(marcador));
+            }
+        }
+        if (secaoAberta != null) {
+            throw new IllegalArgumentException("Seção sem fechamento: " + secaoAberta);
+        }
+        return List.copyOf(partes);
+    }
+}
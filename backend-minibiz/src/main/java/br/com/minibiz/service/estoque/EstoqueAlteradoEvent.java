@@ -0,0 +1,30 @@
+package br.com.minibiz.service.estoque;
+
+import br.com.minibiz.dto.EstoqueBaixoDTO;
+import br.com.minibiz.model.product.Product;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado por toda escrita que mexe no estoque ou no estoque mínimo de um produto.
+ * Escritas em lote, que não sabem quais produtos alteraram, publicam {@link #recalcular()}.
+ */
+public record EstoqueAlteradoEvent(Long productId, EstoqueBaixoDTO situacao, LocalDateTime alteradoEm,
+        boolean recalcularTudo) {
+
+    public static EstoqueAlteradoEvent alterado(Product product) {
+        return new EstoqueAlteradoEvent(product.getId(), EstoqueBaixoDTO.of(product), product.getDataAtualizacao(), false);
+    }
+
+    public static EstoqueAlteradoEvent alterado(EstoqueBaixoDTO situacao, LocalDateTime alteradoEm) {
+        return new EstoqueAlteradoEvent(situacao.id(), situacao, alteradoEm, false);
+    }
+
+    public static EstoqueAlteradoEvent removido(Long productId) {
+        return new EstoqueAlteradoEvent(productId, null, LocalDateTime.now(), false);
+    }
+
+    public static EstoqueAlteradoEvent recalcular() {
+        return new EstoqueAlteradoEvent(null, null, LocalDateTime.now(), true);
+    }
+}
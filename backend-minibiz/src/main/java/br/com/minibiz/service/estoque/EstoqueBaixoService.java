@@ -0,0 +1,192 @@
+package br.com.minibiz.service.estoque;
+
+import br.com.minibiz.config.exception.ServiceUnavailableException;
+import br.com.minibiz.dto.EstoqueBaixoDTO;
+import br.com.minibiz.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Lista de reposição: produtos com estoque abaixo do estoque mínimo, mantida em memória.
+ *
+ * A lista é carregada na subida e atualizada a cada {@link EstoqueAlteradoEvent}, depois do commit,
+ * sem varrer a tabela de produtos. Os mais urgentes (menor fração do mínimo em estoque) vêm primeiro.
+ * Quando um produto entra ou sai da lista, o evento é enviado aos inscritos via SSE, por uma thread própria:
+ * um cliente lento não segura a thread da venda que disparou o evento. O número de inscritos é limitado
+ * ({@code minibiz.estoque-baixo.max-inscritos}); acima dele a inscrição responde 503.
+ */
+@Service
+public class EstoqueBaixoService {
+
+    private static final Logger log = LoggerFactory.getLogger(EstoqueBaixoService.class);
+    private static final long TIMEOUT_SSE_MS = 30 * 60 * 1000L;
+    private static final int MAX_INSCRITOS_PADRAO = 100;
+    // Notificações à espera da thread de envio; com a fila cheia a notificação é descartada
+    private static final int FILA_ENVIOS = 1000;
+
+    public static final String EVENTO_ABAIXO_DO_MINIMO = "estoque-baixo";
+    public static final String EVENTO_NORMALIZADO = "estoque-normalizado";
+
+    private static final Comparator<EstoqueBaixoDTO> MAIS_URGENTE_PRIMEIRO =
+            ((Comparator<EstoqueBaixoDTO>) EstoqueBaixoService::compararUrgencia).thenComparing(EstoqueBaixoDTO::id);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final ConcurrentSkipListSet<EstoqueBaixoDTO> ordenados = new ConcurrentSkipListSet<>(MAIS_URGENTE_PRIMEIRO);
+    private final Map<Long, EstoqueBaixoDTO> porId = new ConcurrentHashMap<>();
+    // Última alteração aplicada por produto, para descartar eventos que chegam fora de ordem
+    private final Map<Long, LocalDateTime> ultimaAlteracao = new ConcurrentHashMap<>();
+    private final List<SseEmitter> inscritos = new CopyOnWriteArrayList<>();
+
+    @Value("${minibiz.estoque-baixo.max-inscritos:100}")
+    private int maxInscritos = MAX_INSCRITOS_PADRAO;
+
+    private final ThreadPoolExecutor envios = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(FILA_ENVIOS), tarefa -> {
+                Thread thread = new Thread(tarefa, "estoque-baixo-sse");
+                thread.setDaemon(true);
+                return thread;
+            }, (tarefa, executor) -> log.warn("Fila de envios SSE cheia; notificação de estoque baixo descartada"));
+
+    public List<EstoqueBaixoDTO> listar(int limite) {
+        return ordenados.stream().limit(limite).toList();
+    }
+
+    public int total() {
+        return porId.size();
+    }
+
+    public SseEmitter inscrever() {
+        return registrar(new SseEmitter(TIMEOUT_SSE_MS));
+    }
+
+    SseEmitter registrar(SseEmitter emitter) {
+        // A checagem e a inclusão são atômicas; as remoções só diminuem a lista
+        synchronized (inscritos) {
+            if (inscritos.size() >= maxInscritos) {
+                throw new ServiceUnavailableException("Muitos inscritos nos eventos de estoque. Tente novamente em instantes.");
+            }
+            inscritos.add(emitter);
+        }
+        emitter.onCompletion(() -> inscritos.remove(emitter));
+        emitter.onTimeout(() -> inscritos.remove(emitter));
+        emitter.onError(erro -> inscritos.remove(emitter));
+        return emitter;
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        envios.shutdownNow();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEstoqueAlterado(EstoqueAlteradoEvent evento) {
+        if (evento.recalcularTudo()) {
+            recarregar();
+            return;
+        }
+        Notificacao notificacao;
+        synchronized (this) {
+            LocalDateTime anterior = ultimaAlteracao.get(evento.productId());
+            if (anterior != null && evento.alteradoEm() != null && evento.alteradoEm().isBefore(anterior)) {
+                return;
+            }
+            if (evento.alteradoEm() != null) {
+                ultimaAlteracao.put(evento.productId(), evento.alteradoEm());
+            }
+            EstoqueBaixoDTO situacao = evento.situacao();
+            notificacao = aplicar(evento.productId(), situacao != null && situacao.abaixoDoMinimo() ? situacao : null);
+        }
+        notificar(notificacao);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        recarregar();
+        log.info("Lista de reposição carregada: {} produtos abaixo do estoque mínimo", porId.size());
+    }
+
+    // Só os produtos abaixo do mínimo são lidos; os demais saem da lista
+    private void recarregar() {
+        Map<Long, EstoqueBaixoDTO> atuais = productRepository.findAbaixoDoEstoqueMinimo().stream()
+                .collect(Collectors.toMap(EstoqueBaixoDTO::id, item -> item));
+        List<Notificacao> notificacoes = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : List.copyOf(porId.keySet())) {
+                if (!atuais.containsKey(id)) {
+                    notificacoes.add(aplicar(id, null));
+                }
+            }
+            atuais.forEach((id, item) -> notificacoes.add(aplicar(id, item)));
+        }
+        notificacoes.forEach(this::notificar);
+    }
+
+    // Chamado com o lock do serviço; o envio aos inscritos acontece fora dele
+    private Notificacao aplicar(Long id, EstoqueBaixoDTO novo) {
+        EstoqueBaixoDTO anterior = novo != null ? porId.put(id, novo) : porId.remove(id);
+        if (anterior != null) {
+            ordenados.remove(anterior);
+        }
+        if (novo != null) {
+            ordenados.add(novo);
+        }
+        if (anterior == null && novo != null) {
+            return new Notificacao(EVENTO_ABAIXO_DO_MINIMO, novo);
+        }
+        if (anterior != null && novo == null) {
+            return new Notificacao(EVENTO_NORMALIZADO, anterior);
+        }
+        return null;
+    }
+
+    private void notificar(Notificacao notificacao) {
+        if (notificacao == null || inscritos.isEmpty()) {
+            return;
+        }
+        envios.execute(() -> enviar(notificacao));
+    }
+
+    private void enviar(Notificacao notificacao) {
+        for (SseEmitter emitter : inscritos) {
+            try {
+                emitter.send(SseEmitter.event().name(notificacao.evento()).data(notificacao.item()));
+            } catch (IOException | IllegalStateException e) {
+                inscritos.remove(emitter);
+            }
+        }
+    }
+
+    // Fração do mínimo ainda em estoque (quantidade/estoqueMinimo), comparada por multiplicação cruzada
+    private static int compararUrgencia(EstoqueBaixoDTO a, EstoqueBaixoDTO b) {
+        return Long.compare((long) a.quantidadeEmEstoque() * b.estoqueMinimo(),
+                (long) b.quantidadeEmEstoque() * a.estoqueMinimo());
+    }
+
+    private record Notificacao(String evento, EstoqueBaixoDTO item) {
+    }
+}
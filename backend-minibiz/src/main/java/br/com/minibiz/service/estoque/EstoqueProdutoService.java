@@ -0,0 +1,107 @@
+package br.com.minibiz.service.estoque;
+
+import br.com.minibiz.dto.EstoqueBaixoDTO;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.model.venda.ItemVenda;
+import br.com.minibiz.service.CacheSegundoNivel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Baixas e devoluções de estoque das vendas, feitas pelo banco num batch de
+ * {@code UPDATE ... SET quantidade_em_estoque = quantidade_em_estoque - ?} condicionado ao saldo.
+ *
+ * A entidade não é lida e regravada: vendas simultâneas do mesmo produto não se sobrescrevem nem conflitam,
+ * e a versao do produto, que protege as edições de cadastro, não muda.
+ */
+@Service
+public class EstoqueProdutoService {
+
+    private static final String SQL_BAIXA =
+            "UPDATE product SET quantidade_em_estoque = quantidade_em_estoque - :quantidade, data_atualizacao = :agora "
+                    + "WHERE id = :id AND quantidade_em_estoque >= :quantidade";
+    private static final String SQL_DEVOLUCAO =
+            "UPDATE product SET quantidade_em_estoque = quantidade_em_estoque + :quantidade, data_atualizacao = :agora "
+                    + "WHERE id = :id";
+    private static final String SQL_SITUACAO =
+            "SELECT id, nome, codigo_produto, quantidade_em_estoque, estoque_minimo FROM product WHERE id IN (:ids)";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheSegundoNivel cacheSegundoNivel;
+
+    /**
+     * Baixa o estoque de cada item. Devolve o primeiro produto sem saldo suficiente; nesse caso parte do
+     * batch pode ter sido aplicada, e quem chamou deve falhar para que a transação volte atrás.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Product> baixar(List<ItemVenda> itens) {
+        LocalDateTime agora = LocalDateTime.now();
+        int[] alteradas = jdbcTemplate.batchUpdate(SQL_BAIXA, parametros(itens, agora));
+        for (int i = 0; i < itens.size(); i++) {
+            if (alteradas[i] == 0) {
+                return Optional.of(itens.get(i).getProduct());
+            }
+        }
+        aposAlteracao(itens, agora);
+        return Optional.empty();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void devolver(List<ItemVenda> itens) {
+        LocalDateTime agora = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(SQL_DEVOLUCAO, parametros(itens, agora));
+        aposAlteracao(itens, agora);
+    }
+
+    private static MapSqlParameterSource[] parametros(List<ItemVenda> itens, LocalDateTime agora) {
+        Timestamp momento = Timestamp.valueOf(agora);
+        return itens.stream()
+                .map(item -> new MapSqlParameterSource()
+                        .addValue("id", item.getProduct().getId())
+                        .addValue("quantidade", item.getQuantidade())
+                        .addValue("agora", momento))
+                .toArray(MapSqlParameterSource[]::new);
+    }
+
+    // O saldo em memória e no cache ficou para trás. Só os produtos com estoque mínimo têm o saldo relido
+    // (na mesma transação, com as linhas já bloqueadas); para os demais a lista de reposição não depende dele
+    private void aposAlteracao(List<ItemVenda> itens, LocalDateTime agora) {
+        Map<Long, Product> produtos = new LinkedHashMap<>();
+        itens.forEach(item -> produtos.putIfAbsent(item.getProduct().getId(), item.getProduct()));
+
+        List<Long> monitorados = produtos.values().stream()
+                .filter(produto -> produto.getEstoqueMinimo() != null)
+                .map(Product::getId)
+                .toList();
+        Map<Long, EstoqueBaixoDTO> situacoes = new HashMap<>();
+        if (!monitorados.isEmpty()) {
+            jdbcTemplate.query(SQL_SITUACAO, new MapSqlParameterSource("ids", monitorados), rs -> {
+                situacoes.put(rs.getLong("id"), new EstoqueBaixoDTO(rs.getLong("id"), rs.getString("nome"),
+                        rs.getString("codigo_produto"), rs.getInt("quantidade_em_estoque"),
+                        (Integer) rs.getObject("estoque_minimo")));
+            });
+        }
+        produtos.values().forEach(produto -> eventPublisher.publishEvent(EstoqueAlteradoEvent.alterado(
+                situacoes.getOrDefault(produto.getId(), EstoqueBaixoDTO.of(produto)), agora)));
+        cacheSegundoNivel.descartar(Product.class, produtos.keySet());
+    }
+}
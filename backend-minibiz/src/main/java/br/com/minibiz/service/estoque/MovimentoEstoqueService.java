@@ -0,0 +1,108 @@
+package br.com.minibiz.service.estoque;
+
+import br.com.minibiz.config.exception.ProductNotFoundException;
+import br.com.minibiz.dto.EstoqueNaDataDTO;
+import br.com.minibiz.dto.ResumoMovimentosDTO;
+import br.com.minibiz.model.estoque.MovimentoEstoque;
+import br.com.minibiz.model.estoque.SnapshotEstoque;
+import br.com.minibiz.model.estoque.TipoMovimento;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.SnapshotEstoqueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Diário de estoque (append-only) e snapshots periódicos por produto.
+ *
+ * Os movimentos são gravados na transação de quem alterou o estoque e enviados no flush, em batch,
+ * junto com as demais escritas. O estoque numa data é o snapshot mais recente até ela somado aos
+ * movimentos posteriores, de modo que a reaplicação fica limitada ao intervalo entre snapshots.
+ */
+@Service
+public class MovimentoEstoqueService {
+
+    private static final Logger log = LoggerFactory.getLogger(MovimentoEstoqueService.class);
+    // Data dos snapshots iniciais: o estoque que o produto tinha antes do primeiro movimento registrado
+    private static final LocalDateTime INICIO_DO_DIARIO = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private SnapshotEstoqueRepository snapshotEstoqueRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Movimentos de transações ainda abertas podem ter data anterior ao commit; o corte fica atrás do relógio
+    @Value("${minibiz.estoque.snapshot.margem-minutos:5}")
+    private long margemMinutos;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Long productId, int delta, TipoMovimento tipo, Long vendaId) {
+        if (delta != 0 || tipo == TipoMovimento.CADASTRO) {
+            movimentoEstoqueRepository.save(new MovimentoEstoque(productId, delta, tipo, LocalDateTime.now(), vendaId));
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Collection<Long> productIds, int delta, TipoMovimento tipo) {
+        LocalDateTime agora = LocalDateTime.now();
+        for (Long productId : productIds) {
+            movimentoEstoqueRepository.save(new MovimentoEstoque(productId, delta, tipo, agora, null));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public EstoqueNaDataDTO estoqueEm(Long productId, LocalDateTime data) {
+        boolean atual = data == null;
+        LocalDateTime ate = atual ? LocalDateTime.now() : data;
+        Optional<SnapshotEstoque> snapshot = snapshotEstoqueRepository
+                .findFirstByProductIdAndDataSnapshotLessThanEqualOrderByDataSnapshotDesc(productId, ate);
+        LocalDateTime desde = snapshot.map(SnapshotEstoque::getDataSnapshot).orElse(INICIO_DO_DIARIO.minusDays(1));
+        ResumoMovimentosDTO resumo = movimentoEstoqueRepository.resumir(productId, desde, ate);
+
+        Integer quantidadeNoCadastro = null;
+        if (atual) {
+            quantidadeNoCadastro = productRepository.findById(productId)
+                    .map(Product::getQuantidadeEmEstoque)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
+        } else if (snapshot.isEmpty() && resumo.movimentos() == 0 && !productRepository.existsById(productId)) {
+            throw new ProductNotFoundException(productId);
+        }
+        long quantidade = snapshot.map(SnapshotEstoque::getQuantidade).orElse(0) + resumo.soma();
+        return new EstoqueNaDataDTO(productId, ate, quantidade, snapshot.map(SnapshotEstoque::getDataSnapshot).orElse(null),
+                resumo.movimentos(), quantidadeNoCadastro);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void criarSnapshotsIniciais() {
+        int criados = snapshotEstoqueRepository.criarSnapshotsIniciais(INICIO_DO_DIARIO);
+        if (criados > 0) {
+            log.info("Snapshots iniciais de estoque criados para {} produtos", criados);
+        }
+    }
+
+    @Scheduled(cron = "${minibiz.estoque.snapshot.cron:0 0 * * * *}")
+    @Transactional
+    public void consolidar() {
+        LocalDateTime corte = LocalDateTime.now().minusMinutes(margemMinutos);
+        int produtos = snapshotEstoqueRepository.consolidarAte(corte);
+        log.debug("Snapshot de estoque até {}: {} produtos consolidados", corte, produtos);
+    }
+}
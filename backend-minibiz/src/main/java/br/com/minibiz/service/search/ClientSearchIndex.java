@@ -0,0 +1,79 @@
+package br.com.minibiz.service.search;
+
+import br.com.minibiz.dto.ClientSearchResultDTO;
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.repository.ClientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de busca de clientes por nome, e-mail e telefone, usado na escolha do cliente no caixa.
+ * É reconstruído na subida da aplicação e mantido em sincronia pelo ClientService.
+ */
+@Component
+public class ClientSearchIndex implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientSearchIndex.class);
+    private static final int TAMANHO_PAGINA_RECONSTRUCAO = 1000;
+    private static final Pattern NAO_DIGITO = Pattern.compile("\\D");
+    // Consulta só com dígitos e pontuação de telefone: "(11) 9999-", "+55 11 9"
+    private static final Pattern CONSULTA_TELEFONE = Pattern.compile("[\\d\\s()+.-]*\\d[\\d\\s()+.-]*");
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private final NGramIndex<ClientSearchResultDTO> index = new NGramIndex<>();
+
+    public void indexar(Client client) {
+        // O telefone é indexado só com dígitos, para que qualquer formatação da consulta encontre o cliente
+        index.put(client.getId(), ClientSearchResultDTO.of(client), client.getNome(), client.getEmail(),
+                somenteDigitos(client.getTelefone()));
+    }
+
+    public void remover(Long id) {
+        index.remove(id);
+    }
+
+    public List<ClientSearchResultDTO> buscar(String consulta, int limite) {
+        if (consulta != null && CONSULTA_TELEFONE.matcher(consulta.trim()).matches()) {
+            consulta = somenteDigitos(consulta);
+        }
+        return index.search(consulta, limite);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        Pageable pagina = PageRequest.of(0, TAMANHO_PAGINA_RECONSTRUCAO, Sort.by("id"));
+        Page<Client> clientes;
+        do {
+            clientes = clientRepository.findAll(pagina);
+            clientes.forEach(this::indexar);
+            pagina = clientes.nextPageable();
+        } while (clientes.hasNext());
+        log.info("Índice de busca de clientes reconstruído: {} clientes em {} ms", index.size(),
+                System.currentTimeMillis() - inicio);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        IndiceMetricas.registrar(registry, "clientes", index);
+    }
+
+    private static String somenteDigitos(String telefone) {
+        return telefone == null ? null : NAO_DIGITO.matcher(telefone).replaceAll("");
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.minibiz.service.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Métricas comuns dos índices de busca em memória, publicadas em /actuator/metrics/minibiz.search.index.*
+final class IndiceMetricas {
+
+    private IndiceMetricas() {
+    }
+
+    static void registrar(MeterRegistry registry, String indice, NGramIndex<?> index) {
+        Gauge.builder("minibiz.search.index.documentos", index, NGramIndex::size)
+                .tag("indice", indice)
+                .description("Documentos no índice de busca")
+                .register(registry);
+        Gauge.builder("minibiz.search.index.memoria", index, NGramIndex::estimarBytes)
+                .tag("indice", indice)
+                .baseUnit("bytes")
+                .description("Estimativa do heap ocupado pelo índice de busca")
+                .register(registry);
+    }
+}
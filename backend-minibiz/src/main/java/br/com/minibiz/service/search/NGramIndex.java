@@ -0,0 +1,320 @@
+package br.com.minibiz.service.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória para buscas do tipo "digite e encontre".
+ *
+ * Cada palavra do documento é indexada pelos seus trigramas e pelos prefixos de 1 e 2
+ * caracteres, de modo que consultas curtas também são respondidas. As listas de postagem
+ * são arrays ordenados de int para manter o índice compacto com centenas de milhares de
+ * documentos. Leituras são concorrentes; escritas são serializadas pelo lock de escrita.
+ */
+public class NGramIndex<T> {
+
+    private static final int TAMANHO_GRAMA = 3;
+    private static final char MARCADOR_PREFIXO = '^';
+    // Limita o trabalho de consultas muito genéricas (ex.: uma única letra)
+    private static final int MINIMO_CANDIDATOS_EXAMINADOS = 2048;
+
+    // Tamanhos aproximados numa JVM 64 bits com compressed oops
+    private static final long BYTES_ENTRADA_MAPA = 48;
+    private static final long BYTES_LISTA_POSTAGEM = 24;
+    private static final long BYTES_DOCUMENTO = 32;
+    private static final long BYTES_CABECALHO_ARRAY = 16;
+
+    private final Map<String, ListaPostagem> postagens = new HashMap<>();
+    private final Map<Integer, Documento<T>> documentos = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexa (ou reindexa) o documento com o id informado a partir dos campos de texto.
+     * O valor é o que a busca devolve, sem consultar o banco.
+     */
+    public void put(long id, T valor, String... campos) {
+        int chave = Math.toIntExact(id);
+        String texto = NormalizadorTexto.normalizar(String.join(" ",
+                Arrays.stream(campos).filter(Objects::nonNull).toList()));
+        Set<String> gramas = gramasDoDocumento(texto);
+
+        lock.writeLock().lock();
+        try {
+            Documento<T> anterior = documentos.get(chave);
+            if (anterior != null) {
+                for (String grama : anterior.gramas) {
+                    if (!gramas.contains(grama)) {
+                        removerPostagem(grama, chave);
+                    }
+                }
+            }
+            // O documento guarda as mesmas instâncias de String usadas como chave, sem cópias por documento
+            String[] canonicos = new String[gramas.size()];
+            int i = 0;
+            for (String grama : gramas) {
+                ListaPostagem lista = postagens.computeIfAbsent(grama, ListaPostagem::new);
+                lista.adicionar(chave);
+                canonicos[i++] = lista.grama;
+            }
+            documentos.put(chave, new Documento<>(valor, texto, canonicos));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        int chave = Math.toIntExact(id);
+        lock.writeLock().lock();
+        try {
+            Documento<T> anterior = documentos.remove(chave);
+            if (anterior != null) {
+                for (String grama : anterior.gramas) {
+                    removerPostagem(grama, chave);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public T get(long id) {
+        lock.readLock().lock();
+        try {
+            Documento<T> documento = documentos.get(Math.toIntExact(id));
+            return documento != null ? documento.valor : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Devolve até {@code limite} documentos que contêm todos os termos da consulta,
+     * priorizando termos no início do texto e no início de palavras.
+     */
+    public List<T> search(String consulta, int limite) {
+        String texto = NormalizadorTexto.normalizar(consulta);
+        if (texto.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        String[] termos = texto.split(" ");
+        Set<String> gramas = new HashSet<>();
+        for (String termo : termos) {
+            gramasDaConsulta(termo, gramas);
+        }
+
+        lock.readLock().lock();
+        try {
+            ListaPostagem[] listas = new ListaPostagem[gramas.size()];
+            int i = 0;
+            for (String grama : gramas) {
+                ListaPostagem lista = postagens.get(grama);
+                if (lista == null) {
+                    return List.of();
+                }
+                listas[i++] = lista;
+            }
+            Arrays.sort(listas, Comparator.comparingInt(lista -> lista.tamanho));
+
+            // Percorre a menor lista e confere os demais gramas por busca binária
+            ListaPostagem menor = listas[0];
+            PriorityQueue<Resultado<T>> melhores = new PriorityQueue<>(limite + 1, Resultado.PIOR_PRIMEIRO);
+            int maximoExaminados = Math.max(limite * 64, MINIMO_CANDIDATOS_EXAMINADOS);
+            int examinados = 0;
+            for (int p = 0; p < menor.tamanho && examinados < maximoExaminados; p++) {
+                int chave = menor.ids[p];
+                if (!contidoEmTodas(listas, chave)) {
+                    continue;
+                }
+                Documento<T> documento = documentos.get(chave);
+                int pontos = pontuar(documento.texto, termos);
+                if (pontos < 0) {
+                    continue;
+                }
+                examinados++;
+                melhores.add(new Resultado<>(documento, chave, pontos));
+                if (melhores.size() > limite) {
+                    melhores.poll();
+                }
+            }
+
+            List<Resultado<T>> ordenados = new ArrayList<>(melhores);
+            ordenados.sort(Resultado.PIOR_PRIMEIRO.reversed());
+            return ordenados.stream().map(resultado -> resultado.documento.valor).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimativa do heap ocupado pelo índice (listas de postagem, gramas e documentos), sem contar
+     * os valores devolvidos pela busca. Percorre o índice, então serve para métricas, não para o caminho quente.
+     */
+    public long estimarBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Map.Entry<String, ListaPostagem> entrada : postagens.entrySet()) {
+                bytes += BYTES_ENTRADA_MAPA + bytesString(entrada.getKey())
+                        + BYTES_LISTA_POSTAGEM + BYTES_CABECALHO_ARRAY + 4L * entrada.getValue().ids.length;
+            }
+            for (Documento<T> documento : documentos.values()) {
+                bytes += BYTES_ENTRADA_MAPA + BYTES_DOCUMENTO + bytesString(documento.texto)
+                        + BYTES_CABECALHO_ARRAY + 4L * documento.gramas.length;
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postagens.clear();
+            documentos.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removerPostagem(String grama, int chave) {
+        ListaPostagem lista = postagens.get(grama);
+        if (lista != null && lista.remover(chave) && lista.tamanho == 0) {
+            postagens.remove(grama);
+        }
+    }
+
+    // String compacta (Latin-1): cabeçalho do objeto e do array de bytes mais um byte por caractere
+    private static long bytesString(String texto) {
+        return 40 + texto.length();
+    }
+
+    private static boolean contidoEmTodas(ListaPostagem[] listas, int chave) {
+        for (int i = 1; i < listas.length; i++) {
+            if (!listas[i].contem(chave)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Os gramas garantem só a presença dos trigramas; aqui confirmamos o termo inteiro e pontuamos
+    private static int pontuar(String texto, String[] termos) {
+        int pontos = 0;
+        for (String termo : termos) {
+            if (texto.startsWith(termo)) {
+                pontos += 4;
+            } else if (texto.contains(" " + termo)) {
+                pontos += 2;
+            } else if (texto.contains(termo)) {
+                pontos += 1;
+            } else {
+                return -1;
+            }
+        }
+        return pontos;
+    }
+
+    private static Set<String> gramasDoDocumento(String texto) {
+        Set<String> gramas = new HashSet<>();
+        if (texto.isEmpty()) {
+            return gramas;
+        }
+        for (String palavra : texto.split(" ")) {
+            gramas.add(MARCADOR_PREFIXO + palavra.substring(0, 1));
+            if (palavra.length() >= 2) {
+                gramas.add(MARCADOR_PREFIXO + palavra.substring(0, 2));
+            }
+            for (int i = 0; i + TAMANHO_GRAMA <= palavra.length(); i++) {
+                gramas.add(palavra.substring(i, i + TAMANHO_GRAMA));
+            }
+        }
+        return gramas;
+    }
+
+    private static void gramasDaConsulta(String termo, Set<String> gramas) {
+        if (termo.length() < TAMANHO_GRAMA) {
+            gramas.add(MARCADOR_PREFIXO + termo);
+            return;
+        }
+        for (int i = 0; i + TAMANHO_GRAMA <= termo.length(); i++) {
+            gramas.add(termo.substring(i, i + TAMANHO_GRAMA));
+        }
+    }
+
+    private record Documento<T>(T valor, String texto, String[] gramas) {
+    }
+
+    private record Resultado<T>(Documento<T> documento, int chave, int pontos) {
+        // Menor pontuação primeiro; no empate, textos mais longos e ids maiores são considerados piores
+        static final Comparator<Resultado<?>> PIOR_PRIMEIRO = Comparator.<Resultado<?>>comparingInt(Resultado::pontos)
+                .thenComparing(resultado -> resultado.documento().texto().length(), Comparator.reverseOrder())
+                .thenComparing(Resultado::chave, Comparator.reverseOrder());
+    }
+
+    // Lista ordenada de ids sem repetição
+    private static final class ListaPostagem {
+        private final String grama;
+        private int[] ids = new int[4];
+        private int tamanho;
+
+        ListaPostagem(String grama) {
+            this.grama = grama;
+        }
+
+        void adicionar(int id) {
+            if (tamanho == 0 || ids[tamanho - 1] < id) {
+                garantirCapacidade();
+                ids[tamanho++] = id;
+                return;
+            }
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao >= 0) {
+                return;
+            }
+            posicao = -posicao - 1;
+            garantirCapacidade();
+            System.arraycopy(ids, posicao, ids, posicao + 1, tamanho - posicao);
+            ids[posicao] = id;
+            tamanho++;
+        }
+
+        boolean remover(int id) {
+            int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (posicao < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicao + 1, ids, posicao, tamanho - posicao - 1);
+            tamanho--;
+            return true;
+        }
+
+        boolean contem(int id) {
+            return Arrays.binarySearch(ids, 0, tamanho, id) >= 0;
+        }
+
+        private void garantirCapacidade() {
+            if (tamanho == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1) + 1);
+            }
+        }
+    }
+}
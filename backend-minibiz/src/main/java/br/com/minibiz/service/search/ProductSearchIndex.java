@@ -0,0 +1,74 @@
+package br.com.minibiz.service.search;
+
+import br.com.minibiz.dto.ProductSearchResultDTO;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Índice de busca de produtos por nome, código e categoria.
+ * É reconstruído na subida da aplicação e mantido em sincronia pelo ProductService.
+ */
+@Component
+public class ProductSearchIndex implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+    private static final int TAMANHO_PAGINA_RECONSTRUCAO = 1000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final NGramIndex<ProductSearchResultDTO> index = new NGramIndex<>();
+
+    public void indexar(Product product) {
+        indexar(ProductSearchResultDTO.of(product));
+    }
+
+    public void indexar(ProductSearchResultDTO produto) {
+        index.put(produto.id(), produto, produto.nome(), produto.codigoProduto(), produto.categoria());
+    }
+
+    public void remover(Long id) {
+        index.remove(id);
+    }
+
+    public ProductSearchResultDTO get(Long id) {
+        return index.get(id);
+    }
+
+    public List<ProductSearchResultDTO> buscar(String consulta, int limite) {
+        return index.search(consulta, limite);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        Pageable pagina = PageRequest.of(0, TAMANHO_PAGINA_RECONSTRUCAO, Sort.by("id"));
+        Page<Product> produtos;
+        do {
+            produtos = productRepository.findAll(pagina);
+            produtos.forEach(this::indexar);
+            pagina = produtos.nextPageable();
+        } while (produtos.hasNext());
+        log.info("Índice de busca de produtos reconstruído: {} produtos em {} ms", index.size(),
+                System.currentTimeMillis() - inicio);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        IndiceMetricas.registrar(registry, "produtos", index);
+    }
+}
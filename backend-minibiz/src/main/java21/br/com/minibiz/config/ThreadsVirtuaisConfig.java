@@ -0,0 +1,47 @@
+package br.com.minibiz.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Build Java 21 (perfil Maven java21): cada requisição do Tomcat roda numa thread virtual, no lugar do pool de
+ * {@code server.tomcat.threads.max} threads de plataforma. Uma requisição parada no JDBC deixa de ocupar
+ * uma thread do pool; o limite de concorrência passa a ser o pool de conexões do Hikari.
+ *
+ * Ficam em threads de plataforma, de propósito: o BCrypt (PasswordEncoderIsolado, limitado para não tomar a CPU
+ * das requisições), o envio SMTP (uma thread por conexão do pool) e as tarefas @Scheduled.
+ *
+ * {@code minibiz.threads.virtuais=false} volta ao pool de plataforma no mesmo build, para comparar as duas
+ * configurações (minibiz-loadtest/comparar-threads.sh).
+ */
+@Configuration
+@ConditionalOnProperty(name = "minibiz.threads.virtuais", havingValue = "true", matchIfMissing = true)
+public class ThreadsVirtuaisConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadsVirtuaisConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> threadsVirtuaisTomcat() {
+        log.info("Requisições HTTP em threads virtuais");
+        return protocolHandler -> protocolHandler.setExecutor(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-virtual-", 0).factory()));
+    }
+
+    // Processamento assíncrono do Spring MVC (SseEmitter, Callable) e métodos @Async
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("async-virtual-", 0).factory()));
+    }
+}
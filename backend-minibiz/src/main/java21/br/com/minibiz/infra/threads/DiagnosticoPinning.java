@@ -0,0 +1,154 @@
+package br.com.minibiz.infra.threads;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Detecta threads virtuais presas à thread portadora ("pinning"): uma thread virtual que bloqueia dentro de um
+ * bloco synchronized ou de um método nativo não libera a portadora, e com poucas portadoras (uma por núcleo)
+ * algumas requisições assim param o servidor. Lê o evento jdk.VirtualThreadPinned do JFR, que a JVM emite
+ * quando o bloqueio passa do limiar, e agrupa as ocorrências pelo primeiro ponto do código do MiniBiz na pilha
+ * (ou pelo topo da pilha, quando o bloqueio está todo numa biblioteca).
+ *
+ * Cada origem nova é logada uma vez com a pilha; depois, só contada na métrica
+ * {@code minibiz.threads.virtuais.pinning{origem}}. Ao encerrar, o resumo vai para o log.
+ */
+@Component
+@ConditionalOnProperty(name = {"minibiz.threads.virtuais", "minibiz.threads.virtuais.pinning.habilitado"}, havingValue = "true",
+        matchIfMissing = true)
+public class DiagnosticoPinning implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DiagnosticoPinning.class);
+    private static final String EVENTO = "jdk.VirtualThreadPinned";
+    private static final String PACOTE_APLICACAO = "br.com.minibiz.";
+    private static final int MAXIMO_ORIGENS = 100;
+    private static final int QUADROS_NO_LOG = 15;
+
+    private final Duration limiar;
+    private final Map<String, Ocorrencias> porOrigem = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+    private RecordingStream stream;
+
+    public DiagnosticoPinning(@Value("${minibiz.threads.virtuais.pinning.limiar-ms:20}") long limiarMs) {
+        this.limiar = Duration.ofMillis(limiarMs);
+    }
+
+    public record Resumo(long ocorrencias, Duration tempoPreso) {
+    }
+
+    private static final class Ocorrencias {
+        private final LongAdder quantidade = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        stream = new RecordingStream();
+        stream.enable(EVENTO).withThreshold(limiar).withStackTrace();
+        stream.onEvent(EVENTO, this::registrar);
+        stream.startAsync();
+        log.info("Diagnóstico de pinning de threads virtuais ativo (limiar de {} ms)", limiar.toMillis());
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (stream != null) {
+            stream.close();
+        }
+        Map<String, Resumo> resumo = resumo();
+        if (!resumo.isEmpty()) {
+            log.warn("Pinning de threads virtuais por origem: {}", resumo);
+        }
+    }
+
+    /** Ocorrências por origem, da mais frequente para a menos. */
+    public Map<String, Resumo> resumo() {
+        return porOrigem.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<String, Ocorrencias> entrada) -> entrada.getValue().quantidade.sum()).reversed())
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                        entrada -> new Resumo(entrada.getValue().quantidade.sum(),
+                                Duration.ofNanos(entrada.getValue().nanos.sum())),
+                        (a, b) -> a, LinkedHashMap::new));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        porOrigem.forEach(this::registrarMetrica);
+    }
+
+    // Chamado pela thread única do RecordingStream, um evento por vez
+    private void registrar(RecordedEvent evento) {
+        RecordedStackTrace pilha = evento.getStackTrace();
+        List<RecordedFrame> quadros = pilha == null ? List.of() : pilha.getFrames();
+        String origem = origem(quadros);
+        if (porOrigem.size() >= MAXIMO_ORIGENS && !porOrigem.containsKey(origem)) {
+            origem = "outras";
+        }
+        boolean nova = !porOrigem.containsKey(origem);
+        Ocorrencias ocorrencias = porOrigem.computeIfAbsent(origem, chave -> new Ocorrencias());
+        ocorrencias.quantidade.increment();
+        ocorrencias.nanos.add(evento.getDuration().toNanos());
+        if (nova) {
+            registrarMetrica(origem, ocorrencias);
+            log.warn("Thread virtual presa à portadora por {} ms em {} ({}):\n{}", evento.getDuration().toMillis(),
+                    origem, evento.getThread() == null ? "?" : evento.getThread().getJavaName(), formatar(quadros));
+        }
+    }
+
+    private void registrarMetrica(String origem, Ocorrencias ocorrencias) {
+        MeterRegistry atual = registry;
+        if (atual == null) {
+            return;
+        }
+        FunctionCounter.builder("minibiz.threads.virtuais.pinning", ocorrencias.quantidade, LongAdder::sum)
+                .description("Bloqueios de threads virtuais presas à thread portadora acima do limiar")
+                .tag("origem", origem)
+                .register(atual);
+    }
+
+    // Primeiro quadro do código da aplicação; sem nenhum, o topo da pilha
+    static String origem(List<RecordedFrame> quadros) {
+        for (RecordedFrame quadro : quadros) {
+            if (quadro.isJavaFrame() && quadro.getMethod().getType().getName().startsWith(PACOTE_APLICACAO)) {
+                return descrever(quadro);
+            }
+        }
+        return quadros.isEmpty() ? "desconhecida" : descrever(quadros.get(0));
+    }
+
+    private static String descrever(RecordedFrame quadro) {
+        String classe = quadro.getMethod().getType().getName();
+        return classe.substring(classe.lastIndexOf('.') + 1) + "." + quadro.getMethod().getName()
+                + (quadro.getLineNumber() > 0 ? ":" + quadro.getLineNumber() : "");
+    }
+
+    private static String formatar(List<RecordedFrame> quadros) {
+        return quadros.stream().limit(QUADROS_NO_LOG)
+                .map(quadro -> "\tat " + quadro.getMethod().getType().getName() + "." + quadro.getMethod().getName()
+                        + (quadro.getLineNumber() > 0 ? ":" + quadro.getLineNumber() : ""))
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.minibiz.config.exception;
+
+import br.com.minibiz.model.ApiResponse;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalExceptionHandlerTest {
+
+    private static final String TEXTO_DO_BANCO =
+            "Unique index or primary key violation: \"PUBLIC.UK_CODIGO ON PUBLIC.PRODUCT(CODIGO_PRODUTO) VALUES ('P1')\"";
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    // Mesma cadeia que o Spring monta a partir do Hibernate:
+    // DataIntegrityViolationException > ConstraintViolationException > SQLException
+    private static DataIntegrityViolationException violacao(String sqlState, int codigo) {
+        SQLException sql = new SQLException(TEXTO_DO_BANCO, sqlState, codigo);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sql, "uk_codigo"));
+    }
+
+    @Test
+    void handleDataIntegrityViolation_ChaveUnica_Retorna409ComMensagemFixa() {
+        ResponseEntity<ApiResponse> resposta = handler.handleDataIntegrityViolationException(violacao("23505", 23505));
+
+        assertEquals(HttpStatus.CONFLICT, resposta.getStatusCode());
+        assertFalse(resposta.getBody().getMessage().contains("PRODUCT"));
+        assertFalse(resposta.getBody().getMessage().contains("P1"));
+    }
+
+    @Test
+    void handleDataIntegrityViolation_ChaveDuplicadaNoMySql_Retorna409() {
+        ResponseEntity<ApiResponse> resposta = handler.handleDataIntegrityViolationException(violacao("23000", 1062));
+
+        assertEquals(HttpStatus.CONFLICT, resposta.getStatusCode());
+    }
+
+    @Test
+    void handleDataIntegrityViolation_DuplicateKeyDoJdbc_Retorna409() {
+        ResponseEntity<ApiResponse> resposta = handler.handleDataIntegrityViolationException(
+                new DuplicateKeyException(TEXTO_DO_BANCO));
+
+        assertEquals(HttpStatus.CONFLICT, resposta.getStatusCode());
+        assertFalse(resposta.getBody().getMessage().contains("PRODUCT"));
+    }
+
+    @Test
+    void handleDataIntegrityViolation_ChaveEstrangeiraOuNotNull_Retorna400SemTextoDoBanco() {
+        // 23503: chave estrangeira; 23502: NOT NULL; 23000 sem o código 1062: outras violações no MySQL
+        for (DataIntegrityViolationException ex : new DataIntegrityViolationException[] {
+                violacao("23503", 23503), violacao("23502", 23502), violacao("23000", 1452)}) {
+            ResponseEntity<ApiResponse> resposta = handler.handleDataIntegrityViolationException(ex);
+
+            assertEquals(HttpStatus.BAD_REQUEST, resposta.getStatusCode());
+            assertFalse(resposta.getBody().getMessage().contains("PRODUCT"));
+        }
+    }
+}
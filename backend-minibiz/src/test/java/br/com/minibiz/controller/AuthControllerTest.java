@@ -1,10 +1,16 @@
 package br.com.minibiz.controller;
 
+import br.com.minibiz.config.exception.ServiceUnavailableException;
 import br.com.minibiz.dto.ForgotPasswordRequestDTO;
 import br.com.minibiz.dto.LoginRequestDTO;
+import br.com.minibiz.dto.RefreshRequestDTO;
 import br.com.minibiz.dto.RegisterRequestDTO;
 import br.com.minibiz.dto.ResponseDTO;
+import br.com.minibiz.infra.security.RefreshTokenService;
+import br.com.minibiz.infra.security.RevogacaoTokenService;
+import br.com.minibiz.infra.security.SecurityFilter;
 import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.infra.security.UsuarioAutenticado;
 import br.com.minibiz.model.user.User;
 import br.com.minibiz.repository.UserRepository;
 import br.com.minibiz.service.EmailService;
@@ -12,21 +18,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Instant;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(AuthController.class)
+// O SecurityFilter e a cadeia do Spring Security ficam de fora: os testes exercitam só o controller
+@WebMvcTest(controllers = AuthController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SecurityFilter.class))
+@AutoConfigureMockMvc(addFilters = false)
 public class AuthControllerTest {
 
     @Autowired
@@ -47,6 +63,12 @@ public class AuthControllerTest {
     @MockBean
     private EmailService emailService;
 
+    @MockBean
+    private RevogacaoTokenService revogacaoTokenService;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     private User testUser;
     private final String TEST_TOKEN = "test-jwt-token";
 
@@ -59,6 +81,12 @@ public class AuthControllerTest {
         testUser.setPassword("encodedPassword");
     }
 
+    private static UsuarioAutenticado usuarioDoLink() {
+        Instant emitidoEm = Instant.now();
+        return new UsuarioAutenticado("1", "test@example.com", "USER", "jti-link", emitidoEm,
+                emitidoEm.plusSeconds(900));
+    }
+
     @Test
     void loginSuccess() throws Exception {
         // Arrange
@@ -66,6 +94,7 @@ public class AuthControllerTest {
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
         when(tokenService.generateToken(testUser)).thenReturn(TEST_TOKEN);
+        when(refreshTokenService.emitir(testUser)).thenReturn("refresh-1");
 
         // Act & Assert
         mockMvc.perform(post("/auth/login")
@@ -73,13 +102,53 @@ public class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Test User"))
-                .andExpect(jsonPath("$.token").value(TEST_TOKEN));
+                .andExpect(jsonPath("$.token").value(TEST_TOKEN))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-1"));
 
         verify(userRepository).findByEmail("test@example.com");
         verify(passwordEncoder).matches("password123", "encodedPassword");
         verify(tokenService).generateToken(testUser);
     }
 
+    @Test
+    void loginRehashesPasswordWhenCostChanged() throws Exception {
+        // Arrange
+        LoginRequestDTO loginRequest = new LoginRequestDTO("test@example.com", "password123");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("encodedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("rehashedPassword");
+        when(tokenService.generateToken(testUser)).thenReturn(TEST_TOKEN);
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(TEST_TOKEN));
+
+        verify(userRepository).save(testUser);
+        assertEquals("rehashedPassword", testUser.getPassword());
+    }
+
+    @Test
+    void loginReturnsServiceUnavailableWhenHashingIsSaturated() throws Exception {
+        // Arrange
+        LoginRequestDTO loginRequest = new LoginRequestDTO("test@example.com", "password123");
+        when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("password123", "encodedPassword"))
+                .thenThrow(new ServiceUnavailableException("Servidor ocupado"));
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(tokenService, never()).generateToken(any(User.class));
+    }
+
     @Test
     void loginFailWhenUserNotFound() throws Exception {
         // Arrange
@@ -90,7 +159,7 @@ public class AuthControllerTest {
         mockMvc.perform(post("/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
-                .andExpect(status().isInternalServerError());
+                .andExpect(status().isNotFound());
 
         verify(userRepository).findByEmail("nonexistent@example.com");
         verify(passwordEncoder, never()).matches(anyString(), anyString());
@@ -194,7 +263,7 @@ public class AuthControllerTest {
         mockMvc.perform(post("/auth/forgot-password")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(forgotPasswordRequest)))
-                .andExpect(status().isInternalServerError());
+                .andExpect(status().isNotFound());
 
         verify(userRepository).findByEmail("nonexistent@example.com");
         verify(tokenService, never()).generateToken(any(User.class));
@@ -206,7 +275,8 @@ public class AuthControllerTest {
         // Arrange
         String newPassword = "newPassword123";
         
-        when(tokenService.validateToken(TEST_TOKEN)).thenReturn("test@example.com");
+        UsuarioAutenticado usuario = usuarioDoLink();
+        when(tokenService.autenticar(TEST_TOKEN)).thenReturn(usuario);
         when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
         when(passwordEncoder.encode(newPassword)).thenReturn("newEncodedPassword");
 
@@ -218,17 +288,20 @@ public class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Password updated successfully"));
 
-        verify(tokenService).validateToken(TEST_TOKEN);
+        verify(tokenService).autenticar(TEST_TOKEN);
         verify(userRepository).findByEmail("test@example.com");
         verify(passwordEncoder).encode(newPassword);
         verify(userRepository).save(testUser);
+        verify(revogacaoTokenService).revogarTodos("1");
+        verify(revogacaoTokenService).revogar(usuario);
+        verify(refreshTokenService).revogarTodos("1");
     }
 
     @Test
     void resetPasswordFailWithInvalidToken() throws Exception {
         // Arrange
         String newPassword = "newPassword123";
-        when(tokenService.validateToken("invalid-token")).thenReturn(null);
+        when(tokenService.autenticar("invalid-token")).thenReturn(null);
 
         // Act & Assert
         mockMvc.perform(post("/auth/reset-password")
@@ -238,10 +311,84 @@ public class AuthControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string("Invalid token"));
 
-        verify(tokenService).validateToken("invalid-token");
+        verify(tokenService).autenticar("invalid-token");
         verify(userRepository, never()).findByEmail(anyString());
         verify(passwordEncoder, never()).encode(anyString());
         verify(userRepository, never()).save(any(User.class));
+        verify(revogacaoTokenService, never()).revogarTodos(anyString());
     }
-}
 
+    @Test
+    void resetPasswordFailWhenLinkAlreadyUsedOrLoggedOut() throws Exception {
+        // Arrange
+        UsuarioAutenticado usuario = usuarioDoLink();
+        when(tokenService.autenticar(TEST_TOKEN)).thenReturn(usuario);
+        when(revogacaoTokenService.revogado(usuario)).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/reset-password")
+                .param("token", TEST_TOKEN)
+                .contentType(MediaType.TEXT_PLAIN)
+                .content("outraSenha123"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid token"));
+
+        verify(userRepository, never()).findByEmail(anyString());
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void logoutRevokesCurrentToken() throws Exception {
+        // Arrange
+        Instant emitidoEm = Instant.now();
+        UsuarioAutenticado usuario = new UsuarioAutenticado("1", "test@example.com", "USER", "jti-1", emitidoEm,
+                emitidoEm.plusSeconds(7200));
+
+        // Act & Assert
+        // Sem os filtros de segurança, o usuário vai direto para o contexto lido pelo @AuthenticationPrincipal
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(usuario, null, usuario.authorities()));
+        try {
+            mockMvc.perform(post("/auth/logout"))
+                    .andExpect(status().isNoContent());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(revogacaoTokenService).revogar(usuario);
+    }
+
+    @Test
+    void refreshIssuesNewTokensWithoutCheckingPassword() throws Exception {
+        // Arrange
+        when(refreshTokenService.renovar("refresh-1"))
+                .thenReturn(Optional.of(new RefreshTokenService.Renovacao(testUser, "refresh-2")));
+        when(tokenService.generateToken(testUser)).thenReturn(TEST_TOKEN);
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequestDTO("refresh-1"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test User"))
+                .andExpect(jsonPath("$.token").value(TEST_TOKEN))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-2"));
+
+        verifyNoInteractions(passwordEncoder, userRepository);
+    }
+
+    @Test
+    void refreshFailWithInvalidOrReusedToken() throws Exception {
+        // Arrange
+        when(refreshTokenService.renovar("refresh-1")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(post("/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshRequestDTO("refresh-1"))))
+                .andExpect(status().isUnauthorized());
+
+        verify(tokenService, never()).generateToken(any(User.class));
+    }
+}
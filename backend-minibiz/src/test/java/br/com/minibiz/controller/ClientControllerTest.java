@@ -1,14 +1,25 @@
 package br.com.minibiz.controller;
 import br.com.minibiz.config.exception.ClientNotFoundException;
 import br.com.minibiz.config.exception.ClientServiceException;
+import br.com.minibiz.dto.ClientImportResultDTO;
+import br.com.minibiz.dto.Cliente360DTO;
+import br.com.minibiz.dto.ClientSearchResultDTO;
+import br.com.minibiz.dto.ResumoClienteDTO;
+import br.com.minibiz.dto.VendaResponse;
+import br.com.minibiz.infra.security.SecurityFilter;
 import br.com.minibiz.model.client.Client;
+import br.com.minibiz.service.ClientImportService;
 import br.com.minibiz.service.ClientService;
+import br.com.minibiz.service.VendaService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -16,9 +27,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,7 +41,10 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(ClientController.class)
+// O SecurityFilter e a cadeia do Spring Security ficam de fora: os testes exercitam só o controller
+@WebMvcTest(controllers = ClientController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SecurityFilter.class))
+@AutoConfigureMockMvc(addFilters = false)
 public class ClientControllerTest {
 
     @Autowired
@@ -39,6 +56,12 @@ public class ClientControllerTest {
     @MockBean
     private ClientService clientService;
 
+    @MockBean
+    private VendaService vendaService;
+
+    @MockBean
+    private ClientImportService clientImportService;
+
     private Client client;
     private final Long clientId = 1L;
 
@@ -119,7 +142,7 @@ public class ClientControllerTest {
     }
 
     @Test
-    void criarCliente_ServiceException_ReturnsBadRequest() throws Exception {
+    void criarCliente_ServiceException_ReturnsInternalServerError() throws Exception {
         // Arrange
         when(clientService.create(any(Client.class))).thenThrow(new ClientServiceException("Erro ao adicionar cliente"));
 
@@ -127,7 +150,7 @@ public class ClientControllerTest {
         mockMvc.perform(post("/api/clients")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(client)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isInternalServerError());
 
         verify(clientService, times(1)).create(any(Client.class));
     }
@@ -213,5 +236,101 @@ public class ClientControllerTest {
 
         verify(clientService, times(1)).delete(clientId);
     }
-}
 
+    @Test
+    void listarCliente_ETagAtual_ReturnsNotModifiedSemCarregarCliente() throws Exception {
+        // Arrange
+        when(clientService.findUltimaAlteracao(clientId)).thenReturn(Optional.of(LocalDateTime.of(2024, 5, 10, 14, 30)));
+        when(clientService.findById(clientId)).thenReturn(client);
+
+        String etag = mockMvc.perform(get("/api/clients/{id}", clientId))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/clients/{id}", clientId)
+                .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(clientService, times(1)).findById(clientId);
+    }
+
+    @Test
+    void listarTodosClientes_VersaoDaColecaoInalterada_ReturnsNotModified() throws Exception {
+        // Arrange
+        when(clientService.etagDaPagina(any(Pageable.class))).thenReturn("\"clientes-1-7-0-20\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/clients")
+                .header("If-None-Match", "\"clientes-1-7-0-20\""))
+                .andExpect(status().isNotModified());
+
+        verify(clientService, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void buscarClientes_ReturnsMatchesFromIndex() throws Exception {
+        // Arrange
+        when(clientService.search("9999", 10)).thenReturn(List.of(ClientSearchResultDTO.of(client)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/clients/search").param("q", "9999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].nome").value("Cliente Teste"));
+    }
+
+    @Test
+    void visaoCompletaCliente_ReturnsClientSalesAndTotals() throws Exception {
+        // Arrange
+        VendaResponse venda = new VendaResponse();
+        venda.setId(30L);
+        venda.setClientId(clientId);
+        venda.setValorTotal(new BigDecimal("150.00"));
+        ResumoClienteDTO resumo = new ResumoClienteDTO(3L, 1L, new BigDecimal("300.00"),
+                LocalDateTime.of(2024, 1, 5, 10, 0), LocalDateTime.of(2024, 5, 10, 14, 30));
+        when(vendaService.cliente360(clientId, 5)).thenReturn(new Cliente360DTO(client, List.of(venda), resumo));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/clients/{id}/360", clientId).param("vendas", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cliente.nome").value("Cliente Teste"))
+                .andExpect(jsonPath("$.ultimasVendas", hasSize(1)))
+                .andExpect(jsonPath("$.resumo.totalVendas").value(3))
+                .andExpect(jsonPath("$.resumo.ticketMedio").value(150.00));
+    }
+
+    @Test
+    void visaoCompletaCliente_NonExistingClient_ReturnsNotFound() throws Exception {
+        // Arrange
+        when(vendaService.cliente360(99L, 10)).thenThrow(new ClientNotFoundException(99L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/clients/99/360"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void importarClientes_DeveRetornarInseridosEDuplicados() throws Exception {
+        // Arrange
+        ClientImportResultDTO resultado = new ClientImportResultDTO();
+        resultado.somarInseridos(2);
+        resultado.duplicar(4, "e-mail repetido no arquivo: ana@exemplo.com");
+        when(clientImportService.importar(any(), eq(200))).thenReturn(resultado);
+
+        String csv = "nome,email,telefone\nAna,ana@exemplo.com,11987654321\nBruno,bruno@exemplo.com,\n"
+                + "Ana Souza,ANA@exemplo.com,\n";
+
+        // Act & Assert
+        mockMvc.perform(post("/api/clients/import")
+                .param("batchSize", "200")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inseridos", is(2)))
+                .andExpect(jsonPath("$.duplicados", is(1)))
+                .andExpect(jsonPath("$.linhasDuplicadas[0].linha", is(4)));
+    }
+}
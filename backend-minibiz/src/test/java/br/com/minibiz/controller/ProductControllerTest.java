@@ -1,15 +1,31 @@
 package br.com.minibiz.controller;
 
+import br.com.minibiz.dto.EstoqueBaixoDTO;
+import br.com.minibiz.dto.EstoqueNaDataDTO;
+import br.com.minibiz.dto.ProductBulkPriceRequest;
+import br.com.minibiz.dto.ProductBulkStockRequest;
+import br.com.minibiz.dto.ProductImportResultDTO;
+import br.com.minibiz.dto.ProductPatchDTO;
+import br.com.minibiz.dto.ProductSearchResultDTO;
+import br.com.minibiz.infra.security.SecurityFilter;
 import br.com.minibiz.model.product.Product;
+import br.com.minibiz.service.ProductImportService;
 import br.com.minibiz.service.ProductService;
+import br.com.minibiz.service.estoque.EstoqueBaixoService;
+import br.com.minibiz.service.estoque.MovimentoEstoqueService;
+import br.com.minibiz.config.exception.BadRequestException;
+import br.com.minibiz.config.exception.ConflictException;
 import br.com.minibiz.config.exception.ProductNotFoundException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,15 +37,20 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(ProductController.class)
+// O SecurityFilter e a cadeia do Spring Security ficam de fora: os testes exercitam só o controller
+@WebMvcTest(controllers = ProductController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SecurityFilter.class))
+@AutoConfigureMockMvc(addFilters = false)
 public class ProductControllerTest {
 
     @Autowired
@@ -38,6 +59,15 @@ public class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private ProductImportService productImportService;
+
+    @MockBean
+    private EstoqueBaixoService estoqueBaixoService;
+
+    @MockBean
+    private MovimentoEstoqueService movimentoEstoqueService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -124,6 +154,52 @@ public class ProductControllerTest {
         verify(productService).findById(999L);
     }
 
+    @Test
+    void listarProdutoPorCodigo_QuandoExiste_DeveRetornarProduto() throws Exception {
+        // Configura o mock para retornar o produto pelo código de barras
+        when(productService.findByCodigoProduto("DELL-001")).thenReturn(produto1);
+
+        // Executa a requisição e verifica o resultado
+        mockMvc.perform(get("/api/products/by-code/DELL-001")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.preco", is(3500.00)));
+
+        // Verifica se o método do serviço foi chamado
+        verify(productService).findByCodigoProduto("DELL-001");
+    }
+
+    @Test
+    void listarProdutoPorCodigo_QuandoNaoExiste_DeveRetornarNotFound() throws Exception {
+        // Configura o mock para lançar exceção quando o código não existe
+        when(productService.findByCodigoProduto("XYZ")).thenThrow(new ProductNotFoundException("XYZ"));
+
+        // Executa a requisição e verifica o resultado
+        mockMvc.perform(get("/api/products/by-code/XYZ")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void buscarProdutos_DeveRetornarResultadosDoIndice() throws Exception {
+        // Configura o mock para retornar o resultado da busca
+        when(productService.search(eq("dell"), anyInt()))
+                .thenReturn(List.of(ProductSearchResultDTO.of(produto1)));
+
+        // Executa a requisição e verifica o resultado
+        mockMvc.perform(get("/api/products/search")
+                .param("q", "dell")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].codigoProduto", is("DELL-001")));
+
+        // Verifica se o método do serviço foi chamado com o limite padrão
+        verify(productService).search("dell", 10);
+    }
+
     @Test
     void criarProduto_ComDadosValidos_DeveCriarERetornarProduto() throws Exception {
         // Configura produto para criar
@@ -270,5 +346,125 @@ public class ProductControllerTest {
         // Verifica se o método do serviço foi chamado
         verify(productService).delete(1L);
     }
-}
 
+    @Test
+    void importarProdutos_DeveRetornarResumoDaImportacao() throws Exception {
+        ProductImportResultDTO resultado = new ProductImportResultDTO();
+        resultado.somarInseridos(2);
+        resultado.somarAtualizados(1);
+        resultado.rejeitar(4, "preco inválido: abc");
+        when(productImportService.importar(any(), eq(100))).thenReturn(resultado);
+
+        String csv = "codigoProduto,nome,preco\nA1,Caneta,2.50\nA2,Lápis,1.20\nA3,Borracha,0.90\nA4,Régua,abc\n";
+
+        mockMvc.perform(post("/api/products/import")
+                .param("batchSize", "100")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inseridos", is(2)))
+                .andExpect(jsonPath("$.atualizados", is(1)))
+                .andExpect(jsonPath("$.rejeitados", is(1)))
+                .andExpect(jsonPath("$.linhasRejeitadas[0].linha", is(4)));
+    }
+
+    @Test
+    void reajustarPrecos_DeveRetornarQuantidadeAfetada() throws Exception {
+        ProductBulkPriceRequest request = new ProductBulkPriceRequest("bebidas", null, null, new BigDecimal("8"), null);
+        when(productService.reajustarPrecos(request)).thenReturn(12);
+
+        mockMvc.perform(post("/api/products/bulk/preco")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afetados", is(12)));
+
+        verify(productService).reajustarPrecos(request);
+    }
+
+    @Test
+    void ajustarEstoque_SemFiltro_DeveRetornarBadRequest() throws Exception {
+        ProductBulkStockRequest request = new ProductBulkStockRequest(null, null, null, 5);
+        when(productService.ajustarEstoque(request))
+                .thenThrow(new BadRequestException("Informe exatamente um filtro: categoria, codigos ou ids."));
+
+        mockMvc.perform(post("/api/products/bulk/estoque")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void listarProduto_AlteradoDepoisDoCache_DeveRetornarNovaVersao() throws Exception {
+        // A ETag guardada pelo cliente corresponde à data anterior à última alteração
+        when(productService.findUltimaAlteracao(1L)).thenReturn(Optional.of(LocalDateTime.of(2024, 5, 10, 14, 30)));
+        when(productService.findById(1L)).thenReturn(produto1);
+
+        String etagAntiga = mockMvc.perform(get("/api/products/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", etagAntiga))
+                .andExpect(status().isNotModified());
+
+        when(productService.findUltimaAlteracao(1L)).thenReturn(Optional.of(LocalDateTime.of(2024, 5, 10, 15, 0)));
+
+        mockMvc.perform(get("/api/products/1").header("If-None-Match", etagAntiga))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(etagAntiga)))
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(productService, times(2)).findById(1L);
+    }
+
+    @Test
+    void listarEstoqueBaixo_DeveRetornarListaDeReposicao() throws Exception {
+        when(estoqueBaixoService.listar(100)).thenReturn(List.of(
+                new EstoqueBaixoDTO(2L, "Mouse Logitech", "LOG-001", 1, 10),
+                new EstoqueBaixoDTO(1L, "Notebook Dell", "DELL-001", 3, 5)));
+
+        mockMvc.perform(get("/api/products/estoque-baixo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[0].estoqueMinimo", is(10)));
+
+        verify(productService, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void atualizarProdutoParcialmente_DeveRetornarNoContent() throws Exception {
+        ProductPatchDTO patch = new ProductPatchDTO(null, null, new BigDecimal("3299.90"), null, null, null, 4L);
+
+        mockMvc.perform(patch("/api/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isNoContent());
+
+        verify(productService).patch(1L, patch);
+    }
+
+    @Test
+    void atualizarProdutoParcialmente_VersaoDesatualizada_DeveRetornarConflict() throws Exception {
+        ProductPatchDTO patch = new ProductPatchDTO("Notebook Dell G15", null, null, null, null, null, 3L);
+        doThrow(new ConflictException("O produto 1 foi alterado por outra operação desde a versão 3."))
+                .when(productService).patch(1L, patch);
+
+        mockMvc.perform(patch("/api/products/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patch)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message", containsString("versão 3")));
+    }
+
+    @Test
+    void consultarEstoqueNaData_DeveRetornarSnapshotMaisMovimentos() throws Exception {
+        LocalDateTime data = LocalDateTime.of(2024, 5, 10, 18, 0);
+        when(movimentoEstoqueService.estoqueEm(1L, data)).thenReturn(new EstoqueNaDataDTO(1L, data, 7, data.withHour(17), 3, null));
+
+        mockMvc.perform(get("/api/products/1/estoque").param("em", "2024-05-10T18:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidade", is(7)))
+                .andExpect(jsonPath("$.movimentosReaplicados", is(3)));
+    }
+}
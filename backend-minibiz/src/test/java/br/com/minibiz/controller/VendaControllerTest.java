@@ -1,6 +1,7 @@
 package br.com.minibiz.controller;
 
 import br.com.minibiz.dto.*;
+import br.com.minibiz.infra.security.SecurityFilter;
 import br.com.minibiz.model.venda.StatusVenda;
 import br.com.minibiz.model.venda.Venda;
 import br.com.minibiz.service.VendaService;
@@ -9,8 +10,11 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -30,7 +34,10 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(VendaController.class)
+// O SecurityFilter e a cadeia do Spring Security ficam de fora: os testes exercitam só o controller
+@WebMvcTest(controllers = VendaController.class,
+        excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SecurityFilter.class))
+@AutoConfigureMockMvc(addFilters = false)
 public class VendaControllerTest {
 
     @Autowired
@@ -137,7 +144,7 @@ public class VendaControllerTest {
         when(vendaService.findById(999L)).thenThrow(new RuntimeException("Venda com ID 999 não encontrada."));
 
         mockMvc.perform(get("/api/vendas/999"))
-                .andExpect(status().isInternalServerError());
+                .andExpect(status().isNotFound());
 
         verify(vendaService, times(1)).findById(999L);
     }
@@ -165,6 +172,29 @@ public class VendaControllerTest {
         verify(vendaService, times(1)).cancelar(1L);
     }
 
+    @Test
+    void concluirVenda_Success() throws Exception {
+        venda.setStatus(StatusVenda.CONCLUIDA);
+        when(vendaService.concluir(1L)).thenReturn(venda);
+
+        mockMvc.perform(put("/api/vendas/concluir/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.status", is(StatusVenda.CONCLUIDA.toString())));
+
+        verify(vendaService, times(1)).concluir(1L);
+    }
+
+    @Test
+    void concluirVenda_Cancelled() throws Exception {
+        when(vendaService.concluir(1L)).thenThrow(new IllegalArgumentException("Venda cancelada não pode ser concluída."));
+
+        mockMvc.perform(put("/api/vendas/concluir/1"))
+                .andExpect(status().isBadRequest());
+
+        verify(vendaService, times(1)).concluir(1L);
+    }
+
     @Test
     void editarVenda_Success() throws Exception {
         when(vendaService.update(eq(1L), any(VendaRequest.class))).thenReturn(venda);
@@ -0,0 +1,81 @@
+package br.com.minibiz.infra.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LimitadorTaxaTest {
+
+    private static final long SEGUNDO = 1_000_000_000L;
+
+    private final AtomicLong relogio = new AtomicLong(1_000 * SEGUNDO);
+
+    @Test
+    void tentarConsumir_AceitaARajadaERecusaASeguinte() {
+        // 60 por minuto = uma ficha por segundo, até 3 seguidas
+        LimitadorTaxa limitador = new LimitadorTaxa(60, 3, relogio::get);
+
+        assertEquals(0, limitador.tentarConsumir("u:ana"));
+        assertEquals(0, limitador.tentarConsumir("u:ana"));
+        assertEquals(0, limitador.tentarConsumir("u:ana"));
+        assertEquals(SEGUNDO, limitador.tentarConsumir("u:ana"));
+        // Outra chave tem o próprio balde
+        assertEquals(0, limitador.tentarConsumir("u:bruno"));
+    }
+
+    @Test
+    void tentarConsumir_FichasVoltamComOTempo() {
+        LimitadorTaxa limitador = new LimitadorTaxa(60, 1, relogio::get);
+        assertEquals(0, limitador.tentarConsumir("ip:10.0.0.1"));
+        assertTrue(limitador.tentarConsumir("ip:10.0.0.1") > 0);
+
+        relogio.addAndGet(SEGUNDO / 2);
+        assertEquals(SEGUNDO / 2, limitador.tentarConsumir("ip:10.0.0.1"));
+
+        relogio.addAndGet(SEGUNDO / 2);
+        assertEquals(0, limitador.tentarConsumir("ip:10.0.0.1"));
+    }
+
+    @Test
+    void removerOciosos_DescartaSoBaldesJaReabastecidos() {
+        LimitadorTaxa limitador = new LimitadorTaxa(60, 5, relogio::get);
+        limitador.tentarConsumir("u:ana");
+        relogio.addAndGet(SEGUNDO / 2);
+        limitador.tentarConsumir("u:bruno");
+        relogio.addAndGet(SEGUNDO / 2);
+
+        assertEquals(1, limitador.removerOciosos());
+        assertEquals(1, limitador.tamanho());
+    }
+
+    @Test
+    void tentarConsumir_Concorrente_NuncaAceitaMaisQueARajada() throws Exception {
+        LimitadorTaxa limitador = new LimitadorTaxa(1, 100, relogio::get);
+        AtomicInteger aceitas = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                largada.await();
+                for (int i = 0; i < 1000; i++) {
+                    if (limitador.tentarConsumir("u:caixa") == 0) {
+                        aceitas.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        largada.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, aceitas.get());
+    }
+}
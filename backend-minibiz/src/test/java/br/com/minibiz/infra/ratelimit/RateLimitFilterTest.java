@@ -0,0 +1,88 @@
+package br.com.minibiz.infra.ratelimit;
+
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.model.user.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RateLimitFilterTest {
+
+    private TokenService tokenService;
+    private MeterRegistry registry;
+    private RateLimitFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Grupo auth = new RateLimitProperties.Grupo();
+        auth.setNome("auth");
+        auth.setPadroes(List.of("/auth/**"));
+        auth.setRequisicoesPorMinuto(6);
+        auth.setRajada(2);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGrupos(List.of(auth));
+
+        tokenService = new TokenService("segredo-de-teste");
+        registry = new SimpleMeterRegistry();
+        filtro = new RateLimitFilter(properties, tokenService,
+                new StaticListableBeanFactory(Map.of("registry", registry)).getBeanProvider(MeterRegistry.class));
+    }
+
+    private MockHttpServletResponse executar(String metodo, String caminho, String ip, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(metodo, caminho);
+        request.setRemoteAddr(ip);
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filtro.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void doFilter_AlemDaRajadaDoGrupo_Responde429ComRetryAfter() throws Exception {
+        assertEquals(200, executar("POST", "/auth/login", "10.0.0.1", null).getStatus());
+        assertEquals(200, executar("POST", "/auth/login", "10.0.0.1", null).getStatus());
+
+        MockHttpServletResponse recusada = executar("POST", "/auth/login", "10.0.0.1", null);
+
+        assertEquals(429, recusada.getStatus());
+        assertEquals("10", recusada.getHeader("Retry-After"));
+        assertEquals(1.0, registry.get("minibiz.ratelimit.rejeitadas").tag("grupo", "auth").counter().count());
+        // Outro IP e outra rota (grupo padrão) não são afetados
+        assertEquals(200, executar("POST", "/auth/login", "10.0.0.2", null).getStatus());
+        assertEquals(200, executar("GET", "/api/clients", "10.0.0.1", null).getStatus());
+    }
+
+    @Test
+    void doFilter_ComToken_LimitaPorUsuarioENaoPorIp() throws Exception {
+        User user = new User();
+        user.setId("7");
+        user.setEmail("caixa1@minibiz.com");
+        String token = tokenService.generateToken(user);
+
+        executar("POST", "/auth/logout", "10.0.0.1", token);
+        executar("POST", "/auth/logout", "10.0.0.2", token);
+
+        assertEquals(429, executar("POST", "/auth/logout", "10.0.0.3", token).getStatus());
+        assertEquals(200, executar("POST", "/auth/logout", "10.0.0.1", null).getStatus());
+    }
+
+    @Test
+    void doFilter_PreflightCors_NaoConsomeFichas() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, executar("OPTIONS", "/auth/login", "10.0.0.1", null).getStatus());
+        }
+        assertEquals(200, executar("POST", "/auth/login", "10.0.0.1", null).getStatus());
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.minibiz.infra.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void talvezContenha_ElementoAdicionado_NuncaDaFalsoNegativo() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.001);
+        String[] jtis = new String[10_000];
+        for (int i = 0; i < jtis.length; i++) {
+            jtis[i] = UUID.randomUUID().toString();
+            filtro.adicionar(jtis[i]);
+        }
+
+        for (String jti : jtis) {
+            assertTrue(filtro.talvezContenha(jti));
+        }
+    }
+
+    @Test
+    void talvezContenha_ElementosAusentes_FalsosPositivosPertoDaTaxaConfigurada() {
+        BloomFilter filtro = new BloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(UUID.randomUUID().toString());
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.talvezContenha(UUID.randomUUID().toString())) {
+                falsosPositivos++;
+            }
+        }
+        // Esperado em torno de 100 (0,1%); a folga evita um teste instável
+        assertTrue(falsosPositivos < 500, "falsos positivos: " + falsosPositivos);
+        assertEquals(10, filtro.quantidadeHashes());
+    }
+
+    @Test
+    void talvezContenha_FiltroVazio_DevolveFalse() {
+        assertFalse(new BloomFilter(100, 0.01).talvezContenha("qualquer"));
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.config.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordEncoderIsoladoTest {
+
+    @Test
+    void encodeEMatches_FuncionamComoBCrypt() {
+        try (PasswordEncoderIsolado encoder = new PasswordEncoderIsolado(4, 2, 8, 5000)) {
+            String hash = encoder.encode("senha123");
+
+            assertTrue(hash.startsWith("$2a$04$"));
+            assertTrue(encoder.matches("senha123", hash));
+            assertFalse(encoder.matches("outra", hash));
+            // Hashes gerados antes, direto pelo BCryptPasswordEncoder, continuam válidos
+            assertTrue(encoder.matches("senha123", new BCryptPasswordEncoder(10).encode("senha123")));
+        }
+    }
+
+    @Test
+    void upgradeEncoding_CustoDiferenteDoConfigurado_PedeNovoHash() {
+        try (PasswordEncoderIsolado encoder = new PasswordEncoderIsolado(5, 1, 8, 5000)) {
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("senha")));
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("senha")));
+            assertFalse(encoder.upgradeEncoding(encoder.encode("senha")));
+            assertFalse(encoder.upgradeEncoding(null));
+        }
+    }
+
+    @Test
+    void matches_HashNaoTerminaNoTempoLimite_LancaServiceUnavailable() {
+        String hash = new BCryptPasswordEncoder(13).encode("senha");
+        try (PasswordEncoderIsolado encoder = new PasswordEncoderIsolado(13, 1, 1, 1)) {
+            assertThrows(ServiceUnavailableException.class, () -> encoder.matches("senha", hash));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.model.user.RefreshToken;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId("u1");
+        user.setEmail("caixa@minibiz.com");
+    }
+
+    private RefreshToken gravado(String familia, LocalDateTime expiraEm) {
+        RefreshToken token = new RefreshToken("hash", user, familia, expiraEm);
+        ReflectionTestUtils.setField(token, "id", 10L);
+        return token;
+    }
+
+    @Test
+    void emitir_GravaSoOHashDoToken() {
+        String token = refreshTokenService.emitir(user);
+
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals(RefreshTokenService.hash(token), captor.getValue().getHash());
+        assertNotEquals(token, captor.getValue().getHash());
+        assertEquals(64, captor.getValue().getHash().length());
+        assertNotEquals(token, refreshTokenService.emitir(user));
+    }
+
+    @Test
+    void renovar_TokenValido_EmiteOutroDaMesmaFamilia() {
+        LocalDateTime expiraEm = LocalDateTime.now(ZoneOffset.UTC).plusDays(1);
+        when(refreshTokenRepository.findByHashComUsuario(RefreshTokenService.hash("abc")))
+                .thenReturn(Optional.of(gravado("fam-1", expiraEm)));
+        when(refreshTokenRepository.marcarUsado(eq(10L), any(LocalDateTime.class))).thenReturn(1);
+
+        RefreshTokenService.Renovacao renovacao = refreshTokenService.renovar("abc").orElseThrow();
+
+        assertSame(user, renovacao.usuario());
+        assertNotEquals("abc", renovacao.refreshToken());
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        assertEquals("fam-1", captor.getValue().getFamilia());
+        assertEquals(RefreshTokenService.hash(renovacao.refreshToken()), captor.getValue().getHash());
+    }
+
+    @Test
+    void renovar_TokenJaUsado_RevogaAFamilia() {
+        RefreshToken usado = gravado("fam-1", LocalDateTime.now(ZoneOffset.UTC).plusDays(1));
+        ReflectionTestUtils.setField(usado, "usadoEm", LocalDateTime.now(ZoneOffset.UTC));
+        when(refreshTokenRepository.findByHashComUsuario(anyString())).thenReturn(Optional.of(usado));
+
+        assertTrue(refreshTokenService.renovar("abc").isEmpty());
+
+        verify(refreshTokenRepository).deleteByFamilia("fam-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void renovar_UsoConcorrenteDoMesmoToken_SoUmVence() {
+        when(refreshTokenRepository.findByHashComUsuario(anyString()))
+                .thenReturn(Optional.of(gravado("fam-1", LocalDateTime.now(ZoneOffset.UTC).plusDays(1))));
+        when(refreshTokenRepository.marcarUsado(eq(10L), any(LocalDateTime.class))).thenReturn(0);
+
+        assertTrue(refreshTokenService.renovar("abc").isEmpty());
+
+        verify(refreshTokenRepository).deleteByFamilia("fam-1");
+    }
+
+    @Test
+    void renovar_TokenExpirado_NaoRenova() {
+        when(refreshTokenRepository.findByHashComUsuario(RefreshTokenService.hash("velho")))
+                .thenReturn(Optional.of(gravado("fam-1", LocalDateTime.now(ZoneOffset.UTC).minusMinutes(1))));
+
+        assertTrue(refreshTokenService.renovar("velho").isEmpty());
+
+        verify(refreshTokenRepository, never()).marcarUsado(any(), any());
+        verify(refreshTokenRepository, never()).deleteByFamilia(anyString());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void renovar_TokenDesconhecidoOuAusente_NaoRenova() {
+        assertTrue(refreshTokenService.renovar("desconhecido").isEmpty());
+        assertTrue(refreshTokenService.renovar(null).isEmpty());
+
+        verify(refreshTokenRepository).findByHashComUsuario(RefreshTokenService.hash("desconhecido"));
+        verifyNoMoreInteractions(refreshTokenRepository);
+    }
+}
@@ -0,0 +1,121 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.model.user.RevogacaoUsuario;
+import br.com.minibiz.model.user.TokenRevogado;
+import br.com.minibiz.repository.RevogacaoUsuarioRepository;
+import br.com.minibiz.repository.TokenRevogadoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RevogacaoTokenServiceTest {
+
+    @Mock
+    private TokenRevogadoRepository tokenRevogadoRepository;
+
+    @Mock
+    private RevogacaoUsuarioRepository revogacaoUsuarioRepository;
+
+    @InjectMocks
+    private RevogacaoTokenService revogacaoTokenService;
+
+    private static UsuarioAutenticado usuario(String jti, Instant emitidoEm) {
+        return new UsuarioAutenticado("u1", "caixa@minibiz.com", "USER", jti, emitidoEm, emitidoEm.plusSeconds(7200));
+    }
+
+    @Test
+    void revogado_TokenNaoRevogado_NaoConsultaOBanco() {
+        assertFalse(revogacaoTokenService.revogado(usuario("jti-1", Instant.now())));
+
+        verifyNoInteractions(tokenRevogadoRepository);
+    }
+
+    @Test
+    void revogar_TokenPassaASerRecusadoConfirmandoNoBanco() {
+        UsuarioAutenticado usuario = usuario("jti-1", Instant.now());
+        when(tokenRevogadoRepository.existsById("jti-1")).thenReturn(true);
+
+        revogacaoTokenService.revogar(usuario);
+
+        verify(tokenRevogadoRepository).save(any(TokenRevogado.class));
+        assertTrue(revogacaoTokenService.revogado(usuario));
+        assertFalse(revogacaoTokenService.revogado(usuario("jti-2", Instant.now())));
+    }
+
+    @Test
+    void revogarTodos_RecusaSoTokensEmitidosAntes() {
+        Instant agora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        revogacaoTokenService.revogarTodos("u1");
+
+        verify(revogacaoUsuarioRepository).save(any(RevogacaoUsuario.class));
+        assertTrue(revogacaoTokenService.revogado(usuario("jti-antigo", agora.minusSeconds(60))));
+        assertFalse(revogacaoTokenService.revogado(usuario("jti-novo", agora.plusSeconds(1))));
+    }
+
+    @Test
+    void carregar_RestauraRevogacoesGravadas() {
+        Instant agora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime limite = LocalDateTime.ofInstant(agora, ZoneOffset.UTC);
+        when(tokenRevogadoRepository.findJtisAtivos(any())).thenReturn(List.of("jti-1"));
+        when(tokenRevogadoRepository.existsById("jti-1")).thenReturn(true);
+        when(revogacaoUsuarioRepository.findByExpiraEmAfter(any()))
+                .thenReturn(List.of(new RevogacaoUsuario("u2", limite, limite.plusHours(2))));
+
+        revogacaoTokenService.carregar();
+
+        assertTrue(revogacaoTokenService.revogado(usuario("jti-1", agora)));
+        UsuarioAutenticado outroUsuario = new UsuarioAutenticado("u2", "gerente@minibiz.com", "USER", "jti-3",
+                agora.minusSeconds(1), agora.plusSeconds(7200));
+        assertTrue(revogacaoTokenService.revogado(outroUsuario));
+    }
+
+    @Test
+    void sincronizar_AplicaRevogacoesGravadasPorOutraInstancia() {
+        Instant agora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime limite = LocalDateTime.ofInstant(agora, ZoneOffset.UTC);
+        UsuarioAutenticado logoutEmOutraInstancia = usuario("jti-remoto", agora);
+        UsuarioAutenticado senhaTrocadaEmOutraInstancia = new UsuarioAutenticado("u2", "gerente@minibiz.com", "USER",
+                "jti-4", agora.minusSeconds(1), agora.plusSeconds(7200));
+        assertFalse(revogacaoTokenService.revogado(logoutEmOutraInstancia));
+        assertFalse(revogacaoTokenService.revogado(senhaTrocadaEmOutraInstancia));
+        when(tokenRevogadoRepository.findJtisRevogadosDesde(any())).thenReturn(List.of("jti-remoto"));
+        when(tokenRevogadoRepository.existsById("jti-remoto")).thenReturn(true);
+        when(revogacaoUsuarioRepository.findByRevogadosAntesDeAfter(any()))
+                .thenReturn(List.of(new RevogacaoUsuario("u2", limite, limite.plusHours(2))));
+
+        revogacaoTokenService.sincronizar();
+
+        assertTrue(revogacaoTokenService.revogado(logoutEmOutraInstancia));
+        assertTrue(revogacaoTokenService.revogado(senhaTrocadaEmOutraInstancia));
+    }
+
+    @Test
+    void sincronizar_BuscaDesdeAAnteriorMenosUmMinuto() {
+        revogacaoTokenService.sincronizar();
+        LocalDateTime depoisDaPrimeira = LocalDateTime.now(ZoneOffset.UTC);
+
+        revogacaoTokenService.sincronizar();
+
+        ArgumentCaptor<LocalDateTime> desde = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(revogacaoUsuarioRepository, times(2)).findByRevogadosAntesDeAfter(desde.capture());
+        // A segunda busca cobre o minuto anterior ao início da primeira, para linhas confirmadas com atraso
+        assertFalse(desde.getAllValues().get(1).isAfter(depoisDaPrimeira.minusMinutes(1)));
+        assertTrue(desde.getAllValues().get(1).isAfter(depoisDaPrimeira.minusMinutes(2)));
+        verify(tokenRevogadoRepository).findJtisRevogadosDesde(desde.getAllValues().get(1));
+    }
+}
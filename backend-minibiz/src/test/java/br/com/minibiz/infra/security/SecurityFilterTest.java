@@ -0,0 +1,83 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SecurityFilterTest {
+
+    private TokenService tokenService;
+    private UserRepository userRepository;
+    private RevogacaoTokenService revogacaoTokenService;
+    private SecurityFilter securityFilter;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService("segredo-de-teste");
+        userRepository = mock(UserRepository.class);
+        revogacaoTokenService = mock(RevogacaoTokenService.class);
+        securityFilter = new SecurityFilter(tokenService, userRepository, revogacaoTokenService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void doFilter_TokenValido_AutenticaSemConsultarOBanco() throws Exception {
+        User user = new User();
+        user.setId("42");
+        user.setEmail("gerente@minibiz.com");
+        user.setRole("ADMIN");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients");
+        request.addHeader("Authorization", "Bearer " + tokenService.generateToken(user));
+
+        securityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UsuarioAutenticado usuario = (UsuarioAutenticado) authentication.getPrincipal();
+        assertEquals("42", usuario.id());
+        assertEquals("gerente@minibiz.com", usuario.email());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"),
+                authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void doFilter_SemToken_NaoAutentica() throws Exception {
+        securityFilter.doFilter(new MockHttpServletRequest("GET", "/api/clients"), new MockHttpServletResponse(),
+                new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void doFilter_TokenRevogado_NaoAutentica() throws Exception {
+        User user = new User();
+        user.setId("42");
+        user.setEmail("gerente@minibiz.com");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients");
+        request.addHeader("Authorization", "Bearer " + tokenService.generateToken(user));
+        when(revogacaoTokenService.revogado(any(UsuarioAutenticado.class))).thenReturn(true);
+
+        securityFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.minibiz.infra.security;
+
+import br.com.minibiz.model.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenServiceTest {
+
+    private TokenService tokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new TokenService("segredo-de-teste");
+        user = new User();
+        user.setId("b1f0c6a2-3c1d-4e7f-9a55-0d2c4e8f1a77");
+        user.setEmail("caixa@minibiz.com");
+        user.setRole("ADMIN");
+    }
+
+    @Test
+    void autenticar_TokenValido_DevolveUsuarioDasClaims() {
+        UsuarioAutenticado usuario = tokenService.autenticar(tokenService.generateToken(user));
+
+        assertEquals(user.getId(), usuario.id());
+        assertEquals("caixa@minibiz.com", usuario.email());
+        assertEquals("ADMIN", usuario.role());
+    }
+
+    @Test
+    void generateToken_CadaTokenTemJtiProprioEValidadeCurta() {
+        UsuarioAutenticado primeiro = tokenService.autenticar(tokenService.generateToken(user));
+        UsuarioAutenticado segundo = tokenService.autenticar(tokenService.generateToken(user));
+
+        assertNotNull(primeiro.tokenId());
+        assertNotEquals(primeiro.tokenId(), segundo.tokenId());
+        assertEquals(Duration.ofMinutes(15), Duration.between(primeiro.emitidoEm(), primeiro.expiraEm()));
+    }
+
+    @Test
+    void generateToken_UsuarioSemPapel_UsaPapelPadrao() {
+        user.setRole(null);
+
+        assertEquals("USER", tokenService.autenticar(tokenService.generateToken(user)).role());
+    }
+
+    @Test
+    void autenticar_TokenDeOutroSegredoOuInvalido_DevolveNull() {
+        String token = new TokenService("outro-segredo").generateToken(user);
+
+        assertNull(tokenService.autenticar(token));
+        assertNull(tokenService.autenticar("nao-e-um-jwt"));
+        assertNull(tokenService.autenticar(null));
+    }
+
+    @Test
+    void validateToken_DevolveOEmail() {
+        assertEquals("caixa@minibiz.com", tokenService.validateToken(tokenService.generateToken(user)));
+    }
+}
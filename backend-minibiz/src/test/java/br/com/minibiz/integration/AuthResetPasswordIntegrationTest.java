@@ -0,0 +1,124 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.RefreshTokenRepository;
+import br.com.minibiz.repository.RevogacaoUsuarioRepository;
+import br.com.minibiz.repository.TokenRevogadoRepository;
+import br.com.minibiz.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O link de redefinição de senha vale uma vez só, e um token encerrado por logout não redefine a senha.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+public class AuthResetPasswordIntegrationTest {
+
+    private static final String EMAIL = "redefinir@minibiz.com";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenRevogadoRepository tokenRevogadoRepository;
+
+    @Autowired
+    private RevogacaoUsuarioRepository revogacaoUsuarioRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+        user = new User();
+        user.setName("Usuário Redefinição");
+        user.setEmail(EMAIL);
+        user.setPassword(passwordEncoder.encode("senhaOriginal"));
+        user.setRole("USER");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    private void limparBanco() {
+        tokenRevogadoRepository.deleteAll();
+        revogacaoUsuarioRepository.deleteAll();
+        refreshTokenRepository.deleteAll();
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+    }
+
+    private ResponseEntity<String> redefinir(String token, String novaSenha) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.TEXT_PLAIN);
+        return restTemplate.postForEntity("http://localhost:" + port + "/auth/reset-password?token=" + token,
+                new HttpEntity<>(novaSenha, headers), String.class);
+    }
+
+    private String senhaGravada() {
+        return userRepository.findByEmail(EMAIL).orElseThrow().getPassword();
+    }
+
+    @Test
+    void whenResetLinkIsUsedTwice_thenSecondResetIsRejected() {
+        // Arrange: o link é usado no mesmo segundo em que foi emitido
+        String link = tokenService.generateToken(user);
+
+        // Act
+        ResponseEntity<String> primeira = redefinir(link, "senhaNova1");
+        ResponseEntity<String> segunda = redefinir(link, "senhaDoAtacante");
+
+        // Assert
+        assertEquals(HttpStatus.OK, primeira.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, segunda.getStatusCode());
+        assertTrue(passwordEncoder.matches("senhaNova1", senhaGravada()));
+    }
+
+    @Test
+    void whenTokenWasLoggedOut_thenItCannotResetThePassword() {
+        // Arrange
+        String token = tokenService.generateToken(user);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(token);
+        ResponseEntity<Void> logout = restTemplate.exchange("http://localhost:" + port + "/auth/logout",
+                HttpMethod.POST, new HttpEntity<>(headers), Void.class);
+
+        // Act
+        ResponseEntity<String> resposta = redefinir(token, "senhaDoAtacante");
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, logout.getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, resposta.getStatusCode());
+        assertTrue(passwordEncoder.matches("senhaOriginal", senhaGravada()));
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.config.exception.BadRequestException;
+import br.com.minibiz.dto.ClientImportResultDTO;
+import br.com.minibiz.dto.ClientImportResultDTO.LinhaIgnorada;
+import br.com.minibiz.dto.ClientImportResultDTO.LoteNaoGravado;
+import br.com.minibiz.dto.ClientSearchResultDTO;
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.repository.ClientRepository;
+import br.com.minibiz.service.ClientImportService;
+import br.com.minibiz.service.ClientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ClientImportIntegrationTest {
+
+    @Autowired
+    private ClientImportService clientImportService;
+
+    @Autowired
+    private ClientService clientService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientRepository.deleteAll();
+    }
+
+    private ClientImportResultDTO importar(Integer tamanhoLote, String... linhas) throws IOException {
+        byte[] csv = String.join("\n", linhas).getBytes(StandardCharsets.UTF_8);
+        return clientImportService.importar(new ByteArrayInputStream(csv), tamanhoLote);
+    }
+
+    private Client cliente(String email) {
+        return clientRepository.findAll().stream()
+                .filter(client -> email.equals(client.getEmail()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static List<Long> linhas(List<LinhaIgnorada> ignoradas) {
+        return ignoradas.stream().map(LinhaIgnorada::linha).toList();
+    }
+
+    @Test
+    void whenContactsRepeatAcrossBatchesOrExist_thenFirstOccurrenceWinsAndRestAreReported() throws IOException {
+        // Arrange
+        Client existente = new Client();
+        existente.setNome("Cliente Existente");
+        existente.setEmail("existente@minibiz.com");
+        existente.setTelefone("(11) 90000-0000");
+        clientRepository.save(existente);
+
+        // Act: lotes de 2, então as repetições das linhas 4 e 5 comparam com um lote já gravado
+        ClientImportResultDTO resultado = importar(2,
+                "nome,email,telefone,endereco",
+                "Ana,ana@minibiz.com,(11) 91111-1111,Rua A",
+                "Bruno,bruno@minibiz.com,11 92222-2222,Rua B",
+                "Ana de novo, ANA@MINIBIZ.COM ,(21) 93333-3333,Rua C",
+                "Carla,carla@minibiz.com,+55 (11) 92222-2222,Rua D",
+                "Dani,Existente@Minibiz.com,(31) 94444-4444,Rua E",
+                "Edu,edu@minibiz.com,011 90000-0000,Rua F",
+                "Fabi,fabi@minibiz.com,(21) 93333-3333,Rua G",
+                ",sem.nome@minibiz.com,(41) 95555-5555,Rua H",
+                "Gabi,gabi@minibiz.com,123,Rua I");
+
+        // Assert
+        assertEquals(3, resultado.getInseridos());
+        assertEquals(4, resultado.getDuplicados());
+        assertEquals(2, resultado.getRejeitados());
+        assertEquals(List.of(4L, 5L, 6L, 7L), linhas(resultado.getLinhasDuplicadas()));
+        List<String> motivos = resultado.getLinhasDuplicadas().stream().map(LinhaIgnorada::motivo).toList();
+        assertTrue(motivos.get(0).startsWith("e-mail repetido no arquivo"), motivos.get(0));
+        assertTrue(motivos.get(1).startsWith("telefone repetido no arquivo"), motivos.get(1));
+        assertTrue(motivos.get(2).startsWith("e-mail já cadastrado"), motivos.get(2));
+        assertTrue(motivos.get(3).startsWith("telefone já cadastrado"), motivos.get(3));
+        assertEquals(List.of(9L, 10L), linhas(resultado.getLinhasRejeitadas()));
+
+        // Um repetido não registra seus contatos: o telefone da linha 4 fica livre para a Fabi
+        assertEquals(4, clientRepository.count());
+        assertEquals("Fabi", cliente("fabi@minibiz.com").getNome());
+        assertEquals("(11) 91111-1111", cliente("ana@minibiz.com").getTelefone());
+    }
+
+    @Test
+    void whenHeaderUsesAliases_thenColumnsAreMappedAndEmailIsStoredNormalized() throws IOException {
+        // Act: maiúsculas, hífen e sublinhado no cabeçalho, separador ';' e BOM do Excel
+        ClientImportResultDTO resultado = importar(null,
+                "\uFEFFNOME;E-mail;Tele_fone;Endereco",
+                "Helena Quixaba;Helena.Quixaba@Minibiz.com;(51) 96666-6666;Rua das Flores, 10");
+
+        // Assert
+        assertEquals(1, resultado.getInseridos());
+        Client helena = cliente("helena.quixaba@minibiz.com");
+        assertEquals("Helena Quixaba", helena.getNome());
+        assertEquals("(51) 96666-6666", helena.getTelefone());
+        assertEquals("Rua das Flores, 10", helena.getEndereco());
+    }
+
+    @Test
+    void whenHeaderHasNoNameColumn_thenImportIsRefusedBeforeReadingRows() {
+        // Act + Assert
+        assertThrows(BadRequestException.class,
+                () -> importar(null, "cliente,email", "Ivo,ivo@minibiz.com"));
+        assertEquals(0, clientRepository.count());
+    }
+
+    @Test
+    void whenRowsEndOnAndOffBatchBoundaries_thenEveryRowIsInsertedAndIndexed() throws IOException {
+        // Arrange: gravado direto no repositório, fora do índice; a importação só indexa ids posteriores
+        Client existente = new Client();
+        existente.setNome("Jurandir Existente");
+        existente.setEmail("jurandir@minibiz.com");
+        clientRepository.save(existente);
+
+        // Act: 4 linhas em lotes de 2 (termina num limite) e 5 linhas em lotes de 2 (sobra um lote parcial)
+        ClientImportResultDTO exato = importar(2, "nome,email",
+                "Xerxes Um,xerxes1@minibiz.com", "Xerxes Dois,xerxes2@minibiz.com",
+                "Xerxes Tres,xerxes3@minibiz.com", "Xerxes Quatro,xerxes4@minibiz.com");
+        ClientImportResultDTO parcial = importar(2, "nome,email",
+                "Yolanda Um,yolanda1@minibiz.com", "Yolanda Dois,yolanda2@minibiz.com",
+                "Yolanda Tres,yolanda3@minibiz.com", "Yolanda Quatro,yolanda4@minibiz.com",
+                "Yolanda Cinco,yolanda5@minibiz.com");
+
+        // Assert
+        assertEquals(4, exato.getInseridos());
+        assertEquals(5, parcial.getInseridos());
+        assertEquals(10, clientRepository.count());
+
+        // indexarNovos: cada lote indexa só o que foi criado depois do anterior, inclusive o último, parcial
+        List<ClientSearchResultDTO> xerxes = clientService.search("Xerxes", 50);
+        List<ClientSearchResultDTO> yolanda = clientService.search("Yolanda", 50);
+        assertEquals(4, xerxes.size());
+        assertEquals(5, yolanda.size());
+        assertEquals(cliente("yolanda5@minibiz.com").getId(),
+                yolanda.stream().filter(r -> r.nome().equals("Yolanda Cinco")).findFirst().orElseThrow().id());
+        assertTrue(clientService.search("Jurandir", 50).isEmpty());
+    }
+
+    @Test
+    void whenOneBatchFailsInDatabase_thenOnlyThatBatchIsRolledBackAndReported() throws IOException {
+        // Arrange: nome acima do tamanho da coluna derruba o INSERT do segundo lote
+        String nomeLongo = "x".repeat(300);
+
+        // Act
+        ClientImportResultDTO resultado = importar(2,
+                "nome,email",
+                "Ana,ana@example.com",
+                "Bruno,bruno@example.com",
+                "Carla,carla@example.com",
+                nomeLongo + ",longo@example.com",
+                "Eva,eva@example.com");
+
+        // Assert
+        assertEquals(3, resultado.getInseridos());
+        assertEquals(2, resultado.getNaoGravados());
+        assertEquals(1, resultado.getLotesNaoGravados().size());
+        LoteNaoGravado lote = resultado.getLotesNaoGravados().get(0);
+        assertEquals(4, lote.primeiraLinha());
+        assertEquals(5, lote.ultimaLinha());
+        assertEquals(2, lote.linhas());
+        assertFalse(lote.motivo().contains("x".repeat(50)), "o texto do banco não vai para a resposta");
+        assertEquals(3, clientRepository.count());
+        assertTrue(clientRepository.findAll().stream().noneMatch(client -> "carla@example.com".equals(client.getEmail())));
+        assertEquals("Eva", cliente("eva@example.com").getNome());
+        assertEquals(1, clientService.search("eva@example", 10).size());
+        assertTrue(clientService.search("carla@example", 10).isEmpty());
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.http.*;
@@ -25,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
+@Import(ContadorSqlConfig.class)
 public class ClientIntegrationTest {
 
     @LocalServerPort
@@ -42,6 +44,9 @@ public class ClientIntegrationTest {
     @Autowired
     private TokenService tokenService;
 
+    @Autowired
+    private ContadorSql contadorSql;
+
     private String baseUrl;
     private HttpHeaders headers;
 
@@ -86,14 +91,17 @@ public class ClientIntegrationTest {
     @Test
     void whenGetAllClients_thenStatus200AndEmptyList() {
         // Act
+        contadorSql.iniciar();
         ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
                 baseUrl,
                 HttpMethod.GET,
                 new HttpEntity<>(headers),
                 new ParameterizedTypeReference<Map<String, Object>>() {}
         );
+        ContadorSql.Contagem sql = contadorSql.parar();
 
         // Assert
+        sql.assertOrcamento(2, 0, 0, 0); // Versão da coleção (ETag) e a página; página vazia: sem o count
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(0, ((Integer) response.getBody().get("totalElements")).intValue());
@@ -109,14 +117,17 @@ public class ClientIntegrationTest {
         newClient.setEndereco("Test Address, 123");
 
         // Act
+        contadorSql.iniciar();
         ResponseEntity<Client> response = restTemplate.exchange(
                 baseUrl,
                 HttpMethod.POST,
                 new HttpEntity<>(newClient, headers),
                 Client.class
         );
+        ContadorSql.Contagem sql = contadorSql.parar();
 
         // Assert
+        sql.assertOrcamento(0, 1, 1, 0); // O cliente e o incremento da versão da coleção
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertNotNull(response.getBody().getId());
@@ -133,14 +144,17 @@ public class ClientIntegrationTest {
         Client savedClient = clientRepository.save(createTestClient());
 
         // Act
+        contadorSql.iniciar();
         ResponseEntity<Client> response = restTemplate.exchange(
                 baseUrl + "/" + savedClient.getId(),
                 HttpMethod.GET,
                 new HttpEntity<>(headers),
                 Client.class
         );
+        ContadorSql.Contagem sql = contadorSql.parar();
 
         // Assert
+        sql.assertOrcamento(2, 0, 0, 0); // Data da última alteração (ETag) e o cliente, se não estiver no cache
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(savedClient.getId(), response.getBody().getId());
@@ -173,14 +187,17 @@ public class ClientIntegrationTest {
         updatedClient.setEndereco("Updated Address, 456");
 
         // Act
+        contadorSql.iniciar();
         ResponseEntity<Client> response = restTemplate.exchange(
                 baseUrl + "/" + savedClient.getId(),
                 HttpMethod.PUT,
                 new HttpEntity<>(updatedClient, headers),
                 Client.class
         );
+        ContadorSql.Contagem sql = contadorSql.parar();
 
         // Assert
+        sql.assertOrcamento(1, 0, 2, 0); // O cliente e o incremento da versão da coleção
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(savedClient.getId(), response.getBody().getId());
@@ -199,14 +216,17 @@ public class ClientIntegrationTest {
         Client savedClient = clientRepository.save(createTestClient());
 
         // Act
+        contadorSql.iniciar();
         ResponseEntity<String> response = restTemplate.exchange(
                 baseUrl + "/" + savedClient.getId(),
                 HttpMethod.DELETE,
                 new HttpEntity<>(headers),
                 String.class
         );
+        ContadorSql.Contagem sql = contadorSql.parar();
 
         // Assert
+        sql.assertOrcamento(2, 0, 1, 1); // existsById e o cliente a remover, se não estiver no cache; incremento da versão
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().contains("Cliente deletado com sucesso"));
 
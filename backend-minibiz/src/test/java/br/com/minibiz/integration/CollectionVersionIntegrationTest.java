@@ -0,0 +1,82 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.repository.VersaoColecaoRepository;
+import br.com.minibiz.service.CollectionVersionService;
+import br.com.minibiz.service.CollectionVersionService.Colecao;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A versão das coleções vem do banco: a ETag de uma listagem emitida por uma instância deixa de valer
+ * quando outra instância grava na coleção.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class CollectionVersionIntegrationTest {
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private VersaoColecaoRepository versaoColecaoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void whenAnotherInstanceWrites_thenThisInstanceStopsValidatingItsPageEtag() {
+        // Arrange: uma segunda instância, com o mesmo banco
+        CollectionVersionService outraInstancia = new CollectionVersionService(versaoColecaoRepository, transactionManager);
+        PageRequest pagina = PageRequest.of(0, 20);
+        long produtos = collectionVersionService.versao(Colecao.PRODUTOS);
+        long clientes = collectionVersionService.versao(Colecao.CLIENTES);
+        String emitida = collectionVersionService.etagDaPagina(Colecao.PRODUTOS, pagina);
+        assertEquals(emitida, outraInstancia.etagDaPagina(Colecao.PRODUTOS, pagina));
+
+        // Act
+        outraInstancia.incrementar(Colecao.PRODUTOS);
+
+        // Assert
+        assertNotEquals(emitida, collectionVersionService.etagDaPagina(Colecao.PRODUTOS, pagina));
+        assertEquals(produtos + 1, collectionVersionService.versao(Colecao.PRODUTOS));
+        assertEquals(clientes, collectionVersionService.versao(Colecao.CLIENTES));
+    }
+
+    @Test
+    void whenWriteRollsBack_thenVersionIsNotIncremented() {
+        // Arrange
+        long antes = collectionVersionService.versao(Colecao.CLIENTES);
+
+        // Act
+        transactionTemplate.executeWithoutResult(status -> {
+            collectionVersionService.incrementar(Colecao.CLIENTES);
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            collectionVersionService.incrementar(Colecao.CLIENTES);
+            // Antes do commit a versão ainda é a anterior
+            assertEquals(antes, collectionVersionService.versao(Colecao.CLIENTES));
+        });
+
+        // Assert
+        assertEquals(antes + 1, collectionVersionService.versao(Colecao.CLIENTES));
+    }
+
+    @Test
+    void whenApplicationStarts_thenEveryCollectionHasAVersionRow() {
+        // Assert: a escrita só precisa do UPDATE
+        for (Colecao colecao : Colecao.values()) {
+            assertTrue(versaoColecaoRepository.findVersao(colecao.name()).isPresent(), colecao.name());
+        }
+    }
+}
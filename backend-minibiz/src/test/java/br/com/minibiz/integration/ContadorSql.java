@@ -0,0 +1,124 @@
+package br.com.minibiz.integration;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Conta as instruções SQL executadas entre {@link #iniciar()} e {@link #parar()}, por tipo, para que os testes
+ * de integração fixem um orçamento de consultas por endpoint: uma mudança que acrescente consultas (um N+1,
+ * um save por item fora do batch) quebra o teste em vez de aparecer só em produção.
+ *
+ * Um batch JDBC conta como uma instrução, como uma ida ao banco. As threads do agendador (dispatcher de emails,
+ * limpezas) ficam de fora, já que rodam no meio dos testes sem relação com a requisição medida.
+ */
+public class ContadorSql implements QueryExecutionListener {
+
+    public enum Tipo { SELECT, INSERT, UPDATE, DELETE, OUTRO }
+
+    private static final String PREFIXO_AGENDADOR = "scheduling-";
+
+    private final List<Instrucao> instrucoes = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean ativo;
+
+    public void iniciar() {
+        instrucoes.clear();
+        ativo = true;
+    }
+
+    public Contagem parar() {
+        ativo = false;
+        synchronized (instrucoes) {
+            return new Contagem(List.copyOf(instrucoes));
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!ativo || Thread.currentThread().getName().startsWith(PREFIXO_AGENDADOR)) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            String sql = queryInfo.getQuery().strip();
+            String descricao = execInfo.isBatch() ? sql + " [batch de " + queryInfo.getParametersList().size() + "]" : sql;
+            instrucoes.add(new Instrucao(tipo(sql), descricao));
+        }
+    }
+
+    static Tipo tipo(String sql) {
+        String inicio = sql.stripLeading().toLowerCase(Locale.ROOT);
+        if (inicio.startsWith("select") || inicio.startsWith("with")) {
+            return Tipo.SELECT;
+        }
+        if (inicio.startsWith("insert")) {
+            return Tipo.INSERT;
+        }
+        if (inicio.startsWith("update")) {
+            return Tipo.UPDATE;
+        }
+        if (inicio.startsWith("delete")) {
+            return Tipo.DELETE;
+        }
+        return Tipo.OUTRO;
+    }
+
+    private record Instrucao(Tipo tipo, String sql) {
+    }
+
+    public static final class Contagem {
+
+        private final List<Instrucao> instrucoes;
+        private final Map<Tipo, Integer> porTipo = new EnumMap<>(Tipo.class);
+
+        private Contagem(List<Instrucao> instrucoes) {
+            this.instrucoes = instrucoes;
+            for (Tipo tipo : Tipo.values()) {
+                porTipo.put(tipo, 0);
+            }
+            instrucoes.forEach(instrucao -> porTipo.merge(instrucao.tipo(), 1, Integer::sum));
+        }
+
+        public int get(Tipo tipo) {
+            return porTipo.get(tipo);
+        }
+
+        /**
+         * Falha se algum tipo passou do orçamento, listando as instruções executadas.
+         * Ficar abaixo do orçamento não falha: depois de uma otimização, basta baixar o número no teste.
+         */
+        public void assertOrcamento(int selects, int inserts, int updates, int deletes) {
+            Map<Tipo, Integer> orcamento = Map.of(Tipo.SELECT, selects, Tipo.INSERT, inserts,
+                    Tipo.UPDATE, updates, Tipo.DELETE, deletes, Tipo.OUTRO, 0);
+            List<String> excedidos = new ArrayList<>();
+            for (Tipo tipo : Tipo.values()) {
+                if (get(tipo) > orcamento.get(tipo)) {
+                    excedidos.add(tipo + ": " + get(tipo) + " executados, orçamento " + orcamento.get(tipo));
+                }
+            }
+            if (!excedidos.isEmpty()) {
+                StringBuilder mensagem = new StringBuilder("Orçamento de SQL excedido (")
+                        .append(String.join("; ", excedidos)).append("). Instruções executadas:");
+                instrucoes.forEach(instrucao -> mensagem.append("\n  ").append(instrucao.sql()));
+                fail(mensagem.toString());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return porTipo.toString();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.minibiz.integration;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource da aplicação com o datasource-proxy e registra o {@link ContadorSql}.
+ * Testes de integração que medem orçamento de SQL importam esta configuração.
+ */
+@TestConfiguration
+public class ContadorSqlConfig {
+
+    @Bean
+    public static ContadorSql contadorSql() {
+        return new ContadorSql();
+    }
+
+    @Bean
+    public static BeanPostProcessor dataSourceComContadorSql(ObjectProvider<ContadorSql> contadorSql) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nome) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(nome)
+                            .listener(contadorSql.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * O stream SSE de estoque baixo exige token, e acima do limite de inscritos responde 503 em vez de prender
+ * mais uma requisição. Com o limite zerado, nenhuma requisição fica aberta durante o teste.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "minibiz.estoque-baixo.max-inscritos=0")
+@ActiveProfiles("test")
+public class EstoqueBaixoEventosIntegrationTest {
+
+    private static final String EMAIL = "eventos@minibiz.com";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(EMAIL).ifPresent(userRepository::delete);
+    }
+
+    private ResponseEntity<String> inscrever(String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON));
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return restTemplate.exchange("http://localhost:" + port + "/api/products/estoque-baixo/eventos",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    @Test
+    void whenAnonymous_thenSubscriptionIsRefused() {
+        // Act
+        ResponseEntity<String> response = inscrever(null);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+    }
+
+    @Test
+    void whenSubscriberLimitIsReached_thenAuthenticatedSubscriptionGets503() {
+        // Arrange
+        User user = new User();
+        user.setName("Eventos");
+        user.setEmail(EMAIL);
+        user.setPassword("x");
+        user.setRole("USER");
+        String token = tokenService.generateToken(userRepository.save(user));
+
+        // Act
+        ResponseEntity<String> response = inscrever(token);
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
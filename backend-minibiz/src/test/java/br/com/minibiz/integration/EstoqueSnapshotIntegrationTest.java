@@ -0,0 +1,173 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.dto.EstoqueNaDataDTO;
+import br.com.minibiz.model.estoque.MovimentoEstoque;
+import br.com.minibiz.model.estoque.SnapshotEstoque;
+import br.com.minibiz.model.estoque.TipoMovimento;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.SnapshotEstoqueRepository;
+import br.com.minibiz.service.estoque.MovimentoEstoqueService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL nativo dos snapshots de estoque: depois de consolidar, o estoque calculado (snapshot mais recente
+ * somado ao diário restante) tem que bater com o do cadastro.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class EstoqueSnapshotIntegrationTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2024, 1, 10, 12, 0);
+
+    @Autowired
+    private MovimentoEstoqueService movimentoEstoqueService;
+
+    @Autowired
+    private SnapshotEstoqueRepository snapshotEstoqueRepository;
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    private void limparBanco() {
+        snapshotEstoqueRepository.deleteAll();
+        movimentoEstoqueRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    private Long produto(String codigo, int quantidadeNoCadastro) {
+        Product product = new Product();
+        product.setNome("Produto " + codigo);
+        product.setCodigoProduto(codigo);
+        product.setPreco(new BigDecimal("10.00"));
+        product.setQuantidadeEmEstoque(quantidadeNoCadastro);
+        return productRepository.save(product).getId();
+    }
+
+    private void movimento(Long productId, int delta, TipoMovimento tipo, LocalDateTime data) {
+        movimentoEstoqueRepository.save(new MovimentoEstoque(productId, delta, tipo, data, null));
+    }
+
+    private int consolidarAte(LocalDateTime corte) {
+        return transactionTemplate.execute(status -> snapshotEstoqueRepository.consolidarAte(corte));
+    }
+
+    // Quantidades dos snapshots do produto, do mais antigo para o mais recente
+    private List<Integer> quantidades(Long productId) {
+        return snapshotEstoqueRepository.findAll().stream()
+                .filter(snapshot -> snapshot.getProductId().equals(productId))
+                .sorted(Comparator.comparing(SnapshotEstoque::getDataSnapshot))
+                .map(SnapshotEstoque::getQuantidade)
+                .toList();
+    }
+
+    @Test
+    void whenConsolidarTwice_thenStockIsLatestSnapshotPlusRemainingJournal() {
+        // Arrange: 10 - 3 - 4 + 2 = 5 no cadastro
+        Long caneta = produto("SNAP-1", 5);
+        movimento(caneta, 10, TipoMovimento.CADASTRO, T);
+        movimento(caneta, -3, TipoMovimento.VENDA, T.plusHours(1));
+        movimento(caneta, -4, TipoMovimento.VENDA, T.plusHours(3));
+        movimento(caneta, 2, TipoMovimento.AJUSTE, T.plusHours(5));
+        Long lapis = produto("SNAP-2", 4);
+        movimento(lapis, 4, TipoMovimento.CADASTRO, T);
+
+        // Act
+        int primeiro = consolidarAte(T.plusHours(2));
+        int segundo = consolidarAte(T.plusHours(4));
+
+        // Assert: no segundo corte só a caneta teve movimentos desde o último snapshot
+        assertEquals(2, primeiro);
+        assertEquals(1, segundo);
+        assertEquals(List.of(7, 3), quantidades(caneta));
+        assertEquals(List.of(4), quantidades(lapis));
+
+        EstoqueNaDataDTO atual = movimentoEstoqueService.estoqueEm(caneta, null);
+        assertEquals(5, atual.quantidade());
+        assertEquals(T.plusHours(4), atual.snapshotEm());
+        assertEquals(1, atual.movimentosReaplicados());
+        assertEquals(atual.quantidadeNoCadastro().longValue(), atual.quantidade());
+        assertEquals(4, movimentoEstoqueService.estoqueEm(lapis, null).quantidade());
+
+        // Datas no passado usam o snapshot até elas, ou só o diário antes do primeiro
+        assertEquals(7, movimentoEstoqueService.estoqueEm(caneta, T.plusMinutes(90)).quantidade());
+        assertEquals(3, movimentoEstoqueService.estoqueEm(caneta, T.plusHours(4)).quantidade());
+        assertEquals(0, movimentoEstoqueService.estoqueEm(caneta, T.plusHours(4)).movimentosReaplicados());
+    }
+
+    @Test
+    void whenCriarSnapshotsIniciais_thenProductsBeforeTheJournalStartFromTheirOriginalStock() {
+        // Arrange: o legado já existia com 20 antes do diário e vendeu 5; o novo tem movimento de cadastro
+        Long legado = produto("SNAP-LEGADO", 15);
+        movimento(legado, -5, TipoMovimento.VENDA, T);
+        Long novo = produto("SNAP-NOVO", 4);
+        movimento(novo, 4, TipoMovimento.CADASTRO, T);
+
+        // Act
+        movimentoEstoqueService.criarSnapshotsIniciais();
+        movimentoEstoqueService.criarSnapshotsIniciais();
+
+        // Assert: um único snapshot inicial, só para o legado
+        assertEquals(List.of(20), quantidades(legado));
+        assertTrue(quantidades(novo).isEmpty());
+        assertEquals(15, movimentoEstoqueService.estoqueEm(legado, null).quantidade());
+        assertEquals(20, movimentoEstoqueService.estoqueEm(legado, T.minusDays(1)).quantidade());
+
+        // Consolidar parte do snapshot inicial do legado e do zero para o novo
+        assertEquals(2, consolidarAte(T.plusHours(1)));
+        assertEquals(List.of(20, 15), quantidades(legado));
+        assertEquals(List.of(4), quantidades(novo));
+        assertEquals(15, movimentoEstoqueService.estoqueEm(legado, null).quantidade());
+        assertEquals(4, movimentoEstoqueService.estoqueEm(novo, null).quantidade());
+    }
+
+    @Test
+    void whenSnapshotsAreWritten_thenCachedProductsStayInTheSecondLevelCache() {
+        // Arrange: o produto fica no cache L2 depois da primeira leitura
+        Long caneta = produto("SNAP-CACHE", 5);
+        movimento(caneta, 5, TipoMovimento.CADASTRO, T);
+        productRepository.findById(caneta);
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, caneta));
+
+        // Act
+        movimentoEstoqueService.criarSnapshotsIniciais();
+        assertEquals(1, consolidarAte(T.plusHours(1)));
+
+        // Assert: os INSERTs nativos declaram snapshot_estoque, então a região de produtos não é esvaziada
+        assertTrue(entityManagerFactory.getCache().contains(Product.class, caneta));
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.model.venda.StatusVenda;
+import br.com.minibiz.model.venda.Venda;
+import br.com.minibiz.repository.ClientRepository;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.VendaRepository;
+import br.com.minibiz.service.datagen.GeradorDadosSinteticos;
+import br.com.minibiz.service.datagen.GeradorDadosSinteticos.Parametros;
+import br.com.minibiz.service.datagen.GeradorDadosSinteticos.Resumo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class GeradorDadosSinteticosIntegrationTest {
+
+    private static final LocalDate INICIO = LocalDate.of(2024, 1, 1);
+    private static final LocalDate FIM = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private GeradorDadosSinteticos gerador;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    private void limparBanco() {
+        vendaRepository.deleteAll();
+        movimentoEstoqueRepository.deleteAll();
+        productRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    private Parametros parametros(long vendas) {
+        return new Parametros(42, 50, 200, 100, vendas, INICIO, FIM, 1.0, 0.6, 300);
+    }
+
+    @Test
+    void whenGerar_thenRowsMatchRequestedVolumeAndTotalsMatchItems() {
+        // Act
+        Resumo resumo = gerador.gerar(parametros(2000));
+
+        // Assert
+        assertEquals(50, resumo.clientes());
+        assertEquals(200, resumo.produtos());
+        assertEquals(2000, resumo.vendas());
+        assertEquals(50, count("client"));
+        assertEquals(200, count("product"));
+        assertEquals(2000, count("venda"));
+        assertEquals(resumo.itens(), count("item_venda"));
+        assertTrue(resumo.itens() > 2 * resumo.vendas(), "carrinhos com média de mais de 2 itens");
+
+        // Valor total de cada venda igual à soma dos itens pelo preço do produto
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM venda v WHERE v.valor_total <> (SELECT SUM(i.quantidade * p.preco) "
+                        + "FROM item_venda i JOIN product p ON p.id = i.product_id WHERE i.venda_id = v.id)", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM venda WHERE venda_date < ? OR venda_date >= ?", Long.class,
+                Timestamp.valueOf(INICIO.atStartOfDay()), Timestamp.valueOf(FIM.plusDays(1).atStartOfDay())));
+    }
+
+    @Test
+    void whenGerar_thenIdsFollowSaleDates() {
+        // Act
+        gerador.gerar(parametros(1000));
+
+        // Assert
+        List<LocalDateTime> datas = jdbcTemplate.queryForList("SELECT venda_date FROM venda ORDER BY id",
+                LocalDateTime.class);
+        for (int i = 1; i < datas.size(); i++) {
+            assertFalse(datas.get(i).isBefore(datas.get(i - 1)), "venda " + i + " fora de ordem");
+        }
+    }
+
+    @Test
+    void whenGerar_thenBestSellerOutsellsTheLongTail() {
+        // Act
+        gerador.gerar(parametros(2000));
+
+        // Assert
+        Long maisVendido = jdbcTemplate.queryForObject(
+                "SELECT MAX(c) FROM (SELECT COUNT(*) c FROM item_venda GROUP BY product_id) t", Long.class);
+        long media = count("item_venda") / 200;
+        assertTrue(maisVendido > 10 * media, "mais vendido " + maisVendido + ", média " + media);
+    }
+
+    @Test
+    void whenSaveAfterGerar_thenIdentityContinuesAfterGeneratedIds() {
+        // Arrange
+        gerador.gerar(parametros(100));
+        Long ultimoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM venda", Long.class);
+        Client client = clientRepository.findAll().get(0);
+
+        // Act
+        Venda venda = new Venda();
+        venda.setClient(client);
+        venda.setItems(new ArrayList<>());
+        venda.setValorTotal(BigDecimal.ZERO);
+        venda.setVendaDate(LocalDateTime.now());
+        venda.setStatus(StatusVenda.AGUARDANDO);
+        Venda salva = vendaRepository.save(venda);
+
+        // Assert
+        assertTrue(salva.getId() > ultimoId);
+    }
+
+    private long count(String tabela) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabela, Long.class);
+    }
+}
@@ -0,0 +1,189 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.dto.VendaDTO;
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.ClientRepository;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.UserRepository;
+import br.com.minibiz.repository.VendaRepository;
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.service.VendaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sem @AutoConfigureObservability os testes do Boot não criam o registry do Prometheus
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+public class MetricsIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    // Sorteada no perfil de teste (management.server.port=0), separada da porta da API
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private VendaService vendaService;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        vendaRepository.deleteAll();
+        movimentoEstoqueRepository.deleteAll();
+        productRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    private String token() {
+        if (userRepository.findByEmail("metrics@test.com").isEmpty()) {
+            User testUser = new User();
+            testUser.setName("Metrics Test");
+            testUser.setEmail("metrics@test.com");
+            testUser.setPassword(new BCryptPasswordEncoder().encode("password"));
+            testUser.setRole("ADMIN");
+            userRepository.save(testUser);
+        }
+        return tokenService.generateToken(userRepository.findByEmail("metrics@test.com").get());
+    }
+
+    @Test
+    void whenScrapePrometheus_thenEndpointHistogramsHibernateAndPoolMetricsArePublished() {
+        // Arrange
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(token());
+        restTemplate.exchange("http://localhost:" + port + "/api/clients", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        // Act: o scraper não tem token, mas chega pela porta de gerenciamento
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String corpo = response.getBody();
+        assertNotNull(corpo);
+        assertTrue(corpo.contains("http_server_requests_seconds_bucket{"));
+        assertTrue(corpo.contains("uri=\"/api/clients\""));
+        assertTrue(corpo.contains("hibernate_query_executions_total"));
+        assertTrue(corpo.contains("hibernate_entities_loads_total"));
+        assertTrue(corpo.contains("hibernate_second_level_cache_requests_total"));
+        assertTrue(corpo.contains("hikaricp_connections_active"));
+        assertTrue(corpo.contains("hikaricp_connections_acquire_seconds_bucket"));
+        assertTrue(corpo.contains("minibiz_vendas_registradas_total"));
+        assertTrue(corpo.contains("minibiz_vendas_rejeitadas_total{"));
+    }
+
+    @Test
+    void whenScrapePrometheusOnApiPort_thenNotServed() {
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/prometheus", String.class);
+
+        // Assert
+        assertTrue(response.getStatusCode().is4xxClientError());
+    }
+
+    @Test
+    void whenGetHealthWithoutToken_thenStatus200() {
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/health", String.class);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+    }
+
+    @Test
+    void whenGetMetricsWithoutToken_thenAccessDenied() {
+        // Act
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/metrics", String.class);
+
+        // Assert
+        assertTrue(response.getStatusCode().is4xxClientError());
+    }
+
+    @Test
+    void whenSaleTransactionRollsBack_thenRegisteredSalesCounterIsUnchanged() {
+        // Arrange
+        Client client = new Client();
+        client.setNome("Metrics Client");
+        client.setEmail("metrics-client@test.com");
+        client.setTelefone("(11) 96666-6666");
+        client = clientRepository.save(client);
+        Product product = new Product();
+        product.setNome("Produto Métricas");
+        product.setCodigoProduto("METRICAS-1");
+        product.setPreco(new BigDecimal("5.00"));
+        product.setQuantidadeEmEstoque(10);
+        product = productRepository.save(product);
+        VendaDTO item = new VendaDTO();
+        item.setProductId(product.getId());
+        item.setQuantidade(1);
+        Long clientId = client.getId();
+        double antes = registradas();
+
+        // Act: a venda é registrada, mas a transação que a envolve volta atrás
+        transactionTemplate.executeWithoutResult(status -> {
+            vendaService.registrarVenda(clientId, List.of(item));
+            status.setRollbackOnly();
+        });
+        double aposRollback = registradas();
+        vendaService.registrarVenda(clientId, List.of(item));
+
+        // Assert
+        assertEquals(antes, aposRollback);
+        assertEquals(antes + 1, registradas());
+    }
+
+    private double registradas() {
+        return meterRegistry.get("minibiz.vendas.registradas").functionCounter().count();
+    }
+}
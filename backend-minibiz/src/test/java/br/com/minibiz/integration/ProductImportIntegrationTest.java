@@ -0,0 +1,161 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.dto.ProductImportResultDTO;
+import br.com.minibiz.dto.ProductImportResultDTO.LinhaRejeitada;
+import br.com.minibiz.dto.ProductImportResultDTO.LoteNaoGravado;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.SnapshotEstoqueRepository;
+import br.com.minibiz.service.ProductImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductImportIntegrationTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private SnapshotEstoqueRepository snapshotEstoqueRepository;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    private void limparBanco() {
+        snapshotEstoqueRepository.deleteAll();
+        movimentoEstoqueRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    private ProductImportResultDTO importar(Integer tamanhoLote, String... linhas) throws IOException {
+        byte[] csv = String.join("\n", linhas).getBytes(StandardCharsets.UTF_8);
+        return productImportService.importar(new ByteArrayInputStream(csv), tamanhoLote);
+    }
+
+    private Product produto(String codigo) {
+        return productRepository.findByCodigoProduto(codigo).orElseThrow();
+    }
+
+    @Test
+    void whenImportCommaSeparated_thenDotIsDecimalAndExistingCodesAreUpdated() throws IOException {
+        // Arrange
+        importar(null, "codigoProduto,nome,preco", "P1,Caneta,1.00");
+
+        // Act
+        ProductImportResultDTO resultado = importar(null,
+                "codigo_produto,nome,preco,quantidadeEmEstoque,categoria",
+                "P1,Caneta azul,2.50,10,Papelaria",
+                "P2,\"Caderno, 96 folhas\",1234.56,,Papelaria");
+
+        // Assert
+        assertEquals(1, resultado.getInseridos());
+        assertEquals(1, resultado.getAtualizados());
+        assertEquals(0, resultado.getRejeitados());
+        assertEquals("Caneta azul", produto("P1").getNome());
+        assertEquals(0, new BigDecimal("2.50").compareTo(produto("P1").getPreco()));
+        assertEquals(10, produto("P1").getQuantidadeEmEstoque());
+        assertEquals("Caderno, 96 folhas", produto("P2").getNome());
+        assertEquals(0, new BigDecimal("1234.56").compareTo(produto("P2").getPreco()));
+        assertEquals(0, produto("P2").getQuantidadeEmEstoque());
+    }
+
+    @Test
+    void whenImportSemicolonSeparated_thenBrazilianPricesAreParsedAndAmbiguousOnesRejected() throws IOException {
+        // Act
+        ProductImportResultDTO resultado = importar(null,
+                "codigoProduto;nome;preco;quantidadeEmEstoque",
+                "B1;Borracha;2.50;5",
+                "B2;Mochila;1.234,56;1",
+                "B3;Lápis;12,5;",
+                "B4;Estojo;1.234;2",
+                "B5;Régua;12.34,5;1");
+
+        // Assert
+        assertEquals(3, resultado.getInseridos());
+        assertEquals(2, resultado.getRejeitados());
+        assertEquals(0, new BigDecimal("2.50").compareTo(produto("B1").getPreco()));
+        assertEquals(0, new BigDecimal("1234.56").compareTo(produto("B2").getPreco()));
+        assertEquals(0, new BigDecimal("12.5").compareTo(produto("B3").getPreco()));
+        assertTrue(productRepository.findByCodigoProduto("B4").isEmpty());
+        assertTrue(productRepository.findByCodigoProduto("B5").isEmpty());
+        assertEquals(List.of(5L, 6L), resultado.getLinhasRejeitadas().stream().map(LinhaRejeitada::linha).toList());
+        assertTrue(resultado.getLinhasRejeitadas().get(0).motivo().contains("ambíguo"));
+    }
+
+    @Test
+    void whenImportHasInvalidRows_thenTheyAreRejectedWithLineNumberAndOthersImported() throws IOException {
+        // Act
+        ProductImportResultDTO resultado = importar(null,
+                "codigoProduto,nome,preco,quantidadeEmEstoque",
+                "V1,Válido,3.00,1",
+                ",Sem código,1.00,1",
+                "V2,,1.00,1",
+                "V3,Preço negativo,-1.00,1",
+                "V4,Quantidade inválida,1.00,muitos",
+                "",
+                "V5,Também válido,4.00,2");
+
+        // Assert
+        assertEquals(2, resultado.getInseridos());
+        assertEquals(4, resultado.getRejeitados());
+        assertEquals(List.of(3L, 4L, 5L, 6L), resultado.getLinhasRejeitadas().stream().map(LinhaRejeitada::linha).toList());
+        assertEquals(2, productRepository.count());
+    }
+
+    @Test
+    void whenOneBatchFailsInDatabase_thenOnlyThatBatchIsRolledBackAndReported() throws IOException {
+        // Arrange: nome acima do tamanho da coluna derruba o INSERT do segundo lote
+        String nomeLongo = "x".repeat(300);
+
+        // Act
+        ProductImportResultDTO resultado = importar(2,
+                "codigoProduto,nome,preco,quantidadeEmEstoque",
+                "L1,Primeiro,1.00,1",
+                "L2,Segundo,1.00,1",
+                "L3,Terceiro,1.00,1",
+                "L4," + nomeLongo + ",1.00,1",
+                "L5,Quinto,1.00,1");
+
+        // Assert
+        assertEquals(3, resultado.getInseridos());
+        assertEquals(2, resultado.getNaoGravados());
+        assertEquals(1, resultado.getLotesNaoGravados().size());
+        LoteNaoGravado lote = resultado.getLotesNaoGravados().get(0);
+        assertEquals(4, lote.primeiraLinha());
+        assertEquals(5, lote.ultimaLinha());
+        assertEquals(2, lote.linhas());
+        assertFalse(lote.motivo().contains("x".repeat(50)), "o texto do banco não vai para a resposta");
+        assertTrue(productRepository.findByCodigoProduto("L3").isEmpty());
+        assertTrue(productRepository.findByCodigoProduto("L4").isEmpty());
+        assertEquals(3, productRepository.count());
+        assertEquals(3, movimentoEstoqueRepository.count());
+    }
+}
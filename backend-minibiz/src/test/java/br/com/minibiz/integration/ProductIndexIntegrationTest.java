@@ -0,0 +1,124 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.dto.ProductPatchDTO;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.SnapshotEstoqueRepository;
+import br.com.minibiz.service.ProductCodeCache;
+import br.com.minibiz.service.ProductService;
+import br.com.minibiz.service.search.ProductSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Índice de busca e near cache de códigos só refletem escritas confirmadas: uma escrita que volta atrás
+ * não deixa rastro na memória.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductIndexIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductCodeCache productCodeCache;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private SnapshotEstoqueRepository snapshotEstoqueRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    private void limparBanco() {
+        snapshotEstoqueRepository.deleteAll();
+        movimentoEstoqueRepository.deleteAll();
+        productRepository.findAll().forEach(product -> productService.delete(product.getId()));
+    }
+
+    private static Product novoProduto(String codigo, String nome) {
+        Product product = new Product();
+        product.setNome(nome);
+        product.setCodigoProduto(codigo);
+        product.setPreco(new BigDecimal("5.00"));
+        product.setQuantidadeEmEstoque(3);
+        product.setCategoria("Papelaria");
+        return product;
+    }
+
+    // Executa a escrita numa transação que termina em rollback
+    private void desfazendo(Consumer<ProductService> escrita) {
+        transactionTemplate.executeWithoutResult(status -> {
+            escrita.accept(productService);
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void whenCreateRollsBack_thenProductIsNotSearchableNorInCodeCache() {
+        // Act
+        desfazendo(service -> service.create(novoProduto("IDX-1", "Grampeador fantasma")));
+
+        // Assert
+        assertTrue(productService.search("fantasma", 10).isEmpty());
+        assertNull(productCodeCache.get("IDX-1"));
+    }
+
+    @Test
+    void whenCreateCommits_thenProductIsSearchableAndInCodeCache() {
+        // Act
+        Product salvo = productService.create(novoProduto("IDX-2", "Grampeador confirmado"));
+
+        // Assert
+        assertEquals(1, productService.search("confirmado", 10).size());
+        assertEquals(salvo.getId(), productCodeCache.get("IDX-2"));
+    }
+
+    @Test
+    void whenPatchOrDeleteRollsBack_thenIndexKeepsCommittedState() {
+        // Arrange
+        Product salvo = productService.create(novoProduto("IDX-3", "Apontador"));
+        Long id = salvo.getId();
+
+        // Act
+        desfazendo(service -> service.patch(id, new ProductPatchDTO("Apontador duplo", null, null, "IDX-4", null,
+                null, salvo.getVersao())));
+        desfazendo(service -> service.delete(id));
+
+        // Assert
+        assertEquals("Apontador", productSearchIndex.get(id).nome());
+        assertEquals(id, productCodeCache.get("IDX-3"));
+        assertNull(productCodeCache.get("IDX-4"));
+        assertTrue(productService.search("duplo", 10).isEmpty());
+    }
+}
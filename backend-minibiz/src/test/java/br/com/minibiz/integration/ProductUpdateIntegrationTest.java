@@ -0,0 +1,90 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.dto.ProductBulkStockRequest;
+import br.com.minibiz.model.estoque.MovimentoEstoque;
+import br.com.minibiz.model.estoque.TipoMovimento;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.SnapshotEstoqueRepository;
+import br.com.minibiz.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PUT de produto não mexe no estoque: um formulário lido antes de uma venda não devolve o que foi vendido.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductUpdateIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private SnapshotEstoqueRepository snapshotEstoqueRepository;
+
+    @BeforeEach
+    void setUp() {
+        limparBanco();
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    private void limparBanco() {
+        snapshotEstoqueRepository.deleteAll();
+        movimentoEstoqueRepository.deleteAll();
+        productRepository.findAll().forEach(product -> productService.delete(product.getId()));
+    }
+
+    private static Product produto(String nome, int estoque) {
+        Product product = new Product();
+        product.setNome(nome);
+        product.setCodigoProduto("PUT-1");
+        product.setPreco(new BigDecimal("12.00"));
+        product.setQuantidadeEmEstoque(estoque);
+        product.setCategoria("Papelaria");
+        return product;
+    }
+
+    @Test
+    void whenPutBodyWasReadBeforeStockChanged_thenStockKeepsTheLaterChange() {
+        // Arrange: o cliente lê o produto com 10 unidades; depois saem 3 (não muda a versão)
+        Product salvo = productService.create(produto("Caderno", 10));
+        Long id = salvo.getId();
+        Product formulario = produto("Caderno universitário", 10);
+        formulario.setVersao(salvo.getVersao());
+        productService.ajustarEstoque(new ProductBulkStockRequest(null, null, List.of(id), -3));
+
+        // Act
+        Product atualizado = productService.update(id, formulario);
+
+        // Assert: o nome muda, o estoque continua 7 e nenhum ajuste é registrado pelo PUT
+        assertEquals("Caderno universitário", atualizado.getNome());
+        assertEquals(7, atualizado.getQuantidadeEmEstoque());
+        assertEquals(7, productRepository.findById(id).orElseThrow().getQuantidadeEmEstoque());
+        List<Integer> ajustes = movimentoEstoqueRepository.findAll().stream()
+                .filter(movimento -> movimento.getTipo() == TipoMovimento.AJUSTE)
+                .map(MovimentoEstoque::getDelta)
+                .toList();
+        assertEquals(List.of(-3), ajustes);
+    }
+}
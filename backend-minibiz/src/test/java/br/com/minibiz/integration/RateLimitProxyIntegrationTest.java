@@ -0,0 +1,54 @@
+package br.com.minibiz.integration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.*;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Atrás de proxy (aqui, conexões de loopback), cada cliente anônimo tem o seu balde, pelo X-Forwarded-For.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "minibiz.ratelimit.habilitado=true",
+        "minibiz.ratelimit.grupos[0].nome=auth",
+        "minibiz.ratelimit.grupos[0].padroes=/auth/**",
+        "minibiz.ratelimit.grupos[0].requisicoes-por-minuto=6",
+        "minibiz.ratelimit.grupos[0].rajada=2"})
+@ActiveProfiles("test")
+public class RateLimitProxyIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    private int login(String ipDoCliente) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Forwarded-For", ipDoCliente);
+        HttpEntity<String> request = new HttpEntity<>("{\"email\":\"ninguem@minibiz.com\",\"password\":\"x\"}", headers);
+        return restTemplate.exchange("http://localhost:" + port + "/auth/login", HttpMethod.POST, request, String.class)
+                .getStatusCode().value();
+    }
+
+    @Test
+    void whenAnonymousClientsComeThroughTrustedProxy_thenEachClientIpHasItsOwnBucket() {
+        // Act: a rajada do grupo auth é 2, e todas as conexões chegam do mesmo proxy
+        int primeiro = login("203.0.113.10");
+        int segundo = login("203.0.113.10");
+        int terceiro = login("203.0.113.10");
+        int outroCliente = login("198.51.100.20");
+
+        // Assert
+        assertNotEquals(429, primeiro);
+        assertNotEquals(429, segundo);
+        assertEquals(429, terceiro);
+        assertNotEquals(429, outroCliente);
+    }
+}
@@ -0,0 +1,289 @@
+package br.com.minibiz.integration;
+
+import br.com.minibiz.dto.VendaDTO;
+import br.com.minibiz.dto.VendaRequest;
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.model.venda.StatusVenda;
+import br.com.minibiz.model.venda.Venda;
+import br.com.minibiz.repository.ClientRepository;
+import br.com.minibiz.repository.MovimentoEstoqueRepository;
+import br.com.minibiz.repository.ProductRepository;
+import br.com.minibiz.repository.UserRepository;
+import br.com.minibiz.repository.VendaRepository;
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.service.VendaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Orçamento de SQL dos endpoints de vendas. Os números são tetos: cliente e produtos podem vir do cache
+ * de segundo nível, e aí a requisição faz menos consultas. Um N+1 ou um save por item fora do batch
+ * passa do teto, porque as vendas e os itens usados aqui são mais numerosos que a folga.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@Import(ContadorSqlConfig.class)
+public class VendaIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private VendaService vendaService;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MovimentoEstoqueRepository movimentoEstoqueRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ContadorSql contadorSql;
+
+    private String baseUrl;
+    private HttpHeaders headers;
+    private Client client;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        baseUrl = "http://localhost:" + port + "/api/vendas";
+        headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        setupAuthentication();
+
+        limparBanco();
+        client = clientRepository.save(createTestClient());
+        products = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            products.add(productRepository.save(createTestProduct(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        limparBanco();
+    }
+
+    private void limparBanco() {
+        vendaRepository.deleteAll();
+        movimentoEstoqueRepository.deleteAll();
+        productRepository.deleteAll();
+        clientRepository.deleteAll();
+    }
+
+    private void setupAuthentication() {
+        if (userRepository.findByEmail("admin@test.com").isEmpty()) {
+            User testUser = new User();
+            testUser.setName("Admin Test");
+            testUser.setEmail("admin@test.com");
+            testUser.setPassword(new BCryptPasswordEncoder().encode("password"));
+            testUser.setRole("ADMIN");
+            userRepository.save(testUser);
+        }
+        headers.setBearerAuth(tokenService.generateToken(userRepository.findByEmail("admin@test.com").get()));
+    }
+
+    @Test
+    void whenCreateVenda_thenStatus201AndFixedStatementBudget() {
+        // Arrange
+        VendaRequest request = new VendaRequest();
+        request.setClientId(client.getId());
+        request.setProdutosDTO(products.stream().map(product -> item(product, 2)).toList());
+
+        // Act
+        contadorSql.iniciar();
+        ResponseEntity<Venda> response = restTemplate.exchange(
+                baseUrl,
+                HttpMethod.POST,
+                new HttpEntity<>(request, headers),
+                Venda.class
+        );
+        ContadorSql.Contagem sql = contadorSql.parar();
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(3, response.getBody().getItems().size());
+        // select: cliente, 3 produtos e o próximo bloco da sequência dos movimentos;
+        // insert: venda, 3 itens (id IDENTITY, um por vez) e os movimentos num batch; update: produtos num batch
+        // e a versão da coleção de produtos
+        sql.assertOrcamento(5, 5, 2, 0);
+    }
+
+    @Test
+    void whenListVendas_thenItemsAreNotLoadedPerVenda() {
+        // Arrange
+        for (int i = 0; i < 5; i++) {
+            vendaService.registrarVenda(client.getId(), List.of(item(products.get(0), 1), item(products.get(1), 1)));
+        }
+
+        // Act
+        contadorSql.iniciar();
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                baseUrl,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+        ContadorSql.Contagem sql = contadorSql.parar();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(5, ((Integer) response.getBody().get("totalElements")).intValue());
+        // Página de vendas, cliente, itens das 5 vendas numa consulta e até uma por produto distinto
+        sql.assertOrcamento(5, 0, 0, 0);
+    }
+
+    @Test
+    void whenGetVendaById_thenFixedStatementBudget() {
+        // Arrange
+        Venda venda = vendaService.registrarVenda(client.getId(),
+                products.stream().map(product -> item(product, 1)).toList());
+
+        // Act
+        contadorSql.iniciar();
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                baseUrl + "/" + venda.getId(),
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+        ContadorSql.Contagem sql = contadorSql.parar();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3, ((List<?>) response.getBody().get("products")).size());
+        // Venda e cliente, itens e até uma por produto
+        sql.assertOrcamento(6, 0, 0, 0);
+    }
+
+    @Test
+    void whenCancelVenda_thenStockUpdatesAreBatched() {
+        // Arrange
+        Venda venda = vendaService.registrarVenda(client.getId(),
+                products.stream().map(product -> item(product, 1)).toList());
+
+        // Act
+        contadorSql.iniciar();
+        ResponseEntity<Venda> response = restTemplate.exchange(
+                baseUrl + "/cancelar/" + venda.getId(),
+                HttpMethod.PUT,
+                new HttpEntity<>(headers),
+                Venda.class
+        );
+        ContadorSql.Contagem sql = contadorSql.parar();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(StatusVenda.CANCELADA, response.getBody().getStatus());
+        // select: venda e cliente, itens, até uma por produto e a sequência dos movimentos;
+        // insert: movimentos num batch; update: produtos num batch, a venda
+        // e a versão da coleção de produtos
+        sql.assertOrcamento(7, 1, 3, 0);
+    }
+
+    @Test
+    void whenConcurrentSalesOfSameProduct_thenStockIsNeverOversoldAndVersionIsUnchanged() throws Exception {
+        // Arrange: 5 unidades, 12 vendas de uma unidade ao mesmo tempo
+        Product product = products.get(0);
+        product.setQuantidadeEmEstoque(5);
+        product = productRepository.save(product);
+        long versaoAntes = product.getVersao();
+        Long productId = product.getId();
+        productRepository.findById(productId); // coloca o produto no cache de segundo nível
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        Callable<Boolean> venda = () -> {
+            try {
+                vendaService.registrarVenda(client.getId(), List.of(item(productRepository.findById(productId).get(), 1)));
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        };
+
+        // Act
+        List<Future<Boolean>> resultados;
+        try {
+            resultados = executor.invokeAll(Collections.nCopies(12, venda));
+        } finally {
+            executor.shutdown();
+        }
+        int concluidas = 0;
+        for (Future<Boolean> resultado : resultados) {
+            concluidas += resultado.get() ? 1 : 0;
+        }
+
+        // Assert: nenhuma venda falha por conflito de versão, e o cache não guarda o saldo antigo
+        assertEquals(5, concluidas);
+        assertEquals(5, vendaRepository.count());
+        Product depois = productRepository.findById(productId).orElseThrow();
+        assertEquals(0, depois.getQuantidadeEmEstoque());
+        assertEquals(versaoAntes, depois.getVersao());
+    }
+
+    private VendaDTO item(Product product, int quantidade) {
+        VendaDTO dto = new VendaDTO();
+        dto.setProductId(product.getId());
+        dto.setQuantidade(quantidade);
+        return dto;
+    }
+
+    private Client createTestClient() {
+        Client testClient = new Client();
+        testClient.setNome("Venda Test Client");
+        testClient.setEmail("venda@test.com");
+        testClient.setTelefone("(11) 97777-7777");
+        testClient.setEndereco("Venda Test Address, 789");
+        return testClient;
+    }
+
+    private Product createTestProduct(int numero) {
+        Product product = new Product();
+        product.setNome("Produto Teste " + numero);
+        product.setCodigoProduto("VENDA-TESTE-" + numero);
+        product.setPreco(new BigDecimal("10.00").multiply(BigDecimal.valueOf(numero)));
+        product.setQuantidadeEmEstoque(100);
+        product.setCategoria("Testes");
+        return product;
+    }
+}
@@ -2,8 +2,10 @@ package br.com.minibiz.service;
 
 import br.com.minibiz.config.exception.ClientNotFoundException;
 import br.com.minibiz.config.exception.ClientServiceException;
+import br.com.minibiz.dto.ClientSearchResultDTO;
 import br.com.minibiz.model.client.Client;
 import br.com.minibiz.repository.ClientRepository;
+import br.com.minibiz.service.search.ClientSearchIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,6 +31,12 @@ public class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private CollectionVersionService collectionVersionService;
+
+    @Mock
+    private ClientSearchIndex clientSearchIndex;
+
     @InjectMocks
     private ClientService clientService;
 
@@ -189,5 +197,30 @@ public class ClientServiceTest {
         assertEquals(2, result.getContent().size());
         verify(clientRepository, times(1)).findAll(pageable);
     }
-}
 
+    @Test
+    void create_ValidClient_IndexesClientForSearch() {
+        // Arrange
+        when(clientRepository.save(any(Client.class))).thenReturn(client);
+
+        // Act
+        clientService.create(client);
+
+        // Assert
+        verify(clientSearchIndex, times(1)).indexar(client);
+    }
+
+    @Test
+    void search_LimitAboveMaximum_IsClamped() {
+        // Arrange
+        List<ClientSearchResultDTO> resultados = List.of(ClientSearchResultDTO.of(client));
+        when(clientSearchIndex.buscar("cliente", 50)).thenReturn(resultados);
+
+        // Act
+        List<ClientSearchResultDTO> result = clientService.search("cliente", 1000);
+
+        // Assert
+        assertEquals(resultados, result);
+        verify(clientRepository, never()).findAll(any(Pageable.class));
+    }
+}
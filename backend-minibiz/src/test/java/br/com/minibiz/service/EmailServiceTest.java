@@ -0,0 +1,41 @@
+package br.com.minibiz.service;
+
+import br.com.minibiz.model.email.EmailOutbox;
+import br.com.minibiz.model.email.StatusEmail;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailServiceTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @InjectMocks
+    private EmailService emailService;
+
+    @Test
+    void sendPasswordResetEmail_GravaNaOutboxSemEnviar() {
+        User user = new User();
+        user.setEmail("ana@minibiz.com");
+
+        emailService.sendPasswordResetEmail(user, "token-1");
+
+        ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository).save(captor.capture());
+        EmailOutbox email = captor.getValue();
+        assertEquals("ana@minibiz.com", email.getDestinatario());
+        assertTrue(email.getCorpo().contains("reset-password?token=token-1"));
+        assertEquals(StatusEmail.PENDENTE, email.getStatus());
+        assertEquals(0, email.getTentativas());
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.minibiz.service.csv;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvLineParserTest {
+
+    @Test
+    void detectar_CabecalhoComPontoEVirgula_UsaPontoEVirgula() {
+        assertEquals(';', CsvLineParser.detectar("codigoProduto;nome;preco").getSeparador());
+        assertEquals(',', CsvLineParser.detectar("codigoProduto,nome,preco").getSeparador());
+    }
+
+    @Test
+    void parse_CamposEntreAspas_MantemSeparadorEAspasEscapadas() {
+        CsvLineParser parser = new CsvLineParser(',');
+
+        assertEquals(List.of("A1", "Caneta, azul", "Tinta \"gel\"", "2.50"),
+                parser.parse("A1,\"Caneta, azul\",\"Tinta \"\"gel\"\"\",2.50"));
+    }
+
+    @Test
+    void parse_CamposVazios_SaoPreservados() {
+        assertEquals(List.of("A1", "", "2,50", ""), new CsvLineParser(';').parse("A1; ;2,50;"));
+    }
+
+    @Test
+    void parse_AspasNaoFechadas_LancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new CsvLineParser(',').parse("A1,\"Caneta"));
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.minibiz.service.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CalendarioVendasTest {
+
+    private final CalendarioVendas calendario = new CalendarioVendas(LocalDate.of(2023, 1, 1), LocalDate.of(2024, 12, 31));
+
+    @Test
+    void dias_PeriodoDeDoisAnos_ContaInicioEFim() {
+        assertEquals(731, calendario.dias());
+    }
+
+    @Test
+    void peso_BlackFriday_MaiorQueQualquerOutroDiaDeNovembro() {
+        double blackFriday = calendario.peso(LocalDate.of(2023, 11, 24));
+
+        for (int dia = 1; dia <= 30; dia++) {
+            if (dia != 24) {
+                assertTrue(blackFriday > calendario.peso(LocalDate.of(2023, 11, dia)), "dia " + dia);
+            }
+        }
+    }
+
+    @Test
+    void peso_VesperaDeNatal_MaiorQueFevereiro() {
+        // Mesmo dia da semana (quarta-feira) para isolar o efeito do mês
+        assertTrue(calendario.peso(LocalDate.of(2023, 12, 20)) > 2 * calendario.peso(LocalDate.of(2023, 2, 22)));
+    }
+
+    @Test
+    void peso_SabadoEDomingo_SabadoMaisForte() {
+        assertTrue(calendario.peso(LocalDate.of(2023, 8, 12)) > 2 * calendario.peso(LocalDate.of(2023, 8, 13)));
+    }
+
+    @Test
+    void peso_MesmoDiaNoSegundoAno_CresceComOPeriodo() {
+        // 2023-03-08 e 2024-03-06: quartas-feiras comuns de março
+        assertTrue(calendario.peso(LocalDate.of(2024, 3, 6)) > calendario.peso(LocalDate.of(2023, 3, 8)));
+    }
+
+    @Test
+    void horario_SempreComLojaAberta() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDate dia = LocalDate.of(2024, 5, 2);
+
+        for (int i = 0; i < 20_000; i++) {
+            LocalDateTime horario = calendario.horario(dia, random);
+            assertEquals(dia, horario.toLocalDate());
+            assertTrue(horario.getHour() >= 8 && horario.getHour() <= 21, horario.toString());
+        }
+    }
+
+    @Test
+    void construtor_FimAntesDoInicio_LancaExcecao() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CalendarioVendas(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 1)));
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.minibiz.service.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistribuicaoZipfTest {
+
+    @Test
+    void sortear_MesmaSemente_MesmaSequencia() {
+        DistribuicaoZipf zipf = new DistribuicaoZipf(1000, 1.0);
+        SplittableRandom primeira = new SplittableRandom(7);
+        SplittableRandom segunda = new SplittableRandom(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(zipf.sortear(primeira), zipf.sortear(segunda));
+        }
+    }
+
+    @Test
+    void sortear_ExpoenteUm_PrimeirasPosicoesConcentramAsEscolhas() {
+        DistribuicaoZipf zipf = new DistribuicaoZipf(1000, 1.0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] contagem = new int[1000];
+
+        for (int i = 0; i < 200_000; i++) {
+            contagem[zipf.sortear(random)]++;
+        }
+
+        // P(1) = 1/H(1000) ≈ 13%, o dobro de P(2) e dez vezes P(10)
+        assertEquals(0.134, contagem[0] / 200_000.0, 0.01);
+        assertEquals(2.0, (double) contagem[0] / contagem[1], 0.15);
+        assertTrue(contagem[0] > 8 * contagem[9]);
+        assertTrue(contagem[999] < contagem[0] / 500);
+    }
+
+    @Test
+    void sortear_ExpoenteZero_Uniforme() {
+        DistribuicaoZipf zipf = new DistribuicaoZipf(4, 0);
+        SplittableRandom random = new SplittableRandom(42);
+        int[] contagem = new int[4];
+
+        for (int i = 0; i < 40_000; i++) {
+            contagem[zipf.sortear(random)]++;
+        }
+
+        for (int quantidade : contagem) {
+            assertEquals(10_000, quantidade, 500);
+        }
+    }
+
+    @Test
+    void sortear_UmItem_SempreZero() {
+        DistribuicaoZipf zipf = new DistribuicaoZipf(1, 1.0);
+
+        assertEquals(0, zipf.sortear(new SplittableRandom(1)));
+    }
+
+    @Test
+    void construtor_SemItens_LancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new DistribuicaoZipf(0, 1.0));
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.minibiz.service.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChaveContatoTest {
+
+    @Test
+    void normalizarEmail_IgnoraCaixaEEspacos() {
+        assertEquals("ana.souza@exemplo.com", ChaveContato.normalizarEmail("  Ana.Souza@Exemplo.COM "));
+        assertNull(ChaveContato.normalizarEmail(" "));
+    }
+
+    @Test
+    void normalizarEmail_SemArroba_LancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> ChaveContato.normalizarEmail("ana.exemplo.com"));
+        assertThrows(IllegalArgumentException.class, () -> ChaveContato.normalizarEmail("ana@"));
+    }
+
+    @Test
+    void normalizarTelefone_FormatosDiferentesDoMesmoNumero_GeramOMesmoValor() {
+        assertEquals("11987654321", ChaveContato.normalizarTelefone("+55 (11) 98765-4321"));
+        assertEquals("11987654321", ChaveContato.normalizarTelefone("011 98765 4321"));
+        assertEquals("11987654321", ChaveContato.normalizarTelefone("11987654321"));
+        assertEquals("1134567890", ChaveContato.normalizarTelefone("(11) 3456-7890"));
+    }
+
+    @Test
+    void normalizarTelefone_PoucosDigitos_LancaExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> ChaveContato.normalizarTelefone("1234"));
+    }
+
+    @Test
+    void hash_EmailETelefoneComOMesmoTexto_GeramChavesDiferentes() {
+        assertEquals(ChaveContato.hashEmail("ana@exemplo.com"), ChaveContato.hashEmail("ana@exemplo.com"));
+        assertNotEquals(ChaveContato.hashEmail("11987654321"), ChaveContato.hashTelefone("11987654321"));
+        assertNotEquals(ChaveContato.hashEmail("ana@exemplo.com"), ChaveContato.hashEmail("ana@exemplo.co"));
+    }
+}
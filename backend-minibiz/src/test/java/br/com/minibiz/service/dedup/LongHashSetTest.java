@@ -0,0 +1,47 @@
+package br.com.minibiz.service.dedup;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongHashSetTest {
+
+    @Test
+    void add_ChaveRepetida_DevolveFalse() {
+        LongHashSet conjunto = new LongHashSet(4);
+
+        assertTrue(conjunto.add(42L));
+        assertFalse(conjunto.add(42L));
+        assertTrue(conjunto.contains(42L));
+        assertFalse(conjunto.contains(43L));
+        assertEquals(1, conjunto.size());
+    }
+
+    @Test
+    void add_Zero_EhGuardadoComoQualquerChave() {
+        LongHashSet conjunto = new LongHashSet(4);
+
+        assertFalse(conjunto.contains(0L));
+        assertTrue(conjunto.add(0L));
+        assertFalse(conjunto.add(0L));
+        assertTrue(conjunto.contains(0L));
+        assertEquals(1, conjunto.size());
+    }
+
+    @Test
+    void add_AlemDaCapacidadeInicial_CresceSemPerderChaves() {
+        LongHashSet conjunto = new LongHashSet(4);
+        long[] chaves = new SplittableRandom(7).longs(100_000).toArray();
+        for (long chave : chaves) {
+            conjunto.add(chave);
+        }
+
+        assertEquals(100_000, conjunto.size());
+        for (long chave : chaves) {
+            assertTrue(conjunto.contains(chave));
+        }
+        assertFalse(conjunto.contains(new SplittableRandom(8).nextLong()));
+    }
+}
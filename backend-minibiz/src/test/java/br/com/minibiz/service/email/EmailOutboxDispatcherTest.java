@@ -0,0 +1,217 @@
+package br.com.minibiz.service.email;
+
+import br.com.minibiz.model.email.EmailOutbox;
+import br.com.minibiz.model.email.StatusEmail;
+import br.com.minibiz.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDispatcherTest {
+
+    private static final String REMETENTE = "minibiz@minibiz.com";
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    private SmtpTransportPool pool;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = comServidorNaPorta(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private EmailOutboxDispatcher comServidorNaPorta(int porta) {
+        if (pool != null) {
+            pool.close();
+        }
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(porta);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "1000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.writetimeout", "3000");
+        pool = new SmtpTransportPool(mailSender, 2);
+        return new EmailOutboxDispatcher(emailOutboxRepository, pool, transactionTemplate, REMETENTE, 50, 3, 30, 3600);
+    }
+
+    private static EmailOutbox email(String destinatario) {
+        return new EmailOutbox(destinatario, "Assunto", "Corpo do email", LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    // Os emails recebem ids 1, 2, ... na ordem em que são passados
+    private void comPendentes(EmailOutbox... emails) {
+        for (int i = 0; i < emails.length; i++) {
+            ReflectionTestUtils.setField(emails[i], "id", i + 1L);
+        }
+        when(emailOutboxRepository.findIdsProntos(eq(StatusEmail.PENDENTE), any(), any()))
+                .thenReturn(Arrays.stream(emails).map(EmailOutbox::getId).toList());
+        when(emailOutboxRepository.findByReserva(anyString())).thenReturn(List.of(emails));
+    }
+
+    private String reservaUsada() {
+        ArgumentCaptor<String> reserva = ArgumentCaptor.forClass(String.class);
+        verify(emailOutboxRepository).reservar(any(), reserva.capture(), any(), eq(StatusEmail.PENDENTE), any());
+        return reserva.getValue();
+    }
+
+    @Test
+    void enviarPendentes_EntregaOLoteEMarcaComoEnviado() throws Exception {
+        EmailOutbox primeiro = email("ana@minibiz.com");
+        EmailOutbox segundo = email("bruno@minibiz.com");
+        comPendentes(primeiro, segundo);
+        when(emailOutboxRepository.marcarEnviados(any(), anyString(), any(), any())).thenReturn(2);
+
+        assertEquals(2, dispatcher.enviarPendentes());
+
+        MimeMessage[] recebidos = greenMail.getReceivedMessages();
+        assertEquals(2, recebidos.length);
+        assertEquals("Assunto", recebidos[0].getSubject());
+        assertEquals("Corpo do email", recebidos[0].getContent().toString().trim());
+        assertEquals(REMETENTE, recebidos[0].getFrom()[0].toString());
+        assertEquals(StatusEmail.ENVIADO, primeiro.getStatus());
+        assertEquals(StatusEmail.ENVIADO, segundo.getStatus());
+        assertNotNull(primeiro.getEnviadoEm());
+        verify(emailOutboxRepository).reservar(eq(List.of(1L, 2L)), anyString(), any(), eq(StatusEmail.PENDENTE), any());
+        // O resultado só é gravado onde a reserva ainda é deste envio, nunca por cima da linha inteira
+        String reserva = reservaUsada();
+        verify(emailOutboxRepository).marcarEnviados(List.of(1L, 2L), reserva, StatusEmail.ENVIADO,
+                primeiro.getEnviadoEm());
+        verify(emailOutboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void enviarPendentes_ReservaCobreOPiorCasoDoEnvioDoLote() {
+        comPendentes(email("ana@minibiz.com"));
+        LocalDateTime antes = LocalDateTime.now(ZoneOffset.UTC);
+
+        dispatcher.enviarPendentes();
+
+        ArgumentCaptor<LocalDateTime> reservadoAte = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository).reservar(any(), anyString(), reservadoAte.capture(), any(), any());
+        // Lote de 50 em 2 conexões: 30 s de espera por conexão, 3 s de reconexão, (25 + 1) x 5 s de envio
+        // e 1 min de folga
+        Duration esperada = Duration.ofSeconds(30 + 3 + 26 * 5 + 60);
+        Duration reserva = Duration.between(antes, reservadoAte.getValue());
+        assertFalse(reserva.compareTo(esperada) < 0, "reserva de " + reserva);
+        assertTrue(reserva.compareTo(esperada.plusSeconds(5)) < 0, "reserva de " + reserva);
+    }
+
+    @Test
+    void enviarPendentes_ReservaVencida_NaoFalhaNemSobrescreve() {
+        EmailOutbox email = email("ana@minibiz.com");
+        comPendentes(email);
+        // Outra instância reservou o email depois que a reserva venceu: o UPDATE condicional não encontra a linha
+        when(emailOutboxRepository.marcarEnviados(any(), anyString(), any(), any())).thenReturn(0);
+
+        assertEquals(1, dispatcher.enviarPendentes());
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        verify(emailOutboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void enviarPendentes_SemEmailsProntos_NaoAbreConexao() {
+        assertEquals(0, dispatcher.enviarPendentes());
+
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        verify(emailOutboxRepository, never()).reservar(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void enviarPendentes_ServidorForaDoAr_ReagendaComEsperaExponencial() {
+        dispatcher = comServidorNaPorta(1);
+        EmailOutbox novo = email("ana@minibiz.com");
+        EmailOutbox jaFalhou = email("bruno@minibiz.com");
+        ReflectionTestUtils.setField(jaFalhou, "tentativas", 1);
+        comPendentes(novo, jaFalhou);
+        LocalDateTime antes = LocalDateTime.now(ZoneOffset.UTC);
+
+        dispatcher.enviarPendentes();
+
+        assertEquals(StatusEmail.PENDENTE, novo.getStatus());
+        assertEquals(1, novo.getTentativas());
+        assertNotNull(novo.getUltimoErro());
+        assertFalse(novo.getProximaTentativa().isBefore(antes.plusSeconds(30)));
+        assertFalse(jaFalhou.getProximaTentativa().isBefore(antes.plusSeconds(60)));
+        String reserva = reservaUsada();
+        verify(emailOutboxRepository).registrarFalha(1L, reserva, StatusEmail.PENDENTE, 1, novo.getUltimoErro(),
+                novo.getProximaTentativa());
+        verify(emailOutboxRepository).registrarFalha(2L, reserva, StatusEmail.PENDENTE, 2, jaFalhou.getUltimoErro(),
+                jaFalhou.getProximaTentativa());
+        verify(emailOutboxRepository, never()).marcarEnviados(any(), any(), any(), any());
+    }
+
+    @Test
+    void enviarPendentes_UltimaTentativaFalha_VaiParaDeadLetter() {
+        dispatcher = comServidorNaPorta(1);
+        EmailOutbox email = email("ana@minibiz.com");
+        ReflectionTestUtils.setField(email, "tentativas", 2);
+        comPendentes(email);
+
+        dispatcher.enviarPendentes();
+
+        assertEquals(StatusEmail.FALHOU, email.getStatus());
+        assertEquals(3, email.getTentativas());
+        String reserva = reservaUsada();
+        verify(emailOutboxRepository).registrarFalha(eq(1L), eq(reserva), eq(StatusEmail.FALHOU), eq(3),
+                anyString(), any());
+    }
+
+    @Test
+    void enviarPendentes_EnderecoInvalido_FalhaSoEsseEmail() {
+        EmailOutbox valido = email("ana@minibiz.com");
+        EmailOutbox invalido = email("sem arroba");
+        comPendentes(valido, invalido);
+
+        dispatcher.enviarPendentes();
+
+        assertEquals(StatusEmail.ENVIADO, valido.getStatus());
+        assertEquals(StatusEmail.PENDENTE, invalido.getStatus());
+        assertEquals(1, invalido.getTentativas());
+        assertEquals(1, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void espera_DobraACadaFalhaAteOMaximo() {
+        assertEquals(Duration.ofSeconds(30), dispatcher.espera(1));
+        assertEquals(Duration.ofSeconds(60), dispatcher.espera(2));
+        assertEquals(Duration.ofSeconds(480), dispatcher.espera(5));
+        assertEquals(Duration.ofHours(1), dispatcher.espera(20));
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.minibiz.service.email;
+
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.model.venda.ItemVenda;
+import br.com.minibiz.model.venda.Venda;
+import br.com.minibiz.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ReciboVendaServiceTest {
+
+    private EmailService emailService;
+    private ReciboVendaService reciboVendaService;
+    private Venda venda;
+
+    @BeforeEach
+    void setUp() {
+        emailService = mock(EmailService.class);
+        reciboVendaService = new ReciboVendaService(emailService);
+
+        Client client = new Client();
+        client.setNome("Ana");
+        client.setEmail("ana@minibiz.com");
+        venda = new Venda();
+        venda.setId(42L);
+        venda.setClient(client);
+        venda.setVendaDate(LocalDateTime.of(2024, 5, 10, 18, 30));
+        venda.setItems(List.of(item("Café Torrado", "12.50", 2), item("Pão de Queijo", "1234.00", 1)));
+        venda.setValorTotal(new BigDecimal("1259.00"));
+    }
+
+    private ItemVenda item(String nome, String preco, int quantidade) {
+        Product product = new Product();
+        product.setNome(nome);
+        product.setPreco(new BigDecimal(preco));
+        ItemVenda item = new ItemVenda();
+        item.setProduct(product);
+        item.setQuantidade(quantidade);
+        return item;
+    }
+
+    @Test
+    void enfileirar_PreencheOReciboComItensETotal() {
+        assertTrue(reciboVendaService.enfileirar(venda));
+
+        ArgumentCaptor<String> assunto = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> corpo = ArgumentCaptor.forClass(String.class);
+        verify(emailService).enfileirar(eq("ana@minibiz.com"), assunto.capture(), corpo.capture());
+        assertEquals("Recibo da venda nº 42 - MiniBiz", assunto.getValue());
+        assertTrue(corpo.getValue().startsWith("Olá, Ana!"));
+        assertTrue(corpo.getValue().contains("10/05/2024 18:30"));
+        assertTrue(corpo.getValue().contains("- 2 x Café Torrado (R$ 12,50 cada): R$ 25,00"));
+        assertTrue(corpo.getValue().contains("- 1 x Pão de Queijo (R$ 1.234,00 cada): R$ 1.234,00"));
+        assertTrue(corpo.getValue().contains("Total: R$ 1.259,00"));
+    }
+
+    @Test
+    void enfileirar_ClienteSemEmail_NaoGeraRecibo() {
+        venda.getClient().setEmail(" ");
+
+        assertFalse(reciboVendaService.enfileirar(venda));
+
+        verify(emailService, never()).enfileirar(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void enfileirar_ProdutoSemNome_GeraOReciboSemONome() {
+        venda.setItems(List.of(item(null, "12.50", 2)));
+
+        assertTrue(reciboVendaService.enfileirar(venda));
+
+        ArgumentCaptor<String> corpo = ArgumentCaptor.forClass(String.class);
+        verify(emailService).enfileirar(eq("ana@minibiz.com"), anyString(), corpo.capture());
+        assertTrue(corpo.getValue().contains("- 2 x  (R$ 12,50 cada): R$ 25,00"));
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.minibiz.service.email;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.sun.mail.smtp.SMTPTransport;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.Session;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SmtpTransportPool pool;
+
+    // Transport SMTP que conta os NOOPs enviados ao servidor para testar a conexão
+    public static class TransportContador extends SMTPTransport {
+
+        static final AtomicInteger sondagens = new AtomicInteger();
+
+        public TransportContador(Session session, URLName urlname) {
+            super(session, urlname);
+        }
+
+        @Override
+        protected void sendCommand(String comando) throws MessagingException {
+            if ("NOOP".equals(comando)) {
+                sondagens.incrementAndGet();
+            }
+            super.sendCommand(comando);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        pool = new SmtpTransportPool(smtp(ServerSetupTest.SMTP.getPort()), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private static JavaMailSenderImpl smtp(int porta) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(porta);
+        return mailSender;
+    }
+
+    private List<MimeMessage> mensagens(int quantidade) throws MessagingException {
+        List<MimeMessage> mensagens = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            MimeMessage mensagem = new MimeMessage(pool.sessao());
+            mensagem.setFrom(new InternetAddress("minibiz@minibiz.com"));
+            mensagem.setRecipient(Message.RecipientType.TO, new InternetAddress("cliente" + i + "@minibiz.com"));
+            mensagem.setSubject("Recibo " + i);
+            mensagem.setText("Corpo " + i);
+            mensagem.saveChanges();
+            mensagens.add(mensagem);
+        }
+        return mensagens;
+    }
+
+    @Test
+    void enviar_VariosLotes_ReaproveitaAsConexoes() throws Exception {
+        for (int lote = 0; lote < 3; lote++) {
+            assertTrue(pool.enviar(mensagens(10)).isEmpty());
+        }
+
+        assertEquals(30, greenMail.getReceivedMessages().length);
+        // Uma conexão por posição do pool, abertas no primeiro lote e mantidas nos seguintes
+        assertEquals(2, pool.getConexoesAbertas());
+    }
+
+    @Test
+    void enviar_ConexoesEmUso_NaoEnviaNoopAntesDasMensagens() throws Exception {
+        JavaMailSenderImpl mailSender = smtp(ServerSetupTest.SMTP.getPort());
+        mailSender.getSession().setProvider(new Provider(Provider.Type.TRANSPORT, "smtp",
+                TransportContador.class.getName(), "MiniBiz", "1"));
+        pool.close();
+        pool = new SmtpTransportPool(mailSender, 2);
+        TransportContador.sondagens.set(0);
+
+        assertTrue(pool.enviar(mensagens(10)).isEmpty());
+        assertTrue(pool.enviar(mensagens(10)).isEmpty());
+
+        assertEquals(20, greenMail.getReceivedMessages().length);
+        assertEquals(0, TransportContador.sondagens.get());
+    }
+
+    @Test
+    void enviar_ServidorDerrubouAsConexoes_ReconectaSemPerderMensagens() throws Exception {
+        assertTrue(pool.enviar(mensagens(2)).isEmpty());
+        greenMail.reset(); // Reinicia o servidor: as conexões do pool caem
+
+        assertTrue(pool.enviar(mensagens(4)).isEmpty());
+
+        assertEquals(4, greenMail.getReceivedMessages().length);
+        assertEquals(4, pool.getConexoesAbertas());
+    }
+
+    @Test
+    void enviar_ServidorForaDoAr_DevolveTodasComoFalha() throws Exception {
+        pool.close();
+        pool = new SmtpTransportPool(smtp(1), 2);
+        List<MimeMessage> mensagens = mensagens(3);
+
+        Map<MimeMessage, Exception> falhas = pool.enviar(mensagens);
+
+        assertEquals(3, falhas.size());
+        assertTrue(falhas.keySet().containsAll(mensagens));
+        assertEquals(0, pool.getConexoesAbertas());
+    }
+}
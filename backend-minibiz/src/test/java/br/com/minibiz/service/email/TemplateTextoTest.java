@@ -0,0 +1,37 @@
+package br.com.minibiz.service.email;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemplateTextoTest {
+
+    @Test
+    void preencher_SubstituiVariaveisERepeteSecoes() {
+        TemplateTexto template = TemplateTexto.compilar("Olá, {{ nome }}!\n{{#itens}}- {{produto}}: {{valor}}\n{{/itens}}Fim");
+
+        String texto = template.preencher(Map.of("nome", "Ana", "itens", List.of(
+                Map.of("produto", "Café", "valor", 10),
+                Map.of("produto", "Pão", "valor", 5))));
+
+        assertEquals("Olá, Ana!\n- Café: 10\n- Pão: 5\nFim", texto);
+    }
+
+    @Test
+    void preencher_VariavelAusenteOuSecaoVazia_FicaEmBranco() {
+        TemplateTexto template = TemplateTexto.compilar("[{{nome}}]{{#itens}}x{{/itens}}");
+
+        assertEquals("[]", template.preencher(Map.of()));
+        assertEquals("[]", template.preencher(Map.of("itens", List.of())));
+    }
+
+    @Test
+    void compilar_MarcadoresMalFormados_Falha() {
+        assertThrows(IllegalArgumentException.class, () -> TemplateTexto.compilar("{{#itens}}sem fim"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateTexto.compilar("{{/itens}}"));
+        assertThrows(IllegalArgumentException.class, () -> TemplateTexto.compilar("{{nome"));
+    }
+}
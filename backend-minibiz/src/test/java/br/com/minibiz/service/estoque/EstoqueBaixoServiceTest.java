@@ -0,0 +1,123 @@
+package br.com.minibiz.service.estoque;
+
+import br.com.minibiz.config.exception.ServiceUnavailableException;
+import br.com.minibiz.dto.EstoqueBaixoDTO;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EstoqueBaixoServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private EstoqueBaixoService estoqueBaixoService;
+
+    private static Product produto(long id, int quantidade, Integer estoqueMinimo, LocalDateTime alteradoEm) {
+        Product product = new Product();
+        product.setId(id);
+        product.setNome("Produto " + id);
+        product.setCodigoProduto("P-" + id);
+        product.setQuantidadeEmEstoque(quantidade);
+        product.setEstoqueMinimo(estoqueMinimo);
+        product.setDataAtualizacao(alteradoEm);
+        return product;
+    }
+
+    @Test
+    void onEstoqueAlterado_OrdenaPelaFracaoDoMinimoEmEstoque() {
+        LocalDateTime agora = LocalDateTime.now();
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(1L, 8, 10, agora)));
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(2L, 1, 4, agora)));
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(3L, 20, 10, agora)));
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(4L, 0, null, agora)));
+
+        assertEquals(List.of(2L, 1L), estoqueBaixoService.listar(10).stream().map(EstoqueBaixoDTO::id).toList());
+    }
+
+    @Test
+    void onEstoqueAlterado_ReposicaoRetiraProdutoDaLista() {
+        LocalDateTime agora = LocalDateTime.now();
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(1L, 2, 10, agora)));
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(1L, 50, 10, agora.plusSeconds(1))));
+
+        assertTrue(estoqueBaixoService.listar(10).isEmpty());
+        assertEquals(0, estoqueBaixoService.total());
+    }
+
+    @Test
+    void onEstoqueAlterado_EventoForaDeOrdem_EhDescartado() {
+        LocalDateTime agora = LocalDateTime.now();
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(1L, 50, 10, agora)));
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(1L, 2, 10, agora.minusSeconds(1))));
+
+        assertTrue(estoqueBaixoService.listar(10).isEmpty());
+    }
+
+    @Test
+    void onEstoqueAlterado_Recalcular_SubstituiListaPeloBanco() {
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(1L, 2, 10, LocalDateTime.now())));
+        when(productRepository.findAbaixoDoEstoqueMinimo())
+                .thenReturn(List.of(new EstoqueBaixoDTO(7L, "Produto 7", "P-7", 0, 3)));
+
+        estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.recalcular());
+
+        assertEquals(List.of(7L), estoqueBaixoService.listar(10).stream().map(EstoqueBaixoDTO::id).toList());
+    }
+
+    @Test
+    void registrar_AlemDoLimiteDeInscritos_LancaServiceUnavailable() {
+        ReflectionTestUtils.setField(estoqueBaixoService, "maxInscritos", 2);
+        estoqueBaixoService.registrar(new SseEmitter());
+        estoqueBaixoService.registrar(new SseEmitter());
+
+        assertThrows(ServiceUnavailableException.class, () -> estoqueBaixoService.registrar(new SseEmitter()));
+    }
+
+    @Test
+    @Timeout(10)
+    void onEstoqueAlterado_InscritoLento_NaoSeguraAThreadQueAlterouOEstoque() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch recebido = new CountDownLatch(1);
+        estoqueBaixoService.registrar(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                recebido.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        try {
+            // Retorna com o envio ainda preso no inscrito
+            estoqueBaixoService.onEstoqueAlterado(EstoqueAlteradoEvent.alterado(produto(1L, 2, 10, LocalDateTime.now())));
+
+            assertEquals(List.of(1L), estoqueBaixoService.listar(10).stream().map(EstoqueBaixoDTO::id).toList());
+            assertTrue(recebido.await(5, TimeUnit.SECONDS));
+        } finally {
+            liberar.countDown();
+            estoqueBaixoService.encerrar();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.minibiz.service.search;
+
+import br.com.minibiz.dto.ClientSearchResultDTO;
+import br.com.minibiz.model.client.Client;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClientSearchIndexTest {
+
+    private ClientSearchIndex index;
+
+    private static Client cliente(long id, String nome, String email, String telefone) {
+        Client client = new Client();
+        client.setId(id);
+        client.setNome(nome);
+        client.setEmail(email);
+        client.setTelefone(telefone);
+        return client;
+    }
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientSearchIndex();
+        index.indexar(cliente(1L, "João da Silva", "joao.silva@gmail.com", "(11) 98765-4321"));
+        index.indexar(cliente(2L, "Maria Souza", "maria@empresa.com.br", "+55 21 3333-1234"));
+    }
+
+    private List<Long> ids(String consulta) {
+        return index.buscar(consulta, 10).stream().map(ClientSearchResultDTO::id).toList();
+    }
+
+    @Test
+    void buscar_TelefoneEmQualquerFormato_EncontraPelosDigitos() {
+        assertEquals(List.of(1L), ids("98765-4321"));
+        assertEquals(List.of(1L), ids("(11) 9876"));
+        assertEquals(List.of(2L), ids("3333 1234"));
+    }
+
+    @Test
+    void buscar_PorNomeSemAcentoEPorEmail() {
+        assertEquals(List.of(1L), ids("joao"));
+        assertEquals(List.of(2L), ids("maria@empresa"));
+    }
+
+    @Test
+    void remover_ClienteSaiDaBusca() {
+        index.remover(1L);
+
+        assertTrue(ids("joao").isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.minibiz.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NGramIndexTest {
+
+    private NGramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NGramIndex<>();
+        index.put(1L, "notebook", "Notebook Dell Inspiron", "DELL-001", "Informática");
+        index.put(2L, "mouse", "Mouse sem fio Logitech", "LOG-001", "Periféricos");
+        index.put(3L, "cafe", "Café Torrado Especial", "CAF-500", "Bebidas");
+        index.put(4L, "cafeteira", "Cafeteira Elétrica", "CAF-900", "Eletrodomésticos");
+    }
+
+    @Test
+    void search_TermoParcial_EncontraPorSubstring() {
+        assertEquals(List.of("notebook"), index.search("spir", 10));
+    }
+
+    @Test
+    void search_ComAcentosOuSem_EncontraOMesmoProduto() {
+        assertEquals(List.of("cafe", "cafeteira"), index.search("cafe", 10));
+        assertEquals(List.of("cafe", "cafeteira"), index.search("CAFÉ", 10));
+        assertEquals(List.of("cafeteira"), index.search("eletrica", 10));
+    }
+
+    @Test
+    void search_PorCodigoECategoria() {
+        assertEquals(List.of("mouse"), index.search("log-001", 10));
+        assertEquals(List.of("notebook"), index.search("informatica", 10));
+    }
+
+    @Test
+    void search_ConsultaCurta_UsaPrefixoDasPalavras() {
+        assertEquals(List.of("mouse"), index.search("mo", 10));
+        assertTrue(index.search("x", 10).isEmpty());
+    }
+
+    @Test
+    void search_VariosTermos_ExigeTodos() {
+        assertEquals(List.of("cafe"), index.search("caf torrado", 10));
+        assertTrue(index.search("cafe logitech", 10).isEmpty());
+    }
+
+    @Test
+    void search_TrigramasPresentesMasTermoAusente_NaoRetorna() {
+        // "dell" e "ellx" compartilham trigramas, mas o termo completo não existe
+        assertTrue(index.search("dellx", 10).isEmpty());
+    }
+
+    @Test
+    void search_RespeitaLimite() {
+        assertEquals(1, index.search("caf", 1).size());
+    }
+
+    @Test
+    void put_Reindexacao_SubstituiTextoAnterior() {
+        index.put(2L, "mouse", "Mouse Gamer Razer", "RAZ-001", "Periféricos");
+
+        assertTrue(index.search("logitech", 10).isEmpty());
+        assertEquals(List.of("mouse"), index.search("razer", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_DocumentoSaiDoIndice() {
+        index.remove(1L);
+
+        assertTrue(index.search("dell", 10).isEmpty());
+        assertNull(index.get(1L));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void estimarBytes_CresceComDocumentosEZeraAoLimpar() {
+        long comQuatro = index.estimarBytes();
+        index.put(5L, "teclado", "Teclado Mecânico Redragon", "RED-010", "Periféricos");
+
+        assertTrue(comQuatro > 0);
+        assertTrue(index.estimarBytes() > comQuatro);
+
+        index.clear();
+        assertEquals(0, index.estimarBytes());
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.minibiz.infra.threads;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DiagnosticoPinningTest {
+
+    private final Object monitor = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+    private DiagnosticoPinning diagnostico;
+
+    @BeforeEach
+    void setUp() {
+        diagnostico = new DiagnosticoPinning(5);
+        diagnostico.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        diagnostico.encerrar();
+    }
+
+    @Test
+    void resumo_BloqueioDentroDeSynchronized_RegistraOrigemNoCodigo() throws Exception {
+        // Arrange: o ReentrantLock não prende a portadora; roda antes para sair no mesmo lote de eventos
+        Thread.ofVirtual().start(this::esperarComLock).join();
+
+        // Act
+        Thread.ofVirtual().start(this::esperarComSynchronized).join();
+
+        // Assert
+        Map<String, DiagnosticoPinning.Resumo> resumo = aguardarOrigem("esperarComSynchronized");
+        assertTrue(resumo.keySet().stream().noneMatch(origem -> origem.contains("esperarComLock")), resumo.toString());
+        DiagnosticoPinning.Resumo ocorrencias = resumo.entrySet().stream()
+                .filter(entrada -> entrada.getKey().startsWith("DiagnosticoPinningTest.esperarComSynchronized"))
+                .findFirst().orElseThrow().getValue();
+        assertEquals(1, ocorrencias.ocorrencias());
+        assertTrue(ocorrencias.tempoPreso().toMillis() >= 40);
+    }
+
+    // Primeiro quadro da aplicação a partir do topo da pilha: o sleep fica no próprio método
+    private void esperarComSynchronized() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void esperarComLock() {
+        lock.lock();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // O RecordingStream entrega os eventos em lotes, cerca de uma vez por segundo
+    private Map<String, DiagnosticoPinning.Resumo> aguardarOrigem(String metodo) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < limite) {
+            Map<String, DiagnosticoPinning.Resumo> resumo = diagnostico.resumo();
+            if (resumo.keySet().stream().anyMatch(origem -> origem.contains(metodo))) {
+                return resumo;
+            }
+            Thread.sleep(100);
+        }
+        fail("Nenhum pinning registrado em " + metodo + ": " + diagnostico.resumo());
+        return Map.of();
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.minibiz.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara dois resultados JSON do JMH ({@code -rf json}) benchmark a benchmark, incluindo os parâmetros,
+ * e aponta as regressões: diferença acima do limiar (5% por padrão) e fora das margens de erro das duas
+ * execuções. Nos modos de tempo menor é melhor; em Throughput, maior. Sai com código 1 se houver regressão,
+ * para poder barrar um build.
+ *
+ * Execução: java -cp target/benchmarks.jar br.com.minibiz.benchmarks.CompararResultados base.json novo.json [limiar%]
+ */
+public final class CompararResultados {
+
+    private CompararResultados() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: CompararResultados <base.json> <novo.json> [limiar%]");
+            System.exit(2);
+        }
+        double limiar = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.05;
+        Map<String, Resultado> base = ler(new File(args[0]));
+        Map<String, Resultado> novo = ler(new File(args[1]));
+
+        List<String> regressoes = new ArrayList<>();
+        System.out.printf(Locale.ROOT, "%-70s %24s %24s %9s%n", "Benchmark", "Base", "Novo", "Diferença");
+        for (Map.Entry<String, Resultado> entrada : novo.entrySet()) {
+            Resultado antes = base.get(entrada.getKey());
+            Resultado depois = entrada.getValue();
+            if (antes == null) {
+                System.out.printf(Locale.ROOT, "%-70s %24s %24s %9s%n", entrada.getKey(), "-", depois, "novo");
+                continue;
+            }
+            double variacao = (depois.score - antes.score) / antes.score;
+            boolean significativa = Math.abs(variacao) > limiar
+                    && Math.abs(depois.score - antes.score) > antes.erro + depois.erro;
+            boolean piorou = depois.menorMelhor() ? variacao > 0 : variacao < 0;
+            String marca = !significativa ? "" : piorou ? "  REGRESSÃO" : "  melhora";
+            System.out.printf(Locale.ROOT, "%-70s %24s %24s %+8.1f%%%s%n", entrada.getKey(), antes, depois,
+                    variacao * 100, marca);
+            if (significativa && piorou) {
+                regressoes.add(entrada.getKey());
+            }
+        }
+        base.keySet().stream().filter(chave -> !novo.containsKey(chave))
+                .forEach(chave -> System.out.printf(Locale.ROOT, "%-70s %24s %24s %9s%n", chave, base.get(chave), "-",
+                        "removido"));
+
+        if (!regressoes.isEmpty()) {
+            System.out.println();
+            System.out.println(regressoes.size() + " regressão(ões) acima de " + Math.round(limiar * 100) + "%: "
+                    + String.join(", ", regressoes));
+            System.exit(1);
+        }
+    }
+
+    // Chave: nome curto do benchmark, parâmetros e modo, ex. "VendaServiceBenchmark.calcularTotal [itens=1000] avgt"
+    private static Map<String, Resultado> ler(File arquivo) throws IOException {
+        Map<String, Resultado> resultados = new LinkedHashMap<>();
+        for (JsonNode execucao : new ObjectMapper().readTree(arquivo)) {
+            String nome = execucao.path("benchmark").asText().replace("br.com.minibiz.benchmarks.", "");
+            StringBuilder chave = new StringBuilder(nome);
+            JsonNode params = execucao.path("params");
+            if (params.size() > 0) {
+                List<String> valores = new ArrayList<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> param = it.next();
+                    valores.add(param.getKey() + "=" + param.getValue().asText());
+                }
+                chave.append(" [").append(String.join(", ", valores)).append(']');
+            }
+            String modo = execucao.path("mode").asText();
+            chave.append(' ').append(modo);
+            JsonNode metrica = execucao.path("primaryMetric");
+            double erro = metrica.path("scoreError").asDouble();
+            resultados.put(chave.toString(), new Resultado(metrica.path("score").asDouble(),
+                    Double.isNaN(erro) ? 0 : erro, metrica.path("scoreUnit").asText(), modo));
+        }
+        return resultados;
+    }
+
+    private record Resultado(double score, double erro, String unidade, String modo) {
+
+        boolean menorMelhor() {
+            return !modo.equals("thrpt");
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%.3f ± %.3f %s", score, erro, unidade);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.minibiz.benchmarks;
+
+import br.com.minibiz.dto.DetalheVendaDTO;
+import br.com.minibiz.dto.ItemVendaDTO;
+import br.com.minibiz.dto.ProductDTO;
+import br.com.minibiz.dto.VendaResponse;
+import br.com.minibiz.model.client.Client;
+import br.com.minibiz.model.product.Product;
+import br.com.minibiz.model.venda.ItemVenda;
+import br.com.minibiz.model.venda.StatusVenda;
+import br.com.minibiz.model.venda.Venda;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Vendas, produtos e DTOs montados em memória para os benchmarks, sem banco. A semente é fixa para que
+ * duas execuções (antes e depois de uma mudança) meçam exatamente os mesmos dados.
+ */
+final class DadosFicticios {
+
+    private static final long SEMENTE = 20240501L;
+    private static final LocalDateTime INICIO = LocalDateTime.of(2024, 5, 1, 8, 0);
+    private static final int PRODUTOS_NO_CATALOGO = 500;
+
+    private DadosFicticios() {
+    }
+
+    static Venda venda(long id, int itens) {
+        SplittableRandom random = new SplittableRandom(SEMENTE + id);
+        Client client = new Client();
+        client.setId(1 + id % 50);
+        client.setNome("Cliente " + client.getId());
+
+        Venda venda = new Venda();
+        venda.setId(id);
+        venda.setClient(client);
+        venda.setVendaDate(INICIO.plusMinutes(id * 17));
+        venda.setStatus(StatusVenda.CONCLUIDA);
+        List<ItemVenda> items = new ArrayList<>(itens);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < itens; i++) {
+            Product product = produto(1 + random.nextInt(PRODUTOS_NO_CATALOGO));
+            ItemVenda item = new ItemVenda();
+            item.setId(id * 100_000 + i);
+            item.setVenda(venda);
+            item.setProduct(product);
+            item.setQuantidade(1 + random.nextInt(12));
+            total = total.add(product.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())));
+            items.add(item);
+        }
+        venda.setItems(items);
+        venda.setValorTotal(total);
+        return venda;
+    }
+
+    // Preço entre R$ 0,99 e R$ 999,99, fixo por id como seria no catálogo
+    static Product produto(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setNome("Produto " + id);
+        product.setCodigoProduto("PRD-" + id);
+        product.setCategoria("Categoria " + id % 12);
+        product.setPreco(BigDecimal.valueOf(99 + new SplittableRandom(SEMENTE * id).nextInt(99_901), 2));
+        product.setQuantidadeEmEstoque(1000);
+        return product;
+    }
+
+    static VendaResponse vendaResponse(long id, int itens) {
+        Venda venda = venda(id, itens);
+        List<ProductDTO> products = new ArrayList<>(itens);
+        for (ItemVenda item : venda.getItems()) {
+            ProductDTO dto = new ProductDTO();
+            dto.setId(item.getProduct().getId());
+            dto.setNome(item.getProduct().getNome());
+            dto.setPreco(item.getProduct().getPreco());
+            dto.setQuantidade(item.getQuantidade());
+            products.add(dto);
+        }
+        VendaResponse response = new VendaResponse();
+        response.setId(venda.getId());
+        response.setClientId(venda.getClient().getId());
+        response.setProducts(products);
+        response.setValorTotal(venda.getValorTotal());
+        response.setVendaDate(venda.getVendaDate());
+        response.setStatus(venda.getStatus());
+        return response;
+    }
+
+    // Linhas do relatório de vendas (POST /api/vendas/relatorio)
+    static List<DetalheVendaDTO> detalhes(int vendas, int itensPorVenda) {
+        List<DetalheVendaDTO> detalhes = new ArrayList<>(vendas);
+        for (long id = 1; id <= vendas; id++) {
+            Venda venda = venda(id, itensPorVenda);
+            DetalheVendaDTO dto = new DetalheVendaDTO();
+            dto.setVendaDate(venda.getVendaDate());
+            dto.setClientName(venda.getClient().getNome());
+            dto.setStatus(venda.getStatus().toString());
+            dto.setValorTotal(venda.getValorTotal());
+            List<ItemVendaDTO> itens = new ArrayList<>(itensPorVenda);
+            for (ItemVenda item : venda.getItems()) {
+                ItemVendaDTO itemDTO = new ItemVendaDTO();
+                itemDTO.setProductName(item.getProduct().getNome());
+                itemDTO.setQuantity(item.getQuantidade());
+                itens.add(itemDTO);
+            }
+            dto.setItems(itens);
+            detalhes.add(dto);
+        }
+        return detalhes;
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.minibiz.benchmarks;
+
+import br.com.minibiz.dto.DetalheVendaDTO;
+import br.com.minibiz.dto.VendaResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das respostas mais pesadas: a página de {@code GET /api/vendas} e a lista do relatório
+ * de vendas. O ObjectMapper segue a configuração do Spring Boot na aplicação (módulos registrados e datas
+ * em ISO-8601, não em timestamp).
+ *
+ * Execução: java -jar target/benchmarks.jar JsonBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+
+    // Tamanho de página padrão do Spring Data e tamanho máximo usado pelo frontend
+    @Param({"20", "100"})
+    public int tamanhoPagina;
+
+    // Linhas do relatório de vendas de um período
+    @Param({"1000"})
+    public int linhasRelatorio;
+
+    private ObjectMapper objectMapper;
+    private Page<VendaResponse> pagina;
+    private List<DetalheVendaDTO> relatorio;
+
+    @Setup
+    public void setup() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        List<VendaResponse> vendas = new ArrayList<>(tamanhoPagina);
+        for (long id = 1; id <= tamanhoPagina; id++) {
+            vendas.add(DadosFicticios.vendaResponse(id, 8));
+        }
+        pagina = new PageImpl<>(vendas, PageRequest.of(0, tamanhoPagina), 25_000);
+        relatorio = DadosFicticios.detalhes(linhasRelatorio, 8);
+    }
+
+    @Benchmark
+    public byte[] paginaVendas() throws Exception {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    @Benchmark
+    public byte[] relatorioVendas() throws Exception {
+        return objectMapper.writeValueAsBytes(relatorio);
+    }
+}
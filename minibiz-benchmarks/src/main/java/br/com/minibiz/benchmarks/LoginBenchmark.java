@@ -0,0 +1,131 @@
+package br.com.minibiz.benchmarks;
+
+import br.com.minibiz.config.exception.ServiceUnavailableException;
+import br.com.minibiz.dto.ProductDTO;
+import br.com.minibiz.dto.VendaResponse;
+import br.com.minibiz.infra.security.PasswordEncoderIsolado;
+import br.com.minibiz.model.venda.StatusVenda;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BCrypt nas threads da requisição ("direto", como antes) versus no pool limitado ("isolado").
+ *
+ * - {@code login}: vazão de logins; rode com mais threads que núcleos (ex.: {@code -t 32}).
+ * - grupo {@code tempestade}: 32 threads fazendo login enquanto uma thread atende "vendas", representadas
+ *   pela montagem e serialização JSON de uma VendaResponse com 20 itens (o trabalho de CPU da resposta de
+ *   uma venda, sem o banco). O que importa é a latência de {@code tempestade:venda} (p50/p99/p99.9).
+ *   No modo isolado, logins recusados com 503 contam como operações concluídas, como seriam para o Tomcat.
+ *
+ * Execução: java -jar target/benchmarks.jar LoginBenchmark
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final int CUSTO = 10;
+    private static final String SENHA = "senha-do-caixa-123";
+
+    @Param({"direto", "isolado"})
+    public String modo;
+
+    private PasswordEncoder encoder;
+    private String hash;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        encoder = modo.equals("isolado")
+                ? new PasswordEncoderIsolado(CUSTO, Runtime.getRuntime().availableProcessors(), 64, 2000)
+                : new BCryptPasswordEncoder(CUSTO);
+        hash = new BCryptPasswordEncoder(CUSTO).encode(SENHA);
+        objectMapper = JsonMapper.builder().findAndAddModules().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (encoder instanceof PasswordEncoderIsolado isolado) {
+            isolado.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean login() {
+        return verificar();
+    }
+
+    @Benchmark
+    @Group("tempestade")
+    @GroupThreads(32)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean loginNaTempestade() {
+        return verificar();
+    }
+
+    @Benchmark
+    @Group("tempestade")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] venda() throws Exception {
+        return objectMapper.writeValueAsBytes(montarVenda());
+    }
+
+    private boolean verificar() {
+        try {
+            return encoder.matches(SENHA, hash);
+        } catch (ServiceUnavailableException e) {
+            return false;
+        }
+    }
+
+    private static VendaResponse montarVenda() {
+        List<ProductDTO> itens = new ArrayList<>(20);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 1; i <= 20; i++) {
+            ProductDTO item = new ProductDTO();
+            item.setId((long) i);
+            item.setNome("Produto " + i);
+            item.setPreco(BigDecimal.valueOf(199 + i, 2));
+            item.setQuantidade(i % 3 + 1);
+            total = total.add(item.getPreco().multiply(BigDecimal.valueOf(item.getQuantidade())));
+            itens.add(item);
+        }
+        VendaResponse venda = new VendaResponse();
+        venda.setId(1L);
+        venda.setClientId(7L);
+        venda.setProducts(itens);
+        venda.setValorTotal(total);
+        venda.setVendaDate(LocalDateTime.now());
+        venda.setStatus(StatusVenda.CONCLUIDA);
+        return venda;
+    }
+}
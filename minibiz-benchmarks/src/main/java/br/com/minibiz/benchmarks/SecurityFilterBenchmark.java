@@ -0,0 +1,146 @@
+package br.com.minibiz.benchmarks;
+
+import br.com.minibiz.infra.security.RevogacaoTokenService;
+import br.com.minibiz.infra.security.SecurityFilter;
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.model.user.User;
+import br.com.minibiz.repository.UserRepository;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do SecurityFilter por requisição autenticada.
+ *
+ * "anterior" reproduz o filtro antigo: Algorithm e JWTVerifier criados a cada chamada e o usuário
+ * buscado pelo email. O repositório aqui responde da memória, então o resultado é um limite inferior:
+ * em produção esse caminho ainda paga a ida ao banco (ou ao cache de segundo nível).
+ * "atual" é o SecurityFilter da aplicação, com verificador único, o principal montado das claims
+ * e a checagem de revogação (filtro de Bloom vazio, como na maioria das requisições).
+ *
+ * Execução: java -jar target/benchmarks.jar SecurityFilterBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SecurityFilterBenchmark {
+
+    private static final String SEGREDO = "segredo-do-benchmark";
+
+    private OncePerRequestFilter filtroAnterior;
+    private OncePerRequestFilter filtroAtual;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        User user = new User();
+        user.setId("6f1c2a9e-8b3d-4c5e-a7f0-1d2e3f4a5b6c");
+        user.setName("Caixa");
+        user.setEmail("caixa@minibiz.com");
+        user.setRole("USER");
+        UserRepository repository = repositorioEmMemoria(user);
+        TokenService tokenService = new TokenService(SEGREDO);
+
+        filtroAnterior = new FiltroAnterior(repository);
+        // Sem revogações: o caso comum, em que a checagem custa só os hashes do filtro de Bloom
+        filtroAtual = new SecurityFilter(tokenService, repository, new RevogacaoTokenService());
+        authorization = "Bearer " + tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public void anterior(Blackhole blackhole) throws Exception {
+        filtrar(filtroAnterior, blackhole);
+    }
+
+    @Benchmark
+    public void atual(Blackhole blackhole) throws Exception {
+        filtrar(filtroAtual, blackhole);
+    }
+
+    // Uma requisição nova por chamada, já que o OncePerRequestFilter marca a requisição como filtrada
+    private void filtrar(OncePerRequestFilter filtro, Blackhole blackhole) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/clients");
+        request.addHeader("Authorization", authorization);
+        filtro.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        blackhole.consume(SecurityContextHolder.getContext().getAuthentication());
+        SecurityContextHolder.clearContext();
+    }
+
+    private static UserRepository repositorioEmMemoria(User user) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class}, (proxy, method, args) -> {
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.getName().equals("equals") ? proxy == args[0]
+                                : method.getName().equals("hashCode") ? System.identityHashCode(proxy) : "UserRepository em memória";
+                    }
+                    if (method.getName().equals("findByEmail")) {
+                        return user.getEmail().equals(args[0]) ? Optional.of(user) : Optional.empty();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    // Cópia do SecurityFilter e do TokenService.validateToken anteriores às claims uid/role
+    private static final class FiltroAnterior extends OncePerRequestFilter {
+
+        private final UserRepository userRepository;
+
+        FiltroAnterior(UserRepository userRepository) {
+            this.userRepository = userRepository;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            String header = request.getHeader("Authorization");
+            String login = validateToken(header == null ? null : header.replace("Bearer ", ""));
+            if (login != null) {
+                User user = userRepository.findByEmail(login).orElseThrow(() -> new RuntimeException("User Not Found"));
+                var authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
+                SecurityContextHolder.getContext()
+                        .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, authorities));
+            }
+            filterChain.doFilter(request, response);
+        }
+
+        private static String validateToken(String token) {
+            try {
+                Algorithm algorithm = Algorithm.HMAC256(SEGREDO);
+                return JWT.require(algorithm).withIssuer("minibiz-api").build().verify(token).getSubject();
+            } catch (JWTVerificationException exception) {
+                return null;
+            }
+        }
+    }
+}
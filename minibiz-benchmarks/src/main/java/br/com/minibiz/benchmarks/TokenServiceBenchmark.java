@@ -0,0 +1,63 @@
+package br.com.minibiz.benchmarks;
+
+import br.com.minibiz.infra.security.TokenService;
+import br.com.minibiz.infra.security.UsuarioAutenticado;
+import br.com.minibiz.model.user.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e validação de JWT pelo TokenService: {@code generateToken} roda a cada login e renovação,
+ * {@code validateToken}/{@code autenticar} em toda requisição autenticada. O custo do filtro inteiro,
+ * com a requisição e o contexto de segurança, fica no SecurityFilterBenchmark.
+ *
+ * Execução: java -jar target/benchmarks.jar TokenServiceBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private TokenService tokenService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        tokenService = new TokenService("segredo-do-benchmark");
+        user = new User();
+        user.setId("6f1c2a9e-8b3d-4c5e-a7f0-1d2e3f4a5b6c");
+        user.setName("Caixa");
+        user.setEmail("caixa@minibiz.com");
+        user.setRole("USER");
+        token = tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateToken() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public UsuarioAutenticado autenticar() {
+        return tokenService.autenticar(token);
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.minibiz.benchmarks;
+
+import br.com.minibiz.dto.VendaResponse;
+import br.com.minibiz.model.venda.Venda;
+import br.com.minibiz.service.VendaMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabalho de CPU do VendaService sem o banco: o total de carrinhos grandes ({@code calcularTotal}) e o
+ * mapeamento da entidade para a resposta da API ({@code convertToVendaResponse}, usado em toda listagem),
+ * ambos em {@link VendaMapper}.
+ *
+ * Execução: java -jar target/benchmarks.jar VendaServiceBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VendaServiceBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int itens;
+
+    private Venda venda;
+
+    @Setup
+    public void setup() {
+        venda = DadosFicticios.venda(1, itens);
+    }
+
+    @Benchmark
+    public BigDecimal calcularTotal() {
+        return VendaMapper.calcularTotal(venda.getItems());
+    }
+
+    @Benchmark
+    public VendaResponse convertToVendaResponse() {
+        return VendaMapper.convertToVendaResponse(venda);
+    }
+}
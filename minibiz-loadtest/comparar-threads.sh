@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Compara threads de plataforma e threads virtuais no mesmo build Java 21 do backend, subindo a taxa até saturar.
+# Para cada configuração: sobe o backend no perfil loadtest, roda o gerador em cada taxa e grava o JSON em
+# resultados/threads/; no fim, CompararExecucoes mostra a tabela e a capacidade de cada uma.
+#
+# Uso: ./comparar-threads.sh
+#   TAXAS="100 200 400 800 1600"   taxas testadas (req/s), em ordem crescente
+#   DURACAO=60s AQUECIMENTO=15s    por taxa
+#   SLO_MS=500                     objetivo de p99 para a capacidade
+#   BACKEND_ARGS="..."             propriedades extras do backend, ex.: a URL de um PostgreSQL
+#
+# Precisa de Java 21 no PATH e da porta 8080 livre. O gerador roda na mesma máquina do backend e disputa a CPU
+# com ele; para números publicáveis, rode-o de outra máquina com --url.
+set -euo pipefail
+
+cd "$(dirname "$0")"
+TAXAS=${TAXAS:-"100 200 400 800 1600"}
+DURACAO=${DURACAO:-60s}
+AQUECIMENTO=${AQUECIMENTO:-15s}
+SLO_MS=${SLO_MS:-500}
+BACKEND_ARGS=${BACKEND_ARGS:-}
+SAIDA=resultados/threads
+URL=http://localhost:8080
+
+mvn -q -f ../backend-minibiz -Pjava21,loadtest package -DskipTests
+mvn -q package
+BACKEND_JAR=$(ls ../backend-minibiz/target/minibiz-*-exec.jar)
+rm -rf "$SAIDA" && mkdir -p "$SAIDA"
+
+for modo in plataforma virtual; do
+    virtuais=false
+    jvm_args=()
+    if [ "$modo" = virtual ]; then
+        virtuais=true
+        # Gravação JFR com os eventos de pinning, além do diagnóstico da própria aplicação no log
+        jvm_args=("-XX:StartFlightRecording=filename=$SAIDA/virtual.jfr,settings=profile")
+    fi
+    echo "== $modo: subindo o backend"
+    # shellcheck disable=SC2086
+    java ${jvm_args[@]+"${jvm_args[@]}"} -jar "$BACKEND_JAR" --spring.profiles.active=loadtest \
+        --minibiz.threads.virtuais=$virtuais $BACKEND_ARGS > "$SAIDA/backend-$modo.log" 2>&1 &
+    backend=$!
+    trap 'kill $backend 2>/dev/null || true' EXIT
+    for _ in $(seq 1 120); do
+        curl -sf "$URL/actuator/health" > /dev/null && break
+        sleep 1
+    done
+    curl -sf "$URL/actuator/health" > /dev/null || { echo "Backend não subiu; veja $SAIDA/backend-$modo.log"; exit 1; }
+
+    for taxa in $TAXAS; do
+        echo "== $modo: $taxa req/s"
+        java -jar target/loadtest.jar --url=$URL --taxa="$taxa" --duracao="$DURACAO" --aquecimento="$AQUECIMENTO" \
+            --rotulo=$modo --saida="$SAIDA/$modo-$taxa.json"
+    done
+
+    kill "$backend"
+    wait "$backend" || true
+    trap - EXIT
+done
+
+echo
+java -cp target/loadtest.jar br.com.minibiz.loadtest.CompararExecucoes --slo-ms="$SLO_MS" "$SAIDA"/*.json
+
+echo
+echo "Pinning (threads virtuais):"
+grep -A3 "presa à portadora\|Pinning de threads virtuais por origem" "$SAIDA/backend-virtual.log" || echo "  nenhum acima do limiar"
+if command -v jfr > /dev/null; then
+    echo "Eventos jdk.VirtualThreadPinned na gravação JFR: $(jfr print --events jdk.VirtualThreadPinned "$SAIDA/virtual.jfr" | grep -c 'jdk.VirtualThreadPinned' || true)"
+fi
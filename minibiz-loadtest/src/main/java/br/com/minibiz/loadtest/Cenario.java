@@ -0,0 +1,32 @@
+package br.com.minibiz.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Operações que o gerador de carga sorteia, com o peso padrão de cada uma no mix (em partes, não em %).
+ * O mix padrão imita um dia de loja: mais consulta do que escrita, poucos relatórios e nenhum login
+ * além do inicial, já que o BCrypt dominaria a medição.
+ */
+enum Cenario {
+
+    CATALOGO(40),     // GET /api/products?page=&size=20
+    BUSCA(25),        // GET /api/products/search?q=
+    CHECKOUT(20),     // POST /api/vendas
+    CANCELAMENTO(5),  // PUT /api/vendas/cancelar/{id} de uma venda criada pelo próprio teste
+    RELATORIO(10),    // POST /api/vendas/relatorio da última hora
+    LOGIN(0);         // POST /auth/login
+
+    final int pesoPadrao;
+
+    Cenario(int pesoPadrao) {
+        this.pesoPadrao = pesoPadrao;
+    }
+
+    String nome() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    static Cenario porNome(String nome) {
+        return valueOf(nome.trim().toUpperCase(Locale.ROOT));
+    }
+}
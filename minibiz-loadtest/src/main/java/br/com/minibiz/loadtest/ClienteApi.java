@@ -0,0 +1,224 @@
+package br.com.minibiz.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Chamadas HTTP ao backend. O token de acesso vale 15 minutos: é renovado por POST /auth/refresh quando
+ * passa de 10, por uma única thread enquanto as outras seguem com o token atual. A renovação usa
+ * ReentrantLock e não synchronized, que prenderia a thread virtual à thread portadora durante o I/O.
+ */
+final class ClienteApi {
+
+    private static final Duration RENOVAR_APOS = Duration.ofMinutes(10);
+    private static final int LIMITE_VENDAS_ABERTAS = 10_000;
+
+    // Palavras presentes nos nomes dos produtos gerados pelo perfil loadtest (DadosTesteCarga)
+    private static final String[] TERMOS_BUSCA = {"café", "arroz", "feijao", "açúcar", "leite", "biscoito",
+            "sabonete", "detergente", "macarrão", "azeite", "chocolate", "suco", "serrano", "vale verde", "primor",
+            "aurora", "cafe bom dia", "molho da casa"};
+
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Configuracao configuracao;
+    private final ReentrantLock renovacao = new ReentrantLock();
+    private final Queue<Long> vendasAbertas = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger quantidadeVendasAbertas = new AtomicInteger();
+
+    private volatile String token;
+    private volatile String refreshToken;
+    private volatile long emitidoEmNs;
+
+    private List<Long> produtos = List.of();
+    private List<Long> clientes = List.of();
+    private long totalProdutos;
+
+    ClienteApi(Configuracao configuracao, ExecutorService executor) {
+        this.configuracao = configuracao;
+        this.http = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(configuracao.timeout())
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+    }
+
+    /** Login inicial e ids de produtos e clientes para montar as vendas. */
+    void preparar() throws IOException, InterruptedException {
+        HttpResponse<byte[]> resposta = login();
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("Login de " + configuracao.email() + " falhou com status "
+                    + resposta.statusCode() + "; o backend está no perfil loadtest?");
+        }
+        guardarTokens(objectMapper.readTree(resposta.body()));
+        JsonNode paginaProdutos = getJson("/api/products?size=1000");
+        produtos = ids(paginaProdutos);
+        totalProdutos = paginaProdutos.path("totalElements").asLong(produtos.size());
+        clientes = ids(getJson("/api/clients?size=1000"));
+        if (produtos.isEmpty() || clientes.isEmpty()) {
+            throw new IllegalStateException("O backend não tem produtos ou clientes cadastrados");
+        }
+    }
+
+    int produtosDescobertos() {
+        return produtos.size();
+    }
+
+    int clientesDescobertos() {
+        return clientes.size();
+    }
+
+    /**
+     * Executa o cenário e devolve o status HTTP, ou -1 quando não havia o que fazer
+     * (cancelamento sem venda aberta).
+     */
+    int executar(Cenario cenario) throws IOException, InterruptedException {
+        renovarSeNecessario();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (cenario) {
+            case CATALOGO -> {
+                long paginas = Math.max(1, (totalProdutos + 19) / 20);
+                yield enviar(get("/api/products?size=20&page=" + random.nextLong(paginas))).statusCode();
+            }
+            case BUSCA -> {
+                String termo = TERMOS_BUSCA[random.nextInt(TERMOS_BUSCA.length)];
+                yield enviar(get("/api/products/search?q=" + URLEncoder.encode(termo, StandardCharsets.UTF_8)))
+                        .statusCode();
+            }
+            case CHECKOUT -> checkout(random);
+            case CANCELAMENTO -> {
+                Long id = vendasAbertas.poll();
+                if (id == null) {
+                    yield -1;
+                }
+                quantidadeVendasAbertas.decrementAndGet();
+                yield enviar(autenticada("/api/vendas/cancelar/" + id)
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build()).statusCode();
+            }
+            case RELATORIO -> {
+                LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+                yield enviar(post("/api/vendas/relatorio",
+                        Map.of("dataInicio", agora.minusHours(1).toString(), "dataFim", agora.toString())))
+                        .statusCode();
+            }
+            case LOGIN -> login().statusCode();
+        };
+    }
+
+    // Carrinho de 1 a 8 itens, a maioria pequena, como no caixa
+    private int checkout(ThreadLocalRandom random) throws IOException, InterruptedException {
+        int itens = Math.min(8, 1 + (int) (-Math.log(1 - random.nextDouble()) * 2));
+        List<Map<String, Object>> produtosDTO = new ArrayList<>(itens);
+        for (int i = 0; i < itens; i++) {
+            produtosDTO.add(Map.of("productId", produtos.get(random.nextInt(produtos.size())),
+                    "quantidade", 1 + random.nextInt(3)));
+        }
+        HttpResponse<byte[]> resposta = enviar(post("/api/vendas",
+                Map.of("clientId", clientes.get(random.nextInt(clientes.size())), "produtosDTO", produtosDTO)));
+        if (resposta.statusCode() == 201 && quantidadeVendasAbertas.get() < LIMITE_VENDAS_ABERTAS) {
+            JsonNode id = objectMapper.readTree(resposta.body()).path("id");
+            if (id.canConvertToLong()) {
+                vendasAbertas.add(id.asLong());
+                quantidadeVendasAbertas.incrementAndGet();
+            }
+        }
+        return resposta.statusCode();
+    }
+
+    private HttpResponse<byte[]> login() throws IOException, InterruptedException {
+        return enviar(HttpRequest.newBuilder(uri("/auth/login"))
+                .timeout(configuracao.timeout())
+                .header("Content-Type", "application/json")
+                .POST(corpo(Map.of("email", configuracao.email(), "password", configuracao.senha())))
+                .build());
+    }
+
+    private void renovarSeNecessario() throws IOException, InterruptedException {
+        if (System.nanoTime() - emitidoEmNs < RENOVAR_APOS.toNanos() || !renovacao.tryLock()) {
+            return;
+        }
+        try {
+            if (System.nanoTime() - emitidoEmNs < RENOVAR_APOS.toNanos()) {
+                return;
+            }
+            HttpResponse<byte[]> resposta = enviar(HttpRequest.newBuilder(uri("/auth/refresh"))
+                    .timeout(configuracao.timeout())
+                    .header("Content-Type", "application/json")
+                    .POST(corpo(Map.of("refreshToken", refreshToken)))
+                    .build());
+            if (resposta.statusCode() != 200) {
+                resposta = login();
+            }
+            if (resposta.statusCode() == 200) {
+                guardarTokens(objectMapper.readTree(resposta.body()));
+            }
+        } finally {
+            renovacao.unlock();
+        }
+    }
+
+    private void guardarTokens(JsonNode resposta) {
+        token = resposta.path("token").asText();
+        refreshToken = resposta.path("refreshToken").asText();
+        emitidoEmNs = System.nanoTime();
+    }
+
+    private JsonNode getJson(String caminho) throws IOException, InterruptedException {
+        HttpResponse<byte[]> resposta = enviar(get(caminho));
+        if (resposta.statusCode() != 200) {
+            throw new IllegalStateException("GET " + caminho + " respondeu " + resposta.statusCode());
+        }
+        return objectMapper.readTree(resposta.body());
+    }
+
+    private static List<Long> ids(JsonNode pagina) {
+        List<Long> ids = new ArrayList<>();
+        pagina.path("content").forEach(item -> ids.add(item.path("id").asLong()));
+        return ids;
+    }
+
+    private HttpRequest get(String caminho) {
+        return autenticada(caminho).GET().build();
+    }
+
+    private HttpRequest post(String caminho, Object corpo) throws IOException {
+        return autenticada(caminho).header("Content-Type", "application/json").POST(corpo(corpo)).build();
+    }
+
+    private HttpRequest.Builder autenticada(String caminho) {
+        return HttpRequest.newBuilder(uri(caminho))
+                .timeout(configuracao.timeout())
+                .header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest.BodyPublisher corpo(Object corpo) throws IOException {
+        return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(corpo));
+    }
+
+    private HttpResponse<byte[]> enviar(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private URI uri(String caminho) {
+        return URI.create(configuracao.url() + caminho);
+    }
+}
@@ -0,0 +1,87 @@
+package br.com.minibiz.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara execuções do gerador de carga gravadas com {@code --saida}, agrupadas pelo {@code --rotulo} (ex.:
+ * "plataforma" e "virtual") e ordenadas pela taxa. Mostra, por taxa, a vazão obtida, os erros e os percentis de
+ * todos os cenários juntos, e a capacidade de cada configuração: a maior taxa testada que ainda cumpre o
+ * objetivo de p99 e de erros. Nada é estimado: só as taxas realmente executadas entram na tabela.
+ *
+ * Execução: java -cp target/loadtest.jar br.com.minibiz.loadtest.CompararExecucoes [--slo-ms=500] [--erros-max=1]
+ *           resultados/threads/*.json
+ */
+public final class CompararExecucoes {
+
+    private CompararExecucoes() {
+    }
+
+    private record Execucao(int taxa, double vazao, double taxaErros, double p50, double p99, double p999) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        double sloMs = 500;
+        double errosMax = 0.01;
+        List<File> arquivos = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--slo-ms=")) {
+                sloMs = Double.parseDouble(arg.substring("--slo-ms=".length()));
+            } else if (arg.startsWith("--erros-max=")) {
+                errosMax = Double.parseDouble(arg.substring("--erros-max=".length())) / 100;
+            } else {
+                arquivos.add(new File(arg));
+            }
+        }
+        if (arquivos.isEmpty()) {
+            System.err.println("Uso: CompararExecucoes [--slo-ms=500] [--erros-max=1] <execucao.json>...");
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, TreeMap<Integer, Execucao>> porRotulo = new TreeMap<>();
+        for (File arquivo : arquivos) {
+            JsonNode json = objectMapper.readTree(arquivo);
+            JsonNode todos = json.path("todos");
+            String rotulo = json.path("rotulo").asText();
+            Execucao execucao = new Execucao(json.path("taxa").asInt(), todos.path("vazao").asDouble(),
+                    todos.path("taxaErros").asDouble(), todos.path("respostaMs").path("p50").asDouble(),
+                    todos.path("respostaMs").path("p99").asDouble(), todos.path("respostaMs").path("p99.9").asDouble());
+            porRotulo.computeIfAbsent(rotulo.isEmpty() ? arquivo.getName() : rotulo, chave -> new TreeMap<>())
+                    .put(execucao.taxa(), execucao);
+        }
+
+        System.out.printf(Locale.ROOT, "%-12s %7s %9s %7s %9s %9s %10s%n", "rótulo", "taxa", "req/s", "erros",
+                "p50 ms", "p99 ms", "p99.9 ms");
+        for (Map.Entry<String, TreeMap<Integer, Execucao>> entrada : porRotulo.entrySet()) {
+            for (Execucao execucao : entrada.getValue().values()) {
+                boolean cumpre = execucao.p99() <= sloMs && execucao.taxaErros() <= errosMax;
+                System.out.printf(Locale.ROOT, "%-12s %7d %9.1f %6.2f%% %9.2f %9.2f %10.2f%s%n", entrada.getKey(),
+                        execucao.taxa(), execucao.vazao(), execucao.taxaErros() * 100, execucao.p50(),
+                        execucao.p99(), execucao.p999(), cumpre ? "" : "  fora do objetivo");
+            }
+        }
+
+        System.out.printf(Locale.ROOT, "%nCapacidade (p99 <= %.0f ms e erros <= %.1f%%):%n", sloMs, errosMax * 100);
+        for (Map.Entry<String, TreeMap<Integer, Execucao>> entrada : porRotulo.entrySet()) {
+            // A partir da primeira taxa fora do objetivo a configuração está saturada, mesmo que uma maior passe
+            Integer capacidade = null;
+            for (Execucao execucao : entrada.getValue().values()) {
+                if (execucao.p99() > sloMs || execucao.taxaErros() > errosMax) {
+                    break;
+                }
+                capacidade = execucao.taxa();
+            }
+            System.out.printf(Locale.ROOT, "  %-12s %s%n", entrada.getKey(),
+                    capacidade == null ? "nenhuma taxa testada cumpre o objetivo" : capacidade + " req/s");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.minibiz.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Opções da linha de comando no formato {@code --chave=valor}. Tudo tem padrão, então
+ * {@code java -jar target/loadtest.jar} já roda contra o perfil loadtest do backend em localhost:8080.
+ */
+record Configuracao(String url, String email, String senha, int taxa, Duration duracao, Duration aquecimento,
+                    Map<Cenario, Integer> mix, int maxEmVoo, Duration timeout, Path saida, String rotulo) {
+
+    static final String USO = """
+            Uso: java -jar target/loadtest.jar [opções]
+              --url=http://localhost:8080     backend sob teste
+              --email=carga@minibiz.com       usuário criado pelo perfil loadtest
+              --senha=carga-minibiz
+              --taxa=200                      requisições por segundo (chegada constante, modelo aberto)
+              --duracao=60s                   tempo medido, depois do aquecimento (s ou m)
+              --aquecimento=15s               tempo rodando sem registrar latências
+              --mix=catalogo=40,busca=25,checkout=20,cancelamento=5,relatorio=10,login=0
+              --max-em-voo=2000               acima disso a requisição é descartada e contada como erro
+              --timeout=5s                    tempo limite de cada requisição
+              --saida=resultados/base.json    grava o resultado em JSON
+              --rotulo=virtual                nome da configuração sob teste, gravado no JSON
+              --ajuda                         mostra esta ajuda
+            """;
+
+    static Configuracao ler(String[] args) {
+        Map<String, String> opcoes = new HashMap<>();
+        for (String arg : args) {
+            int igual = arg.indexOf('=');
+            if (!arg.startsWith("--") || igual < 0) {
+                throw new IllegalArgumentException("Opção inválida: " + arg);
+            }
+            opcoes.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+        Configuracao configuracao = new Configuracao(
+                opcoes.getOrDefault("url", "http://localhost:8080").replaceAll("/+$", ""),
+                opcoes.getOrDefault("email", "carga@minibiz.com"),
+                opcoes.getOrDefault("senha", "carga-minibiz"),
+                Integer.parseInt(opcoes.getOrDefault("taxa", "200")),
+                duracao(opcoes.getOrDefault("duracao", "60s")),
+                duracao(opcoes.getOrDefault("aquecimento", "15s")),
+                mix(opcoes.get("mix")),
+                Integer.parseInt(opcoes.getOrDefault("max-em-voo", "2000")),
+                duracao(opcoes.getOrDefault("timeout", "5s")),
+                opcoes.containsKey("saida") ? Path.of(opcoes.get("saida")) : null,
+                opcoes.getOrDefault("rotulo", ""));
+        if (configuracao.taxa <= 0 || configuracao.maxEmVoo <= 0 || configuracao.duracao.isZero()) {
+            throw new IllegalArgumentException("taxa, duracao e max-em-voo devem ser positivos");
+        }
+        return configuracao;
+    }
+
+    // Cenários omitidos no --mix ficam com peso 0
+    private static Map<Cenario, Integer> mix(String valor) {
+        Map<Cenario, Integer> mix = new EnumMap<>(Cenario.class);
+        if (valor == null) {
+            for (Cenario cenario : Cenario.values()) {
+                mix.put(cenario, cenario.pesoPadrao);
+            }
+            return mix;
+        }
+        for (Cenario cenario : Cenario.values()) {
+            mix.put(cenario, 0);
+        }
+        for (String parte : valor.split(",")) {
+            String[] chaveValor = parte.split("=");
+            if (chaveValor.length != 2) {
+                throw new IllegalArgumentException("Mix inválido: " + parte);
+            }
+            mix.put(Cenario.porNome(chaveValor[0]), Integer.parseInt(chaveValor[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("O mix precisa de ao menos um cenário com peso positivo");
+        }
+        return mix;
+    }
+
+    private static Duration duracao(String valor) {
+        String texto = valor.trim();
+        if (texto.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(texto.substring(0, texto.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(texto.endsWith("s") ? texto.substring(0, texto.length() - 1) : texto));
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.minibiz.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências e resultados por cenário. São dois histogramas por cenário, em microssegundos:
+ * <ul>
+ *   <li>resposta: do instante em que a requisição deveria ter saído, pela taxa configurada, até a resposta.
+ *   Quando o servidor engasga, as requisições atrasadas pagam a espera, como pagaria um usuário real
+ *   (sem isso o teste sofre de "coordinated omission" e esconde as pausas);</li>
+ *   <li>serviço: do envio de fato até a resposta, o que o servidor levou.</li>
+ * </ul>
+ * Erros são as respostas 4xx/5xx, as exceções (timeout, conexão recusada) e as requisições descartadas
+ * por excederem {@code --max-em-voo}.
+ */
+final class Estatisticas {
+
+    // Até 5 minutos com 3 dígitos significativos
+    private static final long MAXIMO_US = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<Cenario, PorCenario> cenarios = new EnumMap<>(Cenario.class);
+    // Todos os cenários juntos: percentis não se somam, então o agregado tem histogramas próprios
+    private final PorCenario todos = new PorCenario();
+
+    Estatisticas() {
+        for (Cenario cenario : Cenario.values()) {
+            cenarios.put(cenario, new PorCenario());
+        }
+    }
+
+    void registrar(Cenario cenario, long previstoNs, long enviadoNs, long fimNs, String resultado, boolean erro) {
+        for (PorCenario estatisticas : new PorCenario[]{cenarios.get(cenario), todos}) {
+            estatisticas.resposta.recordValue(Math.min(MAXIMO_US, Math.max(0, (fimNs - previstoNs) / 1000)));
+            estatisticas.servico.recordValue(Math.min(MAXIMO_US, Math.max(0, (fimNs - enviadoNs) / 1000)));
+            estatisticas.resultados.computeIfAbsent(resultado, chave -> new LongAdder()).increment();
+            if (erro) {
+                estatisticas.erros.increment();
+            }
+        }
+    }
+
+    // Cancelamento sem venda criada ainda: a operação não aconteceu, então não entra nas latências
+    void pular(Cenario cenario) {
+        cenarios.get(cenario).pulados.increment();
+    }
+
+    void descartar(Cenario cenario) {
+        for (PorCenario estatisticas : new PorCenario[]{cenarios.get(cenario), todos}) {
+            estatisticas.resultados.computeIfAbsent("descartada", chave -> new LongAdder()).increment();
+            estatisticas.erros.increment();
+        }
+    }
+
+    void imprimir(double segundos) {
+        System.out.printf(Locale.ROOT, "%n%-13s %9s %8s %7s %9s %9s %9s %9s %9s %11s  %s%n", "cenário", "total",
+                "req/s", "erros", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "máx ms", "p99 serv.", "resultados");
+        cenarios.forEach((cenario, estatisticas) -> imprimir(cenario.nome(), estatisticas, segundos));
+        imprimir("todos", todos, segundos);
+    }
+
+    private static void imprimir(String nome, PorCenario estatisticas, double segundos) {
+        long total = estatisticas.total();
+        if (total == 0 && estatisticas.pulados.sum() == 0) {
+            return;
+        }
+        Histogram resposta = estatisticas.resposta;
+        System.out.printf(Locale.ROOT, "%-13s %9d %8.1f %6.2f%% %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f  %s%n",
+                nome, total, total / segundos, percentual(estatisticas.erros.sum(), total),
+                ms(resposta.getValueAtPercentile(50)), ms(resposta.getValueAtPercentile(90)),
+                ms(resposta.getValueAtPercentile(99)), ms(resposta.getValueAtPercentile(99.9)),
+                ms(resposta.getMaxValue()), ms(estatisticas.servico.getValueAtPercentile(99)),
+                estatisticas.resumoResultados());
+    }
+
+    // Estrutura do JSON gravado com --saida, lido pelo script de comparação
+    Map<String, Object> paraJson(double segundos) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        cenarios.forEach((cenario, estatisticas) -> {
+            if (estatisticas.total() > 0 || estatisticas.pulados.sum() > 0) {
+                json.put(cenario.nome(), paraJson(estatisticas, segundos));
+            }
+        });
+        return json;
+    }
+
+    Map<String, Object> todosParaJson(double segundos) {
+        return paraJson(todos, segundos);
+    }
+
+    private static Map<String, Object> paraJson(PorCenario estatisticas, double segundos) {
+        long total = estatisticas.total();
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("total", total);
+        json.put("vazao", total / segundos);
+        json.put("erros", estatisticas.erros.sum());
+        json.put("taxaErros", percentual(estatisticas.erros.sum(), total) / 100);
+        json.put("pulados", estatisticas.pulados.sum());
+        json.put("resultados", new TreeMap<>(estatisticas.resultados).entrySet().stream()
+                .collect(LinkedHashMap::new, (mapa, e) -> mapa.put(e.getKey(), e.getValue().sum()), Map::putAll));
+        json.put("respostaMs", percentis(estatisticas.resposta));
+        json.put("servicoMs", percentis(estatisticas.servico));
+        return json;
+    }
+
+    private static Map<String, Double> percentis(Histogram histograma) {
+        Map<String, Double> percentis = new LinkedHashMap<>();
+        percentis.put("p50", ms(histograma.getValueAtPercentile(50)));
+        percentis.put("p90", ms(histograma.getValueAtPercentile(90)));
+        percentis.put("p99", ms(histograma.getValueAtPercentile(99)));
+        percentis.put("p99.9", ms(histograma.getValueAtPercentile(99.9)));
+        percentis.put("max", ms(histograma.getMaxValue()));
+        return percentis;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static double percentual(long parte, long total) {
+        return total == 0 ? 0 : 100.0 * parte / total;
+    }
+
+    private static final class PorCenario {
+
+        final Histogram resposta = new ConcurrentHistogram(MAXIMO_US, 3);
+        final Histogram servico = new ConcurrentHistogram(MAXIMO_US, 3);
+        final Map<String, LongAdder> resultados = new ConcurrentHashMap<>();
+        final LongAdder erros = new LongAdder();
+        final LongAdder pulados = new LongAdder();
+
+        // Descartadas não têm latência, então o total vem dos resultados e não do histograma
+        long total() {
+            return resultados.values().stream().mapToLong(LongAdder::sum).sum();
+        }
+
+        String resumoResultados() {
+            StringBuilder resumo = new StringBuilder();
+            new TreeMap<>(resultados).forEach((resultado, quantidade) ->
+                    resumo.append(resultado).append('=').append(quantidade.sum()).append(' '));
+            if (pulados.sum() > 0) {
+                resumo.append("pulados=").append(pulados.sum());
+            }
+            return resumo.toString().trim();
+        }
+    }
+}
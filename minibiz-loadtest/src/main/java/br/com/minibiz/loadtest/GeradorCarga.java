@@ -0,0 +1,168 @@
+package br.com.minibiz.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Gerador de carga em modelo aberto: as requisições chegam numa taxa constante, independente de o servidor
+ * estar respondendo, como os clientes de uma loja. Cada requisição roda numa thread virtual, então milhares
+ * em voo custam pouco ao gerador; o limite {@code --max-em-voo} só protege a máquina que gera a carga.
+ *
+ * A latência é medida a partir do instante previsto para o envio, não do envio de fato (ver Estatisticas).
+ * O aquecimento roda o mesmo mix sem registrar nada, para o JIT e os caches do backend estabilizarem.
+ *
+ * Execução: java -jar target/loadtest.jar --taxa=300 --duracao=2m --saida=resultados/base.json
+ */
+public final class GeradorCarga {
+
+    private GeradorCarga() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains("--ajuda")) {
+            System.out.print(Configuracao.USO);
+            return;
+        }
+        Configuracao configuracao;
+        try {
+            configuracao = Configuracao.ler(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.print(Configuracao.USO);
+            System.exit(2);
+            return;
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ClienteApi api = new ClienteApi(configuracao, executor);
+            api.preparar();
+            System.out.printf(Locale.ROOT, "%s: %d req/s por %ds (+%ds de aquecimento), %d produtos e %d clientes%n",
+                    configuracao.url(), configuracao.taxa(), configuracao.duracao().toSeconds(),
+                    configuracao.aquecimento().toSeconds(), api.produtosDescobertos(), api.clientesDescobertos());
+
+            Estatisticas estatisticas = new Estatisticas();
+            long segundosMedidos = gerar(configuracao, api, executor, estatisticas);
+            estatisticas.imprimir(segundosMedidos);
+            if (configuracao.saida() != null) {
+                gravar(configuracao, estatisticas, segundosMedidos);
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    // Devolve a duração medida em segundos; retorna depois que todas as requisições medidas terminaram
+    private static long gerar(Configuracao configuracao, ClienteApi api, ExecutorService executor,
+                              Estatisticas estatisticas) throws InterruptedException {
+        Cenario[] sorteio = sorteio(configuracao.mix());
+        SplittableRandom random = new SplittableRandom(42);
+        Semaphore emVoo = new Semaphore(configuracao.maxEmVoo());
+        long intervaloNs = TimeUnit.SECONDS.toNanos(1) / configuracao.taxa();
+        long inicioNs = System.nanoTime();
+        long inicioMedicaoNs = inicioNs + configuracao.aquecimento().toNanos();
+        long fimNs = inicioMedicaoNs + configuracao.duracao().toNanos();
+
+        for (long i = 0; ; i++) {
+            long previstoNs = inicioNs + i * intervaloNs;
+            if (previstoNs >= fimNs) {
+                break;
+            }
+            // Atrasado, o laço envia em seguida sem dormir, e as requisições carregam o atraso na latência
+            long espera = previstoNs - System.nanoTime();
+            if (espera > 0) {
+                LockSupport.parkNanos(espera);
+            }
+            Cenario cenario = sorteio[random.nextInt(sorteio.length)];
+            boolean medir = previstoNs >= inicioMedicaoNs;
+            if (!emVoo.tryAcquire()) {
+                if (medir) {
+                    estatisticas.descartar(cenario);
+                }
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    executar(api, cenario, previstoNs, medir, estatisticas);
+                } finally {
+                    emVoo.release();
+                }
+            });
+        }
+        // Espera as requisições em voo até o tempo limite delas
+        if (!emVoo.tryAcquire(configuracao.maxEmVoo(), configuracao.timeout().toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+            System.err.println("Algumas requisições não terminaram a tempo e ficaram fora do resultado");
+        }
+        return configuracao.duracao().toSeconds();
+    }
+
+    private static void executar(ClienteApi api, Cenario cenario, long previstoNs, boolean medir,
+                                 Estatisticas estatisticas) {
+        long enviadoNs = System.nanoTime();
+        String resultado;
+        boolean erro;
+        try {
+            int status = api.executar(cenario);
+            if (status < 0) {
+                if (medir) {
+                    estatisticas.pular(cenario);
+                }
+                return;
+            }
+            resultado = String.valueOf(status);
+            erro = status >= 400;
+        } catch (HttpTimeoutException e) {
+            resultado = "timeout";
+            erro = true;
+        } catch (IOException e) {
+            resultado = e.getClass().getSimpleName();
+            erro = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (medir) {
+            estatisticas.registrar(cenario, previstoNs, enviadoNs, System.nanoTime(), resultado, erro);
+        }
+    }
+
+    // Vetor com cada cenário repetido pelo seu peso: o sorteio é um índice aleatório
+    private static Cenario[] sorteio(Map<Cenario, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entrada -> Stream.generate(entrada::getKey).limit(entrada.getValue()))
+                .toArray(Cenario[]::new);
+    }
+
+    private static void gravar(Configuracao configuracao, Estatisticas estatisticas, long segundos)
+            throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("rotulo", configuracao.rotulo());
+        json.put("url", configuracao.url());
+        json.put("taxa", configuracao.taxa());
+        json.put("duracaoSegundos", segundos);
+        json.put("aquecimentoSegundos", configuracao.aquecimento().toSeconds());
+        json.put("maxEmVoo", configuracao.maxEmVoo());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        configuracao.mix().forEach((cenario, peso) -> mix.put(cenario.nome(), peso));
+        json.put("mix", mix);
+        json.put("todos", estatisticas.todosParaJson(segundos));
+        json.put("cenarios", estatisticas.paraJson(segundos));
+        if (configuracao.saida().getParent() != null) {
+            Files.createDirectories(configuracao.saida().getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(configuracao.saida().toFile(), json);
+        System.out.println("\nResultado gravado em " + configuracao.saida());
+    }
+}